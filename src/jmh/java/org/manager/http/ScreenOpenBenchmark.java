@@ -0,0 +1,160 @@
+package org.manager.http;
+
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import com.sun.net.httpserver.HttpServer;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 🔹 Abertura das 17 telas do MainController (loadDashboard ... loadStock) contra um servidor local.
+ *
+ * Cada tela cria os serviços que o seu controller cria e faz o primeiro pedido (GET + JSON de uma
+ * lista). {@code perServiceClients} é o comportamento anterior ao HttpTransport: cada serviço com o
+ * seu HttpClient (nova ligação e nova thread de seletor) e o seu ObjectMapper (Jackson volta a
+ * aquecer); {@code sharedTransport} usa o cliente e os readers partilhados.
+ *
+ * O tempo reportado é o de uma navegação pelas 17 telas; no fim de cada iteração é impressa a
+ * contagem de threads vivas. Corre com: mvn -Pbenchmark test-compile exec:exec -Dbenchmark=ScreenOpenBenchmark
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = "--enable-preview")
+public class ScreenOpenBenchmark {
+
+    /** Serviços criados pelo controller de cada tela, pela ordem dos load* do MainController */
+    private static final int[] SERVICES_PER_SCREEN = {
+            1, // Dashboard: DashboardStatsService
+            2, // Supplier: SupplierService, CompanyService
+            1, // Order: OrderService
+            2, // Invoice: InvoiceService, OrderService
+            2, // Category: CategoryService, CompanyService
+            1, // Warehouse: WarehouseService
+            2, // UserRegister: UserRegisterService, CompanyService
+            1, // Product: ProductService
+            1, // Company: CompanyService
+            1, // OrderTable: OrderService
+            0, // MainLinks: sem serviços
+            1, // InvoiceTable: InvoiceService
+            1, // MainDashboard: DashboardStatsService
+            1, // Sale: SaleService
+            3, // Transfer: TransferService, ProductService, WarehouseService
+            1, // Movements: MovementService
+            1  // Stock: StockService
+    };
+    private static final int ROWS = 50;
+    private static final TypeReference<List<Item>> ITEMS = new TypeReference<>() {};
+
+    /** Linha típica de uma listagem */
+    public record Item(Long id, String name, LocalDateTime updatedAt) {}
+
+    private HttpServer server;
+    private ExecutorService serverExecutor;
+    private URI listUri;
+
+    @Setup
+    public void startServer() throws IOException {
+        StringBuilder json = new StringBuilder("[");
+        for (int i = 0; i < ROWS; i++) {
+            if (i > 0) json.append(',');
+            json.append("{\"id\":").append(i).append(",\"name\":\"Linha ").append(i)
+                    .append("\",\"updatedAt\":\"2026-01-01T10:00:00\"}");
+        }
+        byte[] body = json.append(']').toString().getBytes(StandardCharsets.UTF_8);
+
+        server = HttpServer.create(new InetSocketAddress(InetAddress.getLoopbackAddress(), 0), 0);
+        server.createContext("/api/list", exchange -> {
+            exchange.getResponseHeaders().add("Content-Type", "application/json");
+            exchange.sendResponseHeaders(200, body.length);
+            try (OutputStream out = exchange.getResponseBody()) {
+                out.write(body);
+            }
+        });
+        serverExecutor = Executors.newFixedThreadPool(4, runnable -> {
+            Thread thread = new Thread(runnable, "benchmark-server");
+            thread.setDaemon(true);
+            return thread;
+        });
+        server.setExecutor(serverExecutor);
+        server.start();
+        listUri = URI.create("http://127.0.0.1:" + server.getAddress().getPort() + "/api/list");
+    }
+
+    @TearDown
+    public void stopServer() {
+        server.stop(0);
+        serverExecutor.shutdownNow();
+    }
+
+    @TearDown(Level.Iteration)
+    public void reportThreads() {
+        System.out.println("Threads vivas após navegar pelas " + SERVICES_PER_SCREEN.length + " telas: " + Thread.activeCount());
+    }
+
+    @Benchmark
+    public int perServiceClients() throws Exception {
+        int rows = 0;
+        for (int services : SERVICES_PER_SCREEN) {
+            HttpClient firstClient = null;
+            ObjectMapper firstMapper = null;
+            for (int i = 0; i < services; i++) {
+                HttpClient client = HttpClient.newHttpClient();
+                ObjectMapper mapper = new ObjectMapper().registerModule(new JavaTimeModule());
+                if (firstClient == null) {
+                    firstClient = client;
+                    firstMapper = mapper;
+                }
+            }
+            if (firstClient != null) {
+                String body = firstClient.send(request(), HttpResponse.BodyHandlers.ofString()).body();
+                rows += firstMapper.readValue(body, ITEMS).size();
+            }
+        }
+        return rows;
+    }
+
+    @Benchmark
+    public int sharedTransport() throws Exception {
+        int rows = 0;
+        for (int services : SERVICES_PER_SCREEN) {
+            if (services == 0) continue;
+            String body = HttpTransport.client().send(request(), HttpResponse.BodyHandlers.ofString()).body();
+            List<Item> items = HttpTransport.reader(ITEMS).readValue(body);
+            rows += items.size();
+        }
+        return rows;
+    }
+
+    private HttpRequest request() {
+        return HttpRequest.newBuilder(listUri).GET().header("Accept", "application/json").build();
+    }
+}
@@ -0,0 +1,105 @@
+package org.manager.view;
+
+import javafx.beans.value.ObservableValue;
+import javafx.scene.control.TableColumn;
+import javafx.scene.control.cell.PropertyValueFactory;
+import org.manager.dto.ProductResponseDTO;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 🔹 Células por segundo numa tabela de produtos com 100 000 linhas: {@link ColumnBinding} (getter
+ * tipado) contra o PropertyValueFactory("nome") que as telas usavam (getter procurado por reflexão).
+ *
+ * Mede o caminho que a TableView percorre ao (re)desenhar uma célula: cellValueFactory → valor.
+ * Corre com: mvn -Pbenchmark test-compile exec:exec
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = "--enable-preview")
+public class ColumnBindingBenchmark {
+
+    private static final int ROWS = 100_000;
+    private static final int COLUMNS = 4;
+
+    private final List<ProductResponseDTO> rows = new ArrayList<>(ROWS);
+
+    private final TableColumn<ProductResponseDTO, Long> reflectiveId = new TableColumn<>();
+    private final TableColumn<ProductResponseDTO, String> reflectiveName = new TableColumn<>();
+    private final TableColumn<ProductResponseDTO, BigDecimal> reflectivePrice = new TableColumn<>();
+    private final TableColumn<ProductResponseDTO, Integer> reflectiveQuantity = new TableColumn<>();
+
+    private final TableColumn<ProductResponseDTO, Long> typedId = new TableColumn<>();
+    private final TableColumn<ProductResponseDTO, String> typedName = new TableColumn<>();
+    private final TableColumn<ProductResponseDTO, BigDecimal> typedPrice = new TableColumn<>();
+    private final TableColumn<ProductResponseDTO, Integer> typedQuantity = new TableColumn<>();
+
+    @Setup
+    public void setUp() {
+        for (int i = 0; i < ROWS; i++) {
+            ProductResponseDTO product = new ProductResponseDTO();
+            product.setId((long) i);
+            product.setName("Produto " + i);
+            product.setSellingPrice(BigDecimal.valueOf(i % 1000, 2));
+            product.setQuantityInStock(i % 500);
+            rows.add(product);
+        }
+
+        reflectiveId.setCellValueFactory(new PropertyValueFactory<>("id"));
+        reflectiveName.setCellValueFactory(new PropertyValueFactory<>("name"));
+        reflectivePrice.setCellValueFactory(new PropertyValueFactory<>("sellingPrice"));
+        reflectiveQuantity.setCellValueFactory(new PropertyValueFactory<>("quantityInStock"));
+
+        ColumnBinding.bind(typedId, ProductResponseDTO::getId);
+        ColumnBinding.bind(typedName, ProductResponseDTO::getName);
+        ColumnBinding.bind(typedPrice, ProductResponseDTO::getSellingPrice);
+        ColumnBinding.bind(typedQuantity, ProductResponseDTO::getQuantityInStock);
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(ROWS * COLUMNS)
+    public void propertyValueFactory(Blackhole blackhole) {
+        for (ProductResponseDTO row : rows) {
+            blackhole.consume(cell(reflectiveId, row));
+            blackhole.consume(cell(reflectiveName, row));
+            blackhole.consume(cell(reflectivePrice, row));
+            blackhole.consume(cell(reflectiveQuantity, row));
+        }
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(ROWS * COLUMNS)
+    public void columnBinding(Blackhole blackhole) {
+        for (ProductResponseDTO row : rows) {
+            blackhole.consume(cell(typedId, row));
+            blackhole.consume(cell(typedName, row));
+            blackhole.consume(cell(typedPrice, row));
+            blackhole.consume(cell(typedQuantity, row));
+        }
+    }
+
+    /** O que a célula pede à coluna (a TableView não é usada pelas duas fábricas) */
+    private static <V> V cell(TableColumn<ProductResponseDTO, V> column, ProductResponseDTO row) {
+        ObservableValue<V> value = column.getCellValueFactory()
+                .call(new TableColumn.CellDataFeatures<>(null, column, row));
+        return value != null ? value.getValue() : null;
+    }
+}
@@ -6,10 +6,19 @@ import javafx.scene.Scene;
 import javafx.scene.paint.Color;
 import javafx.stage.Stage;
 import javafx.scene.Parent;
+import org.manager.http.HttpTransport;
+import org.manager.sync.ChangeFeedClient;
+import org.manager.util.RefreshScheduler;
+import org.manager.util.StartupTimeline;
 
 public class Main extends Application {
+
+    // 🔹 Métricas de diagnóstico ao fechar a aplicação (desligadas por padrão)
+    private static final boolean DIAGNOSTICS = Boolean.getBoolean("manager.diagnostics");
+
     @Override
     public void start(Stage stage) throws Exception {
+        StartupTimeline.mark(StartupTimeline.FX_READY);
         FXMLLoader loader = new FXMLLoader(getClass().getResource("/fxml/Login.fxml"));
         Parent root = loader.load();
         Scene scene = new Scene(root);
@@ -17,10 +26,35 @@ public class Main extends Application {
         stage.setTitle("Sistema de Gerenciamento de Vendas");
         stage.setScene(scene);      // Certifique-se de definir a cena
         stage.setMaximized(true);
+        StartupTimeline.markWhenShown(scene, StartupTimeline.LOGIN_VISIBLE, false);
         stage.show();               // Só depois mostrar a janela
+
+        prepareInBackground();
+    }
+
+    // 🔹 Enquanto o utilizador escreve as credenciais, o cliente HTTP e o Jackson são preparados fora do FX thread
+    private static void prepareInBackground() {
+        Thread warmup = new Thread(() -> {
+            HttpTransport.client();
+            HttpTransport.mapper();
+            StartupTimeline.mark(StartupTimeline.HTTP_READY);
+        }, "startup-warmup");
+        warmup.setDaemon(true);
+        warmup.start();
+    }
+
+    @Override
+    public void stop() {
+        if (DIAGNOSTICS) {
+            String singleFlight = HttpTransport.singleFlightSummary();
+            if (!singleFlight.isEmpty()) System.out.println(singleFlight);
+            System.out.println(RefreshScheduler.describe());
+            System.out.println(ChangeFeedClient.get().summary());
+        }
     }
 
     public static void main(String[] args) {
+        StartupTimeline.mark(StartupTimeline.MAIN);
         launch(args);
     }
 }
\ No newline at end of file
@@ -0,0 +1,36 @@
+package org.manager.cache;
+
+import org.manager.dto.CategoryDTO;
+import org.manager.dto.CompanyDTO;
+import org.manager.dto.SupplierDTO;
+import org.manager.dto.WarehouseResponseDTO;
+
+import java.time.Duration;
+
+/**
+ * 🔹 Caches partilhados de dados de referência.
+ * TTL configurável por propriedade de sistema: manager.cache.&lt;entidade&gt;.ttl (segundos).
+ */
+public final class ReferenceData {
+
+    // 🔹 Evita instanciar a classe
+    private ReferenceData() {}
+
+    private static final int MAX_SCOPES = Integer.getInteger("manager.cache.maxScopes", 32);
+
+    public static final ReferenceDataCache<CategoryDTO> CATEGORIES =
+            new ReferenceDataCache<>(ttl("categories", 600), MAX_SCOPES, CategoryDTO::getId, CategoryDTO::getName);
+
+    public static final ReferenceDataCache<SupplierDTO> SUPPLIERS =
+            new ReferenceDataCache<>(ttl("suppliers", 600), MAX_SCOPES, SupplierDTO::getId, SupplierDTO::getName);
+
+    public static final ReferenceDataCache<CompanyDTO> COMPANIES =
+            new ReferenceDataCache<>(ttl("companies", 1800), MAX_SCOPES, CompanyDTO::getId, CompanyDTO::getName);
+
+    public static final ReferenceDataCache<WarehouseResponseDTO> WAREHOUSES =
+            new ReferenceDataCache<>(ttl("warehouses", 300), MAX_SCOPES, WarehouseResponseDTO::getId, WarehouseResponseDTO::getName);
+
+    private static Duration ttl(String entity, long defaultSeconds) {
+        return Duration.ofSeconds(Long.getLong("manager.cache." + entity + ".ttl", defaultSeconds));
+    }
+}
@@ -0,0 +1,124 @@
+package org.manager.cache;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.function.Function;
+import java.util.function.Supplier;
+
+/**
+ * 🔹 Cache de dados de referência (categorias, fornecedores, empresas, armazéns).
+ *
+ * Cada "escopo" (ex.: token da sessão ou id da empresa) guarda uma lista carregada do servidor
+ * com índices id → entidade e nome → id. As entradas expiram após o TTL, o número de escopos
+ * é limitado (LRU) e pedidos simultâneos para o mesmo escopo partilham o mesmo carregamento.
+ */
+public class ReferenceDataCache<T> {
+
+    private final Duration ttl;
+    private final Function<T, Long> idExtractor;
+    private final Function<T, String> nameExtractor;
+    private final Map<String, Entry<T>> entries;
+
+    public ReferenceDataCache(Duration ttl, int maxScopes,
+                              Function<T, Long> idExtractor,
+                              Function<T, String> nameExtractor) {
+        this.ttl = ttl;
+        this.idExtractor = idExtractor;
+        this.nameExtractor = nameExtractor;
+        this.entries = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, Entry<T>> eldest) {
+                return size() > maxScopes;
+            }
+        };
+    }
+
+    /** 🔹 Lista do escopo (cópia), carregando do servidor apenas se não existir ou tiver expirado */
+    public CompletableFuture<List<T>> getAll(String scope, Supplier<CompletableFuture<List<T>>> loader) {
+        return snapshot(scope, loader).thenApply(snapshot -> new ArrayList<>(snapshot.items()));
+    }
+
+    public CompletableFuture<Snapshot<T>> snapshot(String scope, Supplier<CompletableFuture<List<T>>> loader) {
+        Entry<T> entry;
+        synchronized (entries) {
+            entry = entries.get(scope);
+            if (entry == null || entry.isExpired()) {
+                entry = new Entry<>(System.nanoTime() + ttl.toNanos(), load(scope, loader));
+                entries.put(scope, entry);
+            }
+        }
+        return entry.future();
+    }
+
+    private CompletableFuture<Snapshot<T>> load(String scope, Supplier<CompletableFuture<List<T>>> loader) {
+        CompletableFuture<Snapshot<T>> future = loader.get().thenApply(this::index);
+        future.whenComplete((snapshot, ex) -> {
+            if (ex != null) {
+                // Falhas não ficam em cache: o próximo pedido tenta novamente
+                synchronized (entries) {
+                    Entry<T> current = entries.get(scope);
+                    if (current != null && current.future() == future) {
+                        entries.remove(scope);
+                    }
+                }
+            }
+        });
+        return future;
+    }
+
+    private Snapshot<T> index(List<T> items) {
+        List<T> safeItems = items == null ? List.of() : items;
+        Map<Long, T> byId = new HashMap<>(safeItems.size() * 2);
+        Map<String, Long> idByName = new HashMap<>(safeItems.size() * 2);
+        for (T item : safeItems) {
+            Long id = idExtractor.apply(item);
+            if (id == null) continue;
+            byId.put(id, item);
+            String name = nameExtractor.apply(item);
+            if (name != null) idByName.putIfAbsent(name, id);
+        }
+        return new Snapshot<>(Collections.unmodifiableList(safeItems), byId, idByName);
+    }
+
+    // ================= INVALIDATION =================
+    public void invalidate(String scope) {
+        synchronized (entries) {
+            entries.remove(scope);
+        }
+    }
+
+    public void invalidateAll() {
+        synchronized (entries) {
+            entries.clear();
+        }
+    }
+
+    /** 🔹 Invalida o cache quando a operação de escrita termina com sucesso */
+    public <R> CompletableFuture<R> invalidateOnSuccess(CompletableFuture<R> write) {
+        return write.whenComplete((result, ex) -> {
+            if (ex == null) invalidateAll();
+        });
+    }
+
+    private record Entry<T>(long expiresAt, CompletableFuture<Snapshot<T>> future) {
+        boolean isExpired() {
+            return System.nanoTime() - expiresAt > 0;
+        }
+    }
+
+    public record Snapshot<T>(List<T> items, Map<Long, T> byId, Map<String, Long> idByName) {
+        public T findById(Long id) {
+            return id == null ? null : byId.get(id);
+        }
+
+        public Long findIdByName(String name) {
+            return name == null ? null : idByName.get(name);
+        }
+    }
+}
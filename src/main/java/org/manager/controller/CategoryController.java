@@ -8,7 +8,6 @@ import javafx.fxml.FXMLLoader;
 import javafx.scene.Parent;
 import javafx.scene.Scene;
 import javafx.scene.control.*;
-import javafx.scene.control.cell.PropertyValueFactory;
 import javafx.stage.Modality;
 import javafx.stage.Stage;
 import javafx.stage.StageStyle;
@@ -18,8 +17,10 @@ import org.manager.service.CategoryService;
 import org.manager.service.CompanyService;
 import org.manager.session.SessionManager;
 import org.manager.util.AlertUtil;
+import org.manager.view.ColumnBinding;
+import org.manager.view.ViewLifecycle;
 
-public class CategoryController {
+public class CategoryController implements ViewLifecycle {
     private final CategoryService categoryService;
     private final CompanyService companyService;
 
@@ -53,13 +54,19 @@ public class CategoryController {
 
     }
 
+    // Tela reaberta da cache: volta a pedir as categorias
+    @Override
+    public void onShow() {
+        loadCategories();
+    }
+
     /**
      * Configura as colunas da tabela
      */
     private void setupTable() {
-        idColumn.setCellValueFactory(new PropertyValueFactory<>("id"));
-        nameColumn.setCellValueFactory(new PropertyValueFactory<>("name"));
-        companyColumn.setCellValueFactory(new PropertyValueFactory<>("companyName"));
+        ColumnBinding.bind(idColumn, CategoryDTO::getId);
+        ColumnBinding.bind(nameColumn, CategoryDTO::getName);
+        ColumnBinding.bind(companyColumn, CategoryDTO::getCompanyName);
         categoryTable.setItems(categoryData);
     }
 
@@ -9,15 +9,16 @@ import javafx.fxml.FXMLLoader;
 import javafx.scene.Parent;
 import javafx.scene.Scene;
 import javafx.scene.control.*;
-import javafx.scene.control.cell.PropertyValueFactory;
 import javafx.stage.Modality;
 import javafx.stage.Stage;
 import javafx.stage.StageStyle;
 import org.manager.dto.CompanyDTO;
 import org.manager.service.CompanyService;
 import org.manager.util.AlertUtil;
+import org.manager.view.ColumnBinding;
+import org.manager.view.ViewLifecycle;
 
-public class CompanyController {
+public class CompanyController implements ViewLifecycle {
 
     @FXML private TextField searchField;
 
@@ -51,15 +52,21 @@ public class CompanyController {
         searchField.textProperty().addListener((obs, oldValue, newValue) -> searchCompanies(newValue));
     }
 
+    // Tela reaberta da cache: recarrega mantendo a pesquisa escrita
+    @Override
+    public void onShow() {
+        searchCompanies(searchField.getText());
+    }
+
     private void setupTableColumns() {
-        idColumn.setCellValueFactory(new PropertyValueFactory<>("id"));
-        nameColumn.setCellValueFactory(new PropertyValueFactory<>("name"));
-        addressColumn.setCellValueFactory(new PropertyValueFactory<>("address"));
-        emailColumn.setCellValueFactory(new PropertyValueFactory<>("email"));
-        phoneColumn.setCellValueFactory(new PropertyValueFactory<>("phoneNumber"));
-        nuitColumn.setCellValueFactory(new PropertyValueFactory<>("taxId"));
-        websiteColumn.setCellValueFactory(new PropertyValueFactory<>("website"));
-        descriptionColumn.setCellValueFactory(new PropertyValueFactory<>("description"));
+        ColumnBinding.bind(idColumn, CompanyDTO::getId);
+        ColumnBinding.bind(nameColumn, CompanyDTO::getName);
+        ColumnBinding.bind(addressColumn, CompanyDTO::getAddress);
+        ColumnBinding.bind(emailColumn, CompanyDTO::getEmail);
+        ColumnBinding.bind(phoneColumn, CompanyDTO::getPhoneNumber);
+        ColumnBinding.bind(nuitColumn, CompanyDTO::getTaxId);
+        ColumnBinding.bind(websiteColumn, CompanyDTO::getWebsite);
+        ColumnBinding.bind(descriptionColumn, CompanyDTO::getDescription);
         companiesTable.setItems(companyData);
     }
 
@@ -7,21 +7,17 @@ import javafx.scene.control.ComboBox;
 import javafx.scene.control.Label;
 import javafx.scene.layout.BorderPane;
 import org.manager.appContext.AppContext;
-import org.manager.service.CategoryService;
-import org.manager.service.ProductService;
+import org.manager.service.DashboardStatsService;
 import org.manager.session.SessionManager;
+import org.manager.util.FormatUtil;
+import org.manager.view.ViewLifecycle;
 
-import java.text.NumberFormat;
-import java.util.Locale;
-
-public class DashboardController {
-    private final ProductService productService ;
-    private final CategoryService categoryService;
+public class DashboardController implements ViewLifecycle {
+    private final DashboardStatsService statsService;
 
     public  DashboardController() {
 
-        this.productService = new ProductService();
-        this.categoryService = new CategoryService();
+        this.statsService = new DashboardStatsService();
     }
 
     private  final String token = SessionManager.getToken();
@@ -29,11 +25,14 @@ public class DashboardController {
 
     @FXML
     private void initialize() {
-        loadDataTotalProducts();
-        loadDataLowStockProducts();
-        loadDataTotalValueProducts();
-        loadDataTotalCategories();
+        loadStats();
+
+    }
 
+    // Tela reaberta da cache: estatísticas atualizadas
+    @Override
+    public void onShow() {
+        loadStats();
     }
 
     @FXML
@@ -130,79 +129,20 @@ public class DashboardController {
         }
     }
 
-    public void loadDataTotalProducts() {
-        productService.getTotalProductsInCompany(companyId, token)
-                .thenAccept(total -> {
-                    // Atualiza UI no thread do JavaFX
-                    Platform.runLater(() -> {
-                        totalProductsLabel.setText(String.valueOf(total));
-                        System.out.println("Total de produtos: " + total);
-                    });
-                })
-                .exceptionally(ex -> {
-                    ex.printStackTrace();
-                    System.out.println("Erro ao carregar total de produtos: " + ex.getMessage());
-                    return null;
-                });
-    }
-
-    public void loadDataLowStockProducts() {
-        productService.getProductsBelowMinStock(companyId, token)
-                .thenAccept(total -> {
-                    // Atualiza UI no thread do JavaFX
-                    Platform.runLater(() -> {
-                        lowStockProductsLabel.setText(String.valueOf(total));
-                        System.out.println("Total de produtos com baixo estoque: " + total);
-                    });
-                })
+    // 🔹 As quatro métricas chegam juntas (partilham a cache do dashboard principal)
+    public void loadStats() {
+        statsService.getStats(companyId, "month", token)
+                .thenAccept(stats -> Platform.runLater(() -> {
+                    totalProductsLabel.setText(FormatUtil.formatMetric(stats.getTotalProducts()));
+                    lowStockProductsLabel.setText(FormatUtil.formatMetric(stats.getLowStockProducts()));
+                    totalValueLabel.setText(FormatUtil.formatMetric(stats.getTotalValue()));
+                    totalCategoriesLabel.setText(FormatUtil.formatMetric(stats.getTotalCategories()));
+                }))
                 .exceptionally(ex -> {
                     ex.printStackTrace();
-                    System.out.println("Erro ao carregar total de produtos com quantidade menor que o mínimo em estoque: " + ex.getMessage());
+                    System.out.println("Erro ao carregar estatísticas do dashboard: " + ex.getMessage());
                     return null;
                 });
     }
 
-
-    public void loadDataTotalValueProducts() {
-        productService.getTotalValueOfProducts(companyId, token)
-                .thenAccept(total -> {
-                    // Atualiza UI no thread do JavaFX
-                    Platform.runLater(() -> {
-                        totalValueLabel.setText(String.valueOf(total));
-                        System.out.println("Valor total de produtos: " + total);
-                    });
-                })
-                .exceptionally(ex -> {
-                    ex.printStackTrace();
-                    System.out.println("Erro ao carregar valor total de produtos: " + ex.getMessage());
-                    return null;
-                });
-    }
-
-    public void loadDataTotalCategories() {
-        try {
-            categoryService.getTotalOfCategoriesByCompanyId(companyId, token)
-                    .thenAccept(total -> {
-                        // Atualiza UI no thread do JavaFX
-                        Platform.runLater(() -> {
-                            totalCategoriesLabel.setText(String.valueOf(total));
-                            System.out.println("Total de categorias: " + total);
-                        });
-                    })
-                    .exceptionally(ex -> {
-                        ex.printStackTrace();
-                        System.out.println("Erro ao carregar total de categorias: " + ex.getMessage());
-                        return null;
-                    });
-        } catch (Exception e) {
-            e.printStackTrace();
-            System.out.println("Erro ao carregar total de categorias: " + e.getMessage());
-        }
-    }
-
-
-
-
-
-
 }
@@ -1,29 +1,37 @@
 package org.manager.controller;
 
-import com.fasterxml.jackson.databind.ObjectMapper;
 import javafx.application.Platform;
-import javafx.beans.property.SimpleDoubleProperty;
-import javafx.beans.property.SimpleStringProperty;
 import javafx.collections.FXCollections;
-import javafx.collections.ObservableList;
 import javafx.event.ActionEvent;
 import javafx.fxml.FXML;
 import javafx.scene.control.*;
 import javafx.scene.input.KeyEvent;
+import org.manager.document.DocumentExporter;
+import org.manager.document.DocumentModel;
 import org.manager.dto.InvoiceDTO;
 import org.manager.dto.OrderDTO;
+import org.manager.export.ExportDownloadManager;
 import org.manager.service.InvoiceService;
 import org.manager.service.OrderService;
 import org.manager.session.SessionManager;
+import org.manager.sync.ChangeFeedClient;
+import org.manager.sync.DeltaSync;
+import org.manager.sync.IdIndexedObservableList;
 import org.manager.util.AlertUtil;
+import org.manager.util.DateTimeUtil;
+import org.manager.util.RefreshScheduler;
+import org.manager.view.DisplayColumns;
+import org.manager.view.ViewLifecycle;
 
 import java.io.File;
 import java.io.FileOutputStream;
-import java.time.format.DateTimeFormatter;
+import java.nio.file.Path;
+import java.time.Duration;
 import java.util.List;
+import java.util.concurrent.CompletableFuture;
 import java.util.stream.Collectors;
 
-public class InvoiceController {
+public class InvoiceController implements ViewLifecycle {
 
     // 🔍 Campos de pesquisa
     @FXML private TextField searchOrderField;
@@ -50,20 +58,23 @@ public class InvoiceController {
     @FXML private Button btnPrintInvoice;
 
     // 🧠 Dados
-    private final ObservableList<OrderDTO> orders = FXCollections.observableArrayList();
-    private final ObservableList<InvoiceDTO> invoices = FXCollections.observableArrayList();
+    private final IdIndexedObservableList<OrderDTO> orders =
+            new IdIndexedObservableList<>(OrderDTO::getId, OrderDTO::getUpdatedAt);
+    private final IdIndexedObservableList<InvoiceDTO> invoices = new IdIndexedObservableList<>(InvoiceDTO::getId);
 
     private final String token = SessionManager.getToken();
-    private static final DateTimeFormatter DATE_FORMATTER = DateTimeFormatter.ofPattern("dd/MM/yyyy HH:mm");
+    // Texto das células calculado uma vez por linha (também serve as listas filtradas)
+    private final DisplayColumns<OrderDTO> orderDisplay = new DisplayColumns<>();
+    private final DisplayColumns<InvoiceDTO> invoiceDisplay = new DisplayColumns<>();
+    private static final Duration ORDER_REFRESH = Duration.ofSeconds(15);
+    private static final Duration ORDER_REFRESH_MAX = Duration.ofMinutes(2);
 
     private final OrderService orderService;
     private final InvoiceService invoiceService;
-    private final ObjectMapper objectMapper;
 
     public InvoiceController() {
         this.orderService = new OrderService();
         this.invoiceService = new InvoiceService();
-        this.objectMapper = new ObjectMapper();
     }
 
     // --- INICIALIZAÇÃO ---
@@ -78,49 +89,40 @@ public class InvoiceController {
         searchInvoiceField.textProperty().addListener((obs, old, newValue) -> filterInvoices(newValue));
         startOrderAutoRefresh();
     }
+    // Tela reaberta da cache: as encomendas voltam a ser atualizadas pelo job; as faturas são recarregadas
+    @Override
+    public void onShow() {
+        loadInvoices();
+    }
+
   //tables settings
     private void setupOrderTable() {
-        colOrderNumber.setCellValueFactory(data ->
-                new SimpleStringProperty(data.getValue().getOrderNumber()));
-        colCustomer.setCellValueFactory(data ->
-                new SimpleStringProperty(data.getValue().getCustomerName()));
-        colDate.setCellValueFactory(data ->
-                new SimpleStringProperty(data.getValue().getOrderDate() != null
-                                ? DATE_FORMATTER.format(data.getValue().getOrderDate())
-                                : ""));
-        colTotal.setCellValueFactory(data ->
-                new SimpleDoubleProperty(
-                        data.getValue().getTotalAmount() != null
-                                ? data.getValue().getTotalAmount().doubleValue()
-                                : 0.0).asObject());
+        orderDisplay.bind(colOrderNumber, OrderDTO::getOrderNumber)
+                .bind(colCustomer, OrderDTO::getCustomerName)
+                .bind(colDate, order -> DateTimeUtil.formatShort(order.getOrderDate()))
+                .bind(colTotal, order -> order.getTotalAmount() != null ? order.getTotalAmount().doubleValue() : 0.0)
+                .track(orders);
         orderTable.setItems(orders);
     }
 
     private void setupInvoiceTable() {
-        colInvOrderNumber.setCellValueFactory(data ->
-                new SimpleStringProperty(data.getValue().getInvoiceNumber()));
-        colInvCustomer.setCellValueFactory(data ->
-                new SimpleStringProperty(data.getValue().getCustomerName()));
-        colInvDate.setCellValueFactory(data ->
-                new SimpleStringProperty(
-                        data.getValue().getInvoiceDate() != null
-                                ? DATE_FORMATTER.format(data.getValue().getInvoiceDate())
-                                : ""));
-        colInvTotal.setCellValueFactory(data ->
-                new SimpleDoubleProperty(
-                        data.getValue().getTotalAmount() != null
-                                ? data.getValue().getTotalAmount().doubleValue()
-                                : 0.0).asObject());
+        invoiceDisplay.bind(colInvOrderNumber, InvoiceDTO::getInvoiceNumber)
+                .bind(colInvCustomer, InvoiceDTO::getCustomerName)
+                .bind(colInvDate, invoice -> DateTimeUtil.formatShort(invoice.getInvoiceDate()))
+                .bind(colInvTotal, invoice -> invoice.getTotalAmount() != null ? invoice.getTotalAmount().doubleValue() : 0.0)
+                .track(invoices);
         invoiceTable.setItems(invoices);
     }
 
     // --- loaging data---
     private void loadOrders() {
-        orderService.fetchOrdersAsync(token)
-                .thenAccept(list -> Platform.runLater(() -> {
-                    orders.setAll(list);
-                    filterOrders(searchOrderField.getText());
-                }))
+        // Mostra logo as encomendas de uma visita anterior; o servidor só envia o que mudou
+        DeltaSync<OrderDTO> sync = orderService.orderSync(token);
+        if (!sync.isEmpty()) {
+            orders.merge(sync.snapshot());
+            filterOrders(searchOrderField.getText());
+        }
+        pollOrders()
                 .exceptionally(ex -> {
                     Platform.runLater(() ->
                             AlertUtil.showError("Erro", "Falha ao carregar pedidos: " + ex.getMessage()));
@@ -128,10 +130,35 @@ public class InvoiceController {
                 });
     }
 
+    /**
+     * Aplica na tabela apenas as encomendas criadas/alteradas/removidas desde a última sincronização.
+     * Devolve true quando houve alterações.
+     */
+    private CompletableFuture<Boolean> refreshOrders() {
+        // Com as notificações ligadas as alterações chegam sozinhas: não é preciso perguntar
+        if (ChangeFeedClient.get().isConnected()) return CompletableFuture.completedFuture(false);
+        return pollOrders();
+    }
+
+    private CompletableFuture<Boolean> pollOrders() {
+        return orderService.orderSync(token).poll(token)
+                .thenApply(changes -> {
+                    if (changes.isEmpty()) return false;
+                    Platform.runLater(() -> applyOrderChanges(changes));
+                    return true;
+                });
+    }
+
+    private void applyOrderChanges(DeltaSync.Changes<OrderDTO> changes) {
+        orders.apply(changes);
+        String query = searchOrderField.getText();
+        if (query != null && !query.isBlank()) filterOrders(query);
+    }
+
     private void loadInvoices() {
         invoiceService.fetchInvoicesAsync(token)
                 .thenAccept(list -> Platform.runLater(() -> {
-                    invoices.setAll(list);
+                    invoices.merge(list);
                     filterInvoices(searchInvoiceField.getText());
                 }))
                 .exceptionally(ex -> {
@@ -205,16 +232,14 @@ public class InvoiceController {
             AlertUtil.showInfo("Atenção", "Selecione uma fatura para exportar.");
             return;
         }
-        var typeFile=type.equalsIgnoreCase("pdf")?
-                orderService.exportOrderPdf(selected.getId(),token):
-                orderService.exportOrderExcel(selected.getId(),token);
-        typeFile.thenAccept(bytes -> saveFile(bytes,"order_"+selected.getOrderNumber()+"."+type))
-                .exceptionally(ex->{Platform.runLater(()->{
-                    System.out.println( "Falha ao exportar " + type.toUpperCase() + ": " + ex.getMessage());
-                    AlertUtil.showError("Erro", "Falha ao exportar " + type.toUpperCase() + ": " + ex.getMessage());
-                });
-                    return  null;
-                });
+        // A lista de encomendas já traz os itens; sem eles o PDF continua a vir do servidor
+        if (type.equalsIgnoreCase("pdf") && DocumentExporter.isLocal()
+                && selected.getItems() != null && !selected.getItems().isEmpty()) {
+            exportLocally(DocumentExporter.exportPdf(DocumentModel.of(selected), ExportDownloadManager.downloadsDir()));
+            return;
+        }
+        String fileName = "order_" + selected.getOrderNumber() + "." + extension(type);
+        download(ExportDownloadManager.download(orderService.exportRequest(selected.getId(), type, token), fileName));
     };
 
 
@@ -228,19 +253,13 @@ public class InvoiceController {
             return;
         }
 
-        var future = type.equalsIgnoreCase("pdf")
-                ? invoiceService.exportPdfAsync(selected.getId(), token)
-                : invoiceService.exportExcelAsync(selected.getId(), token);
-
-        future.thenAccept(bytes -> saveFile(bytes, "invoice_" + selected.getInvoiceNumber() + "." + type))
-                .exceptionally(ex -> {
-                    Platform.runLater(() ->{
-                            System.out.println( "Falha ao exportar " + type.toUpperCase() + ": " + ex.getMessage());
-                            AlertUtil.showError("Erro", "Falha ao exportar " + type.toUpperCase() + ": " + ex.getMessage());
-                    });
-                    return null;
-
-                });
+        if (type.equalsIgnoreCase("pdf") && DocumentExporter.isLocal()) {
+            exportLocally(withItems(selected).thenCompose(full ->
+                    DocumentExporter.exportPdf(DocumentModel.of(full), ExportDownloadManager.downloadsDir())));
+            return;
+        }
+        String fileName = "invoice_" + selected.getInvoiceNumber() + "." + extension(type);
+        download(ExportDownloadManager.download(invoiceService.exportRequest(selected.getId(), type, token), fileName));
     }
 
     @FXML
@@ -261,10 +280,7 @@ public class InvoiceController {
                 invoiceService.cancelInvoice(selected.getId(), token)
                         .thenAccept(invoice -> Platform.runLater(() -> {
                             // Atualiza a lista de faturas
-                            int index = invoices.indexOf(selected);
-                            if (index >= 0) {
-                                invoices.set(index, invoice);
-                            }
+                            if (invoice != null) invoices.replace(invoice);
                             AlertUtil.showInfo("Sucesso", "Fatura cancelada com sucesso!");
                         }))
                         .exceptionally(ex -> {
@@ -285,7 +301,7 @@ public class InvoiceController {
             return;
         }
 
-        invoiceService.exportPdfAsync(selected.getId(), token)
+        invoicePdf(selected)
                 .thenAccept(bytes -> Platform.runLater(() -> {
                     try {
                         File tempFile = File.createTempFile("fatura_" + selected.getInvoiceNumber(), ".pdf");
@@ -311,40 +327,54 @@ public class InvoiceController {
                 });
     }
 
+    // --- DOCUMENTOS GERADOS NO POSTO ---
+    /** PDF da fatura gerado localmente (com manager.documents.local=false, pedido ao servidor) */
+    private CompletableFuture<byte[]> invoicePdf(InvoiceDTO invoice) {
+        if (!DocumentExporter.isLocal()) return invoiceService.exportPdfAsync(invoice.getId(), token);
+        return withItems(invoice).thenCompose(full -> DocumentExporter.renderPdf(DocumentModel.of(full)));
+    }
+
+    /** A linha da tabela pode vir sem os itens: nesse caso pede a fatura completa */
+    private CompletableFuture<InvoiceDTO> withItems(InvoiceDTO invoice) {
+        if (invoice.getItems() != null && !invoice.getItems().isEmpty()) {
+            return CompletableFuture.completedFuture(invoice);
+        }
+        return invoiceService.fetchInvoiceById(invoice.getId(), token)
+                .thenApply(full -> full != null ? full : invoice);
+    }
+
+    /** PDF gerado no posto e escrito diretamente em Downloads (sem passar por memória) */
+    private void exportLocally(CompletableFuture<Path> file) {
+        file.thenAccept(path -> Platform.runLater(() ->
+                        AlertUtil.showInfo("Sucesso", "Arquivo exportado com sucesso em: " + path)))
+                .exceptionally(ex -> {
+                    Platform.runLater(() -> {
+                        Throwable cause = ex.getCause() != null ? ex.getCause() : ex;
+                        AlertUtil.showError("Erro", "Falha ao exportar PDF: " + cause.getMessage());
+                    });
+                    return null;
+                });
+    }
+
     // --- REFRESH AUTOMÁTICO ---
+    // 🔹 Corre só com a tela visível e é cancelado quando a tela é trocada
     private void startOrderAutoRefresh() {
-        Thread refreshThread = new Thread(() -> {
-            while (!Thread.currentThread().isInterrupted()) {
-                try {
-                    Thread.sleep(15000); // Atualiza a cada 15 segundos
-                    orderService.fetchOrdersAsync(token)
-                            .thenAccept(list -> Platform.runLater(() -> {
-                                orders.setAll(list);
-                                filterOrders(searchOrderField.getText());
-                            }));
-                } catch (InterruptedException e) {
-                    Thread.currentThread().interrupt();
-                } catch (Exception ignored) {}
-            }
-        });
-        refreshThread.setDaemon(true);
-        refreshThread.start();
+        RefreshScheduler.register("encomendas", orderTable, ORDER_REFRESH, ORDER_REFRESH_MAX, this::refreshOrders);
+        ChangeFeedClient.get()
+                .subscribe("ORDER", OrderDTO.class, OrderDTO::getId, orderTable, changes -> {
+                    orderService.orderSync(token).patch(changes);
+                    applyOrderChanges(changes);
+                })
+                .onResync(this::pollOrders);
     }
 
     // --- SALVAR ARQUIVO ---
-    private void saveFile(byte[] bytes, String fileName) {
-        new Thread(() -> {
-            try {
-                File file = new File(System.getProperty("user.home") + "/Downloads/" + fileName);
-                try (FileOutputStream fos = new FileOutputStream(file)) {
-                    fos.write(bytes);
-                }
-                Platform.runLater(() ->
-                        AlertUtil.showInfo("Sucesso", "Arquivo salvo em: " + file.getAbsolutePath()));
-            } catch (Exception e) {
-                Platform.runLater(() ->
-                        AlertUtil.showError("Erro", "Falha ao salvar arquivo: " + e.getMessage()));
-            }
-        }).start();
+    // 🔹 Download direto para o disco (nome sem colisões, progresso se demorar)
+    private void download(ExportDownloadManager.Download download) {
+        download.startWithProgress(invoiceTable.getScene().getWindow());
+    }
+
+    private static String extension(String type) {
+        return type.equalsIgnoreCase("excel") ? "xlsx" : type.toLowerCase();
     }
 }
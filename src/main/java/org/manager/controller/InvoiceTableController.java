@@ -1,32 +1,40 @@
 package org.manager.controller;
 
 import javafx.application.Platform;
-import javafx.beans.property.SimpleDoubleProperty;
-import javafx.beans.property.SimpleStringProperty;
 import javafx.collections.FXCollections;
 import javafx.collections.ObservableList;
 import javafx.collections.transformation.FilteredList;
 import javafx.fxml.FXML;
 import javafx.scene.control.Button;
+import javafx.scene.control.SelectionMode;
 import javafx.scene.control.TableColumn;
 import javafx.scene.control.TableView;
 import javafx.scene.control.TextField;
 import org.manager.appContext.AppContext;
+import org.manager.document.DocumentExporter;
+import org.manager.document.DocumentModel;
 import org.manager.dto.InvoiceDTO;
+import org.manager.export.ExportDownloadManager;
 import org.manager.service.InvoiceService;
 import org.manager.session.SessionManager;
 import org.manager.util.AlertUtil;
+import org.manager.util.DateTimeUtil;
+import org.manager.view.DisplayColumns;
+import org.manager.view.ViewLifecycle;
 
 import java.io.File;
 import java.io.FileOutputStream;
+import java.nio.file.Path;
+import java.time.LocalDateTime;
 import java.time.format.DateTimeFormatter;
-import java.util.Locale;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
 import java.util.function.Predicate;
 
 /**
  * Controlador responsável pela tabela de Faturas (InvoiceTable.fxml)
  */
-public class InvoiceTableController {
+public class InvoiceTableController implements ViewLifecycle {
 
     // --- Componentes FXML ---
     @FXML private TextField searchInvoiceField;
@@ -48,8 +56,9 @@ public class InvoiceTableController {
     private final InvoiceService invoiceService = new InvoiceService();
     private final String token = SessionManager.getToken();
 
-    private static final DateTimeFormatter DATE_FORMATTER =
-            DateTimeFormatter.ofPattern("dd/MM/yyyy HH:mm", Locale.getDefault());
+    // Texto das células calculado uma vez por fatura
+    private final DisplayColumns<InvoiceDTO> display = new DisplayColumns<>();
+    private static final DateTimeFormatter BATCH_FOLDER_FORMAT = DateTimeFormatter.ofPattern("yyyyMMdd_HHmmss");
 
     // --- Inicialização ---
     @FXML
@@ -59,25 +68,26 @@ public class InvoiceTableController {
         loadInvoices();
     }
 
+    // Tela reaberta da cache: faturas emitidas entretanto aparecem
+    @Override
+    public void onShow() {
+        loadInvoices();
+    }
+
     /** Configura as colunas da tabela */
     private void setupInvoiceTable() {
-        colInvOrderNumber.setCellValueFactory(data ->
-                new SimpleStringProperty(data.getValue().getInvoiceNumber()));
-        colInvCustomer.setCellValueFactory(data ->
-                new SimpleStringProperty(data.getValue().getCustomerName()));
-        colInvDate.setCellValueFactory(data ->
-                new SimpleStringProperty(data.getValue().getInvoiceDate() != null
-                        ? DATE_FORMATTER.format(data.getValue().getInvoiceDate())
-                        : ""));
-        colInvTotal.setCellValueFactory(data ->
-                new SimpleDoubleProperty(
-                        data.getValue().getTotalAmount() != null
-                                ? data.getValue().getTotalAmount().doubleValue()
-                                : 0.0).asObject());
+        display.bind(colInvOrderNumber, InvoiceDTO::getInvoiceNumber)
+                .bind(colInvCustomer, InvoiceDTO::getCustomerName)
+                .bind(colInvDate, invoice -> DateTimeUtil.formatShort(invoice.getInvoiceDate()))
+                .bind(colInvTotal, invoice -> invoice.getTotalAmount() != null ? invoice.getTotalAmount().doubleValue() : 0.0)
+                .track(invoices);
 
         // usa FilteredList para pesquisa eficiente
         filteredInvoices = new FilteredList<>(invoices, p -> true);
         invoiceTable.setItems(filteredInvoices);
+
+        // Várias faturas selecionadas são exportadas em lote (PDF gerado no posto)
+        invoiceTable.getSelectionModel().setSelectionMode(SelectionMode.MULTIPLE);
     }
 
     /** Configura pesquisa em tempo real */
@@ -103,7 +113,7 @@ public class InvoiceTableController {
             if (invoice.getCustomerName() != null &&
                     invoice.getCustomerName().toLowerCase().contains(lowerQuery)) return true;
             if (invoice.getInvoiceDate() != null &&
-                    DATE_FORMATTER.format(invoice.getInvoiceDate()).toLowerCase().contains(lowerQuery))
+                    DateTimeUtil.formatShort(invoice.getInvoiceDate()).toLowerCase().contains(lowerQuery))
                 return true;
             return false;
         };
@@ -140,7 +150,7 @@ public class InvoiceTableController {
             return;
         }
 
-        invoiceService.exportPdfAsync(selected.getId(), token)
+        invoicePdf(selected)
                 .thenAccept(bytes -> Platform.runLater(() -> {
                     try {
                         File tempFile = File.createTempFile("fatura_" + selected.getInvoiceNumber(), ".pdf");
@@ -173,36 +183,59 @@ public class InvoiceTableController {
             AlertUtil.showInfo("Atenção", "Selecione uma fatura para exportar.");
             return;
         }
+        if (type.equalsIgnoreCase("pdf") && DocumentExporter.isLocal()) {
+            exportInvoicesPdfLocally(List.copyOf(invoiceTable.getSelectionModel().getSelectedItems()));
+            return;
+        }
 
-        var future = type.equalsIgnoreCase("pdf")
-                ? invoiceService.exportPdfAsync(selected.getId(), token)
-                : invoiceService.exportExcelAsync(selected.getId(), token);
+        String fileName = "invoice_" + selected.getInvoiceNumber() + "." + (type.equalsIgnoreCase("pdf") ? "pdf" : "xlsx");
+        ExportDownloadManager.download(invoiceService.exportRequest(selected.getId(), type, token), fileName)
+                .startWithProgress(invoiceTable.getScene().getWindow());
+    }
 
-        future.thenAccept(bytes -> saveFile(bytes, "invoice_" + selected.getInvoiceNumber() + "." + type))
+    // ================= DOCUMENTOS GERADOS NO POSTO =================
+    /** A linha da tabela pode vir sem os itens: nesse caso pede a fatura completa */
+    private CompletableFuture<InvoiceDTO> withItems(InvoiceDTO invoice) {
+        if (invoice.getItems() != null && !invoice.getItems().isEmpty()) {
+            return CompletableFuture.completedFuture(invoice);
+        }
+        return invoiceService.fetchInvoiceById(invoice.getId(), token)
+                .thenApply(full -> full != null ? full : invoice);
+    }
+
+    /** PDF da fatura: gerado no posto ou, com manager.documents.local=false, pedido ao servidor */
+    private CompletableFuture<byte[]> invoicePdf(InvoiceDTO invoice) {
+        if (!DocumentExporter.isLocal()) return invoiceService.exportPdfAsync(invoice.getId(), token);
+        return withItems(invoice).thenCompose(full -> DocumentExporter.renderPdf(DocumentModel.of(full)));
+    }
+
+    /** Uma fatura vai para Downloads; várias vão para uma pasta própria, geradas em paralelo */
+    private void exportInvoicesPdfLocally(List<InvoiceDTO> selected) {
+        Path dir = selected.size() == 1
+                ? ExportDownloadManager.downloadsDir()
+                : ExportDownloadManager.downloadsDir().resolve("faturas_" + LocalDateTime.now().format(BATCH_FOLDER_FORMAT));
+        List<CompletableFuture<InvoiceDTO>> complete = selected.stream().map(this::withItems).toList();
+
+        CompletableFuture.allOf(complete.toArray(CompletableFuture[]::new))
+                .thenCompose(ignored -> DocumentExporter.exportAll(
+                        complete.stream().map(future -> DocumentModel.of(future.join())).toList(), dir, null))
+                .thenAccept(result -> Platform.runLater(() -> {
+                    if (!result.failures().isEmpty()) {
+                        AlertUtil.showError("Erro", "Falharam " + result.failures().size() + " de " + selected.size()
+                                + " faturas:\n" + String.join("\n", result.failures()));
+                    } else if (result.files().size() == 1) {
+                        AlertUtil.showInfo("Sucesso", "Arquivo salvo em: " + result.files().get(0));
+                    } else {
+                        AlertUtil.showInfo("Sucesso", result.files().size() + " faturas exportadas para: " + dir);
+                    }
+                }))
                 .exceptionally(ex -> {
                     Platform.runLater(() ->
-                            AlertUtil.showError("Erro", "Falha ao exportar " + type.toUpperCase() + ": " + ex.getMessage()));
+                            AlertUtil.showError("Erro", "Falha ao exportar PDF: " + ex.getMessage()));
                     return null;
                 });
     }
 
-    /** Salva o arquivo gerado localmente */
-    private void saveFile(byte[] bytes, String fileName) {
-        new Thread(() -> {
-            try {
-                File file = new File(System.getProperty("user.home") + "/Downloads/" + fileName);
-                try (FileOutputStream fos = new FileOutputStream(file)) {
-                    fos.write(bytes);
-                }
-                Platform.runLater(() ->
-                        AlertUtil.showInfo("Sucesso", "Arquivo salvo em: " + file.getAbsolutePath()));
-            } catch (Exception e) {
-                Platform.runLater(() ->
-                        AlertUtil.showError("Erro", "Falha ao salvar arquivo: " + e.getMessage()));
-            }
-        }).start();
-    }
-
     /** Botão para limpar campo de pesquisa */
     @FXML
     private void clearSearch() {
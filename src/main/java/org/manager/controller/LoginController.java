@@ -12,7 +12,11 @@ import javafx.stage.Stage;
 import org.manager.session.SessionManager;
 import org.manager.dto.LoginRequestDTO;
 import org.manager.service.UserLoginService;
+import org.manager.store.SaleOutbox;
 import org.manager.util.AlertUtil;
+import org.manager.util.StartupTimeline;
+
+import java.io.UncheckedIOException;
 
 public class LoginController {
 
@@ -47,6 +51,7 @@ public class LoginController {
         userLoginService.handleLogin(loginRequestDTO)
                 .thenAccept(response -> Platform.runLater(() -> {
                     if (response != null && response.getToken() != null && response.getCompanyId() != null && response.getRole() != null) {
+                        StartupTimeline.mark(StartupTimeline.LOGIN_OK);
                         SessionManager.setToken(response.getToken());
                         SessionManager.setCurrentUser(
                                 response.getUsername() != null ? response.getUsername() : response.getEmail()
@@ -60,14 +65,23 @@ public class LoginController {
                         System.out.println("Role: " + SessionManager.getCurrentRole());
                         System.out.println("UserId: " + SessionManager.getCurrentUserId());
 
+                        // 🔹 Reenvia vendas que ficaram por enviar numa sessão anterior
+                        try {
+                            System.out.println(SaleOutbox.get().summary());
+                        } catch (UncheckedIOException e) {
+                            System.out.println(e.getMessage() + ": " + e.getCause().getMessage());
+                        }
 
                         try {
                             FXMLLoader loader = new FXMLLoader(getClass().getResource("/fxml/Main.fxml"));
                             Parent root = loader.load();
                             Stage stage = new Stage();
                             stage.setTitle("Painel Principal");
-                            stage.setScene(new Scene(root));
+                            Scene scene = new Scene(root);
+                            stage.setScene(scene);
                             stage.setMaximized(true);
+                            StartupTimeline.mark(StartupTimeline.MAIN_LOADED);
+                            StartupTimeline.markWhenShown(scene, StartupTimeline.MAIN_INTERACTIVE, true);
                             stage.show();
 
                             Stage currentStage = (Stage) emailField.getScene().getWindow();
@@ -1,13 +1,12 @@
 package org.manager.controller;
 
 import javafx.fxml.FXML;
-import javafx.fxml.FXMLLoader;
-import javafx.scene.Parent;
 import javafx.scene.control.Label;
 import javafx.scene.layout.StackPane;
 import org.manager.appContext.AppContext;
 import org.manager.session.SessionManager;
 import org.manager.util.AlertUtil;
+import org.manager.view.ViewRegistry;
 
 public class MainController {
 
@@ -17,6 +16,8 @@ public class MainController {
     @FXML
     private StackPane mainContainer;
 
+    private ViewRegistry viewRegistry;
+
     @FXML
     public void initialize() {
         AppContext.setMainController(this);
@@ -26,13 +27,16 @@ public class MainController {
         } else {
             userLabel.setText("Bem-vindo, usuário");
         }
+
+        // 🔹 As telas ficam em cache e as mais usadas são pré-carregadas logo após o login
+        viewRegistry = new ViewRegistry(mainContainer);
+        viewRegistry.warmUp();
     }
 
-    // 🔹 Método genérico para carregar qualquer FXML
+    // 🔹 Método genérico para carregar qualquer FXML (reutiliza a tela se já estiver em cache)
     private void loadView(String fxmlPath) {
         try {
-            Parent view = FXMLLoader.load(getClass().getResource(fxmlPath));
-            mainContainer.getChildren().setAll(view);
+            viewRegistry.show(fxmlPath);
         } catch (Exception e) {
             e.printStackTrace();
             AlertUtil.showError("Erro", "Falha ao carregar a tela: " + fxmlPath);
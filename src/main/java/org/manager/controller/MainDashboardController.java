@@ -7,24 +7,21 @@ import javafx.scene.control.ComboBox;
 import javafx.scene.control.Label;
 import javafx.scene.layout.BorderPane;
 import org.manager.appContext.AppContext;
-import org.manager.service.CategoryService;
-import org.manager.service.ProductService;
-import org.manager.service.SaleService;
+import org.manager.dto.DashboardStatsDTO;
+import org.manager.service.DashboardStatsService;
 import org.manager.session.SessionManager;
+import org.manager.util.FormatUtil;
+import org.manager.view.ViewLifecycle;
 
-import java.text.NumberFormat;
-import java.util.Locale;
+import java.util.ArrayList;
+import java.util.List;
 
-public class MainDashboardController {
+public class MainDashboardController implements ViewLifecycle {
 
-    private final ProductService productService;
-    private final CategoryService categoryService;
-    private final SaleService saleService;
+    private final DashboardStatsService statsService;
 
     public MainDashboardController() {
-        this.productService = new ProductService();
-        this.categoryService = new CategoryService();
-        this.saleService = new SaleService();
+        this.statsService = new DashboardStatsService();
     }
 
     private final String token = SessionManager.getToken();
@@ -45,34 +42,16 @@ public class MainDashboardController {
     private void initialize() {
 
         filterComboBox.getSelectionModel().select("Último Mês");
-        // Carregar métricas financeiras e gráficos com período inicial
-        String defaultPeriod = mapPeriod(filterComboBox.getValue());
-
-        loadMovementChart(defaultPeriod);
-        // Carregar métricas principais
-        loadDataTotalProducts();
-        loadDataLowStockProducts();
-        loadDataTotalValueProducts();
-        loadDataTotalCategories();
-
-
-        loadTotalSales(defaultPeriod);
-        loadTotalProfit(defaultPeriod);
-        loadCategoriasChart();
+        // Métricas, vendas e gráficos do período inicial num único pedido
+        loadStats(mapPeriod(filterComboBox.getValue()));
 
         // Listener do ComboBox: atualiza tudo ao mudar período
-        filterComboBox.valueProperty().addListener((obs, oldVal, newVal) -> {
-            String period = mapPeriod(newVal);
-            loadTotalSales(period);
-            loadTotalProfit(period);
-        });
-
-        filterComboBox.valueProperty().addListener((obs, oldVal, newVal) -> {
-            String period = mapPeriod(newVal);
-            loadTotalSales(period);
-            loadTotalProfit(period);
-            loadMovementChart(period);
-        });
+        filterComboBox.valueProperty().addListener((obs, oldVal, newVal) -> loadStats(mapPeriod(newVal)));
+    }
+
+    @Override
+    public void onShow() {
+        loadStats(mapPeriod(filterComboBox.getValue()));
     }
 
     // ======================== MÉTODOS DE NAVEGAÇÃO ========================
@@ -96,85 +75,39 @@ public class MainDashboardController {
         };
     }
 
-    private void loadTotalSales(String period) {
-        saleService.getTotalSales(period, token)
-                .thenAccept(total -> Platform.runLater(() -> {
-                    NumberFormat formatter = NumberFormat.getInstance(new Locale("pt", "MZ"));
-                    formatter.setMinimumFractionDigits(2);
-                    formatter.setMaximumFractionDigits(2);
-                    salesLabel.setText("Mzn " + formatter.format(total));
-                }))
-                .exceptionally(ex -> { Platform.runLater(() -> salesLabel.setText("Mzn 0.00")); return null; });
-    }
-
-    private void loadTotalProfit(String period) {
-        saleService.getProfit(period, token)
-                .thenAccept(profit -> Platform.runLater(() -> {
-                    NumberFormat formatter = NumberFormat.getInstance(new Locale("pt", "MZ"));
-                    formatter.setMinimumFractionDigits(2);
-                    formatter.setMaximumFractionDigits(2);
-                    profitLabel.setText("Mzn " + formatter.format(profit));
-                }))
-                .exceptionally(ex -> { Platform.runLater(() -> profitLabel.setText("Mzn 0.00")); return null; });
-    }
-
-    private void loadMovementChart(String period) {
-        if (period == null || period.isEmpty()) {
-            period = "month";
-        }
-        saleService.getMonthlyMovement(companyId, period, token)
-                .thenAccept(list -> Platform.runLater(() -> {
-                    movimentacaoChart.getData().clear();
-
-                    XYChart.Series<String, Number> series = new XYChart.Series<>();
-                    series.setName("Movimentação");
-                    // Adiciona dados ao gráfico
-                    list.forEach(dto -> series.getData().add(
-                            new XYChart.Data<>(capitalize(dto.getMonth()), dto.getQuantity())
-                    ));
-
-                    movimentacaoChart.getData().add(series);
-                }))
+    private void loadStats(String period) {
+        statsService.getStats(companyId, period, token)
+                .thenAccept(stats -> Platform.runLater(() -> applyStats(stats)))
                 .exceptionally(ex -> {
                     ex.printStackTrace();
+                    Platform.runLater(() -> {
+                        salesLabel.setText("Mzn 0.00");
+                        profitLabel.setText("Mzn 0.00");
+                    });
                     return null;
                 });
     }
 
-
-    private void loadCategoriasChart() {
-        productService.getProductsByCategory(companyId,token)
-                .thenAccept(map -> Platform.runLater(() -> {
-                    categoriasChart.getData().clear();
-                    map.forEach((categoria, quantidade) -> {
-                        PieChart.Data slice = new PieChart.Data(categoria, quantidade);
-                        categoriasChart.getData().add(slice);
-                    });
-                }));
-    }
-
-    private void loadDataTotalProducts() {
-        productService.getTotalProductsInCompany(companyId, token)
-                .thenAccept(total -> Platform.runLater(() -> totalProductsLabel.setText(String.valueOf(total))))
-                .exceptionally(ex -> { ex.printStackTrace(); return null; });
-    }
-
-    private void loadDataLowStockProducts() {
-        productService.getProductsBelowMinStock(companyId, token)
-                .thenAccept(total -> Platform.runLater(() -> lowStockProductsLabel.setText(String.valueOf(total))))
-                .exceptionally(ex -> { ex.printStackTrace(); return null; });
-    }
-
-    private void loadDataTotalValueProducts() {
-        productService.getTotalValueOfProducts(companyId, token)
-                .thenAccept(total -> Platform.runLater(() -> totalValueLabel.setText(String.valueOf(total))))
-                .exceptionally(ex -> { ex.printStackTrace(); return null; });
-    }
-
-    private void loadDataTotalCategories() {
-        categoryService.getTotalOfCategoriesByCompanyId(companyId, token)
-                .thenAccept(total -> Platform.runLater(() -> totalCategoriesLabel.setText(String.valueOf(total))))
-                .exceptionally(ex -> { ex.printStackTrace(); return null; });
+    /** 🔹 Aplica todas as métricas de uma vez (um único pulse do FX) */
+    private void applyStats(DashboardStatsDTO stats) {
+        totalProductsLabel.setText(FormatUtil.formatMetric(stats.getTotalProducts()));
+        lowStockProductsLabel.setText(FormatUtil.formatMetric(stats.getLowStockProducts()));
+        totalValueLabel.setText(FormatUtil.formatMetric(stats.getTotalValue()));
+        totalCategoriesLabel.setText(FormatUtil.formatMetric(stats.getTotalCategories()));
+
+        salesLabel.setText(stats.getTotalSales() != null ? "Mzn " + FormatUtil.formatDecimal(stats.getTotalSales(), 2) : "Mzn 0.00");
+        profitLabel.setText(stats.getProfit() != null ? "Mzn " + FormatUtil.formatDecimal(stats.getProfit(), 2) : "Mzn 0.00");
+
+        XYChart.Series<String, Number> series = new XYChart.Series<>();
+        series.setName("Movimentação");
+        stats.getMonthlyMovement().forEach(dto -> series.getData().add(
+                new XYChart.Data<>(capitalize(dto.getMonth()), dto.getQuantity())
+        ));
+        movimentacaoChart.getData().setAll(List.of(series));
+
+        List<PieChart.Data> slices = new ArrayList<>();
+        stats.getProductsByCategory().forEach((categoria, quantidade) -> slices.add(new PieChart.Data(categoria, quantidade)));
+        categoriasChart.getData().setAll(slices);
     }
 
     private String capitalize(String text) {
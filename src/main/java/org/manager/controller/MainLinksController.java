@@ -1,27 +1,27 @@
 package org.manager.controller;
 
-import javafx.animation.Animation;
-import javafx.animation.KeyFrame;
-import javafx.animation.Timeline;
+import javafx.application.Platform;
 import javafx.fxml.FXML;
 import javafx.fxml.Initializable;
 import javafx.scene.control.Label;
-import javafx.util.Duration;
 import org.manager.appContext.AppContext;
+import org.manager.util.RefreshScheduler;
 
 import java.net.URL;
+import java.time.Duration;
 import java.time.LocalDateTime;
 import java.time.format.DateTimeFormatter;
 import java.time.format.TextStyle;
 import java.util.Locale;
 import java.util.ResourceBundle;
+import java.util.concurrent.CompletableFuture;
 
 public class MainLinksController implements Initializable {
 
     @FXML private Label dateDisplay;
     @FXML private Label timeDisplay;
 
-    private Timeline timeline;
+    private RefreshScheduler.Job clockJob;
     private DateTimeFormatter dateFormatter;
     private DateTimeFormatter timeFormatter;
 
@@ -43,13 +43,12 @@ public class MainLinksController implements Initializable {
         // Atualizar imediatamente
         updateDateTime();
 
-        // Criar timeline para atualizar a cada minuto
-        timeline = new Timeline(new KeyFrame(
-                Duration.minutes(1),
-                e -> updateDateTime()
-        ));
-        timeline.setCycleCount(Animation.INDEFINITE);
-        timeline.play();
+        // Atualiza a cada minuto enquanto a tela estiver visível
+        if (timeDisplay == null) return;
+        clockJob = RefreshScheduler.register("relógio", timeDisplay, Duration.ofMinutes(1), Duration.ofMinutes(1), () -> {
+            Platform.runLater(this::updateDateTime);
+            return CompletableFuture.completedFuture(true);
+        });
     }
 
     private void updateDateTime() {
@@ -224,10 +223,10 @@ public class MainLinksController implements Initializable {
             throw new RuntimeException(e);
         }
     }
-    // Método para parar a timeline quando necessário
+    // Método para parar o relógio quando necessário (também para sozinho ao trocar de tela)
     public void stopTimeline() {
-        if (timeline != null) {
-            timeline.stop();
+        if (clockJob != null) {
+            clockJob.cancel();
         }
     }
 
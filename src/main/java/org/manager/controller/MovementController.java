@@ -1,34 +1,43 @@
 package org.manager.controller;
 
 import javafx.application.Platform;
-import javafx.collections.FXCollections;
-import javafx.collections.ObservableList;
 import javafx.fxml.FXML;
 import javafx.scene.control.*;
-import javafx.scene.control.cell.PropertyValueFactory;
 
 import org.manager.dto.MovementResponseDTO;
+import org.manager.export.TableExportTask;
+import org.manager.export.TableExportTask.Column;
+import org.manager.export.TableExportTask.Format;
+import org.manager.model.PageResponse;
+import org.manager.search.MovementColumnStore;
+import org.manager.search.MovementColumnStore.Row;
 import org.manager.service.MovementService;
 import org.manager.session.SessionManager;
+import org.manager.sync.ChangeFeedClient;
+import org.manager.sync.DeltaSync;
 import org.manager.util.AlertUtil;
+import org.manager.util.DateTimeUtil;
+import org.manager.util.PagedTableLoader;
+import org.manager.view.ColumnBinding;
+import org.manager.view.ViewLifecycle;
 
 import java.time.LocalDate;
 import java.time.LocalDateTime;
 import java.time.LocalTime;
-import java.time.format.DateTimeFormatter;
 import java.util.List;
+import java.util.function.Predicate;
 
-public class MovementController {
+public class MovementController implements ViewLifecycle {
 
-    @FXML private TableView<MovementResponseDTO> movementTable;
-    @FXML private TableColumn<MovementResponseDTO, Long> colId;
-    @FXML private TableColumn<MovementResponseDTO, String> colDescription;
-    @FXML private TableColumn<MovementResponseDTO, String> colUsername;
-    @FXML private TableColumn<MovementResponseDTO, String> colType;
-    @FXML private TableColumn<MovementResponseDTO, String> colOrigin;
-    @FXML private TableColumn<MovementResponseDTO, String> colStatus;
-    @FXML private TableColumn<MovementResponseDTO, Integer> colQuantity;
-    @FXML private TableColumn<MovementResponseDTO, LocalDateTime> colDate;
+    @FXML private TableView<Row> movementTable;
+    @FXML private TableColumn<Row, Long> colId;
+    @FXML private TableColumn<Row, String> colDescription;
+    @FXML private TableColumn<Row, String> colUsername;
+    @FXML private TableColumn<Row, String> colType;
+    @FXML private TableColumn<Row, String> colOrigin;
+    @FXML private TableColumn<Row, String> colStatus;
+    @FXML private TableColumn<Row, Integer> colQuantity;
+    @FXML private TableColumn<Row, LocalDateTime> colDate;
 
     @FXML private TextField txtSearch;
 
@@ -36,49 +45,101 @@ public class MovementController {
     @FXML private DatePicker dateEnd;
 
     private final MovementService movementService = new MovementService();
-    private final ObservableList<MovementResponseDTO> movementData = FXCollections.observableArrayList();
-    private final ObservableList<MovementResponseDTO> allMovementsData = FXCollections.observableArrayList();
+    // Movimentos da empresa (partilhados entre visitas, ver MovementService.companyStore) e
+    // resultado do filtro de datas pedido ao servidor
+    private MovementColumnStore movementStore;
+    private final MovementColumnStore dateFilterStore = new MovementColumnStore();
 
     private String token = SessionManager.getToken();
     Long companyId = SessionManager.getCurrentCompanyId();
-    private MovementResponseDTO selectedMovement;
-
-    private final DateTimeFormatter dateFormatter = DateTimeFormatter.ofPattern("dd/MM/yyyy HH:mm");
+    private Row selectedMovement;
+
+    private static final List<Column<MovementResponseDTO>> EXPORT_COLUMNS = List.of(
+            new Column<>("ID", MovementResponseDTO::getId),
+            new Column<>("Descrição", MovementResponseDTO::getDescription),
+            new Column<>("Utilizador", MovementResponseDTO::getUsername),
+            new Column<>("Tipo", MovementResponseDTO::getType),
+            new Column<>("Origem", MovementResponseDTO::getOrigin),
+            new Column<>("Status", MovementResponseDTO::getStatus),
+            new Column<>("Quantidade", MovementResponseDTO::getQuantity),
+            new Column<>("Data", m -> DateTimeUtil.format(m.getDate())));
+
+    private static final int PAGE_SIZE = 200;
+    private static final int STREAM_BATCH_SIZE = 500;
+    private PagedTableLoader<MovementResponseDTO> pageLoader;
+    private DeltaSync<MovementResponseDTO> movementSync;
+    private boolean dateFilterActive;
+    private int dateFilterGeneration;
+    // Intervalo que o servidor já devolveu inteiro para dateFilterStore (sub-intervalos respondem-se localmente)
+    private LocalDateTime cachedStart;
+    private LocalDateTime cachedEnd;
 
     @FXML
     private void initialize() {
+        movementStore = companyId != null ? movementService.companyStore(companyId, token) : new MovementColumnStore();
+        movementStore.resetView();
         setupTable();
         setupSearch();
+        setupPaging();
         loadMovements();
+        subscribeToChanges();
+    }
+
+    /** Tela reaberta da cache: sem notificações ligadas, pede só as alterações **/
+    @Override
+    public void onShow() {
+        if (movementSync != null && !ChangeFeedClient.get().isConnected()) refreshMovements();
     }
 
     /** Configura a tabela **/
     private void setupTable() {
-        colId.setCellValueFactory(new PropertyValueFactory<>("id"));
-        colDescription.setCellValueFactory(new PropertyValueFactory<>("description"));
-        colUsername.setCellValueFactory(new PropertyValueFactory<>("username"));
-        colType.setCellValueFactory(new PropertyValueFactory<>("type"));
-        colOrigin.setCellValueFactory(new PropertyValueFactory<>("origin"));
-        colStatus.setCellValueFactory(new PropertyValueFactory<>("status"));
-        colQuantity.setCellValueFactory(new PropertyValueFactory<>("quantity"));
-        colDate.setCellValueFactory(new PropertyValueFactory<>("date"));
-
+        ColumnBinding.bind(colId, Row::getId);
+        ColumnBinding.bind(colDescription, Row::getDescription);
+        ColumnBinding.bind(colUsername, Row::getUsername);
+        ColumnBinding.bind(colType, Row::getType);
+        ColumnBinding.bind(colOrigin, Row::getOrigin);
+        ColumnBinding.bind(colStatus, Row::getStatus);
+        ColumnBinding.bind(colQuantity, Row::getQuantity);
+        ColumnBinding.bind(colDate, Row::getDate);
+
+        // O valor da coluna (LocalDateTime) serve a ordenação; o texto vem já formatado do armazenamento
         colDate.setCellFactory(column -> new TableCell<>() {
             @Override
             protected void updateItem(LocalDateTime item, boolean empty) {
                 super.updateItem(item, empty);
-                setText(empty || item == null ? null : item.format(dateFormatter));
+                Row row = empty || getTableRow() == null ? null : getTableRow().getItem();
+                setText(row == null ? null : row.getDateText());
             }
         });
 
-        movementTable.setItems(movementData);
+        movementTable.setItems(movementStore.rows());
+
+        // As linhas são vistas sobre as colunas: a ordenação é feita pelo armazenamento
+        movementTable.setSortPolicy(table -> {
+            visibleStore().sort(table.getComparator());
+            return true;
+        });
 
         movementTable.getSelectionModel().selectedItemProperty().addListener(
                 (obs, oldSel, newSel) -> selectedMovement = newSel
         );
     }
 
-    /** Carrega todos os movimentos da empresa da sessão **/
+    /** Paginação: as páginas seguintes são pedidas ao rolar a tabela **/
+    private void setupPaging() {
+        pageLoader = new PagedTableLoader<>(movementTable, PAGE_SIZE,
+                (page, size) -> movementService.fetchByCompanyPageAsync(companyId, page, size, token),
+                this::appendPage);
+        pageLoader.setOnError(ex -> {
+            AlertUtil.showError("Erro", "Falha ao carregar movimentos");
+            ex.printStackTrace();
+        });
+    }
+
+    /**
+     * Carrega os movimentos da empresa da sessão. Na primeira visita pede a primeira página;
+     * nas seguintes o store já tem o que foi recebido e pede-se ao servidor só as alterações.
+     **/
     private void loadMovements() {
         if (token == null) return;
 
@@ -87,40 +148,79 @@ public class MovementController {
             return;
         }
 
-        movementService.fetchByCompanyAsync(companyId, token)
-                .thenAccept(list -> Platform.runLater(() -> {
-                    allMovementsData.setAll(list);
-                    movementData.setAll(list);
-                }))
+        movementSync = movementService.companySync(companyId, token);
+
+        // Sem endpoint incremental e lista incompleta, recomeça pela primeira página
+        if (movementSync.isEmpty() || movementStore.size() == 0
+                || (movementSync.isDeltaUnsupported() && !movementSync.isComplete())) {
+            movementSync.clear();
+            movementStore.clear();
+            pageLoader.reload();
+            return;
+        }
+
+        pageLoader.resume(movementSync.getNextPage(), movementSync.isComplete());
+        refreshMovements();
+    }
+
+    /** Movimentos criados/alterados/removidos noutros postos aparecem sem recarregar **/
+    private void subscribeToChanges() {
+        if (movementSync == null) return;
+        ChangeFeedClient.get()
+                .subscribe("MOVEMENT", MovementResponseDTO.class, MovementResponseDTO::getId, movementTable, changes -> {
+                    changes.upserts().forEach(movementService::convertLabelsToPortuguese);
+                    movementSync.patch(changes);
+                    applyChanges(changes);
+                })
+                .onResync(this::refreshMovements);
+    }
+
+    /** Pede ao servidor só os movimentos criados/alterados/removidos desde a última sincronização **/
+    private void refreshMovements() {
+        movementSync.poll(token)
+                .thenAccept(changes -> Platform.runLater(() -> applyChanges(changes)))
                 .exceptionally(ex -> {
-                    Platform.runLater(() -> AlertUtil.showError("Erro", "Falha ao carregar movimentos"));
                     ex.printStackTrace();
                     return null;
                 });
     }
 
-    /** Busca texto **/
+    private void appendPage(PageResponse<MovementResponseDTO> page) {
+        // Linhas que já vieram por sincronização não são duplicadas
+        DeltaSync.Changes<MovementResponseDTO> changes = movementSync.absorb(page.getContent());
+        movementSync.recordPage(pageLoader.getNextPage(), !pageLoader.hasMore());
+        applyChanges(changes);
+    }
+
+    // Com filtro de datas ativo a tabela mostra o resultado do servidor, que não é sincronizado
+    private void applyChanges(DeltaSync.Changes<MovementResponseDTO> changes) {
+        movementStore.apply(changes);
+    }
+
+    private MovementColumnStore visibleStore() {
+        return movementTable.getItems() == dateFilterStore.rows() ? dateFilterStore : movementStore;
+    }
+
+    /** Busca texto (nas duas listas, para a pesquisa se manter ao limpar o filtro de datas) **/
     private void setupSearch() {
         txtSearch.textProperty().addListener((obs, old, newValue) -> {
-            if (newValue == null || newValue.isEmpty()) {
-                movementData.setAll(allMovementsData);
-                return;
-            }
+            movementStore.filter(newValue);
+            dateFilterStore.filter(newValue);
+        });
+    }
 
-            String lower = newValue.toLowerCase();
+    private boolean matchesSearch(MovementResponseDTO m, String text) {
+        if (text == null || text.isEmpty()) {
+            return true;
+        }
 
-            List<MovementResponseDTO> filtered = allMovementsData.stream()
-                    .filter(m ->
-                            (m.getDescription() != null && m.getDescription().toLowerCase().contains(lower)) ||
-                                    (m.getUsername() != null && m.getUsername().toLowerCase().contains(lower)) ||
-                                    (m.getType() != null && m.getType().toLowerCase().contains(lower)) ||
-                                    (m.getOrigin() != null && m.getOrigin().toLowerCase().contains(lower)) ||
-                                    (m.getStatus() != null && m.getStatus().toLowerCase().contains(lower))
-                    )
-                    .toList();
+        String lower = text.toLowerCase();
 
-            movementData.setAll(filtered);
-        });
+        return (m.getDescription() != null && m.getDescription().toLowerCase().contains(lower)) ||
+                (m.getUsername() != null && m.getUsername().toLowerCase().contains(lower)) ||
+                (m.getType() != null && m.getType().toLowerCase().contains(lower)) ||
+                (m.getOrigin() != null && m.getOrigin().toLowerCase().contains(lower)) ||
+                (m.getStatus() != null && m.getStatus().toLowerCase().contains(lower));
     }
 
     /** Filtra por data, respeitando a empresa da sessão **/
@@ -147,8 +247,38 @@ public class MovementController {
             return;
         }
 
-        movementService.fetchByCompanyAndDateAsync(companyId, start, end, token)
-                .thenAccept(list -> Platform.runLater(() -> movementData.setAll(list)))
+        dateFilterActive = true;
+        int generation = ++dateFilterGeneration;
+
+        // Histórico completo em memória: o índice de datas responde sem ir ao servidor
+        if (movementSync != null && movementSync.isComplete()) {
+            movementStore.setDateRange(start, end);
+            movementTable.setItems(movementStore.rows());
+            return;
+        }
+
+        // Dentro de um intervalo já descarregado: filtra essa cópia
+        if (cachedStart != null && !start.isBefore(cachedStart) && !end.isAfter(cachedEnd)) {
+            dateFilterStore.setDateRange(start, end);
+            movementTable.setItems(dateFilterStore.rows());
+            return;
+        }
+
+        // Fora da janela em memória: o resultado é mostrado progressivamente, lote a lote
+        cachedStart = null;
+        cachedEnd = null;
+        dateFilterStore.clear();
+        dateFilterStore.setDateRange(null, null);
+        movementTable.setItems(dateFilterStore.rows());
+        movementService.streamByCompanyAndDateAsync(companyId, start, end, token, STREAM_BATCH_SIZE,
+                        batch -> Platform.runLater(() -> {
+                            if (generation == dateFilterGeneration) dateFilterStore.addAll(batch);
+                        }))
+                .thenRun(() -> Platform.runLater(() -> {
+                    if (generation != dateFilterGeneration) return;
+                    cachedStart = start;
+                    cachedEnd = end;
+                }))
                 .exceptionally(ex -> {
                     Platform.runLater(() -> {
                         String msg = ex.getMessage() != null ? ex.getMessage() : "Erro desconhecido";
@@ -164,7 +294,67 @@ public class MovementController {
     private void clearFilter() {
         dateStart.setValue(null);
         dateEnd.setValue(null);
-        movementData.setAll(allMovementsData);
+        dateFilterActive = false;
+        dateFilterGeneration++;
+        cachedStart = null;
+        cachedEnd = null;
+        dateFilterStore.clear();
+        movementStore.setDateRange(null, null);
+        movementTable.setItems(movementStore.rows());
+    }
+
+    /** Exportar: linhas visíveis na tabela ou o histórico todo, página a página, com o mesmo filtro **/
+    @FXML
+    private void exportTableCsv() {
+        exportTable(Format.CSV, false);
+    }
+
+    @FXML
+    private void exportTableXlsx() {
+        exportTable(Format.XLSX, false);
+    }
+
+    @FXML
+    private void exportAllCsv() {
+        exportTable(Format.CSV, true);
+    }
+
+    @FXML
+    private void exportAllXlsx() {
+        exportTable(Format.XLSX, true);
+    }
+
+    private void exportTable(Format format, boolean allPages) {
+        if (allPages && companyId == null) {
+            AlertUtil.showError("Erro", "Empresa não encontrada na sessão.");
+            return;
+        }
+
+        TableExportTask.RowSource<MovementResponseDTO> source = allPages
+                ? TableExportTask.pages((page, size) -> movementService.fetchByCompanyPageAsync(companyId, page, size, token),
+                        currentFilter())
+                : visibleRows();
+
+        new TableExportTask<>("movimentos", format, EXPORT_COLUMNS, source)
+                .startWithProgress(movementTable.getScene().getWindow());
+    }
+
+    /** Linhas visíveis pela ordem da tabela; os DTOs são recriados bloco a bloco no FX thread **/
+    private TableExportTask.RowSource<MovementResponseDTO> visibleRows() {
+        MovementColumnStore store = visibleStore();
+        long[] ids = store.visibleIds();
+        return TableExportTask.fxChunks(ids.length, (from, to) -> store.materialize(ids, from, to));
+    }
+
+    /** Pesquisa e, se ativo, intervalo de datas aplicados às páginas do servidor **/
+    private Predicate<MovementResponseDTO> currentFilter() {
+        String text = txtSearch.getText();
+        Predicate<MovementResponseDTO> filter = m -> matchesSearch(m, text);
+        if (!dateFilterActive || dateStart.getValue() == null || dateEnd.getValue() == null) return filter;
+
+        LocalDateTime start = dateStart.getValue().atStartOfDay();
+        LocalDateTime end = dateEnd.getValue().atTime(LocalTime.MAX);
+        return filter.and(m -> m.getDate() != null && !m.getDate().isBefore(start) && !m.getDate().isAfter(end));
     }
 
     /** Deletar movimento **/
@@ -178,11 +368,13 @@ public class MovementController {
         boolean confirmed = AlertUtil.showConfirmation("Confirmação", "Deseja deletar este movimento?");
         if (!confirmed) return;
 
-        movementService.deleteAsync(selectedMovement.getId(), token)
+        Long movementId = selectedMovement.getId();
+        movementService.deleteAsync(movementId, token)
                 .thenAccept(ok -> Platform.runLater(() -> {
                     if (ok) {
                         AlertUtil.showInfo("Sucesso", "Movimento removido!");
-                        loadMovements();
+                        applyChanges(movementSync.remove(movementId));
+                        dateFilterStore.remove(movementId);
                     } else {
                         AlertUtil.showError("Erro", "Falha ao remover movimento.");
                     }
@@ -1,8 +1,6 @@
 package org.manager.controller;
 
 import com.fasterxml.jackson.databind.ObjectMapper;
-import com.fasterxml.jackson.databind.SerializationFeature;
-import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
 import de.jensd.fx.glyphs.fontawesome.FontAwesomeIcon;
 import de.jensd.fx.glyphs.fontawesome.FontAwesomeIconView;
 import javafx.application.Platform;
@@ -11,11 +9,13 @@ import javafx.collections.ObservableList;
 import javafx.fxml.FXML;
 import javafx.scene.control.*;
 import javafx.scene.layout.VBox;
+import org.manager.http.HttpTransport;
 import org.manager.mapper.OrderMapper;
 import org.manager.model.*;
 import org.manager.service.OrderService;
 import org.manager.session.SessionManager;
 import org.manager.util.AlertUtil;
+import org.manager.view.ColumnBinding;
 
 import java.math.BigDecimal;
 import java.util.ArrayList;
@@ -65,9 +65,7 @@ public class OrderController {
 
     public OrderController() {
         this.orderService = new OrderService();
-        this.objectMapper = new ObjectMapper()
-                .registerModule(new JavaTimeModule())
-                .disable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS);
+        this.objectMapper = HttpTransport.mapper();
     }
 
     private void setupComboBoxes() {
@@ -127,14 +125,10 @@ public class OrderController {
     }
 
     private void setupTableView() {
-        colProduct.setCellValueFactory(data ->
-                new javafx.beans.property.SimpleStringProperty(data.getValue().getProductName()));
-        colQuantity.setCellValueFactory(data ->
-                new javafx.beans.property.SimpleIntegerProperty(data.getValue().getQuantity()).asObject());
-        colUnitPrice.setCellValueFactory(data ->
-                new javafx.beans.property.SimpleObjectProperty<>(data.getValue().getUnitPrice()));
-        colTotalPrice.setCellValueFactory(data ->
-                new javafx.beans.property.SimpleObjectProperty<>(data.getValue().getTotalPrice()));
+        ColumnBinding.bind(colProduct, OrderItem::getProductName);
+        ColumnBinding.bind(colQuantity, OrderItem::getQuantity);
+        ColumnBinding.bind(colUnitPrice, OrderItem::getUnitPrice);
+        ColumnBinding.bind(colTotalPrice, OrderItem::getTotalPrice);
 
         colAction.setCellFactory(param -> new TableCell<>() {
             private final Button removeBtn = new Button();
@@ -1,49 +1,52 @@
 package org.manager.controller;
 import javafx.application.Platform;
-import javafx.beans.property.SimpleDoubleProperty;
-import javafx.beans.property.SimpleStringProperty;
 import javafx.collections.FXCollections;
-import javafx.collections.ObservableList;
 import javafx.fxml.FXML;
 import javafx.print.*;
-import javafx.scene.control.Alert;
+import javafx.scene.control.Label;
+import javafx.scene.control.ProgressBar;
 import javafx.scene.control.TableColumn;
 import javafx.scene.control.TableView;
 import javafx.scene.control.TextField;
-import javafx.scene.image.Image;
-import javafx.scene.image.ImageView;
-import org.apache.pdfbox.Loader;
-import org.apache.pdfbox.pdmodel.PDDocument;
-import org.apache.pdfbox.rendering.PDFRenderer;
+import javafx.scene.layout.HBox;
 import org.manager.appContext.AppContext;
+import org.manager.document.DocumentExporter;
+import org.manager.document.DocumentModel;
 import org.manager.dto.OrderDTO;
+import org.manager.export.ExportDownloadManager;
 import org.manager.service.OrderService;
 import org.manager.session.SessionManager;
+import org.manager.sync.ChangeFeedClient;
+import org.manager.sync.IdIndexedObservableList;
 import org.manager.util.AlertUtil;
+import org.manager.util.DateTimeUtil;
+import org.manager.util.PdfPrintTask;
+import org.manager.view.DisplayColumns;
+import org.manager.view.ViewLifecycle;
 
-import javax.swing.*;
-import java.awt.*;
-import java.awt.image.BufferedImage;
-import javafx.embed.swing.SwingFXUtils;
-import java.io.File;
-import java.io.FileOutputStream;
-import java.io.IOException;
-import java.time.format.DateTimeFormatter;
 import java.util.Formatter;
 import java.util.List;
+import java.util.concurrent.CompletableFuture;
 import java.util.stream.Collectors;
 
 
-public class OrderTableController {
+public class OrderTableController implements ViewLifecycle {
     @FXML private TextField searchOrderField;
     @FXML private TableView<OrderDTO> orderTable;
     @FXML private TableColumn<OrderDTO,String> colOrderNumber;
     @FXML private TableColumn<OrderDTO,String> colCustomer;
     @FXML private TableColumn<OrderDTO,String> colDate;
     @FXML private TableColumn<OrderDTO,Double>colTotal;
-    private final ObservableList<OrderDTO>orders= FXCollections.observableArrayList();
+    @FXML private HBox printProgressBox;
+    @FXML private ProgressBar printProgress;
+    @FXML private Label printStatus;
+    // Trabalho atual: primeiro o PDF (servidor ou render local), depois a impressão
+    private CompletableFuture<byte[]> pendingPdf;
+    private PdfPrintTask printTask;
+    private final IdIndexedObservableList<OrderDTO> orders =
+            new IdIndexedObservableList<>(OrderDTO::getId, OrderDTO::getUpdatedAt);
     private final OrderService orderService;
-    private static final DateTimeFormatter DATE_FORMATTER = DateTimeFormatter.ofPattern("dd/MM/yyyy HH:mm");
+    private final DisplayColumns<OrderDTO> display = new DisplayColumns<>();
     String token= SessionManager.getToken();
 
     public  OrderTableController(){
@@ -55,6 +58,13 @@ public class OrderTableController {
          loadOrders();
          setUpOrderDataTable();
          searchOrderField.textProperty().addListener((obs,old,newValue)->filterOrders(newValue) );
+         subscribeToChanges();
+         printProgressBox.managedProperty().bind(printProgressBox.visibleProperty());
+    }
+
+    @Override
+    public void onShow(){
+        if (!ChangeFeedClient.get().isConnected()) loadOrders();
     }
 
     @FXML
@@ -66,20 +76,18 @@ public class OrderTableController {
         }
     }
     private void  setUpOrderDataTable(){
-        colOrderNumber.setCellValueFactory(data-> new
-                SimpleStringProperty(data.getValue().getOrderNumber()));
-        colCustomer.setCellValueFactory(data->new
-                SimpleStringProperty(data.getValue().getCustomerName()));
-        colDate.setCellValueFactory(data->new
-                SimpleStringProperty(data.getValue().getOrderDate()!=null? DATE_FORMATTER.format(data.getValue().getOrderDate()):""));
-        colTotal.setCellValueFactory(data->new
-                SimpleDoubleProperty(data.getValue().getTotalAmount()!=null?data.getValue().getTotalAmount().doubleValue():0.0).asObject());
+        // Texto das células calculado uma vez por encomenda (também serve as listas filtradas)
+        display.bind(colOrderNumber, OrderDTO::getOrderNumber)
+                .bind(colCustomer, OrderDTO::getCustomerName)
+                .bind(colDate, order -> DateTimeUtil.formatShort(order.getOrderDate()))
+                .bind(colTotal, order -> order.getTotalAmount()!=null?order.getTotalAmount().doubleValue():0.0)
+                .track(orders);
         orderTable.setItems(orders);
     }
     private void loadOrders (){
         orderService.fetchOrdersAsync(token)
                 .thenAccept(list-> Platform.runLater(()->{
-                    orders.setAll(list);
+                    orders.merge(list);
                 }))
                 .exceptionally(ex-> {
                     Platform.runLater(() -> {
@@ -89,6 +97,17 @@ public class OrderTableController {
                 });
 
     }
+    // 🔹 Encomendas criadas/alteradas noutros postos aparecem sem recarregar
+    private void subscribeToChanges(){
+        ChangeFeedClient.get()
+                .subscribe("ORDER", OrderDTO.class, OrderDTO::getId, orderTable, changes -> {
+                    orderService.orderSync(token).patch(changes);
+                    orders.apply(changes);
+                    String query = searchOrderField.getText();
+                    if (query != null && !query.isBlank()) filterOrders(query);
+                })
+                .onResync(this::loadOrders);
+    }
     @FXML
     private void searchOrders(){
         filterOrders(searchOrderField.getText());
@@ -113,118 +132,119 @@ public class OrderTableController {
             AlertUtil.showInfo("Atenção", "Selecione uma encomenda para exportar.");
             return;
         }
-        var typeFile=type.equalsIgnoreCase("pdf")?
-        orderService.exportOrderPdf(selectedOrder.getId(),token):
-        orderService.exportOrderExcel(selectedOrder.getId(),token);
-        typeFile.thenAccept(bytes ->saveFiles(bytes,"order_"+selectedOrder.getOrderNumber() + "." + type) )
-                .exceptionally(ex -> {
-                    Platform.runLater(() ->{
-                        System.out.println( "Falha ao exportar  encomenda" + type.toUpperCase() + ": " + ex.getMessage());
-                        AlertUtil.showError("Erro", "Falha ao exportar encomenda" + type.toUpperCase() + ": " + ex.getMessage());
+        // Com os itens na linha o PDF é gerado no posto e escrito diretamente em Downloads
+        if (type.equalsIgnoreCase("pdf") && DocumentExporter.isLocal()
+                && selectedOrder.getItems() != null && !selectedOrder.getItems().isEmpty()) {
+            DocumentExporter.exportPdf(DocumentModel.of(selectedOrder), ExportDownloadManager.downloadsDir())
+                    .thenAccept(file -> Platform.runLater(() ->
+                            AlertUtil.showInfo("Sucesso", "Arquivo exportado com sucesso em: " + file)))
+                    .exceptionally(ex -> {
+                        Platform.runLater(() -> {
+                            Throwable cause = ex.getCause() != null ? ex.getCause() : ex;
+                            AlertUtil.showError("Erro", "Falha ao exportar encomenda: " + cause.getMessage());
+                        });
+                        return null;
                     });
-                    return null;
-
-                });
+            return;
+        }
+        String fileName = "order_" + selectedOrder.getOrderNumber() + "." + (type.equalsIgnoreCase("pdf") ? "pdf" : "xlsx");
+        ExportDownloadManager.download(orderService.exportRequest(selectedOrder.getId(), type, token), fileName)
+                .startWithProgress(orderTable.getScene().getWindow());
     }
     @FXML
     private void exportOrderToExcel(){exportOrderPdfAndExcelFile("excel");}
 
+    // 🔹 Descarrega o PDF e imprime em segundo plano; o progresso aparece por baixo dos botões
     @FXML
     private void printOrder() {
-        try {
-            OrderDTO orderselected = orderTable.getSelectionModel().getSelectedItem();
-            if (orderselected == null) {
-                AlertUtil.showInfo("Atenção", "Selecione uma encomenda para imprimir.");
+        OrderDTO orderselected = orderTable.getSelectionModel().getSelectedItem();
+        if (orderselected == null) {
+            AlertUtil.showInfo("Atenção", "Selecione uma encomenda para imprimir.");
+            return;
+        }
+        if (pendingPdf != null || (printTask != null && !printTask.isDone())) {
+            AlertUtil.showInfo("Impressão", "Aguarde o fim da impressão em curso.");
+            return;
+        }
+
+        showPrintStatus("A preparar a encomenda " + orderselected.getOrderNumber() + "...");
+        CompletableFuture<byte[]> download = orderPdf(orderselected);
+        pendingPdf = download;
+        download.whenComplete((pdfBytes, ex) -> Platform.runLater(() -> {
+            if (download != pendingPdf) return; // cancelado enquanto o PDF era preparado
+            pendingPdf = null;
+            if (ex != null) {
+                hidePrintStatus();
+                AlertUtil.showError("Erro", "Falha ao imprimir encomenda: " + ex.getMessage());
                 return;
             }
+            startPrint(orderselected, pdfBytes);
+        }));
+    }
 
-            // Mostra alerta de progresso básico
-            Alert progressAlert = new Alert(Alert.AlertType.INFORMATION);
-            progressAlert.setTitle("Impressão");
-            progressAlert.setHeaderText("Preparando impressão...");
-            progressAlert.show();
-
-            orderService.exportOrderPdf(orderselected.getId(), token)
-                    .thenAccept(pdfBytes -> Platform.runLater(() -> {
-                        progressAlert.setHeaderText("Imprimindo...");
-
-                        try (PDDocument document = Loader.loadPDF(pdfBytes)) {
-                            int totalPages = document.getNumberOfPages();
-
-                            PrinterJob printerJob = PrinterJob.createPrinterJob();
-                            if (printerJob == null || !printerJob.showPrintDialog(null)) {
-                                progressAlert.close();
-                                return;
-                            }
-
-                            PageLayout pageLayout = printerJob.getJobSettings().getPageLayout();
-                            double pageWidth = pageLayout.getPrintableWidth();
-                            double pageHeight = pageLayout.getPrintableHeight();
-
-                            PDFRenderer renderer = new PDFRenderer(document);
-                            boolean success = true;
-
-                            for (int page = 0; page < totalPages; page++) {
-                                BufferedImage image = renderer.renderImageWithDPI(page, 300);
-                                Image fxImage = SwingFXUtils.toFXImage(image, null);
-                                ImageView imageView = new ImageView(fxImage);
-                                imageView.setPreserveRatio(true);
-
-                                double scaleX = pageWidth / fxImage.getWidth();
-                                double scaleY = pageHeight / fxImage.getHeight();
-                                double scale = Math.min(scaleX, scaleY);
-
-                                imageView.setFitWidth(fxImage.getWidth() * scale);
-                                imageView.setFitHeight(fxImage.getHeight() * scale);
-
-                                if (!printerJob.printPage(imageView)) {
-                                    success = false;
-                                    break;
-                                }
-                            }
-
-                            progressAlert.close();
-
-                            if (success) {
-                                printerJob.endJob();
-                                AlertUtil.showInfo("Sucesso",
-                                        "Encomenda " + orderselected.getOrderNumber() + " impressa com sucesso! (" + totalPages + " páginas)");
-                            } else {
-                                AlertUtil.showError("Erro", "Falha durante a impressão.");
-                            }
-
-                        } catch (Exception e) {
-                            progressAlert.close();
-                            AlertUtil.showError("Erro", "Erro ao imprimir: " + e.getMessage());
-                        }
-                    }))
-                    .exceptionally(ex -> {
-                        Platform.runLater(() -> {
-                            progressAlert.close();
-                            AlertUtil.showError("Erro", "Falha ao imprimir encomenda: " + ex.getMessage());
-                        });
-                        return null;
-                    });
-        } catch (Exception e) {
-            AlertUtil.showError("Erro", "Erro inesperado: " + e.getMessage());
+    /** PDF gerado no posto a partir da encomenda; sem itens (ou com manager.documents.local=false) vem do servidor */
+    private CompletableFuture<byte[]> orderPdf(OrderDTO order) {
+        if (!DocumentExporter.isLocal() || order.getItems() == null || order.getItems().isEmpty()) {
+            return orderService.exportOrderPdf(order.getId(), token);
         }
+        return DocumentExporter.renderPdf(DocumentModel.of(order));
     }
 
-    private void saveFiles(byte[] bytes,String fileName){
-        new Thread(()->{
-            try{
-                File file =new File(System.getProperty("user.home")+"/Downloads/"+fileName);
-                try(FileOutputStream fos=new FileOutputStream(file)){
-                    fos.write(bytes);
-                }
-                Platform.runLater(()->{
-                    Platform.runLater(() ->
-                            AlertUtil.showInfo("Sucesso", "Arquivo salvo em: " + file.getAbsolutePath()));
-                });
-            } catch ( IOException e) {
-                Platform.runLater(() ->
-                        AlertUtil.showError("Erro", "Falha ao salvar arquivo: " + e.getMessage()));
-            }
-        }).start();
+    private void startPrint(OrderDTO order, byte[] pdfBytes) {
+        PrinterJob printerJob = PrinterJob.createPrinterJob();
+        if (printerJob == null) {
+            hidePrintStatus();
+            AlertUtil.showError("Erro", "Nenhuma impressora disponível.");
+            return;
+        }
+        if (!printerJob.showPrintDialog(orderTable.getScene().getWindow())) {
+            hidePrintStatus();
+            return;
+        }
+
+        printTask = new PdfPrintTask(pdfBytes, printerJob, "encomenda " + order.getOrderNumber());
+        printProgress.progressProperty().bind(printTask.progressProperty());
+        printStatus.textProperty().bind(printTask.messageProperty());
+        printTask.setOnSucceeded(event -> {
+            hidePrintStatus();
+            AlertUtil.showInfo("Sucesso",
+                    "Encomenda " + order.getOrderNumber() + " impressa com sucesso! (" + printTask.getValue() + " páginas)");
+        });
+        printTask.setOnFailed(event -> {
+            hidePrintStatus();
+            Throwable cause = printTask.getException();
+            AlertUtil.showError("Erro", "Erro ao imprimir: " + (cause != null ? cause.getMessage() : "desconhecido"));
+        });
+        printTask.setOnCancelled(event -> hidePrintStatus());
+        printTask.start();
+    }
+
+    @FXML
+    private void cancelPrint() {
+        if (pendingPdf != null) {
+            // Ainda a preparar o PDF: o resultado é ignorado e o diálogo de impressão não abre
+            CompletableFuture<byte[]> download = pendingPdf;
+            pendingPdf = null;
+            download.cancel(true);
+            hidePrintStatus();
+        } else if (printTask != null && !printTask.isDone()) {
+            printTask.cancel();
+        } else {
+            hidePrintStatus();
+        }
+    }
+
+    private void showPrintStatus(String message) {
+        printProgress.progressProperty().unbind();
+        printStatus.textProperty().unbind();
+        printProgress.setProgress(ProgressBar.INDETERMINATE_PROGRESS);
+        printStatus.setText(message);
+        printProgressBox.setVisible(true);
+    }
+
+    private void hidePrintStatus() {
+        printProgress.progressProperty().unbind();
+        printStatus.textProperty().unbind();
+        printProgressBox.setVisible(false);
     }
 }
@@ -1,8 +1,7 @@
 package org.manager.controller;
 
 import javafx.application.Platform;
-import javafx.collections.FXCollections;
-import javafx.collections.ObservableList;
+import javafx.collections.ListChangeListener;
 import javafx.collections.transformation.FilteredList;
 import javafx.collections.transformation.SortedList;
 import javafx.fxml.FXML;
@@ -10,19 +9,29 @@ import javafx.fxml.FXMLLoader;
 import javafx.scene.Parent;
 import javafx.scene.Scene;
 import javafx.scene.control.*;
-import javafx.scene.control.cell.PropertyValueFactory;
 import javafx.stage.Modality;
 import javafx.stage.Stage;
 import javafx.stage.StageStyle;
 import org.manager.dto.ProductResponseDTO;
+import org.manager.export.TableExportTask;
+import org.manager.export.TableExportTask.Column;
+import org.manager.export.TableExportTask.Format;
+import org.manager.search.ProductSearchIndex;
 import org.manager.service.ProductService;
+import org.manager.store.LocalStores;
+import org.manager.store.OfflineFirstLoader;
 import org.manager.session.SessionManager;
+import org.manager.sync.IdIndexedObservableList;
 import org.manager.util.AlertUtil;
+import org.manager.view.ColumnBinding;
+import org.manager.view.ViewLifecycle;
 
 import java.io.IOException;
 import java.math.BigDecimal;
+import java.util.List;
+import java.util.Set;
 
-public class ProductController {
+public class ProductController implements ViewLifecycle {
 
     @FXML private TableView<ProductResponseDTO> productsTable;
 
@@ -48,12 +57,30 @@ public class ProductController {
     private final ProductService productService = new ProductService();
 
     // Dados da tabela
-    private final ObservableList<ProductResponseDTO> allProductsData = FXCollections.observableArrayList();
+    private final IdIndexedObservableList<ProductResponseDTO> allProductsData =
+            new IdIndexedObservableList<>(ProductResponseDTO::getId, ProductResponseDTO::getUpdatedAt);
     private FilteredList<ProductResponseDTO> filteredData;
     private SortedList<ProductResponseDTO> sortedData;
+    private final ProductSearchIndex searchIndex = new ProductSearchIndex();
 
     private final String token = SessionManager.getToken();
 
+    // Colunas exportadas (as mesmas da tabela)
+    private static final List<Column<ProductResponseDTO>> EXPORT_COLUMNS = List.of(
+            new Column<>("ID", ProductResponseDTO::getId),
+            new Column<>("Referência", ProductResponseDTO::getReferenceNumber),
+            new Column<>("Código Barras", ProductResponseDTO::getBarcode),
+            new Column<>("Nome", ProductResponseDTO::getName),
+            new Column<>("Categoria", ProductResponseDTO::getCategoryName),
+            new Column<>("Preço Venda", ProductResponseDTO::getSellingPrice),
+            new Column<>("Preço Custo", ProductResponseDTO::getCostPrice),
+            new Column<>("Qtd. Stock", ProductResponseDTO::getQuantityInStock),
+            new Column<>("Stock Min.", ProductResponseDTO::getMinimumStockLevel),
+            new Column<>("Fornecedor", ProductResponseDTO::getSupplierName),
+            new Column<>("Unidade", ProductResponseDTO::getUnitOfMeasure),
+            new Column<>("Empresa", ProductResponseDTO::getCompanyName),
+            new Column<>("Armazém", ProductResponseDTO::getWarehouseName));
+
     // ========================= INIT =========================
     @FXML
     private void initialize() {
@@ -62,31 +89,38 @@ public class ProductController {
         setupSearch();
     }
 
+    // Tela reaberta da cache: só atualiza os dados (a tabela e a pesquisa já estão montadas)
+    @Override
+    public void onShow() {
+        loadProducts();
+    }
+
     // ========================= TABELA =========================
     private void setupTable() {
-        colId.setCellValueFactory(new PropertyValueFactory<>("id"));
-        colName.setCellValueFactory(new PropertyValueFactory<>("name"));
-        colCategory.setCellValueFactory(new PropertyValueFactory<>("categoryName")); // troque por categoryName se existir
-        colSellingPrice.setCellValueFactory(new PropertyValueFactory<>("sellingPrice"));
-        colCostPrice.setCellValueFactory(new PropertyValueFactory<>("costPrice"));
-        colQuantity.setCellValueFactory(new PropertyValueFactory<>("quantityInStock"));
-        colMinStock.setCellValueFactory(new PropertyValueFactory<>("minimumStockLevel"));
-        colSupplier.setCellValueFactory(new PropertyValueFactory<>("supplierName")); // troque por supplierName se existir
-        colUnit.setCellValueFactory(new PropertyValueFactory<>("unitOfMeasure"));
-        colBarcode.setCellValueFactory(new PropertyValueFactory<>("barcode"));
-        colReference.setCellValueFactory(new PropertyValueFactory<>("referenceNumber"));
-        colCompany.setCellValueFactory(new PropertyValueFactory<>("companyName")); // troque por companyName se existir
-        colWarehouse.setCellValueFactory(new PropertyValueFactory<>("warehouseName")); // troque por warehouseName se existir
+        ColumnBinding.bind(colId, ProductResponseDTO::getId);
+        ColumnBinding.bind(colName, ProductResponseDTO::getName);
+        ColumnBinding.bind(colCategory, ProductResponseDTO::getCategoryName);
+        ColumnBinding.bind(colSellingPrice, ProductResponseDTO::getSellingPrice);
+        ColumnBinding.bind(colCostPrice, ProductResponseDTO::getCostPrice);
+        ColumnBinding.bind(colQuantity, ProductResponseDTO::getQuantityInStock);
+        ColumnBinding.bind(colMinStock, ProductResponseDTO::getMinimumStockLevel);
+        ColumnBinding.bind(colSupplier, ProductResponseDTO::getSupplierName);
+        ColumnBinding.bind(colUnit, ProductResponseDTO::getUnitOfMeasure);
+        ColumnBinding.bind(colBarcode, ProductResponseDTO::getBarcode);
+        ColumnBinding.bind(colReference, ProductResponseDTO::getReferenceNumber);
+        ColumnBinding.bind(colCompany, ProductResponseDTO::getCompanyName);
+        ColumnBinding.bind(colWarehouse, ProductResponseDTO::getWarehouseName);
     }
 
     // ========================= LOAD =========================
+    // Mostra logo a cópia local e atualiza quando o servidor responder
     private void loadProducts() {
-        productService.getAllProducts(token)
-                .thenAccept(products -> Platform.runLater(() -> allProductsData.setAll(products)))
-                .exceptionally(ex -> {
-                    Platform.runLater(() -> AlertUtil.showError("Erro", "Falha ao carregar produtos."));
+        OfflineFirstLoader.load(LocalStores.products(),
+                () -> productService.getAllProducts(token),
+                allProductsData::merge,
+                ex -> {
+                    AlertUtil.showError("Erro", "Falha ao carregar produtos.");
                     ex.printStackTrace();
-                    return null;
                 });
     }
 
@@ -97,6 +131,13 @@ public class ProductController {
         sortedData.comparatorProperty().bind(productsTable.comparatorProperty());
         productsTable.setItems(sortedData);
 
+        // O índice acompanha a lista; com pesquisa ativa, o filtro é recalculado quando os dados mudam
+        searchIndex.track(allProductsData);
+        allProductsData.addListener((ListChangeListener<ProductResponseDTO>) change -> {
+            String filter = txtSearch.getText();
+            if (filter != null && !filter.isBlank()) filterProducts(filter);
+        });
+
         txtSearch.textProperty().addListener((obs, oldVal, newVal) -> filterProducts(newVal));
     }
 
@@ -109,18 +150,13 @@ public class ProductController {
     private void filterProducts(String filter) {
         if (filteredData == null) return;
 
-        filteredData.setPredicate(product -> {
-            if (filter == null || filter.isEmpty()) return true;
-            String lowerFilter = filter.toLowerCase();
-
-            return product.getName().toLowerCase().contains(lowerFilter)
-                    || product.getSku().toLowerCase().contains(lowerFilter)
-                    || product.getBarcode().toLowerCase().contains(lowerFilter)
-                    || product.getReferenceNumber().toLowerCase().contains(lowerFilter)
-                    || (product.getBrand() != null && product.getBrand().toLowerCase().contains(lowerFilter))
-                    || (product.getModel() != null && product.getModel().toLowerCase().contains(lowerFilter))
-                    || (product.getTags() != null && product.getTags().toLowerCase().contains(lowerFilter));
-        });
+        if (filter == null || filter.isBlank()) {
+            filteredData.setPredicate(p -> true);
+            return;
+        }
+
+        Set<ProductResponseDTO> matches = searchIndex.searchSet(filter);
+        filteredData.setPredicate(matches::contains);
     }
 
     // ========================= DELETE =========================
@@ -141,7 +177,8 @@ public class ProductController {
         productService.deleteProduct(selected.getId(), token)
                 .thenAccept(success -> Platform.runLater(() -> {
                     if (success) {
-                        allProductsData.remove(selected);
+                        allProductsData.removeById(selected.getId());
+                        LocalStores.products().remove(selected.getId());
                         AlertUtil.showInfo("Sucesso", "Produto removido.");
                     } else {
                         AlertUtil.showError("Erro", "Falha ao remover produto.");
@@ -204,7 +241,36 @@ public class ProductController {
         }
     }
 
+    // ========================= EXPORT =========================
+    // Exporta as linhas visíveis (pesquisa e ordenação atuais) em segundo plano
+    @FXML
+    private void exportTableCsv() {
+        exportTable(Format.CSV);
+    }
+
+    @FXML
+    private void exportTableXlsx() {
+        exportTable(Format.XLSX);
+    }
+
+    private void exportTable(Format format) {
+        new TableExportTask<>("produtos", format, EXPORT_COLUMNS, TableExportTask.snapshot(productsTable.getItems()))
+                .startWithProgress(productsTable.getScene().getWindow());
+    }
+
     public void refreshTable() {
         loadProducts();
     }
+
+    /** 🔹 Aplica um produto criado / atualizado sem recarregar a lista inteira */
+    public void applySavedProduct(ProductResponseDTO saved) {
+        if (saved == null || saved.getId() == null) {
+            refreshTable();
+            return;
+        }
+
+        LocalStores.products().upsert(saved);
+
+        allProductsData.upsert(saved);
+    }
 }
@@ -151,7 +151,7 @@ public class ProductFormController {
         productService.createProduct(request, token)
                 .thenAccept(saved -> Platform.runLater(() -> {
                     AlertUtil.showInfo("Sucesso", "Produto criado!");
-                    if (productController != null) productController.refreshTable();
+                    if (productController != null) productController.applySavedProduct(saved);
                     createMovement(saved);
                     closeForm();
                 }))
@@ -165,7 +165,7 @@ public class ProductFormController {
         productService.updateProduct(editingProduct.getId(), request, token)
                 .thenAccept(updated -> Platform.runLater(() -> {
                     AlertUtil.showInfo("Sucesso", "Produto atualizado!");
-                    if (productController != null) productController.refreshTable();
+                    if (productController != null) productController.applySavedProduct(updated);
                     createMovement(updated);
                     closeForm();
                 }))
@@ -1,9 +1,7 @@
 package org.manager.controller;
 
 import javafx.application.Platform;
-import javafx.beans.property.SimpleStringProperty;
 import javafx.collections.FXCollections;
-import javafx.collections.ObservableList;
 import javafx.collections.transformation.FilteredList;
 import javafx.fxml.FXML;
 import javafx.fxml.FXMLLoader;
@@ -12,24 +10,36 @@ import javafx.scene.control.*;
 import javafx.stage.Modality;
 import javafx.stage.Stage;
 import javafx.stage.StageStyle;
+import org.manager.document.DocumentExporter;
+import org.manager.document.DocumentModel;
+import org.manager.dto.SaleItemDTO;
 import org.manager.dto.SaleResponseDTO;
+import org.manager.export.ExportDownloadManager;
+import org.manager.export.TableExportTask;
+import org.manager.export.TableExportTask.Column;
+import org.manager.export.TableExportTask.Format;
+import org.manager.model.PageResponse;
+import org.manager.search.RowDates;
 import org.manager.service.SaleService;
 import org.manager.session.SessionManager;
+import org.manager.sync.IdIndexedObservableList;
 import org.manager.util.AlertUtil;
+import org.manager.util.DateTimeUtil;
+import org.manager.util.FormatUtil;
+import org.manager.util.PagedTableLoader;
+import org.manager.view.DisplayColumns;
+import org.manager.view.ViewLifecycle;
 
-import java.io.File;
-import java.io.FileOutputStream;
 import java.io.IOException;
-import java.text.NumberFormat;
+import java.net.http.HttpRequest;
+import java.math.BigDecimal;
 import java.time.LocalDateTime;
-import java.time.format.DateTimeFormatter;
-import java.time.format.DateTimeParseException;
 import java.util.Calendar;
-import java.util.Date;
-import java.util.Locale;
+import java.util.List;
 import java.util.concurrent.CompletableFuture;
+import java.util.function.Predicate;
 
-public class SaleController {
+public class SaleController implements ViewLifecycle {
 
     @FXML private TableView<SaleResponseDTO> salesTable;
     @FXML private TableColumn<SaleResponseDTO, String> clientColumn;
@@ -39,6 +49,7 @@ public class SaleController {
     @FXML private TableColumn<SaleResponseDTO, String> statusColumn;
     @FXML private TableColumn<SaleResponseDTO, String> dateColumn;
     @FXML private ComboBox<String> periodComboBox;
+    @FXML private Button applyFilterButton;
     @FXML private TextField searchField;
     @FXML private Label totalSalesLabel;
     @FXML private Label resultsCount;
@@ -50,10 +61,25 @@ public class SaleController {
     @FXML private Button exportExcelButton;
 
     private final SaleService saleService = new SaleService();
-    private final ObservableList<SaleResponseDTO> salesList = FXCollections.observableArrayList();
+    private final IdIndexedObservableList<SaleResponseDTO> salesList = new IdIndexedObservableList<>(SaleResponseDTO::getId);
     private FilteredList<SaleResponseDTO> filteredSales;
+    // Data de cada venda interpretada uma vez, quando a venda chega
+    private final RowDates<SaleResponseDTO> saleDates = new RowDates<>(s -> DateTimeUtil.parseIso(s.getSaleDate()));
+    // Texto das células calculado uma vez por venda
+    private final DisplayColumns<SaleResponseDTO> display = new DisplayColumns<>();
+    private String period; // filtro "Filtrar" por período (null = sem filtro)
     private final String token = SessionManager.getToken();
-    private static final DateTimeFormatter DISPLAY_FORMAT = DateTimeFormatter.ofPattern("dd/MM/yyyy HH:mm");
+    private static final int PAGE_SIZE = 100;
+    private PagedTableLoader<SaleResponseDTO> pageLoader;
+
+    // Colunas exportadas (as mesmas da tabela; o valor fica numérico no Excel)
+    private static final List<Column<SaleResponseDTO>> EXPORT_COLUMNS = List.of(
+            new Column<>("Cliente", SaleResponseDTO::getClientName),
+            new Column<>("Código", s -> firstItem(s) != null ? firstItem(s).getProductCode() : ""),
+            new Column<>("Produto", s -> firstItem(s) != null ? firstItem(s).getProductName() : ""),
+            new Column<>("Valor", SaleResponseDTO::getTotalAmount),
+            new Column<>("Status", SaleResponseDTO::getStatus),
+            new Column<>("Data", s -> displayDate(s.getSaleDate())));
 
     @FXML
     public void initialize() {
@@ -64,13 +90,25 @@ public class SaleController {
         ));
         periodComboBox.getSelectionModel().selectFirst();
 
+        // As datas ouvem a lista antes do filtro, para o predicado já ver a data das vendas novas
+        saleDates.track(salesList);
         filteredSales = new FilteredList<>(salesList, s -> true);
         salesTable.setItems(filteredSales);
+        display.track(salesList);
+
+        pageLoader = new PagedTableLoader<>(salesTable, PAGE_SIZE,
+                (page, size) -> saleService.listSalesPage(page, size, token),
+                this::appendSalesPage);
+        pageLoader.setOnError(cause -> {
+            AlertUtil.showError("Erro", "Falha ao carregar vendas: " + cause.getMessage());
+            cause.printStackTrace();
+        });
 
         loadSales();
         loadTotalSales();
 
         periodComboBox.setOnAction(event -> loadTotalSales());
+        applyFilterButton.setOnAction(event -> applyPeriodFilter());
         deleteButton.setOnAction(event -> deleteSelectedSale());
         newSaleButton.setOnAction(event -> openNewSaleForm());
         cancelButton.setOnAction(event -> cancelSelectedSale());
@@ -79,70 +117,57 @@ public class SaleController {
         exportHtmlButton.setOnAction(event -> exportSelectedSale("html"));
         exportExcelButton.setOnAction(event -> exportSelectedSale("xlsx"));
 
-        searchField.textProperty().addListener((obs, oldText, newText) -> filterSales(newText));
+        searchField.textProperty().addListener((obs, oldText, newText) -> filterSales());
+    }
+
+    @Override
+    public void onShow() {
+        loadTotalSales();
     }
 
     private void setupTable() {
-        clientColumn.setCellValueFactory(c -> new SimpleStringProperty(c.getValue().getClientName()));
-        NumberFormat formatter = NumberFormat.getCurrencyInstance(new Locale("pt", "MZ"));
-        totalColumn.setCellValueFactory(c -> new SimpleStringProperty(
-                c.getValue().getTotalAmount() != null ? formatter.format(c.getValue().getTotalAmount()) : formatter.format(0)
-        ));
-        statusColumn.setCellValueFactory(c -> new SimpleStringProperty(
-                c.getValue().getStatus() != null ? c.getValue().getStatus() : ""
-        ));
-        dateColumn.setCellValueFactory(c -> {
-            String rawDate = c.getValue().getSaleDate();
-            if (rawDate == null || rawDate.isBlank()) return new SimpleStringProperty("");
-            try {
-                LocalDateTime dateTime = LocalDateTime.parse(rawDate, DateTimeFormatter.ISO_DATE_TIME);
-                return new SimpleStringProperty(dateTime.format(DISPLAY_FORMAT));
-            } catch (DateTimeParseException e) {
-                return new SimpleStringProperty(rawDate);
-            }
-        });
-        productColumn.setCellValueFactory(c -> {
-            if (c.getValue().getItems() != null && !c.getValue().getItems().isEmpty()) {
-                return new SimpleStringProperty(c.getValue().getItems().get(0).getProductName());
-            }
-            return new SimpleStringProperty("");
-        });
-        codeColumn.setCellValueFactory(c -> {
-            if (c.getValue().getItems() != null && !c.getValue().getItems().isEmpty()) {
-                return new SimpleStringProperty(c.getValue().getItems().get(0).getProductCode());
-            }
-            return new SimpleStringProperty("");
-        });
+        display.bind(clientColumn, SaleResponseDTO::getClientName)
+                .bind(codeColumn, s -> firstItem(s) != null ? firstItem(s).getProductCode() : "")
+                .bind(productColumn, s -> firstItem(s) != null ? firstItem(s).getProductName() : "")
+                .bind(totalColumn, s -> FormatUtil.formatCurrency(s.getTotalAmount() != null ? s.getTotalAmount() : BigDecimal.ZERO))
+                .bind(statusColumn, s -> s.getStatus() != null ? s.getStatus() : "")
+                .bind(dateColumn, s -> displayDate(s.getSaleDate(), saleDates.dateOf(s)));
+    }
+
+    private static String displayDate(String rawDate) {
+        return displayDate(rawDate, DateTimeUtil.parseIso(rawDate));
+    }
+
+    private static String displayDate(String rawDate, LocalDateTime parsed) {
+        if (parsed != null) return DateTimeUtil.formatShort(parsed);
+        return rawDate != null ? rawDate : "";
+    }
+
+    private static SaleItemDTO firstItem(SaleResponseDTO sale) {
+        return sale.getItems() != null && !sale.getItems().isEmpty() ? sale.getItems().get(0) : null;
     }
 
     private void loadSales() {
-        saleService.listSales(token)
-                .thenAccept(sales -> Platform.runLater(() -> {
-                    if (sales == null || sales.isEmpty()) {
-                        salesList.clear();
-                        AlertUtil.showInfo("Vendas", "Nenhuma venda encontrada.");
-                    } else {
-                        salesList.setAll(sales);
-                        updateResultsCount();
-                    }
-                }))
-                .exceptionally(ex -> {
-                    Platform.runLater(() -> {
-                        Throwable cause = ex.getCause() != null ? ex.getCause() : ex;
-                        AlertUtil.showError("Erro", "Falha ao carregar vendas: " + cause.getMessage());
-                        cause.printStackTrace();
-                    });
-                    return null;
-                });
+        salesList.clear();
+        pageLoader.reload();
+    }
+
+    private void appendSalesPage(PageResponse<SaleResponseDTO> page) {
+        if (page.getPageNumber() == 0 && page.getContent().isEmpty() && salesList.isEmpty()) {
+            AlertUtil.showInfo("Vendas", "Nenhuma venda encontrada.");
+            return;
+        }
+        // Por id: uma venda que mudou de página entre pedidos não aparece duas vezes
+        salesList.upsertAll(page.getContent());
+        updateResultsCount();
+        loadPeriodIfMissing();
     }
 
     private void loadTotalSales() {
         String period = mapPeriod(periodComboBox.getValue());
         saleService.getTotalSales(period, token)
-                .thenAccept(total -> Platform.runLater(() -> {
-                    NumberFormat formatter = NumberFormat.getCurrencyInstance(new Locale("pt", "MZ"));
-                    totalSalesLabel.setText(formatter.format(total));
-                }))
+                .thenAccept(total -> Platform.runLater(() ->
+                        totalSalesLabel.setText(FormatUtil.formatCurrency(total != null ? total : BigDecimal.ZERO))))
                 .exceptionally(ex -> {
                     Platform.runLater(() -> totalSalesLabel.setText("Mzn 0,00"));
                     return null;
@@ -160,16 +185,48 @@ public class SaleController {
         }
     }
 
-    private void filterSales(String query) {
-        if (query == null || query.isBlank()) {
-            filteredSales.setPredicate(s -> true);
-        } else {
+    private LocalDateTime periodStart(String period) {
+        LocalDateTime now = LocalDateTime.now();
+        switch (mapPeriod(period)) {
+            case "3months": return now.minusMonths(3);
+            case "6months": return now.minusMonths(6);
+            case "year": return now.minusYears(1);
+            default: return now.minusMonths(1);
+        }
+    }
+
+    /** 🔹 Filtra a tabela pelo período escolhido, com as datas já interpretadas (sem pedir ao servidor) */
+    private void applyPeriodFilter() {
+        period = periodComboBox.getValue();
+        filterSales();
+        loadPeriodIfMissing();
+    }
+
+    /** As vendas carregadas ainda não chegam ao início do período: pede a página seguinte ao servidor */
+    private void loadPeriodIfMissing() {
+        if (period == null || !pageLoader.hasMore()) return;
+        LocalDateTime earliest = saleDates.earliest();
+        if (earliest == null || !earliest.isBefore(periodStart(period))) pageLoader.loadNextPage();
+    }
+
+    private void filterSales() {
+        String query = searchField.getText();
+        Predicate<SaleResponseDTO> predicate = s -> true;
+        if (query != null && !query.isBlank()) {
             String lowerCase = query.toLowerCase();
-            filteredSales.setPredicate(sale ->
+            predicate = sale ->
                     sale.getClientName().toLowerCase().contains(lowerCase) ||
-                            (sale.getSaleCode() != null && sale.getSaleCode().toLowerCase().contains(lowerCase))
-            );
+                            (sale.getSaleCode() != null && sale.getSaleCode().toLowerCase().contains(lowerCase));
         }
+        if (period != null) {
+            // Início do período calculado agora; cada venda (incluindo as que chegam depois) é testada pela sua data
+            LocalDateTime start = periodStart(period);
+            predicate = predicate.and(sale -> {
+                LocalDateTime date = saleDates.dateOf(sale);
+                return date != null && !date.isBefore(start);
+            });
+        }
+        filteredSales.setPredicate(predicate);
         updateResultsCount();
     }
 
@@ -189,7 +246,7 @@ public class SaleController {
 
         saleService.deleteSale(selected.getId(), token)
                 .thenRun(() -> Platform.runLater(() -> {
-                    salesList.remove(selected);
+                    salesList.removeById(selected.getId());
                     updateResultsCount();
                     loadTotalSales();
                     AlertUtil.showInfo("Sucesso", "Venda deletada com sucesso!");
@@ -219,8 +276,7 @@ public class SaleController {
         saleService.cancelSale(selected.getId(), token)
                 .thenAccept(updatedSale -> Platform.runLater(() -> {
                     if (updatedSale != null) {
-                        int index = salesList.indexOf(selected);
-                        if (index >= 0) salesList.set(index, updatedSale);
+                        salesList.replace(updatedSale);
                         AlertUtil.showInfo("Sucesso", "Venda cancelada com sucesso!");
                         loadTotalSales();
                     } else {
@@ -258,6 +314,38 @@ public class SaleController {
     }
 
     // ================= EXPORT METHODS =================
+    // Tabela inteira: linhas visíveis ou todas as páginas do servidor com a pesquisa atual
+    @FXML
+    private void exportTableCsv() {
+        exportTable(Format.CSV, false);
+    }
+
+    @FXML
+    private void exportTableXlsx() {
+        exportTable(Format.XLSX, false);
+    }
+
+    @FXML
+    private void exportAllCsv() {
+        exportTable(Format.CSV, true);
+    }
+
+    @FXML
+    private void exportAllXlsx() {
+        exportTable(Format.XLSX, true);
+    }
+
+    private void exportTable(Format format, boolean allPages) {
+        Predicate<? super SaleResponseDTO> filter =
+                filteredSales.getPredicate() != null ? filteredSales.getPredicate() : sale -> true;
+        TableExportTask.RowSource<SaleResponseDTO> source = allPages
+                ? TableExportTask.pages((page, size) -> saleService.listSalesPage(page, size, token), filter)
+                : TableExportTask.snapshot(salesTable.getItems());
+
+        new TableExportTask<>("vendas", format, EXPORT_COLUMNS, source)
+                .startWithProgress(salesTable.getScene().getWindow());
+    }
+
     private void exportSelectedSale(String format) {
         SaleResponseDTO selected = salesTable.getSelectionModel().getSelectedItem();
         if (selected == null) {
@@ -265,61 +353,43 @@ public class SaleController {
             return;
         }
 
-        CompletableFuture<byte[]> exportFuture;
-
-        switch (format.toLowerCase()) {
-            case "pdf":
-                exportFuture = saleService.exportSaleToPdf(selected.getId(), token);
-                break;
-            case "html":
-                exportFuture = saleService.exportSaleToHtml(selected.getId(), token);
-                break;
-            case "xlsx":
-            case "excel":
-                exportFuture = saleService.exportSaleToExcel(selected.getId(), token);
-                break;
-            default:
-                AlertUtil.showError("Erro", "Formato de exportação não suportado: " + format);
-                return;
+        if (format.equalsIgnoreCase("pdf") && DocumentExporter.isLocal()) {
+            exportSalePdfLocally(selected);
+            return;
         }
 
-        exportFuture.thenAccept(bytes -> {
-            if (bytes == null || bytes.length == 0) {
-                Platform.runLater(() -> AlertUtil.showError("Erro", "O servidor retornou um arquivo vazio."));
-                return;
-            }
-            Platform.runLater(() -> saveFileToDownloads(bytes, format, selected.getId().toString()));
-        }).exceptionally(ex -> {
-            Platform.runLater(() -> {
-                Throwable cause = ex.getCause() != null ? ex.getCause() : ex;
-                AlertUtil.showError("Erro", "Falha ao exportar venda: " + cause.getMessage());
-                cause.printStackTrace();
-            });
-            return null;
-        });
+        // O relatório vai do servidor direto para o disco, sem passar inteiro pela memória
+        HttpRequest request;
+        try {
+            request = saleService.exportSaleRequest(selected.getId(), format, token);
+        } catch (IllegalArgumentException e) {
+            AlertUtil.showError("Erro", e.getMessage());
+            return;
+        }
+        String extension = format.equalsIgnoreCase("excel") ? "xlsx" : format.toLowerCase();
+        ExportDownloadManager.download(request, "Venda_" + selected.getId() + "." + extension)
+                .startWithProgress(salesTable.getScene().getWindow());
     }
 
-    // Salva automaticamente na pasta Downloads
-    private void saveFileToDownloads(byte[] data, String format, String saleCode) {
-        new Thread(() -> {
-            try {
-                String userHome = System.getProperty("user.home");
-                File downloadsFolder = new File(userHome, "Downloads");
-                if (!downloadsFolder.exists()) downloadsFolder.mkdirs();
-                Date now = new Date();
-                File file = new File(downloadsFolder, "Venda_"+now.getSeconds()+ saleCode + "." + format);
-                try (FileOutputStream fos = new FileOutputStream(file)) {
-                    fos.write(data);
-                }
-
-                Platform.runLater(() ->
-                        AlertUtil.showInfo("Sucesso", "Arquivo exportado com sucesso em: " + file.getAbsolutePath())
-                );
-            } catch (IOException e) {
-                Platform.runLater(() ->
-                        AlertUtil.showError("Erro", "Falha ao salvar arquivo: " + e.getMessage())
-                );
-            }
-        }).start();
+    // 🔹 PDF gerado no posto: do servidor só vêm os dados da venda (se a linha ainda não tiver os itens)
+    private void exportSalePdfLocally(SaleResponseDTO selected) {
+        CompletableFuture<SaleResponseDTO> sale = selected.getItems() != null && !selected.getItems().isEmpty()
+                ? CompletableFuture.completedFuture(selected)
+                : saleService.getSaleById(selected.getId(), token);
+
+        sale.thenCompose(full -> {
+                    if (full == null) throw new IllegalStateException("Venda não encontrada");
+                    DocumentModel model = DocumentModel.of(full);
+                    return DocumentExporter.exportPdf(model, ExportDownloadManager.downloadsDir());
+                })
+                .thenAccept(file -> Platform.runLater(() ->
+                        AlertUtil.showInfo("Sucesso", "Arquivo exportado com sucesso em: " + file)))
+                .exceptionally(ex -> {
+                    Platform.runLater(() -> {
+                        Throwable cause = ex.getCause() != null ? ex.getCause() : ex;
+                        AlertUtil.showError("Erro", "Falha ao exportar venda: " + cause.getMessage());
+                    });
+                    return null;
+                });
     }
 }
@@ -5,20 +5,31 @@ import javafx.collections.FXCollections;
 import javafx.collections.ObservableList;
 import javafx.fxml.FXML;
 import javafx.scene.control.*;
+import javafx.scene.control.cell.TextFieldTableCell;
 import javafx.stage.Stage;
+import javafx.util.converter.IntegerStringConverter;
 import org.manager.dto.*;
 import org.manager.enums.PaymentMethod;
+import org.manager.model.CartSummary;
+import org.manager.search.ProductComboBoxSearch;
+import org.manager.search.ProductSearchIndex;
 import org.manager.service.ProductService;
-import org.manager.service.SaleService;
 import org.manager.service.WarehouseService;
 import org.manager.session.SessionManager;
+import org.manager.store.LocalStores;
+import org.manager.store.OfflineFirstLoader;
+import org.manager.store.SaleOutbox;
 import org.manager.util.AlertUtil;
+import org.manager.util.LatencyHistogram;
 import org.manager.util.SetupComboBoxDisplay;
+import org.manager.view.ColumnBinding;
 
+import java.io.IOException;
+import java.io.UncheckedIOException;
 import java.math.BigDecimal;
-import java.math.RoundingMode;
 import java.util.ArrayList;
-import java.util.concurrent.CompletableFuture;
+import java.util.HashMap;
+import java.util.Map;
 
 public class SaleFormController {
 
@@ -28,6 +39,9 @@ public class SaleFormController {
     @FXML private TextField discountField;
     @FXML private TextField amountPaidField;
 
+    @FXML private TextField scanField;
+    @FXML private Label scanStatusLabel;
+
     @FXML private ComboBox<ProductResponseDTO> productComboBox;
     @FXML private TextField quantityField;
     @FXML private Button addItemButton;
@@ -44,7 +58,6 @@ public class SaleFormController {
     @FXML private Label totalLabel;
     @FXML private Label changeLabel;
 
-    private final SaleService saleService = new SaleService();
     private final ProductService productService = new ProductService();
     private final WarehouseService warehouseService = new WarehouseService();
     private final String token = SessionManager.getToken();
@@ -54,6 +67,17 @@ public class SaleFormController {
     private final ObservableList<SaleItemRequestDTO> itemsList = FXCollections.observableArrayList();
     private final ObservableList<ProductResponseDTO> productList = FXCollections.observableArrayList();
     private final ObservableList<WarehouseResponseDTO> warehouseList = FXCollections.observableArrayList();
+    private final ProductSearchIndex productIndex = new ProductSearchIndex();
+
+    // Uma linha por produto: leituras repetidas incrementam a quantidade em vez de criar outra linha
+    private final Map<Long, SaleItemRequestDTO> linesByProduct = new HashMap<>();
+    // Preço e IVA com que cada linha foi calculada (para recalcular a linha sem o produto carregado)
+    private final Map<Long, Pricing> pricingByProduct = new HashMap<>();
+    private final CartSummary cart = new CartSummary();
+    private final LatencyHistogram scanLatency = new LatencyHistogram("Leitura código → linha");
+    private final Tooltip scanLatencyTooltip = new Tooltip();
+
+    private static final BigDecimal ONE_HUNDRED = BigDecimal.valueOf(100);
 
     private Runnable onSaleCreated;
 
@@ -68,6 +92,7 @@ public class SaleFormController {
         loadProducts();
         loadWarehouses();
         bindActions();
+        setupScanInput();
     }
 
     private void setupComboBoxes() {
@@ -75,16 +100,40 @@ public class SaleFormController {
         paymentMethodComboBox.setValue(PaymentMethod.CASH);
 
         SetupComboBoxDisplay.setupComboBoxDisplay(productComboBox, ProductResponseDTO::getName);
+        productIndex.track(productList);
+        ProductComboBoxSearch.install(productComboBox, productList, productIndex);
         SetupComboBoxDisplay.setupComboBoxDisplay(warehouseComboBox, WarehouseResponseDTO::getName);
     }
 
     private void setupTable() {
         itemsTable.setItems(itemsList);
-        productColumn.setCellValueFactory(cell -> new javafx.beans.property.SimpleStringProperty(cell.getValue().getProductName()));
-        quantityColumn.setCellValueFactory(cell -> new javafx.beans.property.SimpleObjectProperty<>(cell.getValue().getQuantity()));
-        priceColumn.setCellValueFactory(cell -> new javafx.beans.property.SimpleObjectProperty<>(cell.getValue().getUnitPrice()));
-        taxColumn.setCellValueFactory(cell -> new javafx.beans.property.SimpleObjectProperty<>(cell.getValue().getTaxAmount()));
-        subtotalColumn.setCellValueFactory(cell -> new javafx.beans.property.SimpleObjectProperty<>(cell.getValue().getSubtotalWithTax()));
+        ColumnBinding.bind(productColumn, SaleItemRequestDTO::getProductName);
+        ColumnBinding.bind(quantityColumn, SaleItemRequestDTO::getQuantity);
+        ColumnBinding.bind(priceColumn, SaleItemRequestDTO::getUnitPrice);
+        ColumnBinding.bind(taxColumn, SaleItemRequestDTO::getTaxAmount);
+        ColumnBinding.bind(subtotalColumn, SaleItemRequestDTO::getSubtotalWithTax);
+
+        // Quantidade editável diretamente na linha
+        itemsTable.setEditable(true);
+        quantityColumn.setCellFactory(TextFieldTableCell.forTableColumn(new IntegerStringConverter() {
+            @Override
+            public Integer fromString(String value) {
+                try {
+                    return super.fromString(value);
+                } catch (NumberFormatException e) {
+                    return null;
+                }
+            }
+        }));
+        quantityColumn.setOnEditCommit(event -> {
+            int row = event.getTablePosition().getRow();
+            Integer quantity = event.getNewValue();
+            if (quantity == null || quantity <= 0) {
+                itemsList.set(row, event.getRowValue()); // repõe o valor anterior na célula
+                return;
+            }
+            changeQuantity(row, quantity);
+        });
     }
 
     private void bindActions() {
@@ -96,15 +145,42 @@ public class SaleFormController {
         amountPaidField.textProperty().addListener((obs, oldVal, newVal) -> updateTotalAndChange());
     }
 
+    // ================= LEITURA DE CÓDIGO DE BARRAS =================
+    private void setupScanInput() {
+        // Leitores "keyboard-wedge" digitam o código e enviam Enter, que dispara o onAction do campo
+        scanField.setOnAction(e -> handleScan());
+        scanStatusLabel.setTooltip(scanLatencyTooltip);
+        Platform.runLater(scanField::requestFocus);
+    }
+
+    private void handleScan() {
+        long start = System.nanoTime();
+        String code = scanField.getText();
+        scanField.clear();
+        if (code == null || code.isBlank()) return;
+
+        ProductResponseDTO product = productIndex.findByCode(code);
+        if (product == null) {
+            scanStatusLabel.setText("Código não encontrado: " + code.strip());
+            return;
+        }
+
+        SaleItemRequestDTO line = addOrIncrement(product, 1);
+        scanLatency.record(System.nanoTime() - start);
+
+        scanStatusLabel.setText(product.getName() + " × " + line.getQuantity());
+        scanLatencyTooltip.setText(scanLatency.summary());
+    }
+
+    // Cópia local primeiro: a leitura de códigos funciona mesmo antes (ou sem) resposta do servidor
     private void loadProducts() {
-        productService.getAllProducts(token)
-                .thenAccept(products -> Platform.runLater(() -> productList.setAll(products)))
-                .exceptionally(ex -> {
-                    Platform.runLater(() -> AlertUtil.showError("Erro", "Falha ao carregar produtos."));
+        OfflineFirstLoader.load(LocalStores.products(),
+                () -> productService.getAllProducts(token),
+                productList::setAll,
+                ex -> {
+                    AlertUtil.showError("Erro", "Falha ao carregar produtos.");
                     ex.printStackTrace();
-                    return null;
                 });
-        productComboBox.setItems(productList);
     }
 
     private void loadWarehouses() {
@@ -135,62 +211,111 @@ public class SaleFormController {
             return;
         }
 
-        BigDecimal unitPrice = selectedProduct.getSellingPrice() != null ? selectedProduct.getSellingPrice() : BigDecimal.ZERO;
-        BigDecimal taxPercentage = selectedProduct.getTaxPercentage() != null ? selectedProduct.getTaxPercentage() : BigDecimal.ZERO;
-        boolean taxIncluded = Boolean.TRUE.equals(selectedProduct.getIsTaxIncluded());
-
-        BigDecimal subtotalWithoutTax = unitPrice.multiply(BigDecimal.valueOf(quantity));
-        BigDecimal taxAmount;
-        BigDecimal subtotal;
+        addOrIncrement(selectedProduct, quantity);
+        quantityField.clear();
+        productComboBox.setValue(null);
+    }
 
-        if (taxIncluded) {
-            taxAmount = BigDecimal.ZERO;
-            subtotal = subtotalWithoutTax.setScale(2, RoundingMode.HALF_UP);
+    /** 🔹 Adiciona o produto ao carrinho ou soma a quantidade à linha já existente */
+    private SaleItemRequestDTO addOrIncrement(ProductResponseDTO product, int quantity) {
+        SaleItemRequestDTO line = linesByProduct.get(product.getId());
+
+        if (line == null) {
+            line = SaleItemRequestDTO.builder()
+                    .productId(product.getId())
+                    .productName(product.getName())
+                    .build();
+            priceLine(line, product, quantity);
+            linesByProduct.put(product.getId(), line);
+            itemsList.add(line);
+            addToCart(line);
         } else {
-            taxAmount = subtotalWithoutTax.multiply(taxPercentage)
-                    .divide(BigDecimal.valueOf(100), 2, RoundingMode.HALF_UP);
-            subtotal = subtotalWithoutTax.add(taxAmount).setScale(2, RoundingMode.HALF_UP);
+            removeFromCart(line);
+            priceLine(line, product, line.getQuantity() + quantity);
+            addToCart(line);
+
+            int row = rowOf(line);
+            if (row >= 0) itemsList.set(row, line); // atualiza só esta linha da tabela
         }
 
-        SaleItemRequestDTO item = SaleItemRequestDTO.builder()
-                .productId(selectedProduct.getId())
-                .productName(selectedProduct.getName())
-                .quantity(quantity)
-                .unitPrice(unitPrice)
-                .taxAmount(taxAmount)
-                .subtotal(subtotalWithoutTax) // subtotal sem IVA
-                .build();
+        updateTotalAndChange();
+        return line;
+    }
 
-        itemsList.add(item);
-        itemsTable.refresh(); // força atualização da tabela
-        quantityField.clear();
-        productComboBox.setValue(null);
+    private void changeQuantity(int row, int quantity) {
+        SaleItemRequestDTO line = itemsList.get(row);
+        ProductResponseDTO product = productIndex.findById(line.getProductId());
+
+        removeFromCart(line);
+        if (product != null) {
+            priceLine(line, product, quantity);
+        } else {
+            // Produto já não está na lista carregada: recalcula com o preço e o IVA que a linha já tinha
+            priceLine(line, pricingByProduct.get(line.getProductId()), quantity);
+        }
+        addToCart(line);
+
+        itemsList.set(row, line);
         updateTotalAndChange();
     }
 
+    private void addToCart(SaleItemRequestDTO line) {
+        cart.addLine(CartSummary.toCents(line.getSubtotal()), CartSummary.toCents(line.getTaxAmount()), line.getQuantity());
+    }
+
+    private void removeFromCart(SaleItemRequestDTO line) {
+        cart.removeLine(CartSummary.toCents(line.getSubtotal()), CartSummary.toCents(line.getTaxAmount()), line.getQuantity());
+    }
+
+    private void priceLine(SaleItemRequestDTO line, ProductResponseDTO product, int quantity) {
+        Pricing pricing = new Pricing(
+                product.getSellingPrice() != null ? product.getSellingPrice() : BigDecimal.ZERO,
+                product.getTaxPercentage() != null ? product.getTaxPercentage() : BigDecimal.ZERO,
+                Boolean.TRUE.equals(product.getIsTaxIncluded()));
+        pricingByProduct.put(product.getId(), pricing);
+        priceLine(line, pricing, quantity);
+    }
+
+    private void priceLine(SaleItemRequestDTO line, Pricing pricing, int quantity) {
+        // Preço × quantidade com a precisão toda; subtotal e IVA são arredondados uma vez por linha
+        BigDecimal lineSubtotal = pricing.unitPrice().multiply(BigDecimal.valueOf(quantity));
+        long subtotalCents = CartSummary.toCents(lineSubtotal);
+        long taxCents = pricing.taxIncluded() ? 0 : CartSummary.toCents(
+                lineSubtotal.multiply(pricing.taxPercentage()).divide(ONE_HUNDRED));
+
+        line.setQuantity(quantity);
+        line.setUnitPrice(pricing.unitPrice());
+        line.setTaxAmount(CartSummary.fromCents(taxCents));
+        line.setSubtotal(CartSummary.fromCents(subtotalCents)); // subtotal sem IVA
+    }
+
+    private record Pricing(BigDecimal unitPrice, BigDecimal taxPercentage, boolean taxIncluded) {}
+
+    private int rowOf(SaleItemRequestDTO line) {
+        for (int i = 0; i < itemsList.size(); i++) {
+            if (itemsList.get(i) == line) return i;
+        }
+        return -1;
+    }
+
     @FXML
     private void removeSelectedItem() {
-        SaleItemRequestDTO selected = itemsTable.getSelectionModel().getSelectedItem();
-        if (selected != null) {
-            itemsList.remove(selected);
-            itemsTable.refresh(); // força atualização
+        int row = itemsTable.getSelectionModel().getSelectedIndex();
+        if (row >= 0) {
+            SaleItemRequestDTO selected = itemsList.remove(row);
+            if (linesByProduct.remove(selected.getProductId(), selected)) pricingByProduct.remove(selected.getProductId());
+            removeFromCart(selected);
             updateTotalAndChange();
         }
     }
 
     private void updateTotalAndChange() {
-        BigDecimal total = itemsList.stream()
-                .map(SaleItemRequestDTO::getSubtotalWithTax)
-                .reduce(BigDecimal.ZERO, BigDecimal::add);
-
-        BigDecimal discount = parseBigDecimal(discountField.getText());
-        total = total.subtract(discount).max(BigDecimal.ZERO);
+        // O(1): só os dois campos de texto são lidos, os totais do carrinho já estão calculados
+        long totalCents = cart.totalAfterDiscountCents(CartSummary.toCents(parseBigDecimal(discountField.getText())));
+        totalLabel.setText(CartSummary.fromCents(totalCents).toString());
 
-        totalLabel.setText(total.setScale(2, RoundingMode.HALF_UP).toString());
-
-        BigDecimal amountPaid = parseBigDecimal(amountPaidField.getText());
-        BigDecimal change = amountPaid.subtract(total).max(BigDecimal.ZERO);
-        changeLabel.setText(change.setScale(2, RoundingMode.HALF_UP).toString());
+        long amountPaidCents = CartSummary.toCents(parseBigDecimal(amountPaidField.getText()));
+        changeLabel.setText(CartSummary.fromCents(Math.max(0, amountPaidCents - totalCents)).toString());
     }
 
     @FXML
@@ -205,11 +330,8 @@ public class SaleFormController {
             return;
         }
 
-        BigDecimal totalAfterDiscount = itemsList.stream()
-                .map(SaleItemRequestDTO::getSubtotalWithTax)
-                .reduce(BigDecimal.ZERO, BigDecimal::add)
-                .subtract(parseBigDecimal(discountField.getText()))
-                .max(BigDecimal.ZERO);
+        BigDecimal totalAfterDiscount = CartSummary.fromCents(
+                cart.totalAfterDiscountCents(CartSummary.toCents(parseBigDecimal(discountField.getText()))));
 
         BigDecimal amountPaid = parseBigDecimal(amountPaidField.getText());
         if (amountPaid.compareTo(totalAfterDiscount) < 0) {
@@ -230,17 +352,29 @@ public class SaleFormController {
                 .userName(SessionManager.getCurrentUser())
                 .build();
 
-        CompletableFuture<SaleResponseDTO> future = saleService.createSale(saleRequest, token,userId);
-        future.thenRun(() -> Platform.runLater(() -> {
-            AlertUtil.showInfo("Sucesso", "Venda criada com sucesso!");
+        // 🔹 A venda fica gravada localmente e é enviada em segundo plano (com novas tentativas)
+        SaleOutbox.Ticket ticket;
+        try {
+            ticket = SaleOutbox.get().submit(saleRequest);
+        } catch (IOException | UncheckedIOException e) {
+            AlertUtil.showError("Erro", "Falha ao registar venda: " + e.getMessage());
+            e.printStackTrace();
+            return;
+        }
+
+        Runnable onSaleCreated = this.onSaleCreated;
+        ticket.delivered().thenRun(() -> Platform.runLater(() -> {
             if (onSaleCreated != null) onSaleCreated.run();
-            clearForm();
-            submitButton.getScene().getWindow().hide();
         })).exceptionally(ex -> {
             Platform.runLater(() -> AlertUtil.showError("Erro", "Falha ao criar venda: " + ex.getMessage()));
             ex.printStackTrace();
             return null;
         });
+
+        AlertUtil.showInfo("Sucesso", "Venda registada. Será enviada ao servidor assim que possível.");
+        reportScanLatency();
+        clearForm();
+        submitButton.getScene().getWindow().hide();
     }
 
     @FXML
@@ -249,6 +383,7 @@ public class SaleFormController {
     }
 
     private void closeForm() {
+        reportScanLatency();
         Stage stage = (Stage) clientNameField.getScene().getWindow();
         if (stage != null) stage.close();
     }
@@ -258,7 +393,10 @@ public class SaleFormController {
         discountField.clear();
         amountPaidField.clear();
         itemsList.clear();
-        itemsTable.refresh();
+        linesByProduct.clear();
+        pricingByProduct.clear();
+        cart.clear();
+        scanStatusLabel.setText(null);
         totalLabel.setText("0.00");
         changeLabel.setText("0.00");
         paymentMethodComboBox.setValue(PaymentMethod.CASH);
@@ -267,6 +405,10 @@ public class SaleFormController {
         quantityField.clear();
     }
 
+    private void reportScanLatency() {
+        if (scanLatency.count() > 0) System.out.println(scanLatency.summary());
+    }
+
     private BigDecimal parseBigDecimal(String text) {
         try {
             return (text == null || text.isBlank()) ? BigDecimal.ZERO : new BigDecimal(text);
@@ -1,24 +1,24 @@
 package org.manager.controller;
 
 import javafx.animation.FadeTransition;
-import javafx.fxml.FXMLLoader;
-import javafx.scene.Node;
 import javafx.scene.layout.StackPane;
 import javafx.stage.Stage;
 import javafx.util.Duration;
+import org.manager.view.ViewRegistry;
 
 public class ScreenController {
     private final StackPane container;
+    private final ViewRegistry views;
 
     public ScreenController(StackPane container) {
         this.container = container;
+        this.views = new ViewRegistry(container);
     }
 
     public void setScreen(String fxml, String title) {
         try {
 
-           Node node= FXMLLoader.load(getClass().getResource(fxml));
-           container.getChildren().setAll(node);
+           views.show(fxml);
 
         } catch (Exception e) {
             e.printStackTrace();
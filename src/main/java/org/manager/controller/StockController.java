@@ -1,7 +1,5 @@
 package org.manager.controller;
 import javafx.application.Platform;
-import javafx.collections.FXCollections;
-import javafx.collections.ObservableList;
 import javafx.collections.transformation.FilteredList;
 import javafx.collections.transformation.SortedList;
 import javafx.fxml.FXML;
@@ -9,19 +7,28 @@ import javafx.fxml.FXMLLoader;
 import javafx.scene.Parent;
 import javafx.scene.Scene;
 import javafx.scene.control.*;
-import javafx.scene.control.cell.PropertyValueFactory;
 import javafx.stage.Modality;
 import javafx.stage.Stage;
 import javafx.stage.StageStyle;
 import org.manager.dto.StockResponseDTO;
+import org.manager.export.TableExportTask;
+import org.manager.export.TableExportTask.Column;
+import org.manager.export.TableExportTask.Format;
 import org.manager.service.StockService;
+import org.manager.store.LocalStores;
+import org.manager.store.OfflineFirstLoader;
 import org.manager.session.SessionManager;
+import org.manager.sync.ChangeFeedClient;
+import org.manager.sync.IdIndexedObservableList;
 import org.manager.util.AlertUtil;
+import org.manager.view.ColumnBinding;
+import org.manager.view.ViewLifecycle;
 
 import java.io.IOException;
+import java.util.List;
 import java.util.logging.Logger;
 
-public class StockController {
+public class StockController implements ViewLifecycle {
 
     @FXML private TableView<StockResponseDTO> stockTable;
 
@@ -36,33 +43,41 @@ public class StockController {
     private final StockService stockService = new StockService();
     private final String token = SessionManager.getToken();
     private static final Logger logger = Logger.getLogger(StockController.class.getName());
-    private final ObservableList<StockResponseDTO> allStockData = FXCollections.observableArrayList();
+    // Sem updatedAt no stock: as linhas alteradas são detetadas pelo conteúdo
+    private final IdIndexedObservableList<StockResponseDTO> allStockData =
+            new IdIndexedObservableList<>(StockResponseDTO::getId);
     private FilteredList<StockResponseDTO> filteredData;
     private SortedList<StockResponseDTO> sortedData;
 
+    // Colunas exportadas (as mesmas da tabela)
+    private static final List<Column<StockResponseDTO>> EXPORT_COLUMNS = List.of(
+            new Column<>("ID", StockResponseDTO::getId),
+            new Column<>("Produto", StockResponseDTO::getProductName),
+            new Column<>("Armazém", StockResponseDTO::getWarehouseName),
+            new Column<>("Quantidade", StockResponseDTO::getQuantity));
+
     @FXML
     private void initialize() {
         setupTable();
         loadStock();
         setupSearch();
+        subscribeToChanges();
+    }
+
+    // Com as notificações ligadas a tabela já está em dia
+    @Override
+    public void onShow() {
+        if (!ChangeFeedClient.get().isConnected()) loadStock();
     }
 
     // ============================
     // CONFIGURAÇÃO DA TABELA
     // ============================
     private void setupTable() {
-        colId.setCellValueFactory(cellData ->
-                new javafx.beans.property.ReadOnlyObjectWrapper<>(cellData.getValue().getId())
-        );
-        colProduct.setCellValueFactory(cellData ->
-                new javafx.beans.property.ReadOnlyStringWrapper(cellData.getValue().getProductName())
-        );
-        colWarehouse.setCellValueFactory(cellData ->
-                new javafx.beans.property.ReadOnlyStringWrapper(cellData.getValue().getWarehouseName())
-        );
-        colQuantity.setCellValueFactory(cellData ->
-                new javafx.beans.property.ReadOnlyObjectWrapper<>(cellData.getValue().getQuantity())
-        );
+        ColumnBinding.bind(colId, StockResponseDTO::getId);
+        ColumnBinding.bind(colProduct, StockResponseDTO::getProductName);
+        ColumnBinding.bind(colWarehouse, StockResponseDTO::getWarehouseName);
+        ColumnBinding.bind(colQuantity, StockResponseDTO::getQuantity);
     }
 
 
@@ -70,20 +85,33 @@ public class StockController {
     // CARREGAR STOCK
     // ============================
     private void loadStock() {
-        logger.info("Carregando stock do backend...");
-        stockService.getAllAsync(token)
-                .thenAccept(list -> Platform.runLater(() -> {
-                    allStockData.setAll(list);
+        logger.info("Carregando stock (cópia local + backend)...");
+        OfflineFirstLoader.load(LocalStores.stock(),
+                () -> stockService.getAllAsync(token),
+                list -> {
+                    allStockData.merge(list);
                     logger.info("Stock carregado com sucesso. Total de itens: " + list.size());
-                    logger.info("Stock carregado com sucesso.  Itens: " + list);
-                }))
-                .exceptionally(ex -> {
-                    Platform.runLater(() -> AlertUtil.showError("Erro", "Falha ao carregar stock."));
+                },
+                ex -> {
+                    AlertUtil.showError("Erro", "Falha ao carregar stock.");
                     logger.severe("Erro ao carregar stock: " + ex.getMessage());
                     ex.printStackTrace();
-                    return null;
                 });
     }
+    // ============================
+    // NOTIFICAÇÕES DO SERVIDOR
+    // ============================
+    // 🔹 Quantidades alteradas noutros postos (vendas, transferências) atualizam só as linhas afetadas
+    private void subscribeToChanges() {
+        ChangeFeedClient.get()
+                .subscribe("STOCK", StockResponseDTO.class, StockResponseDTO::getId, stockTable, changes -> {
+                    allStockData.apply(changes);
+                    changes.upserts().forEach(LocalStores.stock()::upsert);
+                    changes.removedIds().forEach(LocalStores.stock()::remove);
+                })
+                .onResync(this::loadStock);
+    }
+
     // ============================
     // PESQUISA
     // ============================
@@ -210,6 +238,24 @@ public class StockController {
         });
     }
 
+    // ============================
+    // EXPORTAR (linhas visíveis)
+    // ============================
+    @FXML
+    private void exportTableCsv() {
+        exportTable(Format.CSV);
+    }
+
+    @FXML
+    private void exportTableXlsx() {
+        exportTable(Format.XLSX);
+    }
+
+    private void exportTable(Format format) {
+        new TableExportTask<>("stock", format, EXPORT_COLUMNS, TableExportTask.snapshot(stockTable.getItems()))
+                .startWithProgress(stockTable.getScene().getWindow());
+    }
+
     // ============================
     // ATUALIZAR TABELA
     // ============================
@@ -10,7 +10,6 @@ import javafx.fxml.FXMLLoader;
 import javafx.scene.Parent;
 import javafx.scene.Scene;
 import javafx.scene.control.*;
-import javafx.scene.control.cell.PropertyValueFactory;
 import javafx.stage.Modality;
 import javafx.stage.Stage;
 import javafx.stage.StageStyle;
@@ -20,9 +19,11 @@ import org.manager.service.CompanyService;
 import org.manager.service.SupplierService;
 import org.manager.session.SessionManager;
 import org.manager.util.AlertUtil;
+import org.manager.view.ColumnBinding;
+import org.manager.view.ViewLifecycle;
 import java.io.IOException;
 
-public class SupplierController {
+public class SupplierController implements ViewLifecycle {
 
     private final SupplierService supplierService;
     private final CompanyService companyService;
@@ -71,6 +72,12 @@ public class SupplierController {
         setUpSearchRealTimeSuppliers();
     }
 
+    // Tela reaberta da cache: volta a pedir os fornecedores
+    @Override
+    public void onShow() {
+        loadSuppliers();
+    }
+
     private void setUpSearchRealTimeSuppliers(){
         filteredListData=new FilteredList<>(supplierData,supplier->true);
         sortedListData=new SortedList<>(filteredListData);
@@ -152,22 +159,17 @@ public class SupplierController {
 
     /** -------------------- Configurar Tabela -------------------- */
     private void setTable() {
-        idColumn.setCellValueFactory(new PropertyValueFactory<>("id"));
-        nameColumn.setCellValueFactory(new PropertyValueFactory<>("name"));
-        emailColumn.setCellValueFactory(new PropertyValueFactory<>("email"));
-        phoneColumn.setCellValueFactory(new PropertyValueFactory<>("phone"));
-        nuitColumn.setCellValueFactory(new PropertyValueFactory<>("nuit"));
-        addressColumn.setCellValueFactory(new PropertyValueFactory<>("address"));
-        websiteColumn.setCellValueFactory(new PropertyValueFactory<>("website"));
-        notesColumn.setCellValueFactory(new PropertyValueFactory<>("notes"));
+        ColumnBinding.bind(idColumn, SupplierDTO::getId);
+        ColumnBinding.bind(nameColumn, SupplierDTO::getName);
+        ColumnBinding.bind(emailColumn, SupplierDTO::getEmail);
+        ColumnBinding.bind(phoneColumn, SupplierDTO::getPhone);
+        ColumnBinding.bind(nuitColumn, SupplierDTO::getNuit);
+        ColumnBinding.bind(addressColumn, SupplierDTO::getAddress);
+        ColumnBinding.bind(websiteColumn, SupplierDTO::getWebsite);
+        ColumnBinding.bind(notesColumn, SupplierDTO::getNotes);
 
         // Mostrar nome da empresa em vez do objeto
-        companyColumn.setCellValueFactory(cellData ->
-                new javafx.beans.property.SimpleStringProperty(
-                        cellData.getValue().getCompany()!= null ?
-                                cellData.getValue().getCompany() : ""
-                )
-        );
+        ColumnBinding.bind(companyColumn, supplier -> supplier.getCompany() != null ? supplier.getCompany() : "");
     }
 
 
@@ -1,11 +1,6 @@
 package org.manager.controller;
 
 import javafx.application.Platform;
-import javafx.beans.property.SimpleIntegerProperty;
-import javafx.beans.property.SimpleObjectProperty;
-import javafx.beans.property.SimpleStringProperty;
-import javafx.collections.FXCollections;
-import javafx.collections.ObservableList;
 import javafx.collections.transformation.FilteredList;
 import javafx.collections.transformation.SortedList;
 import javafx.fxml.FXML;
@@ -22,13 +17,16 @@ import org.manager.service.TransferService;
 import org.manager.service.WarehouseService;
 import org.manager.service.ProductService;
 import org.manager.session.SessionManager;
+import org.manager.sync.IdIndexedObservableList;
 import org.manager.util.AlertUtil;
 import org.manager.util.DateTimeUtil;
+import org.manager.view.DisplayColumns;
+import org.manager.view.ViewLifecycle;
 
 import java.io.IOException;
 import java.util.List;
 
-public class TransferController {
+public class TransferController implements ViewLifecycle {
 
     @FXML private TableView<TransferResponseDTO> transferTable;
     @FXML private TableColumn<TransferResponseDTO, Long> colId;
@@ -44,7 +42,7 @@ public class TransferController {
     private final ProductService productService = new ProductService();
     private final WarehouseService warehouseService = new WarehouseService();
 
-    private final ObservableList<TransferResponseDTO> allTransfersData = FXCollections.observableArrayList();
+    private final IdIndexedObservableList<TransferResponseDTO> allTransfersData = new IdIndexedObservableList<>(TransferResponseDTO::getId);
     private FilteredList<TransferResponseDTO> filteredData;
     private SortedList<TransferResponseDTO> sortedData;
 
@@ -58,23 +56,28 @@ public class TransferController {
         setupSearch();
     }
 
+    // Tela reaberta da cache: só as alterações entram na tabela (merge por id)
+    @Override
+    public void onShow() {
+        loadTransfers();
+    }
+
     private void setupTable() {
-        colId.setCellValueFactory(data -> new SimpleObjectProperty<>(data.getValue().getId()));
-        colProduct.setCellValueFactory(data -> new SimpleStringProperty(data.getValue().getProductName()));
-        colSourceWarehouse.setCellValueFactory(data -> new SimpleStringProperty(data.getValue().getSourceWarehouse()));
-        colTargetWarehouse.setCellValueFactory(data -> new SimpleStringProperty(data.getValue().getDestinationWarehouse()));
-        colQuantity.setCellValueFactory(data -> new SimpleIntegerProperty(data.getValue().getQuantity()).asObject());
-        colDate.setCellValueFactory(data -> new SimpleStringProperty(
-                DateTimeUtil.format(data.getValue().getTransferDate())
-        ));
-        colUser.setCellValueFactory(data -> new SimpleStringProperty(
-                data.getValue().getUser() != null ? data.getValue().getUser() : ""
-        ));
+        // Texto das células calculado uma vez por transferência
+        new DisplayColumns<TransferResponseDTO>()
+                .bind(colId, TransferResponseDTO::getId)
+                .bind(colProduct, TransferResponseDTO::getProductName)
+                .bind(colSourceWarehouse, TransferResponseDTO::getSourceWarehouse)
+                .bind(colTargetWarehouse, TransferResponseDTO::getDestinationWarehouse)
+                .bind(colQuantity, TransferResponseDTO::getQuantity)
+                .bind(colDate, transfer -> DateTimeUtil.format(transfer.getTransferDate()))
+                .bind(colUser, transfer -> transfer.getUser() != null ? transfer.getUser() : "")
+                .track(allTransfersData);
     }
 
     private void loadTransfers() {
         transferService.getAllAsync(token)
-                .thenAccept(list -> Platform.runLater(() -> allTransfersData.setAll(list)))
+                .thenAccept(list -> Platform.runLater(() -> allTransfersData.merge(list)))
                 .exceptionally(ex -> {
                     ex.printStackTrace();
                     Platform.runLater(() -> AlertUtil.showError("Erro", "Falha ao carregar transferências"));
@@ -166,7 +169,7 @@ public class TransferController {
 
         transferService.deleteAsync(selected.getId(), token)
                 .thenRun(() -> Platform.runLater(() -> {
-                    allTransfersData.remove(selected);
+                    allTransfersData.removeById(selected.getId());
                     AlertUtil.showInfo("Sucesso", "Transferência removida com sucesso!");
                 }))
                 .exceptionally(ex -> {
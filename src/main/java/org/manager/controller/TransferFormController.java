@@ -7,10 +7,14 @@ import javafx.fxml.FXML;
 import javafx.scene.control.*;
 import javafx.stage.Stage;
 import org.manager.dto.*;
+import org.manager.search.ProductComboBoxSearch;
+import org.manager.search.ProductSearchIndex;
 import org.manager.service.TransferService;
 import org.manager.service.WarehouseService;
 import org.manager.service.ProductService;
 import org.manager.session.SessionManager;
+import org.manager.store.LocalStores;
+import org.manager.store.OfflineFirstLoader;
 import org.manager.util.AlertUtil;
 import org.manager.util.SetupComboBoxDisplay;
 
@@ -33,6 +37,7 @@ public class TransferFormController {
 
     private final ObservableList<ProductResponseDTO> productsData = FXCollections.observableArrayList();
     private final ObservableList<WarehouseResponseDTO> warehousesData = FXCollections.observableArrayList();
+    private final ProductSearchIndex productIndex = new ProductSearchIndex();
 
     public void setTransferController(TransferController controller) {
         this.transferController = controller;
@@ -43,7 +48,8 @@ public class TransferFormController {
         loadProducts();
         loadWarehouses();
 
-        comboProduct.setItems(productsData);
+        productIndex.track(productsData);
+        ProductComboBoxSearch.install(comboProduct, productsData, productIndex);
         comboSourceWarehouse.setItems(warehousesData);
         comboTargetWarehouse.setItems(warehousesData);
 
@@ -53,12 +59,12 @@ public class TransferFormController {
     }
 
     private void loadProducts() {
-        productService.getAllProducts(token)
-                .thenAccept(list -> Platform.runLater(() -> productsData.setAll(list)))
-                .exceptionally(ex -> {
-                    Platform.runLater(() -> AlertUtil.showError("Erro", "Falha ao carregar produtos: " + ex.getMessage()));
+        OfflineFirstLoader.load(LocalStores.products(),
+                () -> productService.getAllProducts(token),
+                productsData::setAll,
+                ex -> {
+                    AlertUtil.showError("Erro", "Falha ao carregar produtos: " + ex.getMessage());
                     ex.printStackTrace();
-                    return null;
                 });
     }
 
@@ -81,10 +87,8 @@ public class TransferFormController {
         if (transfer == null) return;
         editingTransfer = transfer;
 
-        productsData.stream()
-                .filter(p -> p.getId().equals(transfer.getProductId()))
-                .findFirst()
-                .ifPresent(comboProduct::setValue);
+        ProductResponseDTO product = productIndex.findById(transfer.getProductId());
+        if (product != null) comboProduct.setValue(product);
 
         warehousesData.stream()
                 .filter(w -> w.getId().equals(transfer.getSourceWarehouseId()))
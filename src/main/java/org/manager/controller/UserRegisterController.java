@@ -5,13 +5,13 @@ import javafx.collections.FXCollections;
 import javafx.collections.ObservableList;
 import javafx.fxml.FXML;
 import javafx.scene.control.*;
-import javafx.scene.control.cell.PropertyValueFactory;
 import org.manager.dto.CompanyDTO;
 import org.manager.dto.UserDTO;
 import org.manager.enums.Role;
 import org.manager.service.CompanyService;
 import org.manager.service.UserRegisterService;
 import org.manager.util.AlertUtil;
+import org.manager.view.ColumnBinding;
 
 public class UserRegisterController {
 
@@ -165,12 +165,12 @@ public class UserRegisterController {
     // ----------------- MÉTODOS AUXILIARES -----------------
 
     private void setupTableColumns() {
-        idColumn.setCellValueFactory(new PropertyValueFactory<>("id"));
-        emailColumn.setCellValueFactory(new PropertyValueFactory<>("email"));
-        usernameColumn.setCellValueFactory(new PropertyValueFactory<>("username"));
-        roleColumn.setCellValueFactory(new PropertyValueFactory<>("role"));
-        activeColumn.setCellValueFactory(new PropertyValueFactory<>("active"));
-        companyColumn.setCellValueFactory(new PropertyValueFactory<>("companyName"));
+        ColumnBinding.bind(idColumn, UserDTO::getId);
+        ColumnBinding.bind(emailColumn, UserDTO::getEmail);
+        ColumnBinding.bind(usernameColumn, UserDTO::getUsername);
+        ColumnBinding.bind(roleColumn, UserDTO::getRole);
+        ColumnBinding.bind(activeColumn, UserDTO::isActive);
+        ColumnBinding.bind(companyColumn, UserDTO::getCompanyName);
     }
 
     private void populateForm(UserDTO user) {
@@ -1,9 +1,6 @@
 package org.manager.controller;
 
 import javafx.application.Platform;
-import javafx.beans.property.ReadOnlyStringWrapper;
-import javafx.collections.FXCollections;
-import javafx.collections.ObservableList;
 import javafx.collections.transformation.FilteredList;
 import javafx.collections.transformation.SortedList;
 import javafx.fxml.FXML;
@@ -11,16 +8,18 @@ import javafx.fxml.FXMLLoader;
 import javafx.scene.Parent;
 import javafx.scene.Scene;
 import javafx.scene.control.*;
-import javafx.scene.control.cell.PropertyValueFactory;
 import javafx.stage.Modality;
 import javafx.stage.Stage;
 import javafx.stage.StageStyle;
 import org.manager.dto.WarehouseResponseDTO;
 import org.manager.service.WarehouseService;
 import org.manager.session.SessionManager;
+import org.manager.sync.IdIndexedObservableList;
 import org.manager.util.AlertUtil;
+import org.manager.view.ColumnBinding;
+import org.manager.view.ViewLifecycle;
 
-public class WarehouseController {
+public class WarehouseController implements ViewLifecycle {
 
     private final WarehouseService warehouseService = new WarehouseService();
     private final String token = SessionManager.getToken();
@@ -40,7 +39,7 @@ public class WarehouseController {
     @FXML private TableColumn<WarehouseResponseDTO, String> managerColumn;
     @FXML private TableColumn<WarehouseResponseDTO, String> companyColumn;
 
-    private final ObservableList<WarehouseResponseDTO> masterData = FXCollections.observableArrayList();
+    private final IdIndexedObservableList<WarehouseResponseDTO> masterData = new IdIndexedObservableList<>(WarehouseResponseDTO::getId);
     private FilteredList<WarehouseResponseDTO> filteredData;
 
     @FXML
@@ -50,21 +49,25 @@ public class WarehouseController {
         loadWarehousesByCompany();
     }
 
+    // Tela reaberta da cache: só as alterações entram na tabela (merge por id)
+    @Override
+    public void onShow() {
+        loadWarehousesByCompany();
+    }
+
     // ===================== COLUNAS =====================
     private void setupColumns() {
-        idColumn.setCellValueFactory(new PropertyValueFactory<>("id"));
-        nameColumn.setCellValueFactory(new PropertyValueFactory<>("name"));
-        locationColumn.setCellValueFactory(new PropertyValueFactory<>("location"));
-        capacityColumn.setCellValueFactory(new PropertyValueFactory<>("capacity"));
-        descriptionColumn.setCellValueFactory(new PropertyValueFactory<>("description"));
-        emailColumn.setCellValueFactory(new PropertyValueFactory<>("email"));
-        phoneColumn.setCellValueFactory(new PropertyValueFactory<>("phone"));
-        managerColumn.setCellValueFactory(new PropertyValueFactory<>("manager"));
-        companyColumn.setCellValueFactory(new PropertyValueFactory<>("companyName"));
-
-        statusColumn.setCellValueFactory(cell ->
-                new ReadOnlyStringWrapper(cell.getValue().isActive() ? "Ativo" : "Inativo")
-        );
+        ColumnBinding.bind(idColumn, WarehouseResponseDTO::getId);
+        ColumnBinding.bind(nameColumn, WarehouseResponseDTO::getName);
+        ColumnBinding.bind(locationColumn, WarehouseResponseDTO::getLocation);
+        ColumnBinding.bind(capacityColumn, WarehouseResponseDTO::getCapacity);
+        ColumnBinding.bind(descriptionColumn, WarehouseResponseDTO::getDescription);
+        ColumnBinding.bind(emailColumn, WarehouseResponseDTO::getEmail);
+        ColumnBinding.bind(phoneColumn, WarehouseResponseDTO::getPhone);
+        ColumnBinding.bind(managerColumn, WarehouseResponseDTO::getManager);
+        ColumnBinding.bind(companyColumn, WarehouseResponseDTO::getCompanyName);
+
+        ColumnBinding.bind(statusColumn, warehouse -> warehouse.isActive() ? "Ativo" : "Inativo");
     }
 
     // ===================== PESQUISA =====================
@@ -98,7 +101,7 @@ public class WarehouseController {
     private void loadWarehousesByCompany() {
         warehouseService.getActiveWarehousesByCompany(companyId, token)
                 .thenAccept(list -> Platform.runLater(() -> {
-                    masterData.setAll(list);
+                    masterData.merge(list);
                 }))
                 .exceptionally(ex -> {
                     ex.printStackTrace();
@@ -166,7 +169,7 @@ public class WarehouseController {
             if (btn == ButtonType.OK) {
                 warehouseService.deleteWarehouse(selected.getId(), token)
                         .thenAccept(r -> Platform.runLater(() -> {
-                            masterData.remove(selected);
+                            masterData.removeById(selected.getId());
                             AlertUtil.showInfo("Sucesso", "Armazém removido.");
                         }))
                         .exceptionally(ex -> {
@@ -0,0 +1,130 @@
+package org.manager.document;
+
+import org.manager.export.ExportDownloadManager;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.BiConsumer;
+
+/**
+ * 🔹 Exportação local de documentos (PDF gerado no posto em vez de pedido ao servidor).
+ *
+ * Os documentos são gerados num grupo limitado de threads (manager.documents.threads), por isso
+ * uma exportação em lote de muitas faturas não ocupa o CPU todo nem o FX thread. Cada ficheiro é
+ * escrito num temporário na mesma pasta e só depois renomeado, para nunca ficar um PDF a meio, e o
+ * nome final é reservado como nos downloads ({@link ExportDownloadManager#reserve}): um ficheiro
+ * que já exista nunca é substituído.
+ *
+ * Com manager.documents.local=false as telas voltam a pedir os documentos ao servidor.
+ */
+public final class DocumentExporter {
+
+    // 🔹 Evita instanciar a classe
+    private DocumentExporter() {}
+
+    private static final boolean LOCAL =
+            Boolean.parseBoolean(System.getProperty("manager.documents.local", "true"));
+    private static final int THREADS = Math.max(1, Integer.getInteger("manager.documents.threads",
+            Math.min(4, Math.max(1, Runtime.getRuntime().availableProcessors() / 2))));
+
+    private static final AtomicInteger THREAD_COUNT = new AtomicInteger();
+    private static final ExecutorService EXECUTOR = Executors.newFixedThreadPool(THREADS, runnable -> {
+        Thread thread = new Thread(runnable, "document-export-" + THREAD_COUNT.incrementAndGet());
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    /** Resultado de uma exportação em lote: ficheiros gravados e documentos que falharam */
+    public record BatchResult(List<Path> files, List<String> failures) {}
+
+    public static boolean isLocal() {
+        return LOCAL;
+    }
+
+    // ================= UM DOCUMENTO =================
+    /** 🔹 Gera o PDF em segundo plano e grava-o em {@code dir} com um nome livre; devolve o ficheiro */
+    public static CompletableFuture<Path> exportPdf(DocumentModel model, Path dir) {
+        return CompletableFuture.supplyAsync(() -> {
+            try {
+                return writePdf(model, dir);
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        }, EXECUTOR);
+    }
+
+    /** PDF em memória (ex.: para imprimir, que precisa do documento inteiro) */
+    public static CompletableFuture<byte[]> renderPdf(DocumentModel model) {
+        return CompletableFuture.supplyAsync(() -> {
+            ByteArrayOutputStream out = new ByteArrayOutputStream(32 * 1024);
+            try {
+                PdfDocumentWriter.write(model, out);
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+            return out.toByteArray();
+        }, EXECUTOR);
+    }
+
+    /** Escreve o PDF num nome reservado em {@code dir} (via temporário + rename atómico sobre a reserva) */
+    public static Path writePdf(DocumentModel model, Path dir) throws IOException {
+        Files.createDirectories(dir);
+        Path target = ExportDownloadManager.reserve(dir, model.fileName("pdf"));
+        Path temp = null;
+        try {
+            temp = Files.createTempFile(dir, ".export-", ".tmp");
+            try (OutputStream out = Files.newOutputStream(temp)) {
+                PdfDocumentWriter.write(model, out);
+            }
+            // Só substitui o ficheiro vazio da reserva
+            return Files.move(temp, target, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } catch (IOException | RuntimeException e) {
+            if (temp != null) Files.deleteIfExists(temp);
+            Files.deleteIfExists(target);
+            throw e;
+        }
+    }
+
+    // ================= LOTE =================
+    /**
+     * 🔹 Exporta vários documentos para {@code dir}, em paralelo no grupo limitado.
+     * Um documento que falhe não interrompe os restantes.
+     *
+     * @param onProgress (concluídos, total), chamado na thread de exportação
+     */
+    public static CompletableFuture<BatchResult> exportAll(List<DocumentModel> models, Path dir,
+                                                           BiConsumer<Integer, Integer> onProgress) {
+        List<Path> files = Collections.synchronizedList(new ArrayList<>());
+        List<String> failures = Collections.synchronizedList(new ArrayList<>());
+        AtomicInteger done = new AtomicInteger();
+        long start = System.nanoTime();
+
+        CompletableFuture<?>[] futures = models.stream()
+                .map(model -> exportPdf(model, dir)
+                        .handle((file, ex) -> {
+                            if (ex != null) failures.add(model.number() + ": " + ex.getMessage());
+                            else files.add(file);
+                            if (onProgress != null) onProgress.accept(done.incrementAndGet(), models.size());
+                            return null;
+                        }))
+                .toArray(CompletableFuture[]::new);
+
+        return CompletableFuture.allOf(futures).thenApply(ignored -> {
+            System.out.println("Exportação local: " + files.size() + "/" + models.size() + " documentos em "
+                    + (System.nanoTime() - start) / 1_000_000 + " ms (" + THREADS + " threads)");
+            return new BatchResult(List.copyOf(files), List.copyOf(failures));
+        });
+    }
+}
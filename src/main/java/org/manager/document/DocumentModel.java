@@ -0,0 +1,164 @@
+package org.manager.document;
+
+import org.manager.dto.InvoiceDTO;
+import org.manager.dto.InvoiceItemDTO;
+import org.manager.dto.OrderDTO;
+import org.manager.dto.OrderItemDTO;
+import org.manager.dto.SaleItemDTO;
+import org.manager.dto.SaleResponseDTO;
+import org.manager.util.DateTimeUtil;
+import org.manager.util.FormatUtil;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * 🔹 Conteúdo de um documento (fatura, venda ou encomenda) já formatado para impressão.
+ * É montado a partir dos DTOs que a aplicação já tem, sem pedir nada ao servidor.
+ */
+public record DocumentModel(Kind kind, String number, String date, String issuer, List<Field> party,
+                            List<Line> lines, List<Field> totals, String notes) {
+
+    public enum Kind {
+        INVOICE("FATURA", "invoice"),
+        SALE("VENDA", "Venda"),
+        ORDER("ENCOMENDA", "order");
+
+        private final String title;
+        private final String filePrefix;
+
+        Kind(String title, String filePrefix) {
+            this.title = title;
+            this.filePrefix = filePrefix;
+        }
+
+        public String title() {
+            return title;
+        }
+
+        public String filePrefix() {
+            return filePrefix;
+        }
+    }
+
+    /** Par rótulo/valor (dados do cliente, totais) */
+    public record Field(String label, String value) {}
+
+    /** Linha da tabela de itens, com os valores já formatados */
+    public record Line(String description, String quantity, String unitPrice, String total) {}
+
+    /** Nome de ficheiro sugerido, ex.: invoice_FT-2025-0012.pdf */
+    public String fileName(String extension) {
+        String safe = number == null ? "sem-numero" : number.replaceAll("[^\\w.-]", "_");
+        return kind.filePrefix() + "_" + safe + "." + extension;
+    }
+
+    // ================= A PARTIR DOS DTOs =================
+    public static DocumentModel of(InvoiceDTO invoice) {
+        List<Line> lines = new ArrayList<>();
+        if (invoice.getItems() != null) {
+            for (InvoiceItemDTO item : invoice.getItems()) {
+                lines.add(new Line(text(item.getProductName()), quantity(item.getQuantity()),
+                        FormatUtil.formatCurrency(item.getUnitPrice()), FormatUtil.formatCurrency(item.getTotalPrice())));
+            }
+        }
+        return new DocumentModel(Kind.INVOICE, invoice.getInvoiceNumber(), DateTimeUtil.format(invoice.getInvoiceDate()),
+                issuer(invoice.getCompanyName(), invoice.getWarehouseName()),
+                customer(invoice.getCustomerName(), invoice.getCustomerNuit(), invoice.getCustomerContact(),
+                        invoice.getCustomerEmail(), invoice.getDeliveryAddress(), invoice.getPaymentMethod(), invoice.getStatus()),
+                lines,
+                List.of(new Field("Total", FormatUtil.formatCurrency(invoice.getTotalAmount()))),
+                invoice.getNotes());
+    }
+
+    public static DocumentModel of(OrderDTO order) {
+        List<Line> lines = new ArrayList<>();
+        if (order.getItems() != null) {
+            for (OrderItemDTO item : order.getItems()) {
+                lines.add(new Line(text(item.getProductName()), quantity(item.getQuantity()),
+                        FormatUtil.formatCurrency(item.getUnitPrice()), FormatUtil.formatCurrency(item.getTotalPrice())));
+            }
+        }
+        return new DocumentModel(Kind.ORDER, order.getOrderNumber(), DateTimeUtil.format(order.getOrderDate()),
+                issuer(order.getCompanyName(), order.getWarehouseName()),
+                customer(order.getCustomerName(), order.getCustomerNuit(), order.getCustomerContact(),
+                        order.getCustomerEmail(), order.getDeliveryAddress(), order.getPaymentMethod(), order.getStatus()),
+                lines,
+                List.of(new Field("Total", FormatUtil.formatCurrency(order.getTotalAmount()))),
+                order.getNotes());
+    }
+
+    public static DocumentModel of(SaleResponseDTO sale) {
+        List<Line> lines = new ArrayList<>();
+        if (sale.getItems() != null) {
+            for (SaleItemDTO item : sale.getItems()) {
+                String description = item.getProductCode() != null
+                        ? item.getProductCode() + " - " + text(item.getProductName())
+                        : text(item.getProductName());
+                lines.add(new Line(description, quantity(item.getQuantity()),
+                        FormatUtil.formatCurrency(decimal(item.getUnitPrice())),
+                        FormatUtil.formatCurrency(decimal(item.getSubtotal()))));
+            }
+        }
+
+        List<Field> totals = new ArrayList<>();
+        if (sale.getDiscount() != null && sale.getDiscount().signum() != 0) {
+            totals.add(new Field("Desconto", FormatUtil.formatCurrency(sale.getDiscount())));
+        }
+        totals.add(new Field("Total", FormatUtil.formatCurrency(sale.getTotalAmount())));
+        if (sale.getAmountPaid() != null) totals.add(new Field("Valor pago", FormatUtil.formatCurrency(sale.getAmountPaid())));
+        if (sale.getChange() != null) totals.add(new Field("Troco", FormatUtil.formatCurrency(sale.getChange())));
+
+        List<Field> party = new ArrayList<>();
+        party.add(new Field("Cliente", text(sale.getClientName())));
+        if (sale.getPaymentMethod() != null) party.add(new Field("Pagamento", sale.getPaymentMethod()));
+        if (sale.getStatus() != null) party.add(new Field("Estado", sale.getStatus()));
+        if (sale.getUserName() != null) party.add(new Field("Operador", sale.getUserName()));
+
+        return new DocumentModel(Kind.SALE, sale.getSaleCode() != null ? sale.getSaleCode() : String.valueOf(sale.getId()),
+                saleDate(sale.getSaleDate()), null, party, lines, totals, null);
+    }
+
+    // ================= AUXILIARES =================
+    private static String issuer(String company, String warehouse) {
+        if (company == null) return warehouse;
+        return warehouse == null ? company : company + " — " + warehouse;
+    }
+
+    private static List<Field> customer(String name, String nuit, String contact, String email, String address,
+                                        String paymentMethod, String status) {
+        List<Field> fields = new ArrayList<>();
+        fields.add(new Field("Cliente", text(name)));
+        if (nuit != null && !nuit.isBlank()) fields.add(new Field("NUIT", nuit));
+        if (contact != null && !contact.isBlank()) fields.add(new Field("Contacto", contact));
+        if (email != null && !email.isBlank()) fields.add(new Field("Email", email));
+        if (address != null && !address.isBlank()) fields.add(new Field("Morada", address));
+        if (paymentMethod != null) fields.add(new Field("Pagamento", paymentMethod));
+        if (status != null) fields.add(new Field("Estado", status));
+        return fields;
+    }
+
+    private static String saleDate(String raw) {
+        if (raw == null || raw.isBlank()) return "";
+        try {
+            return DateTimeUtil.format(LocalDateTime.parse(raw));
+        } catch (DateTimeParseException e) {
+            return raw;
+        }
+    }
+
+    private static String text(String value) {
+        return value != null ? value : "";
+    }
+
+    private static String quantity(Integer value) {
+        return value != null ? value.toString() : "0";
+    }
+
+    private static BigDecimal decimal(Double value) {
+        return value != null ? BigDecimal.valueOf(value) : null;
+    }
+}
@@ -0,0 +1,285 @@
+package org.manager.document;
+
+import org.apache.pdfbox.pdmodel.PDDocument;
+import org.apache.pdfbox.pdmodel.PDPage;
+import org.apache.pdfbox.pdmodel.PDPageContentStream;
+import org.apache.pdfbox.pdmodel.common.PDRectangle;
+import org.apache.pdfbox.pdmodel.font.PDFont;
+import org.apache.pdfbox.pdmodel.font.PDType0Font;
+import org.apache.pdfbox.pdmodel.font.PDType1Font;
+import org.apache.pdfbox.pdmodel.font.Standard14Fonts;
+import org.apache.pdfbox.pdmodel.graphics.image.PDImageXObject;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * 🔹 Gera o PDF de um {@link DocumentModel} com o PDFBox, no próprio posto.
+ *
+ * O que é caro e igual em todos os documentos fica em cache para o processo:
+ *  - os bytes da TrueType de manager.documents.font, lidos do disco uma vez (cada documento
+ *    incorpora só o subconjunto dos glifos que usa); sem ela usa-se a Helvetica;
+ *  - o logótipo de manager.documents.logo (bytes lidos uma vez);
+ *  - o modelo de cada tipo de documento (colunas e larguras), ver {@link Template}.
+ *
+ * O PDF é escrito diretamente no OutputStream de destino, sem passar por um byte[] intermédio.
+ * Os objetos PDFBox (PDDocument, fontes, imagens) não são thread-safe: cada chamada cria os seus,
+ * e só os bytes e os modelos acima são partilhados.
+ */
+public final class PdfDocumentWriter {
+
+    // 🔹 Evita instanciar a classe
+    private PdfDocumentWriter() {}
+
+    private static final String FONT_PATH = System.getProperty("manager.documents.font");
+    private static final String LOGO_PATH = System.getProperty("manager.documents.logo");
+
+    private static final PDRectangle PAGE_SIZE = PDRectangle.A4;
+    private static final float MARGIN = 48f;
+    private static final float LINE_HEIGHT = 16f;
+    private static final float TITLE_SIZE = 18f;
+    private static final float TEXT_SIZE = 10f;
+    private static final float LOGO_HEIGHT = 48f;
+
+    private static final Map<DocumentModel.Kind, Template> TEMPLATES = new ConcurrentHashMap<>();
+
+    // Fonte e logótipo lidos do disco na primeira utilização
+    private static final class Resources {
+        private static final byte[] FONT = read(FONT_PATH, "Fonte");
+        private static final byte[] LOGO = read(LOGO_PATH, "Logótipo");
+    }
+
+    /** Colunas da tabela de itens de cada tipo de documento (frações da largura útil) */
+    private record Template(String title, String[] headers, float[] widths) {
+
+        static Template of(DocumentModel.Kind kind) {
+            return new Template(kind.title(),
+                    new String[]{"Descrição", "Qtd.", "Preço unit.", "Total"},
+                    new float[]{0.52f, 0.10f, 0.19f, 0.19f});
+        }
+    }
+
+    // ================= ESCRITA =================
+    /** 🔹 Gera o documento e escreve-o em {@code out} (o stream não é fechado) */
+    public static void write(DocumentModel model, OutputStream out) throws IOException {
+        Template template = TEMPLATES.computeIfAbsent(model.kind(), Template::of);
+        try (PDDocument document = new PDDocument()) {
+            Fonts fonts = fonts(document);
+            PDImageXObject logo = Resources.LOGO != null
+                    ? PDImageXObject.createFromByteArray(document, Resources.LOGO, "logo")
+                    : null;
+            new Layout(document, fonts, template, logo).render(model);
+            document.save(out);
+        }
+    }
+
+    private record Fonts(PDFont regular, PDFont bold) {}
+
+    private static Fonts fonts(PDDocument document) throws IOException {
+        if (Resources.FONT == null) {
+            // As Standard14 são baratas de criar; um PDType1Font tem caches internas que não são thread-safe
+            return new Fonts(new PDType1Font(Standard14Fonts.FontName.HELVETICA),
+                    new PDType1Font(Standard14Fonts.FontName.HELVETICA_BOLD));
+        }
+        // Um PDType0Font pertence a um documento: é criado a partir dos bytes em cache
+        PDFont font = PDType0Font.load(document, new ByteArrayInputStream(Resources.FONT), true);
+        return new Fonts(font, font);
+    }
+
+    private static byte[] read(String path, String what) {
+        if (path == null || path.isBlank()) return null;
+        try {
+            return Files.readAllBytes(Path.of(path));
+        } catch (IOException e) {
+            System.out.println(what + " " + path + " ignorado: " + e.getMessage());
+            return null;
+        }
+    }
+
+    // ================= PAGINAÇÃO =================
+    /** Escreve de cima para baixo e abre uma página nova quando a atual enche */
+    private static final class Layout {
+
+        private final PDDocument document;
+        private final Fonts fonts;
+        private final Template template;
+        private final PDImageXObject logo;
+        private final float width = PAGE_SIZE.getWidth() - 2 * MARGIN;
+
+        private PDPageContentStream content;
+        private float y;
+        private int pageNumber;
+
+        Layout(PDDocument document, Fonts fonts, Template template, PDImageXObject logo) {
+            this.document = document;
+            this.fonts = fonts;
+            this.template = template;
+            this.logo = logo;
+        }
+
+        void render(DocumentModel model) throws IOException {
+            newPage();
+            header(model);
+
+            for (DocumentModel.Field field : model.party()) {
+                ensureSpace(LINE_HEIGHT);
+                text(fonts.bold(), TEXT_SIZE, MARGIN, y, field.label() + ":");
+                text(fonts.regular(), TEXT_SIZE, MARGIN + 80, y, field.value());
+                y -= LINE_HEIGHT;
+            }
+            y -= LINE_HEIGHT;
+
+            tableHeader();
+            for (DocumentModel.Line line : model.lines()) {
+                if (ensureSpace(LINE_HEIGHT)) tableHeader();
+                row(fonts.regular(), line.description(), line.quantity(), line.unitPrice(), line.total());
+            }
+            y -= LINE_HEIGHT / 2;
+
+            for (DocumentModel.Field total : model.totals()) {
+                ensureSpace(LINE_HEIGHT);
+                float valueX = MARGIN + width;
+                textRight(fonts.bold(), TEXT_SIZE, valueX, y, total.value());
+                textRight(fonts.bold(), TEXT_SIZE, valueX - width * template.widths()[3] - 8, y, total.label() + ":");
+                y -= LINE_HEIGHT;
+            }
+
+            if (model.notes() != null && !model.notes().isBlank()) {
+                y -= LINE_HEIGHT;
+                ensureSpace(2 * LINE_HEIGHT);
+                text(fonts.bold(), TEXT_SIZE, MARGIN, y, "Observações:");
+                y -= LINE_HEIGHT;
+                for (String noteLine : wrap(fonts.regular(), model.notes(), width)) {
+                    ensureSpace(LINE_HEIGHT);
+                    text(fonts.regular(), TEXT_SIZE, MARGIN, y, noteLine);
+                    y -= LINE_HEIGHT;
+                }
+            }
+            content.close();
+        }
+
+        private void header(DocumentModel model) throws IOException {
+            float top = y;
+            if (logo != null) {
+                float logoWidth = logo.getWidth() * LOGO_HEIGHT / logo.getHeight();
+                content.drawImage(logo, MARGIN, top - LOGO_HEIGHT, logoWidth, LOGO_HEIGHT);
+            }
+            textRight(fonts.bold(), TITLE_SIZE, MARGIN + width, top - TITLE_SIZE, template.title() + " " + nonNull(model.number()));
+            textRight(fonts.regular(), TEXT_SIZE, MARGIN + width, top - TITLE_SIZE - LINE_HEIGHT, nonNull(model.date()));
+            if (model.issuer() != null) {
+                textRight(fonts.regular(), TEXT_SIZE, MARGIN + width, top - TITLE_SIZE - 2 * LINE_HEIGHT, model.issuer());
+            }
+            y = top - Math.max(LOGO_HEIGHT, TITLE_SIZE + 2 * LINE_HEIGHT) - LINE_HEIGHT;
+        }
+
+        private void tableHeader() throws IOException {
+            row(fonts.bold(), template.headers());
+            content.moveTo(MARGIN, y + LINE_HEIGHT - 4);
+            content.lineTo(MARGIN + width, y + LINE_HEIGHT - 4);
+            content.stroke();
+        }
+
+        /** Primeira coluna alinhada à esquerda (cortada se não couber), as restantes à direita */
+        private void row(PDFont font, String... cells) throws IOException {
+            float x = MARGIN;
+            for (int i = 0; i < cells.length; i++) {
+                float columnWidth = width * template.widths()[i];
+                if (i == 0) text(font, TEXT_SIZE, x, y, fit(font, cells[i], columnWidth - 6));
+                else textRight(font, TEXT_SIZE, x + columnWidth, y, cells[i]);
+                x += columnWidth;
+            }
+            y -= LINE_HEIGHT;
+        }
+
+        /** Abre página nova se não houver espaço; devolve true quando abriu */
+        private boolean ensureSpace(float needed) throws IOException {
+            if (y - needed >= MARGIN) return false;
+            content.close();
+            newPage();
+            return true;
+        }
+
+        private void newPage() throws IOException {
+            PDPage page = new PDPage(PAGE_SIZE);
+            document.addPage(page);
+            content = new PDPageContentStream(document, page);
+            pageNumber++;
+            y = PAGE_SIZE.getHeight() - MARGIN;
+            textRight(fonts.regular(), 8f, MARGIN + width, MARGIN / 2, "Página " + pageNumber);
+        }
+
+        private void text(PDFont font, float size, float x, float baseline, String value) throws IOException {
+            content.beginText();
+            content.setFont(font, size);
+            content.newLineAtOffset(x, baseline);
+            content.showText(printable(font, value));
+            content.endText();
+        }
+
+        private void textRight(PDFont font, float size, float right, float baseline, String value) throws IOException {
+            String safe = printable(font, value);
+            text(font, size, right - font.getStringWidth(safe) / 1000 * size, baseline, safe);
+        }
+
+        private String fit(PDFont font, String value, float maxWidth) throws IOException {
+            String safe = printable(font, value);
+            if (font.getStringWidth(safe) / 1000 * TEXT_SIZE <= maxWidth) return safe;
+            String cut = safe;
+            while (!cut.isEmpty() && font.getStringWidth(cut + "...") / 1000 * TEXT_SIZE > maxWidth) {
+                cut = cut.substring(0, cut.length() - 1);
+            }
+            return cut + "...";
+        }
+
+        private List<String> wrap(PDFont font, String value, float maxWidth) throws IOException {
+            List<String> lines = new ArrayList<>();
+            for (String paragraph : printable(font, value).split("\\R")) {
+                StringBuilder line = new StringBuilder();
+                for (String word : paragraph.split(" ")) {
+                    String candidate = line.isEmpty() ? word : line + " " + word;
+                    if (!line.isEmpty() && font.getStringWidth(candidate) / 1000 * TEXT_SIZE > maxWidth) {
+                        lines.add(line.toString());
+                        line.setLength(0);
+                        line.append(word);
+                    } else {
+                        line.setLength(0);
+                        line.append(candidate);
+                    }
+                }
+                lines.add(line.toString());
+            }
+            return lines;
+        }
+    }
+
+    /**
+     * Troca os espaços especiais dos formatos numéricos por espaço normal e os caracteres que a
+     * fonte não consegue codificar (ex.: emojis com Helvetica) por '?'.
+     */
+    private static String printable(PDFont font, String value) {
+        if (value == null) return "";
+        StringBuilder sb = new StringBuilder(value.length());
+        value.codePoints().forEach(codePoint -> {
+            if (Character.isSpaceChar(codePoint)) codePoint = ' ';
+            String character = new String(Character.toChars(codePoint));
+            try {
+                font.encode(character);
+                sb.append(character);
+            } catch (IOException | IllegalArgumentException e) {
+                sb.append('?');
+            }
+        });
+        return sb.toString();
+    }
+
+    private static String nonNull(String value) {
+        return value != null ? value : "";
+    }
+}
@@ -1,7 +1,22 @@
 package org.manager.dto;
 
+import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
 import java.math.BigDecimal;
+import java.util.List;
+import java.util.Map;
 
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+@JsonIgnoreProperties(ignoreUnknown = true)
 public class DashboardStatsDTO {
     private Long totalProducts;
     private Long lowStockProducts;
@@ -9,4 +24,11 @@ public class DashboardStatsDTO {
     private Long totalCategories;
     private Long todaySales;
     private BigDecimal todayRevenue;
+
+    // ===== Período selecionado =====
+    private String period;
+    private BigDecimal totalSales;
+    private BigDecimal profit;
+    private List<MonthlyMovementDTO> monthlyMovement;
+    private Map<String, Long> productsByCategory;
 }
@@ -24,4 +24,5 @@ public class MovementResponseDTO {
     private Long companyId;
     private Long warehouseId;
     private Long productId;
+    private LocalDateTime updatedAt;
 }
@@ -28,6 +28,7 @@ public class OrderDTO {
     private String status;
     private String notes;
     private LocalDateTime orderDate;
+    private LocalDateTime updatedAt;
     private BigDecimal totalAmount;
 
     @Builder.Default
@@ -0,0 +1,56 @@
+package org.manager.export;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+
+/**
+ * 🔹 CSV em UTF-8 com BOM (o Excel reconhece os acentos) e separador manager.export.csvSeparator
+ * (padrão ';', o que o Excel em português espera). Valores com separador, aspas ou quebras de
+ * linha vão entre aspas.
+ */
+public class CsvRowWriter implements RowWriter {
+
+    private static final char SEPARATOR = System.getProperty("manager.export.csvSeparator", ";").charAt(0);
+
+    private final Writer writer;
+
+    public CsvRowWriter(OutputStream out) throws IOException {
+        this.writer = new OutputStreamWriter(out, StandardCharsets.UTF_8);
+        writer.write('\uFEFF');
+    }
+
+    @Override
+    public void header(List<String> titles) throws IOException {
+        row(titles.toArray());
+    }
+
+    @Override
+    public void row(Object[] values) throws IOException {
+        for (int i = 0; i < values.length; i++) {
+            if (i > 0) writer.write(SEPARATOR);
+            if (values[i] != null) writeValue(values[i].toString());
+        }
+        writer.write("\r\n");
+    }
+
+    private void writeValue(String value) throws IOException {
+        boolean quote = value.indexOf(SEPARATOR) >= 0 || value.indexOf('"') >= 0
+                || value.indexOf('\n') >= 0 || value.indexOf('\r') >= 0;
+        if (!quote) {
+            writer.write(value);
+            return;
+        }
+        writer.write('"');
+        writer.write(value.replace("\"", "\"\""));
+        writer.write('"');
+    }
+
+    @Override
+    public void close() throws IOException {
+        writer.close();
+    }
+}
@@ -0,0 +1,207 @@
+package org.manager.export;
+
+import javafx.concurrent.Task;
+import javafx.stage.Window;
+import org.manager.http.HttpTransport;
+import org.manager.util.AlertUtil;
+import org.manager.util.TaskProgressWindow;
+
+import java.io.IOException;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.ByteBuffer;
+import java.nio.file.FileAlreadyExistsException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.List;
+import java.util.concurrent.CompletionStage;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Flow;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * 🔹 Downloads de ficheiros exportados (PDF, Excel, HTML) diretamente para o disco.
+ *
+ * A resposta do servidor vai em blocos para um temporário na pasta Downloads (nunca fica inteira
+ * em memória) e só no fim é renomeada para o nome final. O nome nunca substitui um ficheiro que
+ * já exista: "order_12.pdf", "order_12 (2).pdf", ... reservado de forma atómica, por isso dois
+ * downloads em simultâneo do mesmo documento não se sobrepõem.
+ *
+ * Os downloads correm num grupo limitado de threads (manager.downloads.threads, padrão 2) e cada
+ * um é uma Task com o progresso em bytes, para a tela o mostrar e permitir cancelar.
+ */
+public final class ExportDownloadManager {
+
+    // 🔹 Evita instanciar a classe
+    private ExportDownloadManager() {}
+
+    private static final int THREADS = Math.max(1, Integer.getInteger("manager.downloads.threads", 2));
+    private static final long SLOW_DOWNLOAD_MS = Long.getLong("manager.downloads.progressDelayMs", 400);
+
+    private static final AtomicInteger THREAD_COUNT = new AtomicInteger();
+    private static final ExecutorService EXECUTOR = Executors.newFixedThreadPool(THREADS, runnable -> {
+        Thread thread = new Thread(runnable, "export-download-" + THREAD_COUNT.incrementAndGet());
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    public static Path downloadsDir() {
+        return Path.of(System.getProperty("user.home"), "Downloads");
+    }
+
+    // ================= DOWNLOADS =================
+    /** 🔹 Descarrega a resposta de {@code request} para Downloads/{@code fileName} (ainda não iniciado) */
+    public static Download download(HttpRequest request, String fileName) {
+        return new Download(fileName, (temp, task) -> {
+            // Só o corpo de uma resposta 200 vai para o ficheiro; o de um erro é descartado
+            HttpResponse.BodyHandler<Path> handler = info -> info.statusCode() == 200
+                    ? new ProgressSubscriber(HttpResponse.BodySubscribers.ofFile(temp),
+                            info.headers().firstValueAsLong("Content-Length").orElse(-1), task)
+                    : HttpResponse.BodySubscribers.<Path>replacing(null);
+            HttpResponse<Path> response = HttpTransport.client().send(request, handler);
+            if (response.statusCode() != 200) {
+                throw new IOException("Falha ao descarregar " + fileName + ". Status: " + response.statusCode());
+            }
+        });
+    }
+
+    // ================= NOMES =================
+    /**
+     * 🔹 Reserva um nome livre em {@code dir} (cria o ficheiro vazio para que mais ninguém o use).
+     * Quem reserva escreve num temporário e renomeia-o por cima da reserva, ou apaga-a se falhar.
+     */
+    public static Path reserve(Path dir, String fileName) throws IOException {
+        String safe = fileName.replaceAll("[\\\\/:*?\"<>|]", "_");
+        int dot = safe.lastIndexOf('.');
+        String base = dot > 0 ? safe.substring(0, dot) : safe;
+        String extension = dot > 0 ? safe.substring(dot) : "";
+
+        for (int attempt = 1; ; attempt++) {
+            Path candidate = dir.resolve(attempt == 1 ? safe : base + " (" + attempt + ")" + extension);
+            try {
+                return Files.createFile(candidate);
+            } catch (FileAlreadyExistsException e) {
+                // nome ocupado: tenta o seguinte
+            }
+        }
+    }
+
+    @FunctionalInterface
+    private interface TempWriter {
+        void write(Path temp, Download task) throws Exception;
+    }
+
+    /** 🔹 Um download: o resultado é o ficheiro final; progresso em bytes (indeterminado sem Content-Length) */
+    public static final class Download extends Task<Path> {
+
+        private final String fileName;
+        private final TempWriter writer;
+
+        private Download(String fileName, TempWriter writer) {
+            this.fileName = fileName;
+            this.writer = writer;
+            updateMessage("Download de " + fileName + " em espera...");
+        }
+
+        public Download start() {
+            EXECUTOR.execute(this);
+            return this;
+        }
+
+        /**
+         * 🔹 Põe o download na fila, mostra o progresso só se demorar e avisa no fim (FX thread).
+         * Um ficheiro pequeno termina sem abrir janela nenhuma.
+         */
+        public Download startWithProgress(Window owner) {
+            TaskProgressWindow.showIfSlow(owner, "Download " + fileName, this, SLOW_DOWNLOAD_MS);
+            setOnSucceeded(event -> AlertUtil.showInfo("Sucesso", "Arquivo salvo em: " + getValue()));
+            setOnFailed(event -> {
+                Throwable cause = getException().getCause() != null ? getException().getCause() : getException();
+                AlertUtil.showError("Erro", "Falha ao salvar " + fileName + ": " + cause.getMessage());
+                cause.printStackTrace();
+            });
+            return start();
+        }
+
+        @Override
+        protected Path call() throws Exception {
+            long start = System.nanoTime();
+            Path dir = downloadsDir();
+            Files.createDirectories(dir);
+            Path target = reserve(dir, fileName);
+            Path temp = null;
+            updateMessage("A descarregar " + target.getFileName() + "...");
+            updateProgress(-1, 1);
+
+            try {
+                temp = Files.createTempFile(dir, ".download-", ".tmp");
+                writer.write(temp, this);
+                if (isCancelled()) throw new InterruptedException("Download cancelado");
+                Files.move(temp, target, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            } catch (Exception e) {
+                if (temp != null) Files.deleteIfExists(temp);
+                Files.deleteIfExists(target);
+                throw e;
+            }
+
+            System.out.println("Download " + target.getFileName() + ": " + Files.size(target) / 1024 + " KB em "
+                    + (System.nanoTime() - start) / 1_000_000 + " ms");
+            return target;
+        }
+
+        void progress(long received, long total) {
+            if (total > 0) {
+                updateProgress(received, total);
+                updateMessage("A descarregar " + fileName + ": " + received / 1024 + " de " + total / 1024 + " KB");
+            } else {
+                updateMessage("A descarregar " + fileName + ": " + received / 1024 + " KB");
+            }
+        }
+    }
+
+    /** Passa os blocos recebidos ao subscriber de ficheiro, contando os bytes para o progresso */
+    private static final class ProgressSubscriber implements HttpResponse.BodySubscriber<Path> {
+
+        private final HttpResponse.BodySubscriber<Path> delegate;
+        private final long total;
+        private final Download task;
+        private long received;
+
+        ProgressSubscriber(HttpResponse.BodySubscriber<Path> delegate, long total, Download task) {
+            this.delegate = delegate;
+            this.total = total;
+            this.task = task;
+        }
+
+        @Override
+        public CompletionStage<Path> getBody() {
+            return delegate.getBody();
+        }
+
+        @Override
+        public void onSubscribe(Flow.Subscription subscription) {
+            delegate.onSubscribe(subscription);
+        }
+
+        @Override
+        public void onNext(List<ByteBuffer> items) {
+            for (ByteBuffer item : items) {
+                received += item.remaining();
+            }
+            delegate.onNext(items);
+            task.progress(received, total);
+        }
+
+        @Override
+        public void onError(Throwable throwable) {
+            delegate.onError(throwable);
+        }
+
+        @Override
+        public void onComplete() {
+            delegate.onComplete();
+        }
+    }
+}
@@ -0,0 +1,17 @@
+package org.manager.export;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.util.List;
+
+/**
+ * 🔹 Escrita de uma tabela linha a linha (CSV ou XLSX).
+ * Nenhuma implementação guarda as linhas: cada uma vai logo para o stream.
+ */
+public interface RowWriter extends Closeable {
+
+    void header(List<String> titles) throws IOException;
+
+    /** Valores: Number fica numérico (no XLSX), o resto é escrito como texto */
+    void row(Object[] values) throws IOException;
+}
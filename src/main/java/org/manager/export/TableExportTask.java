@@ -0,0 +1,242 @@
+package org.manager.export;
+
+import javafx.application.Platform;
+import javafx.concurrent.Task;
+import javafx.stage.Window;
+import org.manager.model.PageResponse;
+import org.manager.util.AlertUtil;
+import org.manager.util.PagedTableLoader;
+import org.manager.util.TaskProgressWindow;
+
+import java.io.IOException;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.function.BiFunction;
+import java.util.function.Function;
+import java.util.function.Predicate;
+
+/**
+ * 🔹 Exportação de uma tabela para CSV ou XLSX fora do FX thread.
+ *
+ * As linhas passam uma a uma da origem para o ficheiro: nem o texto do ficheiro nem as linhas
+ * convertidas ficam em memória. A origem é a lista já filtrada da tela (só referências) ou as
+ * páginas do servidor, pedidas uma de cada vez, por isso exportar um histórico de um milhão de
+ * movimentos usa a mesma memória que exportar cem.
+ *
+ * O ficheiro é escrito por um FileChannel com um buffer direto fixo, primeiro num temporário na
+ * pasta de destino e só no fim renomeado por cima do nome reservado; cancelar apaga os dois.
+ *
+ * Configuração:
+ *  - manager.export.pageSize    (linhas por página pedida ao servidor; padrão 500)
+ *  - manager.export.bufferKb    (buffer de escrita; padrão 256)
+ */
+public class TableExportTask<T> extends Task<Path> {
+
+    private static final int PAGE_SIZE = Math.max(1, Integer.getInteger("manager.export.pageSize", 500));
+    private static final int BUFFER_SIZE = Math.max(8, Integer.getInteger("manager.export.bufferKb", 256)) * 1024;
+    private static final int PROGRESS_EVERY = 1_000;
+    private static final DateTimeFormatter FILE_STAMP = DateTimeFormatter.ofPattern("yyyyMMdd_HHmmss");
+
+    // Uma exportação de cada vez: o disco e a rede não ganham nada com paralelismo aqui
+    private static final ExecutorService EXECUTOR = Executors.newSingleThreadExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "table-export");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    public enum Format {
+        CSV("csv"), XLSX("xlsx");
+
+        private final String extension;
+
+        Format(String extension) {
+            this.extension = extension;
+        }
+
+        public String extension() {
+            return extension;
+        }
+
+        RowWriter open(ChannelOutputStream out) throws IOException {
+            return this == CSV ? new CsvRowWriter(out) : new XlsxRowWriter(out);
+        }
+    }
+
+    /** Coluna exportada: título e valor (Number fica numérico no XLSX, o resto vai como texto) */
+    public record Column<T>(String title, Function<? super T, ?> value) {}
+
+    /** Origem das linhas; entrega-as por ordem até acabar ou até o destino pedir para parar */
+    @FunctionalInterface
+    public interface RowSource<T> {
+        void forEach(RowSink<T> sink) throws Exception;
+    }
+
+    @FunctionalInterface
+    public interface RowSink<T> {
+        /** @param total total conhecido de linhas (-1 se desconhecido); devolve false para parar */
+        boolean accept(T row, long total) throws IOException;
+    }
+
+    // ================= ORIGENS =================
+    /** 🔹 Linhas que a tela já tem (ex.: a lista filtrada da tabela); copia só as referências */
+    public static <T> RowSource<T> snapshot(List<? extends T> rows) {
+        List<? extends T> copy = List.copyOf(rows);
+        return sink -> {
+            for (T row : copy) {
+                if (!sink.accept(row, copy.size())) return;
+            }
+        };
+    }
+
+    /**
+     * 🔹 Linhas que só podem ser lidas no FX thread (ex.: o armazenamento por colunas dos movimentos):
+     * {@code chunk} devolve as linhas [from, to) e é chamado no FX thread, um bloco de cada vez.
+     */
+    public static <T> RowSource<T> fxChunks(int total, BiFunction<Integer, Integer, List<T>> chunk) {
+        return sink -> {
+            for (int from = 0; from < total; from += PAGE_SIZE) {
+                int start = from;
+                int end = Math.min(total, from + PAGE_SIZE);
+                CompletableFuture<List<T>> rows = new CompletableFuture<>();
+                Platform.runLater(() -> {
+                    try {
+                        rows.complete(chunk.apply(start, end));
+                    } catch (RuntimeException e) {
+                        rows.completeExceptionally(e);
+                    }
+                });
+                for (T row : rows.join()) {
+                    if (!sink.accept(row, total)) return;
+                }
+            }
+        };
+    }
+
+    /** 🔹 Todas as páginas do servidor, uma de cada vez, mantendo só as que passam no filtro */
+    public static <T> RowSource<T> pages(PagedTableLoader.PageFetcher<T> fetcher, Predicate<? super T> filter) {
+        return sink -> {
+            for (int page = 0; ; page++) {
+                PageResponse<T> result = fetcher.fetch(page, PAGE_SIZE).join();
+                List<T> content = result != null && result.getContent() != null ? result.getContent() : List.of();
+                long total = result != null ? result.getTotalElements() : -1;
+
+                for (T row : content) {
+                    if (filter.test(row) && !sink.accept(row, total)) return;
+                }
+                if (result == null || result.isLast() || content.size() < PAGE_SIZE) return;
+            }
+        };
+    }
+
+    private final String baseName;
+    private final Format format;
+    private final List<Column<T>> columns;
+    private final RowSource<T> source;
+    private final String fileName;
+
+    private long rows;
+
+    /**
+     * @param baseName prefixo do ficheiro gravado em Downloads (ex.: "movimentos"); o nome leva a
+     *                 data e hora e é reservado como nos downloads ({@link ExportDownloadManager#reserve}),
+     *                 por isso nunca substitui outra exportação
+     */
+    public TableExportTask(String baseName, Format format, List<Column<T>> columns, RowSource<T> source) {
+        this.baseName = baseName;
+        this.format = format;
+        this.columns = List.copyOf(columns);
+        this.source = source;
+        this.fileName = baseName + "_" + LocalDateTime.now().format(FILE_STAMP) + "." + format.extension();
+    }
+
+    /** 🔹 Põe a exportação na fila */
+    public TableExportTask<T> start() {
+        updateMessage("Exportação de " + baseName + " em espera...");
+        EXECUTOR.execute(this);
+        return this;
+    }
+
+    /** 🔹 Mostra o progresso numa janela não modal, avisa no fim e põe a exportação na fila (FX thread) */
+    public TableExportTask<T> startWithProgress(Window owner) {
+        TaskProgressWindow.show(owner, "Exportar " + baseName, this);
+        setOnSucceeded(event -> AlertUtil.showInfo("Exportação concluída",
+                rows + " linhas guardadas em:\n" + getValue()));
+        setOnFailed(event -> {
+            Throwable cause = getException().getCause() != null ? getException().getCause() : getException();
+            AlertUtil.showError("Erro na exportação", cause.getMessage());
+            cause.printStackTrace();
+        });
+        return start();
+    }
+
+    @Override
+    protected Path call() throws Exception {
+        long start = System.nanoTime();
+        Path dir = ExportDownloadManager.downloadsDir();
+        Files.createDirectories(dir);
+        Path target = ExportDownloadManager.reserve(dir, fileName);
+        Path temp = null;
+        updateMessage("A exportar " + baseName + "...");
+
+        long bytes;
+        try {
+            temp = Files.createTempFile(dir, ".export-", ".tmp");
+            List<String> titles = columns.stream().map(Column::title).toList();
+            Object[] values = new Object[columns.size()];
+
+            try (FileChannel channel = FileChannel.open(temp, StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING);
+                 ChannelOutputStream out = new ChannelOutputStream(channel, BUFFER_SIZE);
+                 RowWriter writer = format.open(out)) {
+
+                writer.header(titles);
+                source.forEach((row, total) -> {
+                    if (isCancelled()) return false;
+                    for (int i = 0; i < values.length; i++) {
+                        values[i] = columns.get(i).value().apply(row);
+                    }
+                    writer.row(values);
+                    if (++rows % PROGRESS_EVERY == 0) reportProgress(total);
+                    return true;
+                });
+            }
+
+            if (isCancelled()) {
+                Files.deleteIfExists(temp);
+                Files.deleteIfExists(target);
+                return null;
+            }
+            bytes = Files.size(temp);
+            // Só substitui o ficheiro vazio da reserva
+            Files.move(temp, target, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } catch (Exception e) {
+            if (temp != null) Files.deleteIfExists(temp);
+            Files.deleteIfExists(target);
+            throw e;
+        }
+
+        updateProgress(1, 1);
+        updateMessage(rows + " linhas exportadas para " + target.getFileName());
+        System.out.println("Exportação " + target.getFileName() + ": " + rows + " linhas, " + bytes / 1024 + " KB em "
+                + (System.nanoTime() - start) / 1_000_000 + " ms");
+        return target;
+    }
+
+    private void reportProgress(long total) {
+        if (total > 0) {
+            updateProgress(Math.min(rows, total), total);
+            updateMessage("A exportar " + baseName + ": " + rows + " de " + total + " linhas");
+        } else {
+            updateProgress(-1, 1);
+            updateMessage("A exportar " + baseName + ": " + rows + " linhas");
+        }
+    }
+}
@@ -0,0 +1,184 @@
+package org.manager.export;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipOutputStream;
+
+/**
+ * 🔹 XLSX escrito em streaming, sem biblioteca externa.
+ *
+ * Cada linha vai logo para a folha dentro do ZIP (texto em "inline strings", sem tabela de strings
+ * partilhadas), por isso a memória é constante qualquer que seja o número de linhas. Ao chegar ao
+ * limite de linhas de uma folha do Excel, continua numa folha nova com o mesmo cabeçalho.
+ * As partes que dependem do número de folhas (workbook, relações, tipos) são escritas no fecho.
+ */
+public class XlsxRowWriter implements RowWriter {
+
+    private static final int MAX_ROWS_PER_SHEET = 1_048_576;
+    private static final String MAIN_NS = "http://schemas.openxmlformats.org/spreadsheetml/2006/main";
+    private static final String REL_NS = "http://schemas.openxmlformats.org/package/2006/relationships";
+    private static final String DOC_REL_NS = "http://schemas.openxmlformats.org/officeDocument/2006/relationships";
+    private static final String XML_HEADER = "<?xml version=\"1.0\" encoding=\"UTF-8\" standalone=\"yes\"?>\n";
+
+    private final ZipOutputStream zip;
+    private final Writer writer;
+    private List<String> titles;
+    private int sheets;
+    private int rowsInSheet;
+
+    public XlsxRowWriter(OutputStream out) {
+        this.zip = new ZipOutputStream(out, StandardCharsets.UTF_8);
+        this.writer = new OutputStreamWriter(zip, StandardCharsets.UTF_8);
+    }
+
+    @Override
+    public void header(List<String> titles) throws IOException {
+        this.titles = titles;
+        startSheet();
+    }
+
+    @Override
+    public void row(Object[] values) throws IOException {
+        if (sheets == 0) startSheet();
+        if (rowsInSheet >= MAX_ROWS_PER_SHEET) {
+            endSheet();
+            startSheet();
+        }
+        writeRow(values, false);
+    }
+
+    // ================= FOLHAS =================
+    private void startSheet() throws IOException {
+        sheets++;
+        rowsInSheet = 0;
+        zip.putNextEntry(new ZipEntry("xl/worksheets/sheet" + sheets + ".xml"));
+        writer.write(XML_HEADER);
+        writer.write("<worksheet xmlns=\"" + MAIN_NS + "\"><sheetData>");
+        if (titles != null) writeRow(titles.toArray(), true);
+    }
+
+    private void endSheet() throws IOException {
+        writer.write("</sheetData></worksheet>");
+        writer.flush();
+        zip.closeEntry();
+    }
+
+    private void writeRow(Object[] values, boolean header) throws IOException {
+        rowsInSheet++;
+        writer.write("<row r=\"");
+        writer.write(Integer.toString(rowsInSheet));
+        writer.write("\">");
+        for (Object value : values) {
+            writeCell(value, header);
+        }
+        writer.write("</row>");
+    }
+
+    private void writeCell(Object value, boolean header) throws IOException {
+        if (value == null) {
+            writer.write("<c/>");
+            return;
+        }
+        String number = numeric(value);
+        if (number != null && !header) {
+            writer.write("<c><v>");
+            writer.write(number);
+            writer.write("</v></c>");
+            return;
+        }
+        writer.write(header ? "<c t=\"inlineStr\" s=\"1\"><is><t xml:space=\"preserve\">" : "<c t=\"inlineStr\"><is><t xml:space=\"preserve\">");
+        escape(value.toString());
+        writer.write("</t></is></c>");
+    }
+
+    private static String numeric(Object value) {
+        if (value instanceof BigDecimal decimal) return decimal.toPlainString();
+        if (value instanceof Double || value instanceof Float) {
+            double d = ((Number) value).doubleValue();
+            return Double.isFinite(d) ? Double.toString(d) : null;
+        }
+        if (value instanceof Number) return value.toString();
+        return null;
+    }
+
+    /** Escapa XML e descarta caracteres de controlo que o XML não permite */
+    private void escape(String text) throws IOException {
+        for (int i = 0; i < text.length(); i++) {
+            char c = text.charAt(i);
+            switch (c) {
+                case '&' -> writer.write("&amp;");
+                case '<' -> writer.write("&lt;");
+                case '>' -> writer.write("&gt;");
+                case '"' -> writer.write("&quot;");
+                default -> {
+                    if (c >= 0x20 || c == '\t' || c == '\n' || c == '\r') writer.write(c);
+                }
+            }
+        }
+    }
+
+    // ================= FECHO =================
+    @Override
+    public void close() throws IOException {
+        if (sheets == 0) startSheet();
+        endSheet();
+
+        entry("xl/styles.xml", XML_HEADER + "<styleSheet xmlns=\"" + MAIN_NS + "\">"
+                + "<fonts count=\"2\"><font><sz val=\"11\"/><name val=\"Calibri\"/></font>"
+                + "<font><b/><sz val=\"11\"/><name val=\"Calibri\"/></font></fonts>"
+                + "<fills count=\"2\"><fill><patternFill patternType=\"none\"/></fill>"
+                + "<fill><patternFill patternType=\"gray125\"/></fill></fills>"
+                + "<borders count=\"1\"><border><left/><right/><top/><bottom/><diagonal/></border></borders>"
+                + "<cellStyleXfs count=\"1\"><xf numFmtId=\"0\" fontId=\"0\" fillId=\"0\" borderId=\"0\"/></cellStyleXfs>"
+                + "<cellXfs count=\"2\"><xf numFmtId=\"0\" fontId=\"0\" fillId=\"0\" borderId=\"0\" xfId=\"0\"/>"
+                + "<xf numFmtId=\"0\" fontId=\"1\" fillId=\"0\" borderId=\"0\" xfId=\"0\" applyFont=\"1\"/></cellXfs>"
+                + "</styleSheet>");
+
+        StringBuilder workbook = new StringBuilder(XML_HEADER)
+                .append("<workbook xmlns=\"").append(MAIN_NS).append("\" xmlns:r=\"").append(DOC_REL_NS).append("\"><sheets>");
+        StringBuilder workbookRels = new StringBuilder(XML_HEADER)
+                .append("<Relationships xmlns=\"").append(REL_NS).append("\">");
+        StringBuilder contentTypes = new StringBuilder(XML_HEADER)
+                .append("<Types xmlns=\"http://schemas.openxmlformats.org/package/2006/content-types\">")
+                .append("<Default Extension=\"rels\" ContentType=\"application/vnd.openxmlformats-package.relationships+xml\"/>")
+                .append("<Default Extension=\"xml\" ContentType=\"application/xml\"/>")
+                .append("<Override PartName=\"/xl/workbook.xml\" ContentType=\"application/vnd.openxmlformats-officedocument.spreadsheetml.sheet.main+xml\"/>")
+                .append("<Override PartName=\"/xl/styles.xml\" ContentType=\"application/vnd.openxmlformats-officedocument.spreadsheetml.styles+xml\"/>");
+
+        for (int sheet = 1; sheet <= sheets; sheet++) {
+            workbook.append("<sheet name=\"Dados").append(sheets > 1 ? " " + sheet : "")
+                    .append("\" sheetId=\"").append(sheet).append("\" r:id=\"rId").append(sheet).append("\"/>");
+            workbookRels.append("<Relationship Id=\"rId").append(sheet)
+                    .append("\" Type=\"").append(DOC_REL_NS).append("/worksheet\" Target=\"worksheets/sheet")
+                    .append(sheet).append(".xml\"/>");
+            contentTypes.append("<Override PartName=\"/xl/worksheets/sheet").append(sheet)
+                    .append(".xml\" ContentType=\"application/vnd.openxmlformats-officedocument.spreadsheetml.worksheet+xml\"/>");
+        }
+        workbookRels.append("<Relationship Id=\"rId").append(sheets + 1)
+                .append("\" Type=\"").append(DOC_REL_NS).append("/styles\" Target=\"styles.xml\"/>");
+
+        entry("xl/workbook.xml", workbook.append("</sheets></workbook>").toString());
+        entry("xl/_rels/workbook.xml.rels", workbookRels.append("</Relationships>").toString());
+        entry("_rels/.rels", XML_HEADER + "<Relationships xmlns=\"" + REL_NS + "\">"
+                + "<Relationship Id=\"rId1\" Type=\"" + DOC_REL_NS + "/officeDocument\" Target=\"xl/workbook.xml\"/>"
+                + "</Relationships>");
+        entry("[Content_Types].xml", contentTypes.append("</Types>").toString());
+
+        writer.flush();
+        zip.finish();
+        zip.close();
+    }
+
+    private void entry(String name, String content) throws IOException {
+        zip.putNextEntry(new ZipEntry(name));
+        writer.write(content);
+        writer.flush();
+        zip.closeEntry();
+    }
+}
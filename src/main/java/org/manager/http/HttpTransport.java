@@ -0,0 +1,181 @@
+package org.manager.http;
+
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.DeserializationFeature;
+import com.fasterxml.jackson.databind.JavaType;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import org.manager.model.ChangeSet;
+import org.manager.model.PageResponse;
+
+import java.io.IOException;
+import java.lang.reflect.Type;
+import java.net.http.HttpClient;
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * 🔹 Transporte HTTP único da aplicação.
+ * Todos os services partilham o mesmo HttpClient (pool de conexões, threads de seleção)
+ * e o mesmo ObjectMapper, em vez de criar novos a cada tela aberta.
+ *
+ * O ObjectMapper partilhado falha em campos desconhecidos (como os mappers que cada service
+ * criava); quem precisa de ignorá-los usa {@link #lenientMapper()}.
+ *
+ * Configuração por propriedades de sistema:
+ *  - manager.http.connectTimeout   em segundos (padrão 10)
+ *  - manager.http.keepAlive        em segundos (padrão 300)
+ *  - manager.http.version          HTTP_2 ou HTTP_1_1 (padrão HTTP_2)
+ *  - manager.http.singleFlight     junta GETs iguais em curso (padrão true)
+ */
+public final class HttpTransport {
+
+    // 🔹 Evita instanciar a classe
+    private HttpTransport() {}
+
+    private static final Duration CONNECT_TIMEOUT =
+            Duration.ofSeconds(Long.getLong("manager.http.connectTimeout", 10));
+    private static final long KEEP_ALIVE_SECONDS = Long.getLong("manager.http.keepAlive", 300);
+    private static final HttpClient.Version VERSION =
+            HttpClient.Version.valueOf(System.getProperty("manager.http.version", "HTTP_2"));
+    private static final boolean SINGLE_FLIGHT =
+            Boolean.parseBoolean(System.getProperty("manager.http.singleFlight", "true"));
+
+    private static final Map<Type, ObjectReader> READERS = new ConcurrentHashMap<>();
+
+    // 🔹 Inicialização preguiçosa: só cria o cliente na primeira requisição
+    private static final class ClientHolder {
+        private static final ExecutorService EXECUTOR = createExecutor();
+        private static final HttpClient CLIENT = SINGLE_FLIGHT
+                ? new SingleFlightHttpClient(createClient(EXECUTOR))
+                : createClient(EXECUTOR);
+    }
+
+    private static final class MapperHolder {
+        private static final ObjectMapper MAPPER = new ObjectMapper()
+                .registerModule(new JavaTimeModule())
+                .disable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS);
+    }
+
+    private static final class LenientMapperHolder {
+        private static final ObjectMapper MAPPER = MapperHolder.MAPPER.copy()
+                .configure(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES, false);
+    }
+
+    public static HttpClient client() {
+        return ClientHolder.CLIENT;
+    }
+
+    /** 🔹 Métricas do single-flight (vazio quando desativado) */
+    public static String singleFlightSummary() {
+        return client() instanceof SingleFlightHttpClient singleFlight ? singleFlight.summary() : "";
+    }
+
+    /** Executor do HttpClient (entrega os corpos das respostas): não usar para trabalho bloqueante */
+    public static ExecutorService executor() {
+        return ClientHolder.EXECUTOR;
+    }
+
+    public static ObjectMapper mapper() {
+        return MapperHolder.MAPPER;
+    }
+
+    /** 🔹 Mesma configuração, mas ignora campos desconhecidos (respostas que o cliente não modela por inteiro) */
+    public static ObjectMapper lenientMapper() {
+        return LenientMapperHolder.MAPPER;
+    }
+
+    /** 🔹 ObjectReader em cache por tipo (evita resolver o tipo a cada resposta) */
+    public static ObjectReader reader(Class<?> type) {
+        return READERS.computeIfAbsent(type, t -> mapper().readerFor(type));
+    }
+
+    public static ObjectReader reader(TypeReference<?> typeRef) {
+        return READERS.computeIfAbsent(typeRef.getType(), t -> {
+            JavaType javaType = mapper().getTypeFactory().constructType(typeRef);
+            return mapper().readerFor(javaType);
+        });
+    }
+
+    public static ObjectReader reader(JavaType javaType) {
+        return READERS.computeIfAbsent(javaType, t -> mapper().readerFor(javaType));
+    }
+
+    /**
+     * 🔹 Lê uma página do servidor. Se o endpoint ainda devolver uma lista simples,
+     * ela é tratada como página única (last = true).
+     */
+    public static <T> PageResponse<T> readPage(String body, Class<T> contentType) throws IOException {
+        if (body == null || body.isBlank()) {
+            return emptyPage();
+        }
+        if (body.stripLeading().startsWith("[")) {
+            JavaType listType = mapper().getTypeFactory().constructCollectionType(List.class, contentType);
+            List<T> content = reader(listType).readValue(body);
+            return PageResponse.<T>builder()
+                    .content(content)
+                    .pageNumber(0)
+                    .pageSize(content.size())
+                    .totalElements(content.size())
+                    .totalPages(1)
+                    .last(true)
+                    .build();
+        }
+        JavaType pageType = mapper().getTypeFactory().constructParametricType(PageResponse.class, contentType);
+        return reader(pageType).readValue(body);
+    }
+
+    /**
+     * 🔹 Lê a resposta de um pedido incremental. Uma lista simples é tratada como
+     * "só linhas alteradas" (sem remoções).
+     */
+    public static <T> ChangeSet<T> readChangeSet(String body, Class<T> itemType) throws IOException {
+        if (body == null || body.isBlank()) {
+            return ChangeSet.<T>builder().items(List.of()).deletedIds(List.of()).build();
+        }
+        if (body.stripLeading().startsWith("[")) {
+            JavaType listType = mapper().getTypeFactory().constructCollectionType(List.class, itemType);
+            List<T> items = reader(listType).readValue(body);
+            return ChangeSet.<T>builder().items(items).deletedIds(List.of()).build();
+        }
+        JavaType setType = mapper().getTypeFactory().constructParametricType(ChangeSet.class, itemType);
+        return reader(setType).readValue(body);
+    }
+
+    public static <T> PageResponse<T> emptyPage() {
+        return PageResponse.<T>builder()
+                .content(List.of())
+                .last(true)
+                .build();
+    }
+
+    private static HttpClient createClient(ExecutorService executor) {
+        // Lido pelo pool de conexões do JDK na criação do primeiro HttpClient
+        if (System.getProperty("jdk.httpclient.keepalive.timeout") == null) {
+            System.setProperty("jdk.httpclient.keepalive.timeout", String.valueOf(KEEP_ALIVE_SECONDS));
+        }
+        return HttpClient.newBuilder()
+                .version(VERSION)
+                .connectTimeout(CONNECT_TIMEOUT)
+                .executor(executor)
+                .build();
+    }
+
+    // 🔹 Sem limite fixo: um pool pequeno esgota-se quando várias respostas grandes são lidas
+    // ao mesmo tempo e deixa de haver threads para entregar os bytes que elas esperam
+    private static ExecutorService createExecutor() {
+        AtomicInteger counter = new AtomicInteger();
+        return Executors.newCachedThreadPool(runnable -> {
+            Thread thread = new Thread(runnable, "http-transport-" + counter.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+}
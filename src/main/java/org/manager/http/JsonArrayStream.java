@@ -0,0 +1,128 @@
+package org.manager.http;
+
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.databind.ObjectReader;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Consumer;
+import java.util.function.UnaryOperator;
+
+/**
+ * 🔹 Leitura em streaming de listas JSON grandes.
+ * O corpo da resposta é lido diretamente do InputStream com JsonParser, sem montar a String
+ * inteira em memória, e os DTOs são entregues em lotes ao chamador enquanto o download continua.
+ *
+ * Aceita tanto um array na raiz ([...]) como uma página ({"content": [...], ...}).
+ *
+ * A leitura bloqueia à espera dos bytes, por isso corre num pool próprio ("json-stream") e nunca
+ * no executor do HttpClient, que é quem entrega esses bytes.
+ * Configuração: manager.http.streamThreads (padrão 4).
+ */
+public final class JsonArrayStream {
+
+    // 🔹 Evita instanciar a classe
+    private JsonArrayStream() {}
+
+    public static final int DEFAULT_BATCH_SIZE = 500;
+
+    private static final int STREAM_THREADS = Integer.getInteger("manager.http.streamThreads", 4);
+
+    // 🔹 Inicialização preguiçosa: só cria as threads na primeira lista lida
+    private static final class ParserHolder {
+        private static final ExecutorService EXECUTOR = createExecutor();
+    }
+
+    /**
+     * @param onBatch chamado numa thread "json-stream" com cada lote (nunca vazio)
+     * @return número total de elementos lidos
+     */
+    public static <T> CompletableFuture<Long> stream(HttpRequest request, Class<T> type, int batchSize,
+                                                     UnaryOperator<T> mapper, Consumer<List<T>> onBatch) {
+        return HttpTransport.client()
+                .sendAsync(request, HttpResponse.BodyHandlers.ofInputStream())
+                .thenApplyAsync(response -> {
+                    try (InputStream body = response.body()) {
+                        if (response.statusCode() >= 400) {
+                            String message = new String(body.readAllBytes(), StandardCharsets.UTF_8);
+                            throw new RuntimeException("Erro HTTP " + response.statusCode() + ": " + message);
+                        }
+                        return readBatches(body, HttpTransport.reader(type), batchSize, mapper, onBatch);
+                    } catch (IOException e) {
+                        throw new UncheckedIOException("Erro ao ler lista JSON", e);
+                    }
+                }, ParserHolder.EXECUTOR);
+    }
+
+    /** 🔹 Versão que acumula tudo numa lista (sem a cópia intermediária em String) */
+    public static <T> CompletableFuture<List<T>> collect(HttpRequest request, Class<T> type, UnaryOperator<T> mapper) {
+        List<T> result = new ArrayList<>();
+        return stream(request, type, DEFAULT_BATCH_SIZE, mapper, result::addAll)
+                .thenApply(count -> result);
+    }
+
+    private static <T> long readBatches(InputStream in, ObjectReader reader, int batchSize,
+                                        UnaryOperator<T> mapper, Consumer<List<T>> onBatch) throws IOException {
+        long count = 0;
+        try (JsonParser parser = HttpTransport.mapper().getFactory().createParser(in)) {
+            if (!moveToArray(parser)) {
+                return 0;
+            }
+
+            List<T> batch = new ArrayList<>(batchSize);
+            while (parser.nextToken() == JsonToken.START_OBJECT) {
+                T value = reader.readValue(parser);
+                batch.add(mapper.apply(value));
+                count++;
+                if (batch.size() >= batchSize) {
+                    onBatch.accept(batch);
+                    batch = new ArrayList<>(batchSize);
+                }
+            }
+            if (!batch.isEmpty()) {
+                onBatch.accept(batch);
+            }
+        }
+        return count;
+    }
+
+    private static ExecutorService createExecutor() {
+        AtomicInteger counter = new AtomicInteger();
+        return Executors.newFixedThreadPool(Math.max(1, STREAM_THREADS), runnable -> {
+            Thread thread = new Thread(runnable, "json-stream-" + counter.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    /** Posiciona o parser no início do array de elementos (raiz ou campo "content") */
+    private static boolean moveToArray(JsonParser parser) throws IOException {
+        JsonToken token = parser.nextToken();
+        if (token == JsonToken.START_ARRAY) {
+            return true;
+        }
+        if (token != JsonToken.START_OBJECT) {
+            return false;
+        }
+        while (parser.nextToken() == JsonToken.FIELD_NAME) {
+            String field = parser.currentName();
+            JsonToken value = parser.nextToken();
+            if ("content".equals(field) && value == JsonToken.START_ARRAY) {
+                return true;
+            }
+            parser.skipChildren();
+        }
+        return false;
+    }
+}
@@ -0,0 +1,126 @@
+package org.manager.http;
+
+import javax.net.ssl.SSLContext;
+import javax.net.ssl.SSLParameters;
+import java.io.IOException;
+import java.net.Authenticator;
+import java.net.CookieHandler;
+import java.net.ProxySelector;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpHeaders;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.net.http.WebSocket;
+import java.time.Duration;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executor;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * 🔹 HttpClient com "single-flight" para GETs.
+ *
+ * Enquanto um GET para o mesmo URI com os mesmos cabeçalhos (token, Accept, ...) está em curso,
+ * os pedidos iguais não saem para a rede: recebem uma cópia do mesmo CompletableFuture. Só se aplica a respostas lidas com
+ * {@code BodyHandlers.ofString()} (String é imutável e pode ser partilhada); streams, ficheiros e
+ * métodos de escrita passam diretamente para o cliente real.
+ */
+public class SingleFlightHttpClient extends HttpClient {
+
+    // Todas as chamadas a BodyHandlers.ofString() devolvem instâncias da mesma classe
+    private static final Class<?> STRING_HANDLER = HttpResponse.BodyHandlers.ofString().getClass();
+
+    private final HttpClient delegate;
+    private final Map<Key, CompletableFuture<HttpResponse<String>>> inFlight = new ConcurrentHashMap<>();
+
+    private final LongAdder getRequests = new LongAdder();
+    private final LongAdder deduplicated = new LongAdder();
+
+    public SingleFlightHttpClient(HttpClient delegate) {
+        this.delegate = delegate;
+    }
+
+    @Override
+    public <T> CompletableFuture<HttpResponse<T>> sendAsync(HttpRequest request, HttpResponse.BodyHandler<T> handler) {
+        if (!"GET".equals(request.method()) || handler.getClass() != STRING_HANDLER) {
+            return delegate.sendAsync(request, handler);
+        }
+        getRequests.increment();
+
+        // Todos os cabeçalhos entram na chave: o mesmo URI com outro Accept pode ter outra resposta
+        Key key = new Key(request.uri(), request.headers());
+        CompletableFuture<HttpResponse<String>> created = new CompletableFuture<>();
+        CompletableFuture<HttpResponse<String>> existing = inFlight.putIfAbsent(key, created);
+        if (existing != null) {
+            deduplicated.increment();
+            return cast(existing.copy());
+        }
+
+        delegate.sendAsync(request, HttpResponse.BodyHandlers.ofString())
+                .whenComplete((response, ex) -> {
+                    // Sai do mapa antes de completar: quem chegar depois faz um pedido novo
+                    inFlight.remove(key, created);
+                    if (ex != null) created.completeExceptionally(ex);
+                    else created.complete(response);
+                });
+
+        // Cada chamador recebe a sua cópia (cancelar uma não afeta as outras)
+        return cast(created.copy());
+    }
+
+    @SuppressWarnings("unchecked")
+    private static <T> CompletableFuture<HttpResponse<T>> cast(CompletableFuture<HttpResponse<String>> future) {
+        return (CompletableFuture<HttpResponse<T>>) (CompletableFuture<?>) future;
+    }
+
+    // ================= MÉTRICAS =================
+    public long getGetRequests() {
+        return getRequests.sum();
+    }
+
+    public long getDeduplicated() {
+        return deduplicated.sum();
+    }
+
+    public int getInFlight() {
+        return inFlight.size();
+    }
+
+    public String summary() {
+        return "Single-flight: GETs=" + getGetRequests() + " deduplicados=" + getDeduplicated() + " em curso=" + getInFlight();
+    }
+
+    private record Key(URI uri, HttpHeaders headers) {}
+
+    // ================= DELEGAÇÃO =================
+    @Override
+    public <T> CompletableFuture<HttpResponse<T>> sendAsync(HttpRequest request, HttpResponse.BodyHandler<T> handler,
+                                                            HttpResponse.PushPromiseHandler<T> pushPromiseHandler) {
+        return delegate.sendAsync(request, handler, pushPromiseHandler);
+    }
+
+    @Override
+    public <T> HttpResponse<T> send(HttpRequest request, HttpResponse.BodyHandler<T> handler)
+            throws IOException, InterruptedException {
+        return delegate.send(request, handler);
+    }
+
+    @Override public Optional<CookieHandler> cookieHandler() { return delegate.cookieHandler(); }
+    @Override public Optional<Duration> connectTimeout() { return delegate.connectTimeout(); }
+    @Override public Redirect followRedirects() { return delegate.followRedirects(); }
+    @Override public Optional<ProxySelector> proxy() { return delegate.proxy(); }
+    @Override public SSLContext sslContext() { return delegate.sslContext(); }
+    @Override public SSLParameters sslParameters() { return delegate.sslParameters(); }
+    @Override public Optional<Authenticator> authenticator() { return delegate.authenticator(); }
+    @Override public Version version() { return delegate.version(); }
+    @Override public Optional<Executor> executor() { return delegate.executor(); }
+    @Override public WebSocket.Builder newWebSocketBuilder() { return delegate.newWebSocketBuilder(); }
+    @Override public void shutdown() { delegate.shutdown(); }
+    @Override public void shutdownNow() { delegate.shutdownNow(); }
+    @Override public boolean awaitTermination(Duration duration) throws InterruptedException { return delegate.awaitTermination(duration); }
+    @Override public boolean isTerminated() { return delegate.isTerminated(); }
+    @Override public void close() { delegate.close(); }
+}
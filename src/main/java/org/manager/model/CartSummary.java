@@ -0,0 +1,79 @@
+package org.manager.model;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+
+/**
+ * 🔹 Totais do carrinho mantidos de forma incremental.
+ * Subtotal e IVA são guardados em cêntimos (long): adicionar, remover ou alterar uma linha
+ * soma apenas a diferença dessa linha, sem voltar a percorrer o carrinho.
+ */
+public class CartSummary {
+
+    private long subtotalCents; // sem IVA
+    private long taxCents;
+    private int itemCount;      // unidades
+    private int lineCount;
+
+    // ================= LINHAS =================
+    public void addLine(long lineSubtotalCents, long lineTaxCents, int quantity) {
+        subtotalCents += lineSubtotalCents;
+        taxCents += lineTaxCents;
+        itemCount += quantity;
+        lineCount++;
+    }
+
+    public void removeLine(long lineSubtotalCents, long lineTaxCents, int quantity) {
+        subtotalCents -= lineSubtotalCents;
+        taxCents -= lineTaxCents;
+        itemCount -= quantity;
+        lineCount--;
+    }
+
+    public void clear() {
+        subtotalCents = 0;
+        taxCents = 0;
+        itemCount = 0;
+        lineCount = 0;
+    }
+
+    // ================= TOTAIS =================
+    public long getSubtotalCents() {
+        return subtotalCents;
+    }
+
+    public long getTaxCents() {
+        return taxCents;
+    }
+
+    public long getTotalCents() {
+        return subtotalCents + taxCents;
+    }
+
+    public int getItemCount() {
+        return itemCount;
+    }
+
+    public int getLineCount() {
+        return lineCount;
+    }
+
+    public boolean isEmpty() {
+        return lineCount == 0;
+    }
+
+    /** Total com IVA menos o desconto, nunca negativo */
+    public long totalAfterDiscountCents(long discountCents) {
+        return Math.max(0, getTotalCents() - discountCents);
+    }
+
+    // ================= CONVERSÃO =================
+    public static long toCents(BigDecimal value) {
+        if (value == null) return 0;
+        return value.setScale(2, RoundingMode.HALF_UP).unscaledValue().longValueExact();
+    }
+
+    public static BigDecimal fromCents(long cents) {
+        return BigDecimal.valueOf(cents, 2);
+    }
+}
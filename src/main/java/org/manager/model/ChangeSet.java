@@ -0,0 +1,17 @@
+package org.manager.model;
+import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
+import lombok.*;
+import java.util.List;
+
+/** Resposta de um pedido incremental: linhas alteradas e ids removidos desde a marca enviada */
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+@JsonIgnoreProperties(ignoreUnknown = true)
+public class ChangeSet<T> {
+
+    private List<T> items;
+    private List<Long> deletedIds;
+}
@@ -0,0 +1,782 @@
+package org.manager.search;
+
+import javafx.collections.ObservableList;
+import javafx.collections.ObservableListBase;
+import org.manager.dto.MovementResponseDTO;
+import org.manager.enums.MovementOrigin;
+import org.manager.enums.MovementStatusType;
+import org.manager.enums.MovementType;
+import org.manager.sync.DeltaSync;
+import org.manager.util.DateTimeUtil;
+
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.AbstractList;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.RandomAccess;
+
+/**
+ * 🔹 Movimentos da tela guardados por colunas.
+ *
+ * Em vez de uma lista de DTOs (Long/Integer em caixa, dois LocalDateTime e strings repetidas por
+ * linha), cada campo é um array primitivo: ids e quantidades, datas em epoch-millis, e tipo, origem,
+ * estado e utilizador como códigos de dicionário. A pesquisa percorre esses arrays: o texto é
+ * comparado uma vez com cada entrada do dicionário (poucas) e depois basta ler uma tabela de
+ * booleanos por linha; só a descrição é comparada linha a linha, sem criar strings.
+ * O filtro de datas usa um índice temporal ({@link TimeIndex}) e só visita as linhas do intervalo.
+ *
+ * A tabela recebe {@link #rows()}: uma lista observável cujas linhas são vistas leves criadas
+ * quando a TableView as pede (só as visíveis no ecrã), lidas diretamente das colunas.
+ * As alterações (sincronização, notificações) são aplicadas por id e avisam a tabela só das
+ * linhas que mudaram. É a única cópia dos movimentos: a sincronização guarda só id → updatedAt.
+ * Não é thread-safe: é usado a partir do FX thread.
+ */
+public class MovementColumnStore {
+
+    private static final long NONE = Long.MIN_VALUE;
+    private static final int NO_QUANTITY = Integer.MIN_VALUE;
+    private static final int INITIAL_CAPACITY = 256;
+
+    // ================= COLUNAS =================
+    private int size;          // slots ocupados, incluindo removidos
+    private int removedCount;
+    private long[] ids = new long[INITIAL_CAPACITY];
+    private int[] revisions = new int[INITIAL_CAPACITY];
+    private boolean[] removed = new boolean[INITIAL_CAPACITY];
+    private int[] quantities = new int[INITIAL_CAPACITY];
+    private long[] dates = new long[INITIAL_CAPACITY];
+    private long[] updatedAts = new long[INITIAL_CAPACITY];
+    private short[] types = new short[INITIAL_CAPACITY];
+    private short[] origins = new short[INITIAL_CAPACITY];
+    private short[] statuses = new short[INITIAL_CAPACITY];
+    private int[] usernames = new int[INITIAL_CAPACITY];
+    private int[] userIds = new int[INITIAL_CAPACITY];
+    private String[] descriptions = new String[INITIAL_CAPACITY];
+    private String[] references = new String[INITIAL_CAPACITY];
+    private String[] dateTexts = new String[INITIAL_CAPACITY]; // data já formatada, preenchida na 1.ª exibição
+    private long[] companyIds = new long[INITIAL_CAPACITY];
+    private long[] warehouseIds = new long[INITIAL_CAPACITY];
+    private long[] productIds = new long[INITIAL_CAPACITY];
+
+    private final Dictionary typeDictionary = new Dictionary(MovementType.labels());
+    private final Dictionary originDictionary = new Dictionary(MovementOrigin.labels());
+    private final Dictionary statusDictionary = new Dictionary(MovementStatusType.labels());
+    private final Dictionary usernameDictionary = new Dictionary(List.of());
+    private final Dictionary userIdDictionary = new Dictionary(List.of());
+
+    private final LongIntMap slotById = new LongIntMap();
+    private final TimeIndex dateIndex = new TimeIndex();
+    private int generation; // muda quando os slots são compactados
+
+    // ================= LINHAS VISÍVEIS =================
+    private String filter = "";
+    private long rangeStart = NONE; // intervalo de datas (inclusivo); NONE = sem intervalo
+    private long rangeEnd = NONE;
+    private int[] visible = new int[INITIAL_CAPACITY];
+    private int[] positionOfSlot = new int[INITIAL_CAPACITY];
+    private int visibleCount;
+    private Comparator<? super Row> order;
+    private final Rows rows = new Rows();
+
+    public MovementColumnStore() {
+        Arrays.fill(positionOfSlot, -1);
+    }
+
+    /** Lista para a TableView (só leitura; ordenar com {@link #sort(Comparator)}) */
+    public ObservableList<Row> rows() {
+        return rows;
+    }
+
+    /** Movimentos guardados (sem os removidos) */
+    public int size() {
+        return size - removedCount;
+    }
+
+    // ================= CARREGAR / ALTERAR =================
+    /** 🔹 Substitui todos os movimentos (carregamento completo) */
+    public void setAll(Collection<MovementResponseDTO> movements) {
+        List<Row> old = List.copyOf(rows);
+        clearColumns();
+        movements.forEach(this::append);
+        rescan(old);
+    }
+
+    public void clear() {
+        List<Row> old = List.copyOf(rows);
+        clearColumns();
+        rescan(old);
+    }
+
+    /** 🔹 Acrescenta linhas novas ou substitui as existentes (ex.: lotes de um download) */
+    public void addAll(List<MovementResponseDTO> movements) {
+        apply(new DeltaSync.Changes<>(movements, List.of()));
+    }
+
+    public void remove(Long id) {
+        if (id != null) apply(new DeltaSync.Changes<>(List.of(), List.of(id)));
+    }
+
+    /**
+     * 🔹 Aplica alterações por id: linhas existentes são atualizadas no lugar, as novas vão para o
+     * fim e as removidas saem. A tabela só é avisada das posições afetadas.
+     */
+    public void apply(DeltaSync.Changes<MovementResponseDTO> changes) {
+        if (changes.isEmpty()) return;
+        rows.begin();
+        for (Long id : changes.removedIds()) {
+            int slot = id != null ? slotById.get(id) : -1;
+            if (slot < 0) continue;
+            hideSlot(slot);
+            removed[slot] = true;
+            removedCount++;
+            slotById.remove(id);
+        }
+        for (MovementResponseDTO movement : changes.upserts()) {
+            int slot = movement.getId() != null ? slotById.get(movement.getId()) : -1;
+            if (slot < 0) {
+                slot = append(movement);
+                if (matches(slot)) showSlot(slot);
+                continue;
+            }
+            int position = positionOfSlot[slot];
+            Row old = position >= 0 ? new Row(slot) : null;
+            long previousDate = dates[slot];
+            write(slot, movement);
+            if (dates[slot] != previousDate) dateIndex.invalidate();
+            boolean match = matches(slot);
+            if (position >= 0 && match) rows.replaced(position, old);
+            else if (position >= 0) hideSlot(slot);
+            else if (match) showSlot(slot);
+        }
+        rows.end();
+    }
+
+    // ================= PESQUISA =================
+    /**
+     * 🔹 Mostra só os movimentos cuja descrição, utilizador, tipo, origem ou estado contém o texto.
+     * Cada entrada dos dicionários é testada uma vez; depois é uma passagem pelas colunas.
+     */
+    public void filter(String text) {
+        filter = text == null ? "" : text.toLowerCase();
+        typeDictionary.match(filter);
+        originDictionary.match(filter);
+        statusDictionary.match(filter);
+        usernameDictionary.match(filter);
+        if (removedCount > 0 && removedCount * 4 >= size) {
+            // Os slots vão mudar: as linhas antigas são lidas antes de compactar
+            List<Row> old = List.copyOf(rows);
+            compact();
+            rescan(old);
+        } else {
+            rescan(rows.view(visible, visibleCount));
+        }
+    }
+
+    /**
+     * 🔹 Mostra só os movimentos com data entre {@code start} e {@code end} (inclusive), combinado
+     * com a pesquisa. Usa o índice temporal: O(log n + k) em vez de percorrer todas as linhas.
+     * Sem datas, remove o intervalo.
+     */
+    public void setDateRange(LocalDateTime start, LocalDateTime end) {
+        rangeStart = start != null && end != null ? toMillis(start) : NONE;
+        rangeEnd = start != null && end != null ? toMillis(end) : NONE;
+        rescan(rows.view(visible, visibleCount));
+    }
+
+    /** 🔹 Sem pesquisa, intervalo nem ordenação (ex.: uma tabela nova ligada a um store já carregado) */
+    public void resetView() {
+        filter = "";
+        typeDictionary.match(filter);
+        originDictionary.match(filter);
+        statusDictionary.match(filter);
+        usernameDictionary.match(filter);
+        rangeStart = NONE;
+        rangeEnd = NONE;
+        order = null;
+        rescan(rows.view(visible, visibleCount));
+    }
+
+    public boolean hasDateRange() {
+        return rangeStart != NONE;
+    }
+
+    private boolean matches(int slot) {
+        if (rangeStart != NONE && (dates[slot] == NONE || dates[slot] < rangeStart || dates[slot] > rangeEnd)) {
+            return false;
+        }
+        return filter.isEmpty() || matchesText(slot);
+    }
+
+    private boolean matchesText(int slot) {
+        return typeDictionary.matches[types[slot]]
+                || originDictionary.matches[origins[slot]]
+                || statusDictionary.matches[statuses[slot]]
+                || usernameDictionary.matches[usernames[slot]]
+                || containsIgnoreCase(descriptions[slot], filter);
+    }
+
+    /** Passagem completa pelas colunas: recalcula as linhas visíveis ({@code old} são as que a tabela tinha) */
+    private void rescan(List<Row> old) {
+        int[] next = new int[Math.max(INITIAL_CAPACITY, size)];
+        int count = 0;
+        Arrays.fill(positionOfSlot, 0, size, -1);
+
+        if (rangeStart != NONE) {
+            // Só as linhas do intervalo, pelo índice; depois volta à ordem de chegada
+            int[] found = next;
+            int[] counter = {0};
+            indexedDates().forEachBetween(rangeStart, rangeEnd, (millis, slot) -> {
+                if (!removed[slot] && (filter.isEmpty() || matchesText(slot))) found[counter[0]++] = slot;
+            });
+            count = counter[0];
+            Arrays.sort(next, 0, count);
+            for (int i = 0; i < count; i++) positionOfSlot[next[i]] = i;
+        } else if (filter.isEmpty()) {
+            for (int slot = 0; slot < size; slot++) {
+                if (!removed[slot]) {
+                    positionOfSlot[slot] = count;
+                    next[count++] = slot;
+                }
+            }
+        } else {
+            boolean[] typeMatch = typeDictionary.matches;
+            boolean[] originMatch = originDictionary.matches;
+            boolean[] statusMatch = statusDictionary.matches;
+            boolean[] userMatch = usernameDictionary.matches;
+            for (int slot = 0; slot < size; slot++) {
+                if (removed[slot]) continue;
+                if (typeMatch[types[slot]] || originMatch[origins[slot]] || statusMatch[statuses[slot]]
+                        || userMatch[usernames[slot]] || containsIgnoreCase(descriptions[slot], filter)) {
+                    positionOfSlot[slot] = count;
+                    next[count++] = slot;
+                }
+            }
+        }
+
+        visible = next;
+        visibleCount = count;
+        if (order != null) reorder();
+        rows.replacedAll(old);
+    }
+
+    /** Índice temporal atualizado (volta a ser preenchido se alguma data mudou ou houve compactação) */
+    private TimeIndex indexedDates() {
+        if (dateIndex.isStale()) {
+            dateIndex.clear();
+            for (int slot = 0; slot < size; slot++) {
+                if (!removed[slot] && dates[slot] != NONE) dateIndex.add(dates[slot], slot);
+            }
+        }
+        return dateIndex;
+    }
+
+    /**
+     * 🔹 Ordena as linhas visíveis (política de ordenação da TableView); a ordem mantém-se nas
+     * pesquisas seguintes. Sem comparador volta à ordem de chegada. Linhas novas vão para o fim
+     * até à próxima ordenação. A tabela recebe uma permutação, por isso a seleção acompanha as linhas.
+     */
+    public void sort(Comparator<? super Row> comparator) {
+        int[] before = Arrays.copyOf(visible, visibleCount);
+        order = comparator;
+        if (comparator == null) Arrays.sort(visible, 0, visibleCount);
+        else reorder();
+
+        int[] permutation = new int[visibleCount];
+        for (int i = 0; i < visibleCount; i++) positionOfSlot[visible[i]] = i;
+        for (int i = 0; i < visibleCount; i++) permutation[i] = positionOfSlot[before[i]];
+        rows.permuted(permutation);
+    }
+
+    private void reorder() {
+        Row[] sorted = new Row[visibleCount];
+        for (int i = 0; i < visibleCount; i++) sorted[i] = new Row(visible[i]);
+        Arrays.sort(sorted, order);
+        for (int i = 0; i < visibleCount; i++) {
+            visible[i] = sorted[i].slot;
+            positionOfSlot[visible[i]] = i;
+        }
+    }
+
+    // ================= LEITURA =================
+    /** Ids das linhas visíveis, pela ordem da tabela (cópia) */
+    public long[] visibleIds() {
+        long[] result = new long[visibleCount];
+        for (int i = 0; i < visibleCount; i++) result[i] = ids[visible[i]];
+        return result;
+    }
+
+    /** 🔹 DTOs completos para os ids dados (ignora os que entretanto foram removidos) */
+    public List<MovementResponseDTO> materialize(long[] idList, int from, int to) {
+        List<MovementResponseDTO> result = new ArrayList<>(to - from);
+        for (int i = from; i < to; i++) {
+            int slot = slotById.get(idList[i]);
+            if (slot >= 0) result.add(toDto(slot));
+        }
+        return result;
+    }
+
+    public MovementResponseDTO toDto(int slot) {
+        return MovementResponseDTO.builder()
+                .id(ids[slot])
+                .description(descriptions[slot])
+                .type(typeDictionary.value(types[slot]))
+                .origin(originDictionary.value(origins[slot]))
+                .status(statusDictionary.value(statuses[slot]))
+                .quantity(quantities[slot] == NO_QUANTITY ? null : quantities[slot])
+                .date(toDateTime(dates[slot]))
+                .userId(userIdDictionary.value(userIds[slot]))
+                .username(usernameDictionary.value(usernames[slot]))
+                .referenceNumber(references[slot])
+                .companyId(boxed(companyIds[slot]))
+                .warehouseId(boxed(warehouseIds[slot]))
+                .productId(boxed(productIds[slot]))
+                .updatedAt(toDateTime(updatedAts[slot]))
+                .build();
+    }
+
+    // ================= SLOTS =================
+    private int append(MovementResponseDTO movement) {
+        ensureCapacity(size + 1);
+        int slot = size++;
+        removed[slot] = false;
+        revisions[slot] = 0;
+        positionOfSlot[slot] = -1;
+        write(slot, movement);
+        if (dates[slot] != NONE) dateIndex.add(dates[slot], slot);
+        if (movement.getId() != null) slotById.put(movement.getId(), slot);
+        return slot;
+    }
+
+    private void write(int slot, MovementResponseDTO m) {
+        ids[slot] = m.getId() != null ? m.getId() : NONE;
+        revisions[slot]++;
+        quantities[slot] = m.getQuantity() != null ? m.getQuantity() : NO_QUANTITY;
+        dates[slot] = toMillis(m.getDate());
+        updatedAts[slot] = toMillis(m.getUpdatedAt());
+        types[slot] = (short) typeDictionary.encode(m.getType());
+        origins[slot] = (short) originDictionary.encode(m.getOrigin());
+        statuses[slot] = (short) statusDictionary.encode(m.getStatus());
+        usernames[slot] = usernameDictionary.encode(m.getUsername());
+        userIds[slot] = userIdDictionary.encode(m.getUserId());
+        descriptions[slot] = m.getDescription();
+        references[slot] = m.getReferenceNumber();
+        dateTexts[slot] = null;
+        companyIds[slot] = m.getCompanyId() != null ? m.getCompanyId() : NONE;
+        warehouseIds[slot] = m.getWarehouseId() != null ? m.getWarehouseId() : NONE;
+        productIds[slot] = m.getProductId() != null ? m.getProductId() : NONE;
+    }
+
+    private void showSlot(int slot) {
+        if (visibleCount == visible.length) visible = Arrays.copyOf(visible, visible.length * 3 / 2 + 1);
+        positionOfSlot[slot] = visibleCount;
+        visible[visibleCount++] = slot;
+        rows.added(visibleCount - 1);
+    }
+
+    private void hideSlot(int slot) {
+        int position = positionOfSlot[slot];
+        if (position < 0) return;
+        Row old = new Row(slot);
+        System.arraycopy(visible, position + 1, visible, position, visibleCount - position - 1);
+        visibleCount--;
+        positionOfSlot[slot] = -1;
+        for (int i = position; i < visibleCount; i++) positionOfSlot[visible[i]] = i;
+        rows.removed(position, old);
+    }
+
+    /** Remove de vez os slots apagados (os slots mudam, por isso as vistas antigas passam a procurar pelo id) */
+    private void compact() {
+        int target = 0;
+        for (int slot = 0; slot < size; slot++) {
+            if (removed[slot]) continue;
+            if (target != slot) moveSlot(slot, target);
+            target++;
+        }
+        Arrays.fill(descriptions, target, size, null);
+        Arrays.fill(references, target, size, null);
+        Arrays.fill(dateTexts, target, size, null);
+        size = target;
+        removedCount = 0;
+        generation++;
+        dateIndex.invalidate();
+        slotById.clear();
+        for (int slot = 0; slot < size; slot++) {
+            if (ids[slot] != NONE) slotById.put(ids[slot], slot);
+        }
+    }
+
+    private void moveSlot(int from, int to) {
+        ids[to] = ids[from];
+        revisions[to] = revisions[from];
+        removed[to] = false;
+        quantities[to] = quantities[from];
+        dates[to] = dates[from];
+        updatedAts[to] = updatedAts[from];
+        types[to] = types[from];
+        origins[to] = origins[from];
+        statuses[to] = statuses[from];
+        usernames[to] = usernames[from];
+        userIds[to] = userIds[from];
+        descriptions[to] = descriptions[from];
+        references[to] = references[from];
+        dateTexts[to] = dateTexts[from];
+        companyIds[to] = companyIds[from];
+        warehouseIds[to] = warehouseIds[from];
+        productIds[to] = productIds[from];
+    }
+
+    private void clearColumns() {
+        Arrays.fill(descriptions, 0, size, null);
+        Arrays.fill(references, 0, size, null);
+        Arrays.fill(dateTexts, 0, size, null);
+        size = 0;
+        removedCount = 0;
+        generation++;
+        dateIndex.clear();
+        slotById.clear();
+    }
+
+    private void ensureCapacity(int needed) {
+        if (needed <= ids.length) return;
+        int capacity = Math.max(needed, ids.length * 3 / 2 + 1);
+        ids = Arrays.copyOf(ids, capacity);
+        revisions = Arrays.copyOf(revisions, capacity);
+        removed = Arrays.copyOf(removed, capacity);
+        quantities = Arrays.copyOf(quantities, capacity);
+        dates = Arrays.copyOf(dates, capacity);
+        updatedAts = Arrays.copyOf(updatedAts, capacity);
+        types = Arrays.copyOf(types, capacity);
+        origins = Arrays.copyOf(origins, capacity);
+        statuses = Arrays.copyOf(statuses, capacity);
+        usernames = Arrays.copyOf(usernames, capacity);
+        userIds = Arrays.copyOf(userIds, capacity);
+        descriptions = Arrays.copyOf(descriptions, capacity);
+        references = Arrays.copyOf(references, capacity);
+        dateTexts = Arrays.copyOf(dateTexts, capacity);
+        companyIds = Arrays.copyOf(companyIds, capacity);
+        warehouseIds = Arrays.copyOf(warehouseIds, capacity);
+        productIds = Arrays.copyOf(productIds, capacity);
+        int oldLength = positionOfSlot.length;
+        positionOfSlot = Arrays.copyOf(positionOfSlot, capacity);
+        Arrays.fill(positionOfSlot, oldLength, capacity, -1);
+    }
+
+    // ================= CONVERSÕES =================
+    private static long toMillis(LocalDateTime dateTime) {
+        if (dateTime == null) return NONE;
+        return dateTime.toEpochSecond(ZoneOffset.UTC) * 1000 + dateTime.getNano() / 1_000_000;
+    }
+
+    private static LocalDateTime toDateTime(long millis) {
+        if (millis == NONE) return null;
+        return LocalDateTime.ofEpochSecond(Math.floorDiv(millis, 1000),
+                Math.floorMod(millis, 1000) * 1_000_000, ZoneOffset.UTC);
+    }
+
+    private static Long boxed(long value) {
+        return value == NONE ? null : value;
+    }
+
+    /** contains sem diferenciar maiúsculas e sem criar strings; {@code lower} já está em minúsculas */
+    private static boolean containsIgnoreCase(String text, String lower) {
+        if (text == null) return false;
+        int max = text.length() - lower.length();
+        for (int i = 0; i <= max; i++) {
+            if (text.regionMatches(true, i, lower, 0, lower.length())) return true;
+        }
+        return false;
+    }
+
+    // ================= VISTAS =================
+    /**
+     * 🔹 Linha da tabela: não copia dados, lê as colunas no momento. Duas vistas da mesma linha na
+     * mesma versão são iguais, por isso a tabela só redesenha as linhas que mudaram.
+     */
+    public final class Row {
+
+        private final long id;
+        private final int revision;
+        private final int rowGeneration;
+        private final int slot;
+
+        private Row(int slot) {
+            this.slot = slot;
+            this.id = ids[slot];
+            this.revision = revisions[slot];
+            this.rowGeneration = generation;
+        }
+
+        private int slot() {
+            if (rowGeneration == generation && !removed[slot]) return slot;
+            return id != NONE ? slotById.get(id) : -1;
+        }
+
+        public Long getId() {
+            return boxed(id);
+        }
+
+        public String getDescription() {
+            int s = slot();
+            return s < 0 ? null : descriptions[s];
+        }
+
+        public String getUsername() {
+            int s = slot();
+            return s < 0 ? null : usernameDictionary.value(usernames[s]);
+        }
+
+        public String getType() {
+            int s = slot();
+            return s < 0 ? null : typeDictionary.value(types[s]);
+        }
+
+        public String getOrigin() {
+            int s = slot();
+            return s < 0 ? null : originDictionary.value(origins[s]);
+        }
+
+        public String getStatus() {
+            int s = slot();
+            return s < 0 ? null : statusDictionary.value(statuses[s]);
+        }
+
+        public Integer getQuantity() {
+            int s = slot();
+            return s < 0 || quantities[s] == NO_QUANTITY ? null : quantities[s];
+        }
+
+        public LocalDateTime getDate() {
+            int s = slot();
+            return s < 0 ? null : toDateTime(dates[s]);
+        }
+
+        /** 🔹 Data no formato da tabela, formatada uma única vez por versão da linha */
+        public String getDateText() {
+            int s = slot();
+            if (s < 0) return "";
+            if (dateTexts[s] == null) dateTexts[s] = DateTimeUtil.formatShort(toDateTime(dates[s]));
+            return dateTexts[s];
+        }
+
+        /** Epoch-millis da data (sem criar LocalDateTime), ou Long.MIN_VALUE */
+        public long getDateMillis() {
+            int s = slot();
+            return s < 0 ? NONE : dates[s];
+        }
+
+        public MovementResponseDTO toDto() {
+            int s = slot();
+            return s < 0 ? null : MovementColumnStore.this.toDto(s);
+        }
+
+        @Override
+        public boolean equals(Object other) {
+            return other instanceof Row row && row.id == id && row.revision == revision
+                    && row.rowGeneration == rowGeneration && row.slot == slot;
+        }
+
+        @Override
+        public int hashCode() {
+            return Long.hashCode(id) * 31 + revision;
+        }
+    }
+
+    /** Lista observável sobre as linhas visíveis; as vistas são criadas a pedido */
+    private final class Rows extends ObservableListBase<Row> implements RandomAccess {
+
+        @Override
+        public Row get(int index) {
+            if (index < 0 || index >= visibleCount) throw new IndexOutOfBoundsException(index);
+            return new Row(visible[index]);
+        }
+
+        @Override
+        public int size() {
+            return visibleCount;
+        }
+
+        void begin() {
+            beginChange();
+        }
+
+        void end() {
+            endChange();
+        }
+
+        void added(int position) {
+            beginChange();
+            nextAdd(position, position + 1);
+            endChange();
+        }
+
+        void removed(int position, Row old) {
+            beginChange();
+            nextRemove(position, old);
+            endChange();
+        }
+
+        void replaced(int position, Row old) {
+            beginChange();
+            nextSet(position, old);
+            endChange();
+        }
+
+        /** Vistas sobre slots que não vão mudar (criadas só se algum listener as ler) */
+        List<Row> view(int[] slots, int count) {
+            return new AbstractList<>() {
+                @Override
+                public Row get(int index) {
+                    return new Row(slots[index]);
+                }
+
+                @Override
+                public int size() {
+                    return count;
+                }
+            };
+        }
+
+        /** {@code permutation[i]} é a nova posição da linha que estava em {@code i} */
+        void permuted(int[] permutation) {
+            if (permutation.length == 0) return;
+            beginChange();
+            nextPermutation(0, permutation.length, permutation);
+            endChange();
+        }
+
+        void replacedAll(List<Row> old) {
+            beginChange();
+            if (!old.isEmpty()) nextRemove(0, old);
+            if (visibleCount > 0) nextAdd(0, visibleCount);
+            endChange();
+        }
+    }
+
+    // ================= DICIONÁRIO =================
+    /** Valores repetidos guardados uma vez; o código 0 é null */
+    private static final class Dictionary {
+
+        private final List<String> values = new ArrayList<>();
+        private final Map<String, Integer> codes = new HashMap<>();
+        private String filter = "";
+        private boolean[] matches = new boolean[1];
+
+        Dictionary(List<String> seed) {
+            values.add(null);
+            seed.forEach(this::encode);
+        }
+
+        int encode(String value) {
+            if (value == null) return 0;
+            Integer code = codes.get(value);
+            if (code != null) return code;
+
+            code = values.size();
+            values.add(value);
+            codes.put(value, code);
+            if (matches.length <= code) matches = Arrays.copyOf(matches, Math.max(code + 1, matches.length * 2));
+            matches[code] = !filter.isEmpty() && value.toLowerCase().contains(filter);
+            return code;
+        }
+
+        String value(int code) {
+            return values.get(code);
+        }
+
+        /** Testa o texto contra cada entrada uma única vez */
+        void match(String lower) {
+            filter = lower;
+            for (int code = 1; code < values.size(); code++) {
+                matches[code] = !lower.isEmpty() && values.get(code).toLowerCase().contains(lower);
+            }
+        }
+    }
+
+    // ================= ID → SLOT =================
+    /** Mapa long → int de endereçamento aberto (sem Long/Integer em caixa por linha) */
+    private static final class LongIntMap {
+
+        private static final long EMPTY = Long.MIN_VALUE;
+
+        private long[] keys = newKeys(1024);
+        private int[] values = new int[1024];
+        private int count;
+
+        private static long[] newKeys(int capacity) {
+            long[] keys = new long[capacity];
+            Arrays.fill(keys, EMPTY);
+            return keys;
+        }
+
+        private int index(long key) {
+            return Long.hashCode(key * 0x9E3779B97F4A7C15L) & (keys.length - 1);
+        }
+
+        int get(long key) {
+            for (int i = index(key); ; i = (i + 1) & (keys.length - 1)) {
+                if (keys[i] == key) return values[i];
+                if (keys[i] == EMPTY) return -1;
+            }
+        }
+
+        void put(long key, int value) {
+            if ((count + 1) * 2 > keys.length) resize(keys.length * 2);
+            for (int i = index(key); ; i = (i + 1) & (keys.length - 1)) {
+                if (keys[i] == key) {
+                    values[i] = value;
+                    return;
+                }
+                if (keys[i] == EMPTY) {
+                    keys[i] = key;
+                    values[i] = value;
+                    count++;
+                    return;
+                }
+            }
+        }
+
+        /** Remoção com recuo das chaves seguintes (mantém as sequências de sondagem sem lápides) */
+        void remove(long key) {
+            int mask = keys.length - 1;
+            int i = index(key);
+            while (keys[i] != key) {
+                if (keys[i] == EMPTY) return;
+                i = (i + 1) & mask;
+            }
+            keys[i] = EMPTY;
+            count--;
+            for (int j = (i + 1) & mask; keys[j] != EMPTY; j = (j + 1) & mask) {
+                int home = index(keys[j]);
+                boolean movable = i <= j ? (home <= i || home > j) : (home <= i && home > j);
+                if (movable) {
+                    keys[i] = keys[j];
+                    values[i] = values[j];
+                    keys[j] = EMPTY;
+                    i = j;
+                }
+            }
+        }
+
+        void clear() {
+            Arrays.fill(keys, EMPTY);
+            count = 0;
+        }
+
+        private void resize(int capacity) {
+            long[] oldKeys = keys;
+            int[] oldValues = values;
+            keys = newKeys(capacity);
+            values = new int[capacity];
+            count = 0;
+            for (int i = 0; i < oldKeys.length; i++) {
+                if (oldKeys[i] != EMPTY) put(oldKeys[i], oldValues[i]);
+            }
+        }
+    }
+}
@@ -0,0 +1,61 @@
+package org.manager.search;
+
+import javafx.collections.ObservableList;
+import javafx.collections.transformation.FilteredList;
+import javafx.scene.control.ComboBox;
+import javafx.util.StringConverter;
+import org.manager.dto.ProductResponseDTO;
+
+import java.util.List;
+import java.util.Objects;
+import java.util.Set;
+
+/**
+ * 🔹 Torna a ComboBox de produtos pesquisável: o texto digitado (nome, SKU, código de barras,
+ * referência, marca, modelo ou tags) filtra a lista através do {@link ProductSearchIndex}.
+ */
+public final class ProductComboBoxSearch {
+
+    // 🔹 Evita instanciar a classe
+    private ProductComboBoxSearch() {}
+
+    public static void install(ComboBox<ProductResponseDTO> comboBox,
+                               ObservableList<ProductResponseDTO> source,
+                               ProductSearchIndex index) {
+        FilteredList<ProductResponseDTO> filtered = new FilteredList<>(source, p -> true);
+        comboBox.setItems(filtered);
+        comboBox.setEditable(true);
+
+        comboBox.setConverter(new StringConverter<>() {
+            @Override
+            public String toString(ProductResponseDTO product) {
+                return product == null ? "" : product.getName();
+            }
+
+            @Override
+            public ProductResponseDTO fromString(String text) {
+                ProductResponseDTO current = comboBox.getValue();
+                if (current != null && Objects.equals(current.getName(), text)) return current;
+
+                ProductResponseDTO byCode = index.findByCode(text);
+                if (byCode != null) return byCode;
+
+                List<ProductResponseDTO> found = index.search(text);
+                return found.size() == 1 ? found.get(0) : null;
+            }
+        });
+
+        comboBox.getEditor().textProperty().addListener((obs, oldText, text) -> {
+            ProductResponseDTO value = comboBox.getValue();
+            if (value != null && Objects.equals(value.getName(), text)) return; // texto posto pela seleção
+
+            if (text == null || text.isBlank()) {
+                filtered.setPredicate(p -> true);
+                return;
+            }
+            Set<ProductResponseDTO> matches = index.searchSet(text);
+            filtered.setPredicate(matches::contains);
+            if (comboBox.getEditor().isFocused() && !filtered.isEmpty()) comboBox.show();
+        });
+    }
+}
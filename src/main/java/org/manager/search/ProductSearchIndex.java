@@ -0,0 +1,276 @@
+package org.manager.search;
+
+import javafx.collections.ListChangeListener;
+import javafx.collections.ObservableList;
+import org.manager.dto.ProductResponseDTO;
+
+import java.text.Normalizer;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.regex.Pattern;
+
+/**
+ * 🔹 Índice de pesquisa de produtos em memória.
+ *
+ * As chaves normalizadas (minúsculas, sem acentos) são calculadas uma única vez quando o produto
+ * entra no índice. Código de barras e SKU têm acesso direto por hash; nome, SKU, código de barras,
+ * referência, marca, modelo e tags são indexados por trigramas, pelo que uma pesquisa só verifica
+ * os produtos que contêm o trigrama mais raro do texto pesquisado.
+ *
+ * A semântica é a mesma do filtro antigo: um produto corresponde se algum dos campos contém o texto.
+ * Não é thread-safe: é usado a partir do FX thread.
+ */
+public class ProductSearchIndex {
+
+    private static final int GRAM = 3;
+    private static final char FIELD_SEPARATOR = '\u0000';
+    private static final Pattern MARKS = Pattern.compile("\\p{M}+");
+
+    // Cada produto ocupa um "slot"; slots removidos ficam a null até à próxima compactação
+    private final List<ProductResponseDTO> products = new ArrayList<>();
+    private final List<String> keys = new ArrayList<>();
+    private final Map<Long, Integer> slotById = new HashMap<>();
+    // Por identidade: também encontra (e remove) produtos ainda sem id
+    private final Map<ProductResponseDTO, Integer> slotByRow = new IdentityHashMap<>();
+    private final Map<String, ProductResponseDTO> byCode = new HashMap<>();
+    private final Map<String, IntList> postings = new HashMap<>();
+    private int removedSlots;
+
+    // ================= BUILD =================
+    public void rebuild(Collection<ProductResponseDTO> source) {
+        products.clear();
+        keys.clear();
+        slotById.clear();
+        slotByRow.clear();
+        byCode.clear();
+        postings.clear();
+        removedSlots = 0;
+        if (source != null) source.forEach(this::insert);
+    }
+
+    /**
+     * 🔹 Mantém o índice sincronizado com a lista observável: carregamentos completos (setAll)
+     * reconstroem o índice, alterações pontuais (add / remove / set) atualizam apenas esses produtos.
+     */
+    public void track(ObservableList<ProductResponseDTO> source) {
+        rebuild(source);
+        source.addListener((ListChangeListener<ProductResponseDTO>) change -> {
+            while (change.next()) {
+                boolean fullReload = (change.getRemovedSize() > 0 && change.getRemovedSize() >= size())
+                        || change.getAddedSize() == source.size();
+                if (fullReload) {
+                    rebuild(source);
+                    return;
+                }
+                change.getRemoved().forEach(this::remove);
+                change.getAddedSubList().forEach(this::upsert);
+            }
+        });
+    }
+
+    /** 🔹 Adiciona ou substitui um produto (criação / atualização) */
+    public void upsert(ProductResponseDTO product) {
+        if (product == null) return;
+        remove(product);
+        if (product.getId() != null) remove(product.getId());
+        insert(product);
+    }
+
+    public void remove(Long id) {
+        Integer slot = id == null ? null : slotById.get(id);
+        if (slot != null) removeSlot(slot);
+    }
+
+    /** 🔹 Remove esta instância (com ou sem id) */
+    public void remove(ProductResponseDTO product) {
+        Integer slot = product == null ? null : slotByRow.get(product);
+        if (slot != null) removeSlot(slot);
+    }
+
+    private void removeSlot(int slot) {
+        ProductResponseDTO old = products.set(slot, null);
+        String key = keys.set(slot, null);
+        slotByRow.remove(old);
+        if (old.getId() != null) slotById.remove(old.getId(), slot);
+        removeCode(old.getBarcode(), old);
+        removeCode(old.getSku(), old);
+        removePostings(key, slot);
+        removedSlots++;
+
+        if (removedSlots > 1024 && removedSlots > size()) {
+            compact();
+        }
+    }
+
+    public int size() {
+        return products.size() - removedSlots;
+    }
+
+    // ================= LOOKUP =================
+    /** 🔹 Correspondência exata por código de barras ou SKU */
+    public ProductResponseDTO findByCode(String code) {
+        String key = normalize(code);
+        return key.isEmpty() ? null : byCode.get(key);
+    }
+
+    public ProductResponseDTO findById(Long id) {
+        Integer slot = id == null ? null : slotById.get(id);
+        return slot == null ? null : products.get(slot);
+    }
+
+    /** 🔹 Produtos em que algum campo contém o texto, pela ordem de carregamento */
+    public List<ProductResponseDTO> search(String text) {
+        String query = normalize(text);
+        if (query.isEmpty()) return liveProducts();
+
+        List<ProductResponseDTO> result = new ArrayList<>();
+        if (query.length() < GRAM) {
+            // Textos curtos: não há trigrama, mas as chaves já estão normalizadas
+            for (int slot = 0; slot < keys.size(); slot++) {
+                String key = keys.get(slot);
+                if (key != null && key.contains(query)) result.add(products.get(slot));
+            }
+            return result;
+        }
+
+        IntList candidates = rarestPosting(query);
+        if (candidates == null) return result;
+
+        for (int i = 0; i < candidates.size; i++) {
+            int slot = candidates.values[i];
+            String key = keys.get(slot);
+            if (key != null && key.contains(query)) result.add(products.get(slot));
+        }
+        return result;
+    }
+
+    /** 🔹 Resultado como conjunto (por identidade), para usar como predicado de FilteredList */
+    public Set<ProductResponseDTO> searchSet(String text) {
+        Set<ProductResponseDTO> found = Collections.newSetFromMap(new IdentityHashMap<>());
+        found.addAll(search(text));
+        return found;
+    }
+
+    /** Minúsculas e sem acentos ("Café" → "cafe") */
+    public static String normalize(String value) {
+        if (value == null || value.isBlank()) return "";
+        String trimmed = value.strip();
+        boolean ascii = true;
+        for (int i = 0; i < trimmed.length() && ascii; i++) {
+            ascii = trimmed.charAt(i) < 0x80;
+        }
+        if (!ascii) {
+            trimmed = MARKS.matcher(Normalizer.normalize(trimmed, Normalizer.Form.NFD)).replaceAll("");
+        }
+        return trimmed.toLowerCase(Locale.ROOT);
+    }
+
+    // ================= INTERNOS =================
+    private void insert(ProductResponseDTO product) {
+        int slot = products.size();
+        String key = buildKey(product);
+
+        products.add(product);
+        keys.add(key);
+        slotByRow.put(product, slot);
+        if (product.getId() != null) slotById.put(product.getId(), slot);
+        putCode(product.getBarcode(), product);
+        putCode(product.getSku(), product);
+
+        for (int i = 0; i + GRAM <= key.length(); i++) {
+            String gram = key.substring(i, i + GRAM);
+            if (gram.indexOf(FIELD_SEPARATOR) >= 0) continue;
+            postings.computeIfAbsent(gram, g -> new IntList()).addOnce(slot);
+        }
+    }
+
+    /** Tira o slot das listas dos trigramas da chave; as listas que ficam vazias saem do índice */
+    private void removePostings(String key, int slot) {
+        for (int i = 0; i + GRAM <= key.length(); i++) {
+            String gram = key.substring(i, i + GRAM);
+            if (gram.indexOf(FIELD_SEPARATOR) >= 0) continue;
+            IntList list = postings.get(gram);
+            if (list != null && list.remove(slot) && list.size == 0) postings.remove(gram);
+        }
+    }
+
+    private String buildKey(ProductResponseDTO p) {
+        StringBuilder sb = new StringBuilder(64);
+        appendField(sb, p.getName());
+        appendField(sb, p.getSku());
+        appendField(sb, p.getBarcode());
+        appendField(sb, p.getReferenceNumber());
+        appendField(sb, p.getBrand());
+        appendField(sb, p.getModel());
+        appendField(sb, p.getTags());
+        return sb.toString();
+    }
+
+    private void appendField(StringBuilder sb, String value) {
+        String normalized = normalize(value);
+        if (normalized.isEmpty()) return;
+        if (!sb.isEmpty()) sb.append(FIELD_SEPARATOR);
+        sb.append(normalized);
+    }
+
+    private void putCode(String code, ProductResponseDTO product) {
+        String key = normalize(code);
+        if (!key.isEmpty()) byCode.putIfAbsent(key, product);
+    }
+
+    private void removeCode(String code, ProductResponseDTO product) {
+        String key = normalize(code);
+        if (!key.isEmpty()) byCode.remove(key, product);
+    }
+
+    private IntList rarestPosting(String query) {
+        IntList rarest = null;
+        for (int i = 0; i + GRAM <= query.length(); i++) {
+            IntList list = postings.get(query.substring(i, i + GRAM));
+            if (list == null) return null; // um trigrama sem produtos: nenhum resultado
+            if (rarest == null || list.size < rarest.size) rarest = list;
+        }
+        return rarest;
+    }
+
+    private List<ProductResponseDTO> liveProducts() {
+        List<ProductResponseDTO> live = new ArrayList<>(size());
+        for (ProductResponseDTO p : products) {
+            if (p != null) live.add(p);
+        }
+        return live;
+    }
+
+    private void compact() {
+        rebuild(liveProducts());
+    }
+
+    /** Lista de ints crescente, sem boxing (os slots são sempre acrescentados por ordem) */
+    private static final class IntList {
+        int[] values = new int[4];
+        int size;
+
+        void addOnce(int value) {
+            if (size > 0 && values[size - 1] == value) return;
+            if (size == values.length) values = Arrays.copyOf(values, size * 2);
+            values[size++] = value;
+        }
+
+        /** false se o valor já não estava na lista (trigrama repetido na mesma chave) */
+        boolean remove(int value) {
+            int index = Arrays.binarySearch(values, 0, size, value);
+            if (index < 0) return false;
+            System.arraycopy(values, index + 1, values, index, size - index - 1);
+            size--;
+            return true;
+        }
+    }
+}
@@ -0,0 +1,84 @@
+package org.manager.search;
+
+import javafx.collections.ListChangeListener;
+import javafx.collections.ObservableList;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.IdentityHashMap;
+import java.util.Map;
+import java.util.function.Function;
+
+/**
+ * 🔹 Data de cada linha de uma lista da tela, interpretada uma única vez.
+ *
+ * A data é obtida (e, se vier como texto, interpretada) quando a linha entra na lista; a coluna de
+ * data e o filtro por período reutilizam esse valor em vez de voltar a interpretar o texto.
+ * Não é thread-safe: é usado a partir do FX thread.
+ */
+public class RowDates<T> {
+
+    private final Function<T, LocalDateTime> dateReader;
+
+    // Por identidade: duas vendas iguais continuam a ser linhas diferentes
+    private final Map<T, LocalDateTime> dates = new IdentityHashMap<>();
+    private LocalDateTime earliest;
+
+    /** @param dateReader data da linha (null se não tiver ou não for válida); chamado uma vez por linha */
+    public RowDates(Function<T, LocalDateTime> dateReader) {
+        this.dateReader = dateReader;
+    }
+
+    // ================= BUILD =================
+    public void rebuild(Collection<T> source) {
+        dates.clear();
+        earliest = null;
+        if (source != null) source.forEach(this::insert);
+    }
+
+    /**
+     * 🔹 Acompanha a lista observável: carregamentos completos recomeçam do zero, alterações
+     * pontuais (add / remove / set) só tratam essas linhas.
+     */
+    public void track(ObservableList<T> source) {
+        rebuild(source);
+        source.addListener((ListChangeListener<T>) change -> {
+            while (change.next()) {
+                boolean fullReload = (change.getRemovedSize() > 0 && change.getRemovedSize() >= size())
+                        || change.getAddedSize() == source.size();
+                if (fullReload) {
+                    rebuild(source);
+                    return;
+                }
+                change.getRemoved().forEach(this::remove);
+                change.getAddedSubList().forEach(this::insert);
+            }
+        });
+    }
+
+    public void remove(T row) {
+        dates.remove(row);
+    }
+
+    public int size() {
+        return dates.size();
+    }
+
+    private void insert(T row) {
+        if (row == null || dates.containsKey(row)) return;
+        LocalDateTime date = dateReader.apply(row);
+        dates.put(row, date);
+        if (date != null && (earliest == null || date.isBefore(earliest))) earliest = date;
+    }
+
+    // ================= LOOKUP =================
+    /** 🔹 Data já interpretada da linha (null se não estiver na lista ou não tiver data) */
+    public LocalDateTime dateOf(T row) {
+        return dates.get(row);
+    }
+
+    /** Data mais antiga entre as linhas carregadas */
+    public LocalDateTime earliest() {
+        return earliest;
+    }
+}
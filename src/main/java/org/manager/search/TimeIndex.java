@@ -0,0 +1,110 @@
+package org.manager.search;
+
+import java.util.Arrays;
+
+/**
+ * 🔹 Índice temporal: pares (epoch-millis, slot) ordenados pela data, com pesquisa binária.
+ *
+ * Um intervalo de datas custa O(log n + k). Linhas acrescentadas com data igual ou posterior à
+ * última (o caso normal ao carregar páginas ou lotes) entram no fim sem reordenar; as outras
+ * marcam o índice como desordenado e ele é ordenado uma vez, na próxima consulta.
+ * Se as datas de linhas existentes mudarem, o dono invalida o índice e volta a preenchê-lo.
+ */
+final class TimeIndex {
+
+    @FunctionalInterface
+    interface Entry {
+        void accept(long millis, int slot);
+    }
+
+    private long[] keys = new long[256];
+    private int[] slots = new int[256];
+    private int count;
+    private boolean sorted = true;
+    private boolean stale;
+
+    void add(long millis, int slot) {
+        if (count == keys.length) {
+            keys = Arrays.copyOf(keys, count * 2);
+            slots = Arrays.copyOf(slots, count * 2);
+        }
+        if (count > 0 && millis < keys[count - 1]) sorted = false;
+        keys[count] = millis;
+        slots[count] = slot;
+        count++;
+    }
+
+    void clear() {
+        count = 0;
+        sorted = true;
+        stale = false;
+    }
+
+    /** Marca o índice para ser preenchido de novo pelo dono antes da próxima consulta */
+    void invalidate() {
+        stale = true;
+    }
+
+    boolean isStale() {
+        return stale;
+    }
+
+    /** 🔹 Entradas com {@code from <= millis <= to}, por ordem de data */
+    void forEachBetween(long from, long to, Entry entry) {
+        if (!sorted) sort();
+        for (int i = lowerBound(from); i < count && keys[i] <= to; i++) {
+            entry.accept(keys[i], slots[i]);
+        }
+    }
+
+    private int lowerBound(long millis) {
+        int low = 0;
+        int high = count;
+        while (low < high) {
+            int mid = (low + high) >>> 1;
+            if (keys[mid] < millis) low = mid + 1;
+            else high = mid;
+        }
+        return low;
+    }
+
+    // Merge sort estável sobre os dois arrays (sem objetos por entrada)
+    private void sort() {
+        long[] keyBuffer = new long[count];
+        int[] slotBuffer = new int[count];
+        long[] keySource = keys;
+        int[] slotSource = slots;
+        long[] keyTarget = keyBuffer;
+        int[] slotTarget = slotBuffer;
+
+        for (int width = 1; width < count; width *= 2) {
+            for (int low = 0; low < count; low += 2 * width) {
+                int mid = Math.min(low + width, count);
+                int high = Math.min(low + 2 * width, count);
+                int left = low;
+                int right = mid;
+                for (int out = low; out < high; out++) {
+                    if (left < mid && (right >= high || keySource[left] <= keySource[right])) {
+                        keyTarget[out] = keySource[left];
+                        slotTarget[out] = slotSource[left++];
+                    } else {
+                        keyTarget[out] = keySource[right];
+                        slotTarget[out] = slotSource[right++];
+                    }
+                }
+            }
+            long[] keySwap = keySource;
+            keySource = keyTarget;
+            keyTarget = keySwap;
+            int[] slotSwap = slotSource;
+            slotSource = slotTarget;
+            slotTarget = slotSwap;
+        }
+
+        if (keySource != keys) {
+            System.arraycopy(keySource, 0, keys, 0, count);
+            System.arraycopy(slotSource, 0, slots, 0, count);
+        }
+        sorted = true;
+    }
+}
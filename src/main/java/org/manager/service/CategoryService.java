@@ -3,7 +3,10 @@ package org.manager.service;
 import com.fasterxml.jackson.core.JsonProcessingException;
 import com.fasterxml.jackson.core.type.TypeReference;
 import com.fasterxml.jackson.databind.ObjectMapper;
+import org.manager.cache.ReferenceData;
+import org.manager.store.LocalStores;
 import org.manager.dto.CategoryDTO;
+import org.manager.http.HttpTransport;
 
 import java.net.URI;
 import java.net.http.HttpClient;
@@ -20,12 +23,16 @@ public class CategoryService {
     private final String BASE_URL = "http://localhost:8080/categories";
 
     public CategoryService() {
-        this.httpClient = HttpClient.newHttpClient();
-        this.objectMapper = new ObjectMapper();
+        this.httpClient = HttpTransport.client();
+        this.objectMapper = HttpTransport.mapper();
     }
 
     // Criar categoria
     public CompletableFuture<CategoryDTO> createCategory(CategoryDTO categoryDTO, String token) {
+        return ReferenceData.CATEGORIES.invalidateOnSuccess(sendCreateCategory(categoryDTO, token));
+    }
+
+    private CompletableFuture<CategoryDTO> sendCreateCategory(CategoryDTO categoryDTO, String token) {
         try {
             String requestBody = objectMapper.writeValueAsString(categoryDTO);
             HttpRequest request = HttpRequest.newBuilder()
@@ -56,8 +63,17 @@ public class CategoryService {
         }
     }
 
-    // Listar todas as categorias
+    // Listar todas as categorias (em cache por sessão)
     public CompletableFuture<List<CategoryDTO>> getAllCategories(String token) {
+        return ReferenceData.CATEGORIES.getAll(token, () -> loadCategories(token));
+    }
+
+    // Servidor primeiro; sem servidor, a cópia local
+    private CompletableFuture<List<CategoryDTO>> loadCategories(String token) {
+        return LocalStores.categories().withFallback(fetchAllCategories(token));
+    }
+
+    private CompletableFuture<List<CategoryDTO>> fetchAllCategories(String token) {
         HttpRequest request = HttpRequest.newBuilder()
                 .uri(URI.create(BASE_URL))
                 .header("Content-Type", "application/json")
@@ -80,6 +96,10 @@ public class CategoryService {
 
     // Atualizar categoria
     public CompletableFuture<CategoryDTO> updateCategory(Long id, CategoryDTO categoryDTO, String token) {
+        return ReferenceData.CATEGORIES.invalidateOnSuccess(sendUpdateCategory(id, categoryDTO, token));
+    }
+
+    private CompletableFuture<CategoryDTO> sendUpdateCategory(Long id, CategoryDTO categoryDTO, String token) {
         try {
             String requestBody = objectMapper.writeValueAsString(categoryDTO);
             HttpRequest request = HttpRequest.newBuilder()
@@ -109,6 +129,10 @@ public class CategoryService {
 
     // Deletar categoria
     public CompletableFuture<CategoryDTO> deleteCategory(Long id, String token) {
+        return ReferenceData.CATEGORIES.invalidateOnSuccess(sendDeleteCategory(id, token));
+    }
+
+    private CompletableFuture<CategoryDTO> sendDeleteCategory(Long id, String token) {
         try {
             HttpRequest request = HttpRequest.newBuilder()
                     .uri(URI.create(BASE_URL + "/" + id))
@@ -135,25 +159,19 @@ public class CategoryService {
         }
     }
 
+    // Consultas pelos índices do cache (só bloqueia se a lista ainda não estiver carregada)
     public Long getCategoryId(String categoryName, String token) {
-        return getAllCategories(token)
-                .thenApply(categories -> categories.stream()
-                        .filter(c -> c.getName().equals(categoryName))
-                        .map(CategoryDTO::getId)
-                        .findFirst()
-                        .orElse(null)
-                )
+        return ReferenceData.CATEGORIES.snapshot(token, () -> loadCategories(token))
+                .thenApply(snapshot -> snapshot.findIdByName(categoryName))
                 .join();
     }
 
     public String getCategoryName(Long categoryId, String token) {
-        return getAllCategories(token)
-                .thenApply(categories -> categories.stream()
-                        .filter(c -> c.getId().equals(categoryId))
-                        .map(CategoryDTO::getName)
-                        .findFirst()
-                        .orElse(null)
-                )
+        return ReferenceData.CATEGORIES.snapshot(token, () -> loadCategories(token))
+                .thenApply(snapshot -> {
+                    CategoryDTO category = snapshot.findById(categoryId);
+                    return category != null ? category.getName() : null;
+                })
                 .join();
     }
 
@@ -3,7 +3,9 @@ package org.manager.service;
 import com.fasterxml.jackson.core.JsonProcessingException;
 import com.fasterxml.jackson.core.type.TypeReference;
 import com.fasterxml.jackson.databind.ObjectMapper;
+import org.manager.cache.ReferenceData;
 import org.manager.dto.CompanyDTO;
+import org.manager.http.HttpTransport;
 
 
 import java.io.IOException;
@@ -17,15 +19,20 @@ import java.util.concurrent.CompletableFuture;
 public class CompanyService {
 
     private static final String BASE_URL = "http://localhost:8080/companies";
+    private static final String CACHE_SCOPE = "all";
     private final HttpClient httpClient;
     private final ObjectMapper objectMapper;
 
     public CompanyService() {
-        this.httpClient = HttpClient.newHttpClient();
-        this.objectMapper = new ObjectMapper();
+        this.httpClient = HttpTransport.client();
+        this.objectMapper = HttpTransport.mapper();
     }
 
     public CompletableFuture<List<CompanyDTO>> getAllComapanies() {
+        return getAllCompanies();
+    }
+
+    private CompletableFuture<List<CompanyDTO>> fetchAllCompanies() {
         HttpRequest request = HttpRequest.newBuilder()
                 .uri(URI.create(BASE_URL))
                 .GET()
@@ -41,21 +48,9 @@ public class CompanyService {
                     }
                 });
     }
+    // Lista de empresas em cache (invalidada em create/update/delete)
     public  CompletableFuture<List<CompanyDTO>> getAllCompanies(){
-        HttpRequest request =HttpRequest.newBuilder()
-                .uri(URI.create(BASE_URL))
-                .GET()
-                .build();
-        return httpClient.sendAsync(request, HttpResponse.BodyHandlers.ofString())
-                .thenApply(HttpResponse::body)
-                .thenApply(json->{
-                    try {
-                       return  objectMapper.readValue(json, new TypeReference<List<CompanyDTO>>() {
-                       });
-                    } catch (JsonProcessingException e) {
-                        throw new RuntimeException("Não foi possível carregar as empresas "+e.getMessage());
-                    }
-                });
+        return ReferenceData.COMPANIES.getAll(CACHE_SCOPE, this::fetchAllCompanies);
     }
     public CompletableFuture<CompanyDTO> getCompanyById(Long id) {
         HttpRequest request = HttpRequest.newBuilder()
@@ -75,6 +70,10 @@ public class CompanyService {
     }
 
     public CompletableFuture<CompanyDTO> createCompany(CompanyDTO companyDTO) throws JsonProcessingException {
+        return ReferenceData.COMPANIES.invalidateOnSuccess(sendCreateCompany(companyDTO));
+    }
+
+    private CompletableFuture<CompanyDTO> sendCreateCompany(CompanyDTO companyDTO) throws JsonProcessingException {
         String json = objectMapper.writeValueAsString(companyDTO);
 
         HttpRequest request = HttpRequest.newBuilder()
@@ -95,6 +94,10 @@ public class CompanyService {
     }
 
     public CompletableFuture<CompanyDTO> updateCompany(CompanyDTO companyDTO) throws JsonProcessingException {
+        return ReferenceData.COMPANIES.invalidateOnSuccess(sendUpdateCompany(companyDTO));
+    }
+
+    private CompletableFuture<CompanyDTO> sendUpdateCompany(CompanyDTO companyDTO) throws JsonProcessingException {
         if (companyDTO.getId() == null) {
             throw new IllegalArgumentException("ID da empresa não pode ser nulo para atualização.");
         }
@@ -119,6 +122,10 @@ public class CompanyService {
     }
 
     public CompletableFuture<Void> deleteCompany(Long id) {
+        return ReferenceData.COMPANIES.invalidateOnSuccess(sendDeleteCompany(id));
+    }
+
+    private CompletableFuture<Void> sendDeleteCompany(Long id) {
         HttpRequest request = HttpRequest.newBuilder()
                 .uri(URI.create(BASE_URL + "/" + id))
                 .DELETE()
@@ -0,0 +1,153 @@
+package org.manager.service;
+
+import org.manager.dto.DashboardStatsDTO;
+import org.manager.dto.MonthlyMovementDTO;
+import org.manager.http.HttpTransport;
+
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * 🔹 Estatísticas do dashboard numa única ida ao servidor.
+ *
+ * Tenta primeiro o endpoint agregado /api/dashboard/stats; se o servidor não o tiver (404/405/501),
+ * responder com erro ou o pedido falhar, faz os pedidos individuais em paralelo e junta tudo no mesmo DashboardStatsDTO.
+ * O resultado fica em cache por (empresa, período) durante manager.dashboard.cacheSeconds (60s por omissão).
+ */
+public class DashboardStatsService {
+
+    private static final String BASE_URL = "http://localhost:8080/api/dashboard/stats";
+    private static final Duration CACHE_TTL =
+            Duration.ofSeconds(Long.getLong("manager.dashboard.cacheSeconds", 60));
+
+    // Partilhados entre instâncias: os dois dashboards usam a mesma cache
+    private static final Map<String, Entry> CACHE = new ConcurrentHashMap<>();
+    private static volatile boolean batchUnavailable;
+
+    private final HttpClient httpClient = HttpTransport.client();
+
+    private final ProductService productService = new ProductService();
+    private final CategoryService categoryService = new CategoryService();
+    private final SaleService saleService = new SaleService();
+
+    public CompletableFuture<DashboardStatsDTO> getStats(Long companyId, String period, String token) {
+        String key = companyId + ":" + period;
+        return CACHE.compute(key, (k, current) -> current != null && !current.isExpired()
+                        ? current
+                        : newEntry(key, load(companyId, period, token)))
+                .future();
+    }
+
+    private Entry newEntry(String key, CompletableFuture<DashboardStatsDTO> future) {
+        Entry entry = new Entry(System.nanoTime() + CACHE_TTL.toNanos(), future);
+        // Assíncrono: nunca remove de dentro do compute() que está a criar a entrada
+        future.whenCompleteAsync((stats, ex) -> {
+            if (ex != null) CACHE.remove(key, entry); // falhas não ficam em cache
+        });
+        return entry;
+    }
+
+    /** 🔹 Descarta a cache (ex.: depois de uma venda ou alteração de stock) */
+    public static void invalidate() {
+        CACHE.clear();
+    }
+
+    private CompletableFuture<DashboardStatsDTO> load(Long companyId, String period, String token) {
+        if (batchUnavailable) {
+            return fanOut(companyId, period, token);
+        }
+        return fetchBatch(companyId, period, token)
+                .thenCompose(stats -> stats != null
+                        ? CompletableFuture.completedFuture(stats)
+                        : fanOut(companyId, period, token))
+                .exceptionallyCompose(ex -> {
+                    // Erro de rede ou resposta ilegível: os pedidos individuais ainda podem responder
+                    System.out.println("Estatísticas agregadas falharam (" + ex.getMessage() + "), a usar pedidos individuais");
+                    return fanOut(companyId, period, token);
+                });
+    }
+
+    // ================= ENDPOINT AGREGADO =================
+    /** Devolve null quando o endpoint agregado não está disponível (o chamador usa o fallback) */
+    private CompletableFuture<DashboardStatsDTO> fetchBatch(Long companyId, String period, String token) {
+        HttpRequest request = HttpRequest.newBuilder()
+                .uri(URI.create(BASE_URL + "?companyId=" + companyId + "&period=" + period))
+                .header("Authorization", "Bearer " + token)
+                .header("Accept", "application/json")
+                .GET()
+                .build();
+
+        // Corpo pequeno lido como texto: o parse não bloqueia à espera de bytes no executor do HttpClient
+        return httpClient.sendAsync(request, HttpResponse.BodyHandlers.ofString())
+                .thenApply(response -> {
+                    int status = response.statusCode();
+                    if (status == 404 || status == 405 || status == 501) {
+                        batchUnavailable = true; // servidor sem o endpoint: não voltar a tentar
+                        return null;
+                    }
+                    if (status != 200) {
+                        System.out.println("Estatísticas agregadas indisponíveis (" + status + "), a usar pedidos individuais");
+                        return null;
+                    }
+                    try {
+                        DashboardStatsDTO stats = HttpTransport.reader(DashboardStatsDTO.class).readValue(response.body());
+                        if (stats.getPeriod() == null) stats.setPeriod(period);
+                        if (stats.getMonthlyMovement() == null) stats.setMonthlyMovement(List.of());
+                        if (stats.getProductsByCategory() == null) stats.setProductsByCategory(Map.of());
+                        return stats;
+                    } catch (IOException e) {
+                        throw new CompletionException(new RuntimeException("Erro ao converter estatísticas: " + e.getMessage(), e));
+                    }
+                });
+    }
+
+    // ================= FALLBACK: PEDIDOS EM PARALELO =================
+    private CompletableFuture<DashboardStatsDTO> fanOut(Long companyId, String period, String token) {
+        CompletableFuture<Long> totalProducts = orNull(productService.getTotalProductsInCompany(companyId, token));
+        CompletableFuture<Long> lowStock = orNull(productService.getProductsBelowMinStock(companyId, token));
+        CompletableFuture<Double> totalValue = orNull(productService.getTotalValueOfProducts(companyId, token));
+        CompletableFuture<Long> totalCategories = orNull(categoryService.getTotalOfCategoriesByCompanyId(companyId, token));
+        CompletableFuture<BigDecimal> totalSales = orNull(saleService.getTotalSales(period, token));
+        CompletableFuture<BigDecimal> profit = orNull(saleService.getProfit(period, token));
+        CompletableFuture<List<MonthlyMovementDTO>> movement = orNull(saleService.getMonthlyMovement(companyId, period, token));
+        CompletableFuture<Map<String, Long>> byCategory = orNull(productService.getProductsByCategory(companyId, token));
+
+        return CompletableFuture.allOf(totalProducts, lowStock, totalValue, totalCategories,
+                        totalSales, profit, movement, byCategory)
+                .thenApply(v -> DashboardStatsDTO.builder()
+                        .period(period)
+                        .totalProducts(totalProducts.join())
+                        .lowStockProducts(lowStock.join())
+                        .totalValue(totalValue.join() != null ? BigDecimal.valueOf(totalValue.join()) : null)
+                        .totalCategories(totalCategories.join())
+                        .totalSales(totalSales.join())
+                        .profit(profit.join())
+                        .monthlyMovement(movement.join() != null ? movement.join() : List.of())
+                        .productsByCategory(byCategory.join() != null ? byCategory.join() : Map.of())
+                        .build());
+    }
+
+    /** Uma métrica que falha não impede as restantes de aparecer */
+    private static <T> CompletableFuture<T> orNull(CompletableFuture<T> future) {
+        return future.exceptionally(ex -> {
+            ex.printStackTrace();
+            return null;
+        });
+    }
+
+    private record Entry(long expiresAt, CompletableFuture<DashboardStatsDTO> future) {
+        boolean isExpired() {
+            return System.nanoTime() - expiresAt > 0;
+        }
+    }
+}
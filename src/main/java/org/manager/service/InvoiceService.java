@@ -1,9 +1,10 @@
 package org.manager.service;
 
 import com.fasterxml.jackson.databind.ObjectMapper;
-import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
 import org.manager.dto.InvoiceDTO;
 import org.manager.dto.OrderDTO;
+import org.manager.http.HttpTransport;
+import org.manager.model.PageResponse;
 
 import java.net.URI;
 import java.net.URLEncoder;
@@ -24,8 +25,8 @@ public class InvoiceService {
     private final ObjectMapper mapper;
 
     public InvoiceService() {
-        this.client = HttpClient.newHttpClient();
-        this.mapper = new ObjectMapper().registerModule(new JavaTimeModule());
+        this.client = HttpTransport.client();
+        this.mapper = HttpTransport.mapper();
     }
 
     /** 🔹 Criar fatura por número do pedido */
@@ -77,6 +78,27 @@ public class InvoiceService {
                 });
     }
 
+    /** 🔹 Buscar faturas paginadas */
+    public CompletableFuture<PageResponse<InvoiceDTO>> fetchInvoicesPageAsync(int page, int size, String token) {
+        HttpRequest request = HttpRequest.newBuilder()
+                .uri(URI.create(BASE_URL + "?page=" + page + "&size=" + size))
+                .header("Authorization", "Bearer " + token)
+                .header("Accept", "application/json")
+                .GET()
+                .build();
+
+        return client.sendAsync(request, HttpResponse.BodyHandlers.ofString())
+                .thenApply(response -> {
+                    try {
+                        if (response.statusCode() != 200)
+                            throw new RuntimeException("Erro ao buscar faturas. Status: " + response.statusCode());
+                        return HttpTransport.readPage(response.body(), InvoiceDTO.class);
+                    } catch (Exception e) {
+                        throw new RuntimeException("Erro ao converter página de faturas", e);
+                    }
+                });
+    }
+
     /** 🔹 Buscar fatura por ID */
     public CompletableFuture<InvoiceDTO> fetchInvoiceById(Long id, String token) {
         HttpRequest request = HttpRequest.newBuilder()
@@ -165,36 +187,23 @@ public class InvoiceService {
                 });
     }
 
-    /** 🔹 Exportar PDF */
-    public CompletableFuture<byte[]> exportPdfAsync(Long id, String token) {
-        HttpRequest request = HttpRequest.newBuilder()
-                .uri(URI.create(BASE_URL + "/" + id + "/export/pdf"))
+    /** 🔹 Pedido de exportação ("pdf" ou "excel"); o ficheiro é descarregado por ExportDownloadManager */
+    public HttpRequest exportRequest(Long id, String type, String token) {
+        boolean pdf = type.equalsIgnoreCase("pdf");
+        return HttpRequest.newBuilder()
+                .uri(URI.create(BASE_URL + "/" + id + (pdf ? "/export/pdf" : "/export/excel")))
                 .GET()
                 .header("Authorization", "Bearer " + token)
-                .header("Accept", "application/pdf")
+                .header("Accept", pdf ? "application/pdf" : "application/vnd.openxmlformats-officedocument.spreadsheetml.sheet")
                 .build();
-
-        return client.sendAsync(request, HttpResponse.BodyHandlers.ofByteArray())
-                .thenApply(response -> {
-                    if (response.statusCode() != 200)
-                        throw new RuntimeException("Erro ao exportar PDF. Status: " + response.statusCode());
-                    return response.body();
-                });
     }
 
-    /** 🔹 Exportar Excel */
-    public CompletableFuture<byte[]> exportExcelAsync(Long id, String token) {
-        HttpRequest request = HttpRequest.newBuilder()
-                .uri(URI.create(BASE_URL + "/" + id + "/export/excel"))
-                .GET()
-                .header("Authorization", "Bearer " + token)
-                .header("Accept", "application/vnd.openxmlformats-officedocument.spreadsheetml.sheet")
-                .build();
-
-        return client.sendAsync(request, HttpResponse.BodyHandlers.ofByteArray())
+    /** 🔹 Exportar PDF (em memória: para imprimir) */
+    public CompletableFuture<byte[]> exportPdfAsync(Long id, String token) {
+        return client.sendAsync(exportRequest(id, "pdf", token), HttpResponse.BodyHandlers.ofByteArray())
                 .thenApply(response -> {
                     if (response.statusCode() != 200)
-                        throw new RuntimeException("Erro ao exportar Excel. Status: " + response.statusCode());
+                        throw new RuntimeException("Erro ao exportar PDF. Status: " + response.statusCode());
                     return response.body();
                 });
     }
@@ -1,10 +1,15 @@
 package org.manager.service;
 
 import com.fasterxml.jackson.databind.ObjectMapper;
-import com.fasterxml.jackson.databind.SerializationFeature;
-import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
 import org.manager.dto.MovementRequestDTO;
 import org.manager.dto.MovementResponseDTO;
+import org.manager.http.HttpTransport;
+import org.manager.http.JsonArrayStream;
+import org.manager.model.ChangeSet;
+import org.manager.model.PageResponse;
+import org.manager.search.MovementColumnStore;
+import org.manager.sync.DeltaSync;
+import org.manager.sync.Watermark;
 
 import java.net.URI;
 import java.net.http.HttpClient;
@@ -13,17 +18,24 @@ import java.net.http.HttpResponse;
 import java.time.LocalDateTime;
 import java.util.Arrays;
 import java.util.List;
+import java.util.Map;
 import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Consumer;
 
 public class MovementService {
 
-    private final HttpClient httpClient = HttpClient.newHttpClient();
-    private final ObjectMapper objectMapper = new ObjectMapper()
-            .registerModule(new JavaTimeModule())
-            .disable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS);
+    private final HttpClient httpClient = HttpTransport.client();
+    private final ObjectMapper objectMapper = HttpTransport.mapper();
 
     private final String baseUrl = "http://localhost:8080/api/movements";
 
+    // Estado por empresa, partilhado entre visitas à tela: os movimentos vivem só no store (a cópia
+    // que a tabela mostra) e a sincronização guarda apenas id → updatedAt
+    private static final Map<Long, DeltaSync<MovementResponseDTO>> SYNCS = new ConcurrentHashMap<>();
+    private static final Map<Long, MovementColumnStore> STORES = new ConcurrentHashMap<>();
+    private static String syncsToken;
+
     // ================= CREATE =================
     public CompletableFuture<MovementResponseDTO> createAsync(MovementRequestDTO dto, String token) {
         try {
@@ -61,69 +73,108 @@ public class MovementService {
     }
     // ================= GET BY COMPANY =================
     public CompletableFuture<List<MovementResponseDTO>> fetchByCompanyAsync(Long companyId, String token) {
-        String url = baseUrl + "/company/" + companyId;
+        HttpRequest request = listRequest(baseUrl + "/company/" + companyId, token);
+        debug("GET BY COMPANY", request.uri().toString());
+        return JsonArrayStream.collect(request, MovementResponseDTO.class, this::convertLabelsToPortuguese);
+    }
 
-        HttpRequest request = HttpRequest.newBuilder()
-                .uri(URI.create(url))
-                .header("Authorization", "Bearer " + token)
-                .header("Accept", "application/json")
-                .GET()
-                .build();
+    /** 🔹 Streaming: entrega os movimentos em lotes enquanto a resposta é recebida */
+    public CompletableFuture<Long> streamByCompanyAsync(Long companyId, String token, int batchSize,
+                                                        Consumer<List<MovementResponseDTO>> onBatch) {
+        HttpRequest request = listRequest(baseUrl + "/company/" + companyId, token);
+        debug("STREAM BY COMPANY", request.uri().toString());
+        return JsonArrayStream.stream(request, MovementResponseDTO.class, batchSize, this::convertLabelsToPortuguese, onBatch);
+    }
 
-        return httpClient.sendAsync(request, HttpResponse.BodyHandlers.ofString())
-                .thenApply(response -> {
-                    debug("GET BY COMPANY", request.uri().toString(), response.statusCode(), response.body());
+    // ================= GET BY COMPANY (PAGINADO) =================
+    public CompletableFuture<PageResponse<MovementResponseDTO>> fetchByCompanyPageAsync(Long companyId, int page, int size, String token) {
+        return fetchPageAsync(baseUrl + "/company/" + companyId, page, size, token);
+    }
 
-                    if (response.statusCode() != 200) {
-                        throw new RuntimeException("Erro ao buscar movimentos da empresa: " + response.body());
-                    }
+    // ================= SINCRONIZAÇÃO INCREMENTAL =================
+    /**
+     * 🔹 Versões (id / updatedAt) dos movimentos já recebidos da empresa e a marca da última
+     * sincronização. As alterações são aplicadas no {@link #companyStore}. Um novo login (outro
+     * token) recomeça do zero.
+     */
+    public DeltaSync<MovementResponseDTO> companySync(Long companyId, String sessionToken) {
+        resetOnNewLogin(sessionToken);
+        return SYNCS.computeIfAbsent(companyId, id -> DeltaSync.versionsOnly("movimentos da empresa " + id,
+                MovementResponseDTO::getId, MovementResponseDTO::getUpdatedAt,
+                (since, token) -> fetchChangesAsync(id, since, token),
+                token -> fetchByCompanyAsync(id, token)));
+    }
 
-                    try {
-                        MovementResponseDTO[] list = objectMapper.readValue(response.body(), MovementResponseDTO[].class);
-                        return Arrays.stream(list)
-                                .map(this::convertLabelsToPortuguese)
-                                .toList();
-                    } catch (Exception e) {
-                        throw new RuntimeException("Erro ao converter resposta GET BY COMPANY: " + e.getMessage());
-                    }
-                });
+    /** 🔹 Movimentos da empresa já recebidos (FX thread); acompanha a {@link #companySync} */
+    public MovementColumnStore companyStore(Long companyId, String sessionToken) {
+        resetOnNewLogin(sessionToken);
+        return STORES.computeIfAbsent(companyId, id -> new MovementColumnStore());
     }
 
-    // ================= GET BY COMPANY AND DATE =================
-    public CompletableFuture<List<MovementResponseDTO>> fetchByCompanyAndDateAsync(Long companyId, LocalDateTime start, LocalDateTime end, String token) {
-        String url = baseUrl + "/company/" + companyId + "/filter?start=" + start + "&end=" + end;
+    private static void resetOnNewLogin(String sessionToken) {
+        synchronized (SYNCS) {
+            if (sessionToken != null && !sessionToken.equals(syncsToken)) {
+                SYNCS.clear();
+                STORES.clear();
+                syncsToken = sessionToken;
+            }
+        }
+    }
 
-        HttpRequest request = HttpRequest.newBuilder()
-                .uri(URI.create(url))
-                .header("Authorization", "Bearer " + token)
-                .header("Accept", "application/json")
-                .GET()
-                .build();
+    /** Movimentos criados/alterados/removidos desde a marca; null se o servidor não tiver o endpoint */
+    public CompletableFuture<ChangeSet<MovementResponseDTO>> fetchChangesAsync(Long companyId, Watermark since, String token) {
+        HttpRequest request = listRequest(baseUrl + "/company/" + companyId + "/changes?" + since.toQuery(), token);
 
         return httpClient.sendAsync(request, HttpResponse.BodyHandlers.ofString())
                 .thenApply(response -> {
-                    debug("GET BY COMPANY AND DATE", request.uri().toString(), response.statusCode(), response.body());
-
-                    if (response.statusCode() != 200) {
-                        throw new RuntimeException("Erro ao filtrar movimentos da empresa: " + response.body());
+                    int status = response.statusCode();
+                    if (status == 404 || status == 405 || status == 501) return null;
+                    if (status != 200) {
+                        throw new RuntimeException("Erro ao buscar alterações de movimentos: " + status);
                     }
 
                     try {
-                        MovementResponseDTO[] list = objectMapper.readValue(response.body(), MovementResponseDTO[].class);
-                        return Arrays.stream(list)
-                                .map(this::convertLabelsToPortuguese)
-                                .toList();
+                        ChangeSet<MovementResponseDTO> changes =
+                                HttpTransport.readChangeSet(response.body(), MovementResponseDTO.class);
+                        if (changes.getItems() != null) {
+                            changes.getItems().forEach(this::convertLabelsToPortuguese);
+                        }
+                        return changes;
                     } catch (Exception e) {
-                        throw new RuntimeException("Erro ao converter resposta GET BY COMPANY AND DATE: " + e.getMessage());
+                        throw new RuntimeException("Erro ao converter alterações de movimentos: " + e.getMessage());
                     }
                 });
     }
 
+    // ================= GET BY COMPANY AND DATE =================
+    public CompletableFuture<List<MovementResponseDTO>> fetchByCompanyAndDateAsync(Long companyId, LocalDateTime start, LocalDateTime end, String token) {
+        HttpRequest request = listRequest(baseUrl + "/company/" + companyId + "/filter?start=" + start + "&end=" + end, token);
+        debug("GET BY COMPANY AND DATE", request.uri().toString());
+        return JsonArrayStream.collect(request, MovementResponseDTO.class, this::convertLabelsToPortuguese);
+    }
+
+    public CompletableFuture<Long> streamByCompanyAndDateAsync(Long companyId, LocalDateTime start, LocalDateTime end, String token,
+                                                               int batchSize, Consumer<List<MovementResponseDTO>> onBatch) {
+        HttpRequest request = listRequest(baseUrl + "/company/" + companyId + "/filter?start=" + start + "&end=" + end, token);
+        debug("STREAM BY COMPANY AND DATE", request.uri().toString());
+        return JsonArrayStream.stream(request, MovementResponseDTO.class, batchSize, this::convertLabelsToPortuguese, onBatch);
+    }
+
     // ================= LIST ALL =================
     public CompletableFuture<List<MovementResponseDTO>> fetchAllAsync(String token) {
+        HttpRequest request = listRequest(baseUrl, token);
+        debug("LIST", request.uri().toString());
+        return JsonArrayStream.collect(request, MovementResponseDTO.class, this::convertLabelsToPortuguese);
+    }
 
+    // ================= LIST ALL (PAGINADO) =================
+    public CompletableFuture<PageResponse<MovementResponseDTO>> fetchAllPageAsync(int page, int size, String token) {
+        return fetchPageAsync(baseUrl, page, size, token);
+    }
+
+    private CompletableFuture<PageResponse<MovementResponseDTO>> fetchPageAsync(String url, int page, int size, String token) {
         HttpRequest request = HttpRequest.newBuilder()
-                .uri(URI.create(baseUrl))
+                .uri(URI.create(url + "?page=" + page + "&size=" + size))
                 .header("Authorization", "Bearer " + token)
                 .header("Accept", "application/json")
                 .GET()
@@ -131,19 +182,19 @@ public class MovementService {
 
         return httpClient.sendAsync(request, HttpResponse.BodyHandlers.ofString())
                 .thenApply(response -> {
-                    debug("LIST", request.uri().toString(), response.statusCode(), response.body());
-
                     if (response.statusCode() != 200) {
-                        throw new RuntimeException("Erro ao buscar movimentos: " + response.statusCode());
+                        throw new RuntimeException("Erro ao buscar página de movimentos: " + response.statusCode());
                     }
 
                     try {
-                        MovementResponseDTO[] list = objectMapper.readValue(response.body(), MovementResponseDTO[].class);
-                        return Arrays.stream(list)
-                                .map(this::convertLabelsToPortuguese)
-                                .toList();
+                        PageResponse<MovementResponseDTO> result =
+                                HttpTransport.readPage(response.body(), MovementResponseDTO.class);
+                        if (result.getContent() != null) {
+                            result.getContent().forEach(this::convertLabelsToPortuguese);
+                        }
+                        return result;
                     } catch (Exception e) {
-                        throw new RuntimeException("Erro ao processar lista: " + e.getMessage());
+                        throw new RuntimeException("Erro ao converter página de movimentos: " + e.getMessage());
                     }
                 });
     }
@@ -261,7 +312,22 @@ public class MovementService {
                 });
     }
 
+    private HttpRequest listRequest(String url, String token) {
+        return HttpRequest.newBuilder()
+                .uri(URI.create(url))
+                .header("Authorization", "Bearer " + token)
+                .header("Accept", "application/json")
+                .GET()
+                .build();
+    }
+
     // ================= DEBUG =================
+    private void debug(String action, String url) {
+        System.out.println("\n========== DEBUG MOVEMENT API (" + action + ") ==========");
+        System.out.println("URL: " + url);
+        System.out.println("========================================================\n");
+    }
+
     private void debug(String action, String url, int status, String body) {
         System.out.println("\n========== DEBUG MOVEMENT API (" + action + ") ==========");
         System.out.println("URL: " + url);
@@ -271,7 +337,8 @@ public class MovementService {
     }
 
     // ================= LABEL CONVERTER =================
-    private MovementResponseDTO convertLabelsToPortuguese(MovementResponseDTO m) {
+    /** Também usado para movimentos recebidos por notificação do servidor (idempotente) */
+    public MovementResponseDTO convertLabelsToPortuguese(MovementResponseDTO m) {
         if (m == null) return null;
 
         m.setType(mapType(m.getType()));
@@ -1,13 +1,16 @@
 package org.manager.service;
 
 import com.fasterxml.jackson.databind.ObjectMapper;
-import com.fasterxml.jackson.databind.SerializationFeature;
-import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
 import org.manager.dto.OrderDTO;
 import org.manager.dto.WarehouseResponseDTO;
+import org.manager.http.HttpTransport;
+import org.manager.model.ChangeSet;
+import org.manager.model.PageResponse;
 import org.manager.model.Company;
 import org.manager.model.Product;
 import org.manager.model.Warehouse;
+import org.manager.sync.DeltaSync;
+import org.manager.sync.Watermark;
 
 import java.net.URI;
 import java.net.http.HttpClient;
@@ -24,11 +27,16 @@ public class OrderService {
     private final ObjectMapper objectMapper;
     private final String baseUrl = "http://localhost:8080";
 
+    // Estado incremental das encomendas, partilhado entre visitas à tela
+    private static final DeltaSync<OrderDTO> ORDER_SYNC = new DeltaSync<>("encomendas",
+            OrderDTO::getId, OrderDTO::getUpdatedAt,
+            (since, token) -> new OrderService().fetchOrderChangesAsync(since, token),
+            token -> new OrderService().fetchOrdersAsync(token));
+    private static String orderSyncToken;
+
     public OrderService() {
-        this.httpClient = HttpClient.newHttpClient();
-        this.objectMapper = new ObjectMapper()
-                .registerModule(new JavaTimeModule())
-                .disable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS);
+        this.httpClient = HttpTransport.client();
+        this.objectMapper = HttpTransport.mapper();
     }
 
     // ================= CREATE =================
@@ -90,6 +98,67 @@ public class OrderService {
                 });
     }
 
+    // ================= SINCRONIZAÇÃO INCREMENTAL =================
+    /**
+     * 🔹 Encomendas já recebidas e a marca (id / updatedAt) da última sincronização.
+     * Um novo login (outro token) recomeça do zero.
+     */
+    public DeltaSync<OrderDTO> orderSync(String token) {
+        synchronized (ORDER_SYNC) {
+            if (token != null && !token.equals(orderSyncToken)) {
+                ORDER_SYNC.clear();
+                orderSyncToken = token;
+            }
+        }
+        return ORDER_SYNC;
+    }
+
+    /** Encomendas criadas/alteradas/removidas desde a marca; null se o servidor não tiver o endpoint */
+    public CompletableFuture<ChangeSet<OrderDTO>> fetchOrderChangesAsync(Watermark since, String token) {
+        HttpRequest request = HttpRequest.newBuilder()
+                .uri(URI.create(baseUrl + "/orders/changes?" + since.toQuery()))
+                .header("Authorization", "Bearer " + token)
+                .header("Accept", "application/json")
+                .GET()
+                .build();
+
+        return httpClient.sendAsync(request, HttpResponse.BodyHandlers.ofString())
+                .thenApply(response -> {
+                    int status = response.statusCode();
+                    if (status == 404 || status == 405 || status == 501) return null;
+                    try {
+                        if (status != 200) {
+                            throw new RuntimeException("Erro ao buscar alterações de encomendas: " + status);
+                        }
+                        return HttpTransport.readChangeSet(response.body(), OrderDTO.class);
+                    } catch (Exception e) {
+                        throw new RuntimeException("Falha ao processar alterações de encomendas: " + e.getMessage(), e);
+                    }
+                });
+    }
+
+    // ================= FETCH ORDERS (PAGINADO) =================
+    public CompletableFuture<PageResponse<OrderDTO>> fetchOrdersPageAsync(int page, int size, String token) {
+        HttpRequest request = HttpRequest.newBuilder()
+                .uri(URI.create(baseUrl + "/orders?page=" + page + "&size=" + size))
+                .header("Authorization", "Bearer " + token)
+                .header("Accept", "application/json")
+                .GET()
+                .build();
+
+        return httpClient.sendAsync(request, HttpResponse.BodyHandlers.ofString())
+                .thenApply(response -> {
+                    try {
+                        if (response.statusCode() != 200) {
+                            throw new RuntimeException("Erro ao buscar encomendas: " + response.statusCode());
+                        }
+                        return HttpTransport.readPage(response.body(), OrderDTO.class);
+                    } catch (Exception e) {
+                        throw new RuntimeException("Falha ao processar encomendas: " + e.getMessage(), e);
+                    }
+                });
+    }
+
     // ================= FETCH PRODUCTS =================
     public CompletableFuture<List<Product>> fetchProductsAsync(String token) {
         HttpRequest request = HttpRequest.newBuilder()
@@ -162,37 +231,24 @@ public class OrderService {
                 });
     }
 
-    // ================= EXPORT PDF =================
-    public CompletableFuture<byte[]> exportOrderPdf(Long id, String token) {
-        HttpRequest request = HttpRequest.newBuilder()
-                .uri(URI.create(baseUrl + "/orders/" + id + "/export/pdf"))
+    // ================= EXPORT =================
+    /** 🔹 Pedido de exportação ("pdf" ou "excel"); o ficheiro é descarregado por ExportDownloadManager */
+    public HttpRequest exportRequest(Long id, String type, String token) {
+        boolean pdf = type.equalsIgnoreCase("pdf");
+        return HttpRequest.newBuilder()
+                .uri(URI.create(baseUrl + "/orders/" + id + (pdf ? "/export/pdf" : "/export/excel")))
                 .header("Authorization", "Bearer " + token)
-                .header("Accept", "application/pdf")
+                .header("Accept", pdf ? "application/pdf" : "application/vnd.openxmlformats-officedocument.spreadsheetml.sheet")
                 .GET()
                 .build();
-
-        return httpClient.sendAsync(request, HttpResponse.BodyHandlers.ofByteArray())
-                .thenApply(response -> {
-                    if (response.statusCode() != 200) {
-                        throw new RuntimeException("Erro ao exportar PDF. Status: " + response.statusCode());
-                    }
-                    return response.body();
-                });
     }
 
-    // ================= EXPORT EXCEL =================
-    public CompletableFuture<byte[]> exportOrderExcel(Long id, String token) {
-        HttpRequest request = HttpRequest.newBuilder()
-                .uri(URI.create(baseUrl + "/orders/" + id + "/export/excel"))
-                .header("Authorization", "Bearer " + token)
-                .header("Accept", "application/vnd.openxmlformats-officedocument.spreadsheetml.sheet")
-                .GET()
-                .build();
-
-        return httpClient.sendAsync(request, HttpResponse.BodyHandlers.ofByteArray())
+    /** PDF em memória (para imprimir) */
+    public CompletableFuture<byte[]> exportOrderPdf(Long id, String token) {
+        return httpClient.sendAsync(exportRequest(id, "pdf", token), HttpResponse.BodyHandlers.ofByteArray())
                 .thenApply(response -> {
                     if (response.statusCode() != 200) {
-                        throw new RuntimeException("Erro ao exportar Excel. Status: " + response.statusCode());
+                        throw new RuntimeException("Erro ao exportar PDF. Status: " + response.statusCode());
                     }
                     return response.body();
                 });
@@ -2,10 +2,10 @@ package org.manager.service;
 
 import com.fasterxml.jackson.core.type.TypeReference;
 import com.fasterxml.jackson.databind.ObjectMapper;
-import com.fasterxml.jackson.databind.SerializationFeature;
-import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
 import org.manager.dto.ProductRequestDTO;
 import org.manager.dto.ProductResponseDTO;
+import org.manager.http.HttpTransport;
+import org.manager.model.PageResponse;
 
 import java.net.URI;
 import java.net.http.HttpClient;
@@ -22,10 +22,8 @@ public class ProductService {
     private final String baseUrl = "http://localhost:8080/api/products";
 
     public ProductService() {
-        this.httpClient = HttpClient.newHttpClient();
-        this.objectMapper = new ObjectMapper()
-                .registerModule(new JavaTimeModule())
-                .disable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS);
+        this.httpClient = HttpTransport.client();
+        this.objectMapper = HttpTransport.mapper();
     }
 
     // =================== UTIL ===================
@@ -39,7 +37,7 @@ public class ProductService {
             return null;
         }
         try {
-            return objectMapper.readValue(body, typeRef);
+            return HttpTransport.reader(typeRef).readValue(body);
         } catch (Exception e) {
             throw new RuntimeException("Erro ao desserializar resposta", e);
         }
@@ -76,6 +74,24 @@ public class ProductService {
                 });
     }
 
+    // READ PAGE
+    public CompletableFuture<PageResponse<ProductResponseDTO>> getProductsPage(int page, int size, String token) {
+        HttpRequest request = withAuth(HttpRequest.newBuilder()
+                .uri(URI.create(baseUrl + "?page=" + page + "&size=" + size)), token)
+                .GET()
+                .build();
+
+        return httpClient.sendAsync(request, HttpResponse.BodyHandlers.ofString())
+                .thenApply(response -> {
+                    checkStatus(response);
+                    try {
+                        return HttpTransport.readPage(response.body(), ProductResponseDTO.class);
+                    } catch (Exception e) {
+                        throw new RuntimeException("Erro ao desserializar página de produtos", e);
+                    }
+                });
+    }
+
     // READ BY ID
     public CompletableFuture<ProductResponseDTO> getProductById(Long id, String token) {
         HttpRequest request = withAuth(HttpRequest.newBuilder().uri(URI.create(baseUrl + "/" + id)), token)
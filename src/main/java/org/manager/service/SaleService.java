@@ -2,12 +2,13 @@ package org.manager.service;
 
 import com.fasterxml.jackson.core.JsonProcessingException;
 import com.fasterxml.jackson.core.type.TypeReference;
-import com.fasterxml.jackson.databind.JavaType;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import javafx.application.Platform;
 import org.manager.dto.MonthlyMovementDTO;
 import org.manager.dto.SaleResponseDTO;
 import org.manager.dto.SaleRequestDTO;
+import org.manager.http.HttpTransport;
+import org.manager.http.JsonArrayStream;
 import org.manager.model.PageResponse;
 import org.manager.util.AlertUtil;
 
@@ -20,6 +21,8 @@ import java.util.Collections;
 import java.util.List;
 import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.CompletionException;
+import java.util.function.Consumer;
+import java.util.function.UnaryOperator;
 
 public class SaleService {
 
@@ -28,8 +31,8 @@ public class SaleService {
     private final ObjectMapper objectMapper;
 
     public SaleService() {
-        this.httpClient = HttpClient.newHttpClient();
-        this.objectMapper = new ObjectMapper();
+        this.httpClient = HttpTransport.client();
+        this.objectMapper = HttpTransport.mapper();
     }
 
     // ================= CREATE SALE =================
@@ -64,39 +67,76 @@ public class SaleService {
         }
     }
 
-    // ================= LIST SALES =================
-    public CompletableFuture<List<SaleResponseDTO>> listSales(String token) {
+    /**
+     * 🔹 Envio usado pela fila offline de vendas: devolve a resposta crua (quem chama decide se
+     * repete) e envia a chave de idempotência, para o servidor não duplicar uma venda reenviada.
+     */
+    public CompletableFuture<HttpResponse<String>> postSale(SaleRequestDTO saleRequest, String token,
+                                                            Long userId, String idempotencyKey) {
         try {
             HttpRequest request = HttpRequest.newBuilder()
                     .uri(URI.create(BASE_URL))
                     .header("Content-Type", "application/json")
                     .header("Authorization", "Bearer " + token)
-                    .GET()
+                    .header("userId", String.valueOf(userId))
+                    .header("Idempotency-Key", idempotencyKey)
+                    .POST(HttpRequest.BodyPublishers.ofString(objectMapper.writeValueAsString(saleRequest)))
                     .build();
-
-            return httpClient.sendAsync(request, HttpResponse.BodyHandlers.ofString())
-                    .thenApply(response -> {
-                        if (response.statusCode() == 200) {
-                            try {
-                                JavaType type = objectMapper.getTypeFactory()
-                                        .constructParametricType(PageResponse.class, SaleResponseDTO.class);
-                                PageResponse<SaleResponseDTO> page = objectMapper.readValue(response.body(), type);
-                                return page.getContent();
-                            } catch (Exception e) {
-                                throw new CompletionException("Erro ao desserializar JSON de vendas", e);
-                            }
-                        } else {
-                            throw new CompletionException(new RuntimeException(
-                                    "Falha ao buscar vendas. Código: " + response.statusCode()
-                            ));
-                        }
-                    })
-                    .exceptionally(ex -> handleExceptionList("Erro ao listar vendas", ex));
-        } catch (Exception e) {
-            throw new CompletionException("Erro ao listar vendas", e);
+            return httpClient.sendAsync(request, HttpResponse.BodyHandlers.ofString());
+        } catch (JsonProcessingException e) {
+            return CompletableFuture.failedFuture(new CompletionException("Erro ao serializar venda para JSON", e));
         }
     }
 
+    public SaleResponseDTO readSale(String body) throws JsonProcessingException {
+        return objectMapper.readValue(body, SaleResponseDTO.class);
+    }
+
+    // ================= LIST SALES =================
+    public CompletableFuture<List<SaleResponseDTO>> listSales(String token) {
+        return JsonArrayStream.collect(salesListRequest(token), SaleResponseDTO.class, UnaryOperator.identity())
+                .exceptionally(ex -> handleExceptionList("Erro ao listar vendas", ex));
+    }
+
+    // ================= STREAM SALES =================
+    /** 🔹 Entrega as vendas em lotes enquanto a resposta ainda está a ser recebida */
+    public CompletableFuture<Long> streamSales(String token, int batchSize, Consumer<List<SaleResponseDTO>> onBatch) {
+        return JsonArrayStream.stream(salesListRequest(token), SaleResponseDTO.class, batchSize, UnaryOperator.identity(), onBatch);
+    }
+
+    private HttpRequest salesListRequest(String token) {
+        return HttpRequest.newBuilder()
+                .uri(URI.create(BASE_URL))
+                .header("Content-Type", "application/json")
+                .header("Authorization", "Bearer " + token)
+                .GET()
+                .build();
+    }
+
+    // ================= LIST SALES (PAGINADO) =================
+    public CompletableFuture<PageResponse<SaleResponseDTO>> listSalesPage(int page, int size, String token) {
+        HttpRequest request = HttpRequest.newBuilder()
+                .uri(URI.create(BASE_URL + "?page=" + page + "&size=" + size))
+                .header("Content-Type", "application/json")
+                .header("Authorization", "Bearer " + token)
+                .GET()
+                .build();
+
+        return httpClient.sendAsync(request, HttpResponse.BodyHandlers.ofString())
+                .thenApply(response -> {
+                    if (response.statusCode() != 200) {
+                        throw new CompletionException(new RuntimeException(
+                                "Falha ao buscar vendas. Código: " + response.statusCode()
+                        ));
+                    }
+                    try {
+                        return HttpTransport.readPage(response.body(), SaleResponseDTO.class);
+                    } catch (Exception e) {
+                        throw new CompletionException("Erro ao desserializar JSON de vendas", e);
+                    }
+                });
+    }
+
     // ================= GET SALE BY ID =================
     public CompletableFuture<SaleResponseDTO> getSaleById(Long id, String token) {
         try {
@@ -246,63 +286,26 @@ public class SaleService {
     }
 
     // ================= EXPORT METHODS =================
-    public CompletableFuture<byte[]> exportSaleToPdf(Long saleId, String token) {
-        return exportSaleReport(saleId, "pdf", token);
-    }
-
-    public CompletableFuture<byte[]> exportSaleToHtml(Long saleId, String token) {
-        return exportSaleReport(saleId, "html", token);
-    }
-
-    public CompletableFuture<byte[]> exportSaleToExcel(Long saleId, String token) {
-        return exportSaleReport(saleId, "xlsx", token);
-    }
-
-    private CompletableFuture<byte[]> exportSaleReport(Long saleId, String format, String token) {
+    /** 🔹 Pedido do relatório da venda (pdf, html ou xlsx); o ficheiro é descarregado por ExportDownloadManager */
+    public HttpRequest exportSaleRequest(Long saleId, String format, String token) {
         if (saleId == null || saleId <= 0) {
-            Platform.runLater(() -> AlertUtil.showError("Erro ao exportar venda", "ID da venda inválido"));
-            return CompletableFuture.failedFuture(new IllegalArgumentException("ID da venda inválido"));
+            throw new IllegalArgumentException("ID da venda inválido");
         }
 
-        try {
-            String url;
-            switch (format.toLowerCase()) {
-                case "pdf": url = BASE_URL + "/" + saleId + "/report/pdf"; break;
-                case "html": url = BASE_URL + "/" + saleId + "/report/html"; break;
-                case "xlsx":
-                case "excel": url = BASE_URL + "/" + saleId + "/report/excel"; break;
-                default: throw new IllegalArgumentException("Formato de exportação inválido: " + format);
-            }
-
-            HttpRequest request = HttpRequest.newBuilder()
-                    .uri(URI.create(url))
-                    .header("Authorization", "Bearer " + token)
-                    .GET()
-                    .build();
-
-            return httpClient.sendAsync(request, HttpResponse.BodyHandlers.ofByteArray())
-                    .thenApply(response -> {
-                        if (response.statusCode() == 200) return response.body();
-                        else {
-                            String message = new String(response.body());
-                            throw new CompletionException(new RuntimeException(
-                                    "Falha ao exportar venda para " + format +
-                                            ". Código: " + response.statusCode() +
-                                            ". Mensagem: " + message
-                            ));
-                        }
-                    })
-                    .exceptionally(ex -> handleExportException(ex));
-        } catch (Exception e) {
-            return CompletableFuture.failedFuture(e);
+        String url;
+        switch (format.toLowerCase()) {
+            case "pdf": url = BASE_URL + "/" + saleId + "/report/pdf"; break;
+            case "html": url = BASE_URL + "/" + saleId + "/report/html"; break;
+            case "xlsx":
+            case "excel": url = BASE_URL + "/" + saleId + "/report/excel"; break;
+            default: throw new IllegalArgumentException("Formato de exportação inválido: " + format);
         }
-    }
 
-    private byte[] handleExportException(Throwable ex) {
-        Throwable cause = ex.getCause() != null ? ex.getCause() : ex;
-        Platform.runLater(() -> AlertUtil.showError("Erro ao exportar venda", cause.getMessage()));
-        cause.printStackTrace();
-        throw new CompletionException(cause);
+        return HttpRequest.newBuilder()
+                .uri(URI.create(url))
+                .header("Authorization", "Bearer " + token)
+                .GET()
+                .build();
     }
 
     // ================= HELPER METHODS =================
@@ -2,12 +2,11 @@ package org.manager.service;
 
 import com.fasterxml.jackson.core.type.TypeReference;
 import com.fasterxml.jackson.databind.ObjectMapper;
-import com.fasterxml.jackson.databind.SerializationFeature;
-import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
 import org.manager.dto.StockDTO;
 import org.manager.dto.StockRequestDTO;
 import org.manager.dto.StockResponseDTO;
 import org.manager.dto.StockSummaryDTO;
+import org.manager.http.HttpTransport;
 
 import java.net.URI;
 import java.net.http.HttpClient;
@@ -25,10 +24,8 @@ public class StockService {
     private static final String BASE_URL = "http://localhost:8080/api/stocks";
 
     public StockService() {
-        this.httpClient = HttpClient.newHttpClient();
-        this.objectMapper = new ObjectMapper()
-                .registerModule(new JavaTimeModule())
-                .disable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS);
+        this.httpClient = HttpTransport.client();
+        this.objectMapper = HttpTransport.mapper();
     }
 
     // ============================
@@ -55,7 +52,7 @@ public class StockService {
 
     private <T> T parseJson(String body, TypeReference<T> type) {
         try {
-            return objectMapper.readValue(body, type);
+            return HttpTransport.reader(type).readValue(body);
         } catch (Exception e) {
             throw new RuntimeException("Erro ao desserializar JSON", e);
         }
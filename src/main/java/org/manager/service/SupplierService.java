@@ -3,7 +3,10 @@ package org.manager.service;
 import com.fasterxml.jackson.core.JsonProcessingException;
 import com.fasterxml.jackson.core.type.TypeReference;
 import com.fasterxml.jackson.databind.ObjectMapper;
+import org.manager.cache.ReferenceData;
+import org.manager.store.LocalStores;
 import org.manager.dto.SupplierDTO;
+import org.manager.http.HttpTransport;
 
 import java.net.URI;
 import java.net.http.HttpClient;
@@ -20,12 +23,16 @@ public class SupplierService {
     private final String BASE_URL = "http://localhost:8080/suppliers";
 
     public SupplierService() {
-        this.httpClient = HttpClient.newHttpClient();
-        this.objectMapper = new ObjectMapper();
+        this.httpClient = HttpTransport.client();
+        this.objectMapper = HttpTransport.mapper();
     }
 
     // Criar fornecedor
     public CompletableFuture<SupplierDTO> createSupplier(SupplierDTO supplierDTO, String token) {
+        return ReferenceData.SUPPLIERS.invalidateOnSuccess(sendCreateSupplier(supplierDTO, token));
+    }
+
+    private CompletableFuture<SupplierDTO> sendCreateSupplier(SupplierDTO supplierDTO, String token) {
         try {
             String requestBody = objectMapper.writeValueAsString(supplierDTO);
             HttpRequest request = HttpRequest.newBuilder()
@@ -55,8 +62,13 @@ public class SupplierService {
         }
     }
 
-    // Listar todos fornecedores
+    // Listar todos fornecedores (em cache por sessão)
     public CompletableFuture<List<SupplierDTO>> getAllSuppliers(String token) {
+        return ReferenceData.SUPPLIERS.getAll(token,
+                () -> LocalStores.suppliers().withFallback(fetchAllSuppliers(token)));
+    }
+
+    private CompletableFuture<List<SupplierDTO>> fetchAllSuppliers(String token) {
         HttpRequest request = HttpRequest.newBuilder()
                 .uri(URI.create(BASE_URL))
                 .header("Authorization", "Bearer " + token)
@@ -105,6 +117,10 @@ public class SupplierService {
 
     // Atualizar fornecedor
     public CompletableFuture<SupplierDTO> updateSupplier(SupplierDTO supplierDTO, Long id, String token) {
+        return ReferenceData.SUPPLIERS.invalidateOnSuccess(sendUpdateSupplier(supplierDTO, id, token));
+    }
+
+    private CompletableFuture<SupplierDTO> sendUpdateSupplier(SupplierDTO supplierDTO, Long id, String token) {
         try {
             String requestBody = objectMapper.writeValueAsString(supplierDTO);
             HttpRequest request = HttpRequest.newBuilder()
@@ -135,6 +151,10 @@ public class SupplierService {
 
     // Deletar fornecedor
     public CompletableFuture<Void> deleteSupplier(Long id, String token) {
+        return ReferenceData.SUPPLIERS.invalidateOnSuccess(sendDeleteSupplier(id, token));
+    }
+
+    private CompletableFuture<Void> sendDeleteSupplier(Long id, String token) {
         HttpRequest request = HttpRequest.newBuilder()
                 .uri(URI.create(BASE_URL + "/" + id))
                 .header("Authorization", "Bearer " + token)
@@ -1,14 +1,10 @@
 package org.manager.service;
 
 import com.fasterxml.jackson.core.type.TypeReference;
-import com.fasterxml.jackson.databind.DeserializationFeature;
 import com.fasterxml.jackson.databind.ObjectMapper;
-import com.fasterxml.jackson.databind.SerializationFeature;
-import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
-import com.fasterxml.jackson.datatype.jsr310.deser.LocalDateTimeDeserializer;
-import com.fasterxml.jackson.datatype.jsr310.ser.LocalDateTimeSerializer;
 import org.manager.dto.TranferRequestDTO;
 import org.manager.dto.TransferResponseDTO;
+import org.manager.http.HttpTransport;
 
 import java.net.URI;
 import java.net.http.HttpClient;
@@ -32,17 +28,9 @@ public class TransferService {
             DateTimeFormatter.ofPattern("dd/MM/yyyy HH:mm:ss");
 
     public TransferService() {
-        this.httpClient = HttpClient.newHttpClient();
-        this.objectMapper = new ObjectMapper();
-
-        JavaTimeModule module = new JavaTimeModule();
-        objectMapper.registerModule(module);
-
-        // ✔ Não usar timestamp
-        objectMapper.disable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS);
-
-        // ✔ Ignorar campos desconhecidos
-        objectMapper.configure(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES, false);
+        this.httpClient = HttpTransport.client();
+        // ✔ Ignorar campos desconhecidos (como antes da partilha do mapper)
+        this.objectMapper = HttpTransport.lenientMapper();
     }
 
     // ===================== CREATE =====================
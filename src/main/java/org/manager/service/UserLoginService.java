@@ -3,6 +3,7 @@ package org.manager.service;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import org.manager.dto.LoginRequestDTO;
 import org.manager.dto.LoginResponseDTO;
+import org.manager.http.HttpTransport;
 
 import java.net.URI;
 import java.net.http.HttpClient;
@@ -13,15 +14,11 @@ import java.util.concurrent.CompletableFuture;
 public class UserLoginService {
 
     private static final String BASE_URL = "http://localhost:8080/auth/login";
-    private final HttpClient httpClient;
-    private final ObjectMapper objectMapper;
-
-    public UserLoginService() {
-        this.httpClient = HttpClient.newHttpClient();
-        this.objectMapper = new ObjectMapper();
-    }
 
+    // 🔹 O cliente HTTP e o Jackson só são resolvidos no primeiro login: a tela de login abre sem esperar por eles
     public CompletableFuture<LoginResponseDTO> handleLogin(LoginRequestDTO loginRequest) {
+        HttpClient httpClient = HttpTransport.client();
+        ObjectMapper objectMapper = HttpTransport.mapper();
         try {
             String requestBody = objectMapper.writeValueAsString(loginRequest);
 
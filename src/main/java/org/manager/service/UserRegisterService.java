@@ -3,6 +3,7 @@ package org.manager.service;
 import com.fasterxml.jackson.core.type.TypeReference;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import org.manager.dto.UserDTO;
+import org.manager.http.HttpTransport;
 import org.manager.mapper.UserMapper;
 import org.manager.util.AlertUtil;
 
@@ -24,8 +25,8 @@ public class UserRegisterService {
     private final CompanyService companyService;
 
     public UserRegisterService() {
-        this.httpClient = HttpClient.newHttpClient();
-        this.objectMapper = new ObjectMapper();
+        this.httpClient = HttpTransport.client();
+        this.objectMapper = HttpTransport.mapper();
         this.companyService = new CompanyService();
     }
 
@@ -3,8 +3,11 @@ package org.manager.service;
 import com.fasterxml.jackson.core.JsonProcessingException;
 import com.fasterxml.jackson.core.type.TypeReference;
 import com.fasterxml.jackson.databind.ObjectMapper;
+import org.manager.cache.ReferenceData;
+import org.manager.store.LocalStores;
 import org.manager.dto.WarehouseRequestDTO;
 import org.manager.dto.WarehouseResponseDTO;
+import org.manager.http.HttpTransport;
 
 import java.net.URI;
 import java.net.http.HttpClient;
@@ -22,8 +25,8 @@ public class WarehouseService {
     private final ObjectMapper objectMapper;
 
     public WarehouseService() {
-        this.httpClient = HttpClient.newHttpClient();
-        this.objectMapper = new ObjectMapper();
+        this.httpClient = HttpTransport.client();
+        this.objectMapper = HttpTransport.mapper();
     }
 
     // =====================================================
@@ -43,7 +46,7 @@ public class WarehouseService {
                     .POST(HttpRequest.BodyPublishers.ofString(json))
                     .build();
 
-            return sendRequest(request, WarehouseResponseDTO.class);
+            return ReferenceData.WAREHOUSES.invalidateOnSuccess(sendRequest(request, WarehouseResponseDTO.class));
 
         } catch (JsonProcessingException e) {
             throw new CompletionException("Erro ao serializar WarehouseRequestDTO", e);
@@ -54,11 +57,20 @@ public class WarehouseService {
     // READ
     // =====================================================
 
-    /** 🔥 USAR NO COMBOBOX (somente ativos) */
+    /** 🔥 USAR NO COMBOBOX (somente ativos, em cache por empresa) */
     public CompletableFuture<List<WarehouseResponseDTO>> getActiveWarehousesByCompany(
             Long companyId,
             String token) {
 
+        return ReferenceData.WAREHOUSES.getAll("active:" + companyId,
+                () -> LocalStores.warehouses(companyId, true)
+                        .withFallback(fetchActiveWarehousesByCompany(companyId, token)));
+    }
+
+    private CompletableFuture<List<WarehouseResponseDTO>> fetchActiveWarehousesByCompany(
+            Long companyId,
+            String token) {
+
         HttpRequest request = HttpRequest.newBuilder()
                 .uri(URI.create(BASE_URL + "/company/" + companyId + "/active"))
                 .header("Content-Type", "application/json")
@@ -74,6 +86,15 @@ public class WarehouseService {
             Long companyId,
             String token) {
 
+        return ReferenceData.WAREHOUSES.getAll("all:" + companyId,
+                () -> LocalStores.warehouses(companyId, false)
+                        .withFallback(fetchAllWarehousesByCompany(companyId, token)));
+    }
+
+    private CompletableFuture<List<WarehouseResponseDTO>> fetchAllWarehousesByCompany(
+            Long companyId,
+            String token) {
+
         HttpRequest request = HttpRequest.newBuilder()
                 .uri(URI.create(BASE_URL + "/company/" + companyId))
                 .header("Content-Type", "application/json")
@@ -132,7 +153,7 @@ public class WarehouseService {
                     .PUT(HttpRequest.BodyPublishers.ofString(json))
                     .build();
 
-            return sendRequest(request, WarehouseResponseDTO.class);
+            return ReferenceData.WAREHOUSES.invalidateOnSuccess(sendRequest(request, WarehouseResponseDTO.class));
 
         } catch (JsonProcessingException e) {
             throw new CompletionException("Erro ao serializar WarehouseRequestDTO", e);
@@ -150,14 +171,15 @@ public class WarehouseService {
                 .DELETE()
                 .build();
 
-        return httpClient.sendAsync(request, HttpResponse.BodyHandlers.ofString())
-                .thenAccept(response -> {
-                    if (response.statusCode() != 204) {
-                        throw new CompletionException(
-                                new RuntimeException("Erro ao deletar warehouse: " + response.body())
-                        );
-                    }
-                });
+        return ReferenceData.WAREHOUSES.invalidateOnSuccess(
+                httpClient.sendAsync(request, HttpResponse.BodyHandlers.ofString())
+                        .thenAccept(response -> {
+                            if (response.statusCode() != 204) {
+                                throw new CompletionException(
+                                        new RuntimeException("Erro ao deletar warehouse: " + response.body())
+                                );
+                            }
+                        }));
     }
 
     // =====================================================
@@ -173,7 +195,7 @@ public class WarehouseService {
                 .POST(HttpRequest.BodyPublishers.noBody())
                 .build();
 
-        return sendRequest(request, WarehouseResponseDTO.class);
+        return ReferenceData.WAREHOUSES.invalidateOnSuccess(sendRequest(request, WarehouseResponseDTO.class));
     }
 
     // =====================================================
@@ -200,7 +222,7 @@ public class WarehouseService {
                 .thenApply(response -> {
                     if (response.statusCode() == 200) {
                         try {
-                            return objectMapper.readValue(response.body(), typeRef);
+                            return HttpTransport.reader(typeRef).readValue(response.body());
                         } catch (Exception e) {
                             throw new CompletionException("Erro ao converter lista JSON", e);
                         }
@@ -0,0 +1,265 @@
+package org.manager.store;
+
+import com.fasterxml.jackson.databind.JavaType;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import org.manager.http.HttpTransport;
+
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutorService;
+import java.util.function.Function;
+
+/**
+ * 🔹 Cópia local (em disco) de uma lista de entidades do servidor.
+ *
+ * Formato: um snapshot JSON com a lista completa e um log de alterações (uma linha JSON por
+ * operação: {"op":"put","value":{...}} ou {"op":"del","id":N}). Ao abrir, o snapshot é lido e o
+ * log reaplicado; quando o log cresce demasiado é compactado num novo snapshot (escrito num
+ * ficheiro temporário e renomeado, para nunca ficar meio escrito).
+ *
+ * Todas as operações correm no executor single-thread do {@link LocalStores}, por isso o estado
+ * em memória nunca é acedido em paralelo.
+ */
+public class LocalStore<T> {
+
+    private static final int MIN_LOG_ENTRIES_TO_COMPACT = 500;
+
+    private final String name;
+    private final Path snapshotFile;
+    private final Path logFile;
+    private final Class<T> type;
+    private final Function<T, Long> idOf;
+    private final Function<T, Object> versionOf;
+    private final ExecutorService executor;
+    private final ObjectMapper mapper = HttpTransport.mapper();
+
+    private final Map<Long, T> items = new LinkedHashMap<>();
+    private CompletableFuture<List<T>> loaded;
+    private int logEntries;
+
+    /**
+     * @param versionOf versão usada para detetar alterações (ex.: updatedAt); se devolver null,
+     *                  a entidade é comparada pelo seu JSON
+     */
+    LocalStore(String name, Path directory, Class<T> type, Function<T, Long> idOf,
+               Function<T, Object> versionOf, ExecutorService executor) {
+        this.name = name;
+        this.snapshotFile = directory.resolve(name + ".snapshot.json");
+        this.logFile = directory.resolve(name + ".log");
+        this.type = type;
+        this.idOf = idOf;
+        this.versionOf = versionOf;
+        this.executor = executor;
+    }
+
+    // ================= LEITURA =================
+    /** 🔹 Conteúdo local (lido do disco apenas na primeira vez) */
+    public synchronized CompletableFuture<List<T>> load() {
+        if (loaded == null) {
+            loaded = CompletableFuture.supplyAsync(() -> {
+                readFromDisk();
+                return List.copyOf(items.values());
+            }, executor);
+        }
+        return loaded.thenApplyAsync(ignored -> new ArrayList<>(items.values()), executor);
+    }
+
+    // ================= SINCRONIZAÇÃO =================
+    /**
+     * 🔹 Compara a lista vinda do servidor com a cópia local e grava apenas as diferenças.
+     */
+    public CompletableFuture<Delta<T>> reconcile(List<T> fresh) {
+        return load().thenApplyAsync(ignored -> {
+            List<T> upserts = new ArrayList<>();
+            Map<Long, T> remaining = new LinkedHashMap<>(items);
+
+            for (T item : fresh) {
+                Long id = idOf.apply(item);
+                if (id == null) continue;
+                T current = remaining.remove(id);
+                if (current == null || changed(current, item)) upserts.add(item);
+            }
+            List<Long> removed = new ArrayList<>(remaining.keySet());
+
+            if (!upserts.isEmpty() || !removed.isEmpty()) {
+                // Mantém a ordem do servidor em memória
+                items.clear();
+                for (T item : fresh) {
+                    Long id = idOf.apply(item);
+                    if (id != null) items.put(id, item);
+                }
+                appendToLog(upserts, removed);
+            }
+            return new Delta<>(upserts, removed);
+        }, executor);
+    }
+
+    public CompletableFuture<Void> upsert(T item) {
+        return load().thenAcceptAsync(ignored -> {
+            Long id = idOf.apply(item);
+            if (id == null) return;
+            items.put(id, item);
+            appendToLog(List.of(item), List.of());
+        }, executor);
+    }
+
+    public CompletableFuture<Void> remove(Long id) {
+        return load().thenAcceptAsync(ignored -> {
+            if (items.remove(id) != null) appendToLog(List.of(), List.of(id));
+        }, executor);
+    }
+
+    /**
+     * 🔹 Usa o servidor quando responde (e atualiza a cópia local em segundo plano);
+     * se o pedido falhar, devolve a cópia local, desde que exista.
+     */
+    public CompletableFuture<List<T>> withFallback(CompletableFuture<List<T>> remote) {
+        if (!LocalStores.ENABLED) return remote;
+        return remote
+                .thenApply(list -> {
+                    reconcile(list).exceptionally(ex -> {
+                        ex.printStackTrace();
+                        return null;
+                    });
+                    return list;
+                })
+                .exceptionallyCompose(ex -> load().thenApply(cached -> {
+                    if (cached.isEmpty()) throw ex instanceof CompletionException ce ? ce : new CompletionException(ex);
+                    System.out.println("Servidor indisponível, a usar cópia local de " + name + " (" + cached.size() + ")");
+                    return cached;
+                }));
+    }
+
+    private boolean changed(T current, T fresh) {
+        Object currentVersion = versionOf.apply(current);
+        Object freshVersion = versionOf.apply(fresh);
+        if (currentVersion != null && freshVersion != null) {
+            return !currentVersion.equals(freshVersion);
+        }
+        return !mapper.valueToTree(current).equals(mapper.valueToTree(fresh));
+    }
+
+    // ================= DISCO =================
+    private void readFromDisk() {
+        items.clear();
+        logEntries = 0;
+        try {
+            if (Files.exists(snapshotFile)) {
+                JavaType listType = mapper.getTypeFactory().constructCollectionType(List.class, type);
+                try (InputStream in = Files.newInputStream(snapshotFile)) {
+                    List<T> snapshot = HttpTransport.reader(listType).readValue(in);
+                    for (T item : snapshot) {
+                        Long id = idOf.apply(item);
+                        if (id != null) items.put(id, item);
+                    }
+                }
+            }
+            if (Files.exists(logFile)) {
+                try (BufferedReader reader = Files.newBufferedReader(logFile, StandardCharsets.UTF_8)) {
+                    String line;
+                    while ((line = reader.readLine()) != null) {
+                        if (!line.isBlank() && replay(line)) logEntries++;
+                    }
+                }
+            }
+        } catch (IOException e) {
+            // Cópia local ilegível: começa vazia e será reposta na próxima sincronização
+            System.out.println("Cópia local de " + name + " ignorada: " + e.getMessage());
+            items.clear();
+        }
+    }
+
+    private boolean replay(String line) {
+        try {
+            JsonNode node = mapper.readTree(line);
+            String op = node.path("op").asText();
+            if ("put".equals(op)) {
+                T value = mapper.treeToValue(node.get("value"), type);
+                Long id = idOf.apply(value);
+                if (id != null) items.put(id, value);
+                return true;
+            }
+            if ("del".equals(op)) {
+                items.remove(node.path("id").asLong());
+                return true;
+            }
+        } catch (IOException e) {
+            // Linha incompleta (ex.: a aplicação fechou a meio da escrita): ignora
+        }
+        return false;
+    }
+
+    private void appendToLog(List<T> upserts, List<Long> removed) {
+        try {
+            Files.createDirectories(logFile.getParent());
+            try (BufferedWriter writer = Files.newBufferedWriter(logFile, StandardCharsets.UTF_8,
+                    StandardOpenOption.CREATE, StandardOpenOption.APPEND)) {
+                for (T item : upserts) {
+                    ObjectNode node = mapper.createObjectNode().put("op", "put");
+                    node.set("value", mapper.valueToTree(item));
+                    writer.write(mapper.writeValueAsString(node));
+                    writer.newLine();
+                }
+                for (Long id : removed) {
+                    writer.write(mapper.writeValueAsString(mapper.createObjectNode().put("op", "del").put("id", id)));
+                    writer.newLine();
+                }
+            }
+            logEntries += upserts.size() + removed.size();
+
+            if (logEntries >= MIN_LOG_ENTRIES_TO_COMPACT && logEntries > items.size() / 2) {
+                writeSnapshot();
+            }
+        } catch (IOException e) {
+            System.out.println("Falha ao gravar cópia local de " + name + ": " + e.getMessage());
+        }
+    }
+
+    private void writeSnapshot() throws IOException {
+        Path temp = snapshotFile.resolveSibling(snapshotFile.getFileName() + ".tmp");
+        try (OutputStream out = Files.newOutputStream(temp)) {
+            mapper.writeValue(out, new ArrayList<>(items.values()));
+        }
+        Files.move(temp, snapshotFile, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        Files.deleteIfExists(logFile);
+        logEntries = 0;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    /** Diferenças aplicadas numa sincronização */
+    public record Delta<T>(List<T> upserts, List<Long> removedIds) {
+        public boolean isEmpty() {
+            return upserts.isEmpty() && removedIds.isEmpty();
+        }
+
+        @Override
+        public String toString() {
+            return "+" + upserts.size() + " / -" + removedIds.size();
+        }
+    }
+
+    @Override
+    public String toString() {
+        return "LocalStore[" + name + ", " + Objects.toString(snapshotFile.getParent()) + "]";
+    }
+}
@@ -0,0 +1,79 @@
+package org.manager.store;
+
+import org.manager.dto.CategoryDTO;
+import org.manager.dto.ProductResponseDTO;
+import org.manager.dto.StockResponseDTO;
+import org.manager.dto.SupplierDTO;
+import org.manager.dto.WarehouseResponseDTO;
+import org.manager.session.SessionManager;
+
+import java.nio.file.Path;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.function.Function;
+
+/**
+ * 🔹 Cópias locais por empresa (offline-first).
+ * Pasta base configurável por manager.store.dir (padrão ~/.manager/store); desativável com
+ * manager.store.enabled=false.
+ */
+public final class LocalStores {
+
+    // 🔹 Evita instanciar a classe
+    private LocalStores() {}
+
+    public static final boolean ENABLED =
+            Boolean.parseBoolean(System.getProperty("manager.store.enabled", "true"));
+
+    private static final Path BASE_DIR = Path.of(System.getProperty("manager.store.dir",
+            Path.of(System.getProperty("user.home"), ".manager", "store").toString()));
+
+    // Uma única thread para todo o I/O das cópias locais
+    private static final ExecutorService EXECUTOR = Executors.newSingleThreadExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "local-store");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    private static final Map<String, LocalStore<?>> STORES = new ConcurrentHashMap<>();
+
+    /** Pasta base das cópias locais (também usada pela fila de vendas) */
+    public static Path baseDir() {
+        return BASE_DIR;
+    }
+
+    public static LocalStore<ProductResponseDTO> products() {
+        return get("products", ProductResponseDTO.class, ProductResponseDTO::getId, ProductResponseDTO::getUpdatedAt);
+    }
+
+    public static LocalStore<StockResponseDTO> stock() {
+        return get("stock", StockResponseDTO.class, StockResponseDTO::getId, s -> null);
+    }
+
+    public static LocalStore<CategoryDTO> categories() {
+        return get("categories", CategoryDTO.class, CategoryDTO::getId, c -> null);
+    }
+
+    public static LocalStore<SupplierDTO> suppliers() {
+        return get("suppliers", SupplierDTO.class, SupplierDTO::getId, s -> null);
+    }
+
+    public static LocalStore<WarehouseResponseDTO> warehouses(Long companyId, boolean activeOnly) {
+        return get((activeOnly ? "warehouses-active-" : "warehouses-") + companyId, WarehouseResponseDTO.class,
+                WarehouseResponseDTO::getId, w -> null);
+    }
+
+    @SuppressWarnings("unchecked")
+    private static <T> LocalStore<T> get(String name, Class<T> type, Function<T, Long> idOf, Function<T, Object> versionOf) {
+        String scope = scope();
+        return (LocalStore<T>) STORES.computeIfAbsent(scope + "/" + name,
+                key -> new LocalStore<>(name, BASE_DIR.resolve(scope), type, idOf, versionOf, EXECUTOR));
+    }
+
+    private static String scope() {
+        Long companyId = SessionManager.getCurrentCompanyId();
+        return companyId != null ? "company-" + companyId : "default";
+    }
+}
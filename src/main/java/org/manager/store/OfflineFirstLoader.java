@@ -0,0 +1,81 @@
+package org.manager.store;
+
+import javafx.application.Platform;
+
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.function.Consumer;
+import java.util.function.Supplier;
+
+/**
+ * 🔹 Carregamento offline-first de uma tela: mostra logo a cópia local e, em paralelo, pede a lista
+ * ao servidor; quando ela chega, só as diferenças são gravadas e a tela só é atualizada se algo mudou.
+ * Todos os callbacks correm no FX thread.
+ */
+public final class OfflineFirstLoader {
+
+    // 🔹 Evita instanciar a classe
+    private OfflineFirstLoader() {}
+
+    public static <T> void load(LocalStore<T> store,
+                                Supplier<CompletableFuture<List<T>>> remote,
+                                Consumer<List<T>> onData,
+                                Consumer<Throwable> onError) {
+        if (!LocalStores.ENABLED) {
+            remote.get()
+                    .thenAccept(list -> Platform.runLater(() -> onData.accept(list)))
+                    .exceptionally(ex -> {
+                        Platform.runLater(() -> onError.accept(ex));
+                        return null;
+                    });
+            return;
+        }
+
+        State state = new State();
+
+        store.load()
+                .thenAccept(cached -> Platform.runLater(() -> {
+                    if (state.freshShown || cached.isEmpty()) return; // o servidor respondeu primeiro
+                    state.cachedShown = true;
+                    onData.accept(cached);
+                }))
+                .exceptionally(ex -> {
+                    ex.printStackTrace();
+                    return null;
+                });
+
+        remote.get()
+                .thenCompose(fresh -> store.reconcile(fresh).thenApply(delta -> new Fresh<>(fresh, delta)))
+                .thenAccept(result -> Platform.runLater(() -> {
+                    boolean alreadyCurrent = state.cachedShown && result.delta().isEmpty();
+                    state.freshShown = true;
+                    if (alreadyCurrent) return;
+                    System.out.println("Sincronização de " + store.getName() + ": " + result.delta());
+                    onData.accept(result.list());
+                }))
+                .exceptionally(ex -> {
+                    // Espera pela leitura do disco antes de decidir se é mesmo um erro para o utilizador
+                    store.load().whenComplete((cached, loadEx) -> Platform.runLater(() -> {
+                        if (state.cachedShown || (cached != null && !cached.isEmpty())) {
+                            if (!state.cachedShown) {
+                                state.cachedShown = true;
+                                onData.accept(cached);
+                            }
+                            System.out.println("Servidor indisponível, a mostrar cópia local de " + store.getName());
+                            ex.printStackTrace();
+                        } else {
+                            onError.accept(ex);
+                        }
+                    }));
+                    return null;
+                });
+    }
+
+    // Acedido apenas no FX thread
+    private static final class State {
+        boolean cachedShown;
+        boolean freshShown;
+    }
+
+    private record Fresh<T>(List<T> list, LocalStore.Delta<T> delta) {}
+}
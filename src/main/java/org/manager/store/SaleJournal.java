@@ -0,0 +1,259 @@
+package org.manager.store;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import org.manager.dto.SaleRequestDTO;
+import org.manager.http.HttpTransport;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.zip.CRC32;
+
+/**
+ * 🔹 Journal (write-ahead) das vendas ainda não enviadas ao servidor.
+ *
+ * Dois ficheiros mapeados em memória (sales-0.journal / sales-1.journal) usados alternadamente:
+ * as vendas e as confirmações são acrescentadas ao ficheiro ativo e, quando este enche, as vendas
+ * pendentes são copiadas para o outro ficheiro com uma geração superior. Assim nunca é preciso
+ * renomear nem desmapear um ficheiro aberto.
+ *
+ * Registo: [int tamanho][int crc32][byte tipo][payload]. Um tamanho 0 marca o fim; um CRC inválido
+ * (escrita interrompida) também termina a leitura.
+ *
+ * A escrita vai para a page cache (microssegundos) e sobrevive a um crash da aplicação; o
+ * {@link #flush()} periódico força os dados para o disco (protege contra quedas do sistema).
+ */
+public class SaleJournal implements Closeable {
+
+    private static final int MAGIC = 0x53414C45; // "SALE"
+    private static final int HEADER_SIZE = 16;   // magic (4) + geração (8) + reservado (4)
+    private static final int RECORD_OVERHEAD = 9;
+
+    private static final byte ENQUEUE = 1;
+    private static final byte ACK = 2;
+    private static final byte FAILED = 3;
+
+    /** Venda pendente tal como está gravada no journal */
+    public record Pending(String key, long createdAt, SaleRequestDTO request) {}
+
+    private final ObjectMapper mapper = HttpTransport.mapper();
+    private final Path failedFile;
+    private final FileChannel[] channels = new FileChannel[2];
+    private final MappedByteBuffer[] buffers = new MappedByteBuffer[2];
+    private final int capacity;
+
+    private final Map<String, Pending> pending = new LinkedHashMap<>();
+    private int active;
+    private long generation;
+    private int position;
+    private boolean dirty;
+
+    public SaleJournal(Path directory, int capacity) throws IOException {
+        this.capacity = capacity;
+        this.failedFile = directory.resolve("sales.failed.jsonl");
+        Files.createDirectories(directory);
+
+        for (int i = 0; i < 2; i++) {
+            channels[i] = FileChannel.open(directory.resolve("sales-" + i + ".journal"),
+                    StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE);
+            buffers[i] = channels[i].map(FileChannel.MapMode.READ_WRITE, 0, capacity);
+        }
+        open();
+    }
+
+    // ================= ESCRITA =================
+    public synchronized void append(Pending entry) throws IOException {
+        writeRecord(ENQUEUE, mapper.writeValueAsBytes(entry));
+        pending.put(entry.key(), entry);
+    }
+
+    public synchronized void ack(String key) {
+        if (pending.remove(key) == null) return;
+        writeQuietly(ACK, key.getBytes(StandardCharsets.UTF_8));
+    }
+
+    /** 🔹 Venda rejeitada pelo servidor: sai da fila, mas fica guardada em sales.failed.jsonl */
+    public synchronized void fail(String key, String error) {
+        Pending entry = pending.remove(key);
+        if (entry == null) return;
+        try {
+            ObjectNode line = mapper.createObjectNode().put("error", error);
+            line.set("sale", mapper.valueToTree(entry));
+            Files.writeString(failedFile, mapper.writeValueAsString(line) + System.lineSeparator(),
+                    StandardOpenOption.CREATE, StandardOpenOption.APPEND);
+        } catch (IOException e) {
+            System.out.println("Falha ao gravar venda rejeitada " + key + ": " + e.getMessage());
+        }
+        writeQuietly(FAILED, key.getBytes(StandardCharsets.UTF_8));
+    }
+
+    /** 🔹 Força para o disco o que foi escrito desde o último flush (group commit) */
+    public synchronized void flush() {
+        if (!dirty) return;
+        buffers[active].force();
+        dirty = false;
+    }
+
+    // ================= LEITURA =================
+    public synchronized Pending firstPending() {
+        return pending.isEmpty() ? null : pending.values().iterator().next();
+    }
+
+    public synchronized List<Pending> pending() {
+        return new ArrayList<>(pending.values());
+    }
+
+    public synchronized int size() {
+        return pending.size();
+    }
+
+    public synchronized int usedBytes() {
+        return position;
+    }
+
+    // ================= INTERNOS =================
+    private void open() {
+        long gen0 = readGeneration(buffers[0]);
+        long gen1 = readGeneration(buffers[1]);
+
+        if (gen0 < 0 && gen1 < 0) {
+            active = 0;
+            generation = 1;
+            position = HEADER_SIZE;
+            buffers[0].putInt(HEADER_SIZE, 0);
+            writeHeader(buffers[0], generation);
+            buffers[0].force();
+            return;
+        }
+
+        active = gen1 > gen0 ? 1 : 0;
+        generation = Math.max(gen0, gen1);
+        position = replay(buffers[active]);
+    }
+
+    private long readGeneration(MappedByteBuffer buffer) {
+        return buffer.getInt(0) == MAGIC ? buffer.getLong(4) : -1;
+    }
+
+    private void writeHeader(MappedByteBuffer buffer, long gen) {
+        buffer.putLong(4, gen);
+        buffer.putInt(0, MAGIC);
+    }
+
+    private int replay(MappedByteBuffer buffer) {
+        int pos = HEADER_SIZE;
+        while (pos + RECORD_OVERHEAD <= capacity) {
+            int length = buffer.getInt(pos);
+            if (length <= 0 || pos + RECORD_OVERHEAD + length > capacity) break;
+
+            int crc = buffer.getInt(pos + 4);
+            byte type = buffer.get(pos + 8);
+            byte[] payload = new byte[length];
+            buffer.get(pos + RECORD_OVERHEAD, payload);
+            if (crc != crc(type, payload)) break; // escrita interrompida
+
+            apply(type, payload);
+            pos += RECORD_OVERHEAD + length;
+        }
+        return pos;
+    }
+
+    private void apply(byte type, byte[] payload) {
+        try {
+            if (type == ENQUEUE) {
+                Pending entry = mapper.readValue(payload, Pending.class);
+                pending.put(entry.key(), entry);
+            } else if (type == ACK || type == FAILED) {
+                pending.remove(new String(payload, StandardCharsets.UTF_8));
+            }
+        } catch (IOException e) {
+            System.out.println("Registo do journal de vendas ignorado: " + e.getMessage());
+        }
+    }
+
+    private void writeQuietly(byte type, byte[] payload) {
+        try {
+            writeRecord(type, payload);
+        } catch (IOException e) {
+            // Sem espaço para a confirmação: no pior caso a venda é reenviada (a chave evita duplicados)
+            System.out.println("Falha ao gravar no journal de vendas: " + e.getMessage());
+        }
+    }
+
+    private void writeRecord(byte type, byte[] payload) throws IOException {
+        if (!fits(payload.length)) {
+            compact();
+            if (!fits(payload.length)) {
+                throw new IOException("Journal de vendas cheio (" + capacity + " bytes)");
+            }
+        }
+        position = put(buffers[active], position, type, payload);
+        dirty = true;
+    }
+
+    private boolean fits(int payloadLength) {
+        // + 4 bytes para o marcador de fim
+        return (long) position + RECORD_OVERHEAD + payloadLength + 4 <= capacity;
+    }
+
+    private int put(MappedByteBuffer buffer, int pos, byte type, byte[] payload) {
+        int next = pos + RECORD_OVERHEAD + payload.length;
+        buffer.putInt(next, 0); // marcador de fim antes do registo: nunca se lê lixo de uma geração antiga
+        buffer.put(pos + 8, type);
+        buffer.put(pos + RECORD_OVERHEAD, payload);
+        buffer.putInt(pos + 4, crc(type, payload));
+        buffer.putInt(pos, payload.length); // o tamanho por último "publica" o registo
+        return next;
+    }
+
+    /** Copia só as vendas pendentes para o outro ficheiro e passa a usá-lo */
+    private void compact() throws IOException {
+        int target = 1 - active;
+        MappedByteBuffer buffer = buffers[target];
+
+        int pos = HEADER_SIZE;
+        buffer.putInt(pos, 0);
+        for (Pending entry : pending.values()) {
+            byte[] payload = mapper.writeValueAsBytes(entry);
+            if ((long) pos + RECORD_OVERHEAD + payload.length + 4 > capacity) {
+                throw new IOException("Journal de vendas cheio: " + pending.size() + " vendas pendentes");
+            }
+            pos = put(buffer, pos, ENQUEUE, payload);
+        }
+        buffer.force();
+
+        writeHeader(buffer, generation + 1);
+        buffer.force();
+
+        buffers[active].force();
+        active = target;
+        generation++;
+        position = pos;
+        dirty = false;
+    }
+
+    private static int crc(byte type, byte[] payload) {
+        CRC32 crc = new CRC32();
+        crc.update(type);
+        crc.update(payload);
+        return (int) crc.getValue();
+    }
+
+    @Override
+    public synchronized void close() throws IOException {
+        flush();
+        for (FileChannel channel : channels) {
+            if (channel != null) channel.close();
+        }
+    }
+}
@@ -0,0 +1,252 @@
+package org.manager.store;
+
+import org.manager.dto.SaleRequestDTO;
+import org.manager.dto.SaleResponseDTO;
+import org.manager.http.HttpTransport;
+import org.manager.service.DashboardStatsService;
+import org.manager.service.SaleService;
+import org.manager.session.SessionManager;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.net.http.HttpResponse;
+import java.nio.file.Path;
+import java.util.Map;
+import java.util.Objects;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 🔹 Fila local (outbox) de vendas.
+ *
+ * A venda é gravada no {@link SaleJournal} com uma chave de idempotência gerada no cliente e
+ * confirmada de imediato ao caixa; uma thread em segundo plano envia as vendas por ordem,
+ * com novas tentativas e backoff exponencial enquanto o servidor estiver indisponível.
+ * Vendas que ficaram pendentes (ex.: a aplicação fechou) são reenviadas no arranque seguinte.
+ *
+ * Há uma fila por conta (empresa + utilizador), cada uma no seu diretório: as vendas só são
+ * enviadas com o token da conta que as registou, quando essa conta voltar a entrar.
+ * Falhas de rede, 5xx, 408 e 429 são repetidas sem limite de tentativas (o intervalo cresce até
+ * manager.outbox.maxBackoff), por isso uma falha longa do servidor não perde vendas. Só uma venda
+ * que o servidor rejeita de forma definitiva (4xx) sai da fila para sales.failed.jsonl, para não
+ * bloquear as seguintes. Com o token recusado (401) a fila para até ao próximo login.
+ *
+ * Configuração:
+ *  - manager.outbox.journalSize  bytes por ficheiro de journal (padrão 8 MB)
+ *  - manager.outbox.fsyncMillis  intervalo do group commit para disco (padrão 5 ms)
+ *  - manager.outbox.maxBackoff   segundos máximos entre tentativas (padrão 60)
+ */
+public final class SaleOutbox {
+
+    private static final int JOURNAL_SIZE = Integer.getInteger("manager.outbox.journalSize", 8 * 1024 * 1024);
+    private static final long FSYNC_MILLIS = Long.getLong("manager.outbox.fsyncMillis", 5);
+    private static final long MIN_BACKOFF_MILLIS = 1_000;
+    private static final long MAX_BACKOFF_MILLIS = Long.getLong("manager.outbox.maxBackoff", 60) * 1_000;
+
+    // Uma fila por conta (empresa + utilizador)
+    private static final Map<String, SaleOutbox> OUTBOXES = new ConcurrentHashMap<>();
+
+    /** Vendas aceites localmente: {@code delivered} completa quando o servidor as confirmar */
+    public record Ticket(String idempotencyKey, CompletableFuture<SaleResponseDTO> delivered) {}
+
+    private final Long companyId;
+    private final Long userId;
+    private final SaleJournal journal;
+    private final SaleService saleService = new SaleService();
+    private final Map<String, CompletableFuture<SaleResponseDTO>> tickets = new ConcurrentHashMap<>();
+    private final ScheduledExecutorService executor = Executors.newSingleThreadScheduledExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "sale-outbox");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    // Acedidos apenas na thread da outbox
+    private boolean sending;
+    private boolean retryScheduled;
+    private long backoffMillis = MIN_BACKOFF_MILLIS;
+    private long sent;
+    private long retries;
+    private String rejectedToken;   // token recusado (401): só um novo login retoma o envio
+
+    private SaleOutbox(Long companyId, Long userId, SaleJournal journal) {
+        this.companyId = companyId;
+        this.userId = userId;
+        this.journal = journal;
+        executor.scheduleWithFixedDelay(journal::flush, FSYNC_MILLIS, FSYNC_MILLIS, TimeUnit.MILLISECONDS);
+        Runtime.getRuntime().addShutdownHook(new Thread(journal::flush, "sale-outbox-flush"));
+    }
+
+    /**
+     * 🔹 Fila da conta com sessão iniciada: abre o journal (na primeira chamada) e começa a enviar
+     * o que estiver pendente.
+     */
+    public static SaleOutbox get() {
+        Long companyId = SessionManager.getCurrentCompanyId();
+        Long userId = SessionManager.getCurrentUserId();
+        if (companyId == null || userId == null) {
+            throw new IllegalStateException("Fila de vendas sem sessão iniciada");
+        }
+
+        SaleOutbox outbox = OUTBOXES.computeIfAbsent(companyId + "/" + userId, key -> {
+            Path directory = LocalStores.baseDir().resolve("outbox")
+                    .resolve("company-" + companyId).resolve("user-" + userId);
+            try {
+                return new SaleOutbox(companyId, userId, new SaleJournal(directory, JOURNAL_SIZE));
+            } catch (IOException e) {
+                throw new UncheckedIOException("Não foi possível abrir a fila de vendas", e);
+            }
+        });
+        outbox.wakeUp(); // novo login desta conta: retoma o envio
+        return outbox;
+    }
+
+    // ================= API =================
+    /**
+     * 🔹 Grava a venda localmente e devolve logo; o envio acontece em segundo plano.
+     * @throws IOException se a venda não puder ser gravada (ex.: disco cheio)
+     */
+    public Ticket submit(SaleRequestDTO request) throws IOException {
+        String key = UUID.randomUUID().toString();
+        CompletableFuture<SaleResponseDTO> delivered = new CompletableFuture<>();
+        tickets.put(key, delivered);
+        try {
+            journal.append(new SaleJournal.Pending(key, System.currentTimeMillis(), request));
+        } catch (IOException e) {
+            tickets.remove(key);
+            throw e;
+        }
+        wakeUp();
+        return new Ticket(key, delivered);
+    }
+
+    public int pendingCount() {
+        return journal.size();
+    }
+
+    public String summary() {
+        return "Fila de vendas: pendentes=" + journal.size() + " journal=" + journal.usedBytes() + "B";
+    }
+
+    // ================= ENVIO =================
+    private void wakeUp() {
+        executor.execute(this::drain);
+    }
+
+    private void drain() {
+        if (sending || retryScheduled) return;
+
+        SaleJournal.Pending next = journal.firstPending();
+        if (next == null) return;
+
+        // Outra conta (ou nenhuma) com sessão: espera que esta conta volte a entrar
+        if (!isSessionAccount()) return;
+        String token = SessionManager.getToken();
+        if (token == null || token.equals(rejectedToken)) return;
+
+        sending = true;
+        SaleRequestDTO request = next.request();
+        saleService.postSale(request, token, request.getUserId(), next.key())
+                .whenCompleteAsync((response, ex) -> {
+                    sending = false;
+                    handleResult(next, token, response, ex);
+                }, executor);
+    }
+
+    private void handleResult(SaleJournal.Pending entry, String token, HttpResponse<String> response, Throwable ex) {
+        int status = response != null ? response.statusCode() : -1;
+
+        boolean replayed = status == 409 && confirmsKey(response, entry.key());
+        if (ex == null && (status == 200 || status == 201 || replayed)) {
+            // 409 com a mesma chave: o servidor já tinha esta venda (reenvio de uma venda já gravada)
+            journal.ack(entry.key());
+            sent++;
+            backoffMillis = MIN_BACKOFF_MILLIS;
+            DashboardStatsService.invalidate();
+            complete(entry.key(), replayed ? null : parse(response.body()));
+            drain();
+            return;
+        }
+
+        if (ex == null && status == 401) {
+            // Token expirado ou revogado: repetir com o mesmo token não resolve
+            rejectedToken = token;
+            System.out.println("Envio de vendas suspenso até ao próximo login (token recusado)");
+            return;
+        }
+
+        if (ex == null && status >= 400 && status < 500 && status != 408 && status != 429) {
+            // Rejeição definitiva (incluindo 409 de stock ou de regra de negócio): repetir não resolve
+            reject(entry, "Código " + status + " - " + response.body());
+            return;
+        }
+
+        // Rede, 5xx, 408 ou 429: o servidor pode ainda não ter a venda, por isso fica na fila
+        String reason = ex != null ? ex.getMessage() : "código " + status;
+        retries++;
+        System.out.println("Envio da venda " + entry.key() + " falhou (" + reason + "), nova tentativa em " + backoffMillis + " ms");
+        scheduleRetry();
+    }
+
+    /** Tira a venda da fila (fica em sales.failed.jsonl) e continua com as seguintes */
+    private void reject(SaleJournal.Pending entry, String error) {
+        journal.fail(entry.key(), error);
+        backoffMillis = MIN_BACKOFF_MILLIS;
+        CompletableFuture<SaleResponseDTO> ticket = tickets.remove(entry.key());
+        if (ticket != null) ticket.completeExceptionally(new RuntimeException("Venda rejeitada pelo servidor. " + error));
+        drain();
+    }
+
+    /** O 409 só é um reenvio se o servidor indicar a mesma chave (cabeçalho ou campo idempotencyKey) */
+    private static boolean confirmsKey(HttpResponse<String> response, String key) {
+        if (response.headers().firstValue("Idempotency-Key").filter(key::equals).isPresent()) return true;
+        String body = response.body();
+        if (body == null || body.isBlank()) return false;
+        try {
+            return key.equals(HttpTransport.mapper().readTree(body).path("idempotencyKey").asText(null));
+        } catch (IOException e) {
+            return false;
+        }
+    }
+
+    private boolean isSessionAccount() {
+        return Objects.equals(companyId, SessionManager.getCurrentCompanyId())
+                && Objects.equals(userId, SessionManager.getCurrentUserId());
+    }
+
+    private void scheduleRetry() {
+        retryScheduled = true;
+        long jitter = ThreadLocalRandom.current().nextLong(backoffMillis / 4 + 1);
+        executor.schedule(() -> {
+            retryScheduled = false;
+            drain();
+        }, backoffMillis + jitter, TimeUnit.MILLISECONDS);
+        backoffMillis = Math.min(MAX_BACKOFF_MILLIS, backoffMillis * 2);
+    }
+
+    private SaleResponseDTO parse(String body) {
+        try {
+            return body == null || body.isBlank() ? null : saleService.readSale(body);
+        } catch (IOException e) {
+            System.out.println("Resposta da venda ilegível: " + e.getMessage());
+            return null;
+        }
+    }
+
+    private void complete(String key, SaleResponseDTO sale) {
+        CompletableFuture<SaleResponseDTO> ticket = tickets.remove(key);
+        if (ticket != null) ticket.complete(sale);
+    }
+
+    public long getSent() {
+        return sent;
+    }
+
+    public long getRetries() {
+        return retries;
+    }
+}
@@ -0,0 +1,374 @@
+package org.manager.sync;
+
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import javafx.application.Platform;
+import javafx.beans.value.ChangeListener;
+import javafx.scene.Node;
+import javafx.scene.Scene;
+import org.manager.http.HttpTransport;
+import org.manager.session.SessionManager;
+
+import java.net.URI;
+import java.net.http.WebSocket;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletionStage;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.Executor;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Consumer;
+import java.util.function.Function;
+
+/**
+ * 🔹 Notificações de alterações enviadas pelo servidor (WebSocket).
+ *
+ * Uma única ligação por sessão recebe eventos JSON do tipo
+ * {"entity":"STOCK","op":"UPSERT","id":12,"data":{...}} (ou uma lista deles) e distribui-os
+ * pelas telas subscritas como {@link DeltaSync.Changes}. Os eventos que chegam até ao próximo
+ * pulso do FX thread são juntados num único patch por tela.
+ *
+ * Se a ligação cair, volta a ligar com backoff exponencial; depois de religar, as telas recebem
+ * um aviso (onResync) para irem buscar o que possa ter mudado entretanto. Quando a última
+ * subscrição é cancelada a ligação é fechada, e volta a abrir na próxima subscrição.
+ *
+ * Configuração:
+ *  - manager.changes.enabled   (padrão true)
+ *  - manager.changes.url       (padrão ws://localhost:8080/ws/changes)
+ */
+public final class ChangeFeedClient {
+
+    private static final boolean ENABLED =
+            Boolean.parseBoolean(System.getProperty("manager.changes.enabled", "true"));
+    private static final String URL = System.getProperty("manager.changes.url", "ws://localhost:8080/ws/changes");
+    private static final Duration CONNECT_TIMEOUT = Duration.ofSeconds(10);
+    private static final long MIN_RECONNECT_MILLIS = 1_000;
+    private static final long MAX_RECONNECT_MILLIS = 60_000;
+
+    private static final ChangeFeedClient INSTANCE = new ChangeFeedClient(URL, Platform::runLater);
+
+    public static ChangeFeedClient get() {
+        return INSTANCE;
+    }
+
+    /** Evento tal como chega do servidor */
+    public record ChangeEvent(String entity, String op, Long id, JsonNode data) {
+        boolean isDelete() {
+            return "DELETE".equalsIgnoreCase(op);
+        }
+    }
+
+    // Os eventos e os dados que trazem podem ter campos que o cliente não modela
+    private final ObjectMapper mapper = HttpTransport.lenientMapper();
+    private final String url;
+    private final Executor fxThread;
+    private final Map<String, Set<Subscription<?>>> subscriptions = new ConcurrentHashMap<>();
+    private final ScheduledExecutorService reconnector = Executors.newSingleThreadScheduledExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "change-feed");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    // Estado da ligação (protegido pelo monitor do cliente)
+    private WebSocket webSocket;
+    private String connectedToken;
+    private boolean connecting;
+    private boolean connectedBefore;
+    private int generation;
+    private long reconnectMillis = MIN_RECONNECT_MILLIS;
+
+    private final LongAdder events = new LongAdder();
+    private final LongAdder reconnects = new LongAdder();
+
+    // Package-private para os testes (servidor local e entrega síncrona em vez do FX thread)
+    ChangeFeedClient(String url, Executor fxThread) {
+        this.url = url;
+        this.fxThread = fxThread;
+    }
+
+    // ================= SUBSCRIÇÕES =================
+    /**
+     * 🔹 Recebe as alterações de uma entidade enquanto {@code owner} estiver na cena.
+     * A subscrição é cancelada sozinha quando a vista sai da cena. Chamar no FX thread.
+     *
+     * @param onChanges chamado no FX thread com as linhas alteradas/removidas
+     */
+    public <T> Subscription<T> subscribe(String entity, Class<T> type, Function<T, Long> idOf, Node owner,
+                                         Consumer<DeltaSync.Changes<T>> onChanges) {
+        Subscription<T> subscription = subscribe(entity, type, idOf, onChanges);
+        subscription.bindTo(owner);
+        return subscription;
+    }
+
+    /** Subscrição sem dono: quem a cria tem de a cancelar */
+    <T> Subscription<T> subscribe(String entity, Class<T> type, Function<T, Long> idOf,
+                                  Consumer<DeltaSync.Changes<T>> onChanges) {
+        Subscription<T> subscription = new Subscription<>(entity.toUpperCase(), type, idOf, onChanges);
+        subscriptions.computeIfAbsent(subscription.entity, key -> ConcurrentHashMap.newKeySet()).add(subscription);
+        ensureConnected();
+        return subscription;
+    }
+
+    public synchronized boolean isConnected() {
+        return webSocket != null;
+    }
+
+    public String summary() {
+        int active = subscriptions.values().stream().mapToInt(Set::size).sum();
+        return "Notificações do servidor: " + (isConnected() ? "ligado" : "desligado")
+                + " eventos=" + events.sum() + " religações=" + reconnects.sum() + " subscrições=" + active;
+    }
+
+    // ================= LIGAÇÃO =================
+    private synchronized void ensureConnected() {
+        if (!ENABLED) return;
+        String token = SessionManager.getToken();
+        if (token == null) return;
+        if (token.equals(connectedToken) && (webSocket != null || connecting)) return;
+
+        if (!token.equals(connectedToken)) {
+            // Novo login: a ligação anterior pertence a outra sessão
+            if (webSocket != null) webSocket.abort();
+            webSocket = null;
+            connectedToken = token;
+            connectedBefore = false;
+            reconnectMillis = MIN_RECONNECT_MILLIS;
+        }
+        connect();
+    }
+
+    private synchronized void connect() {
+        int attempt = ++generation;
+        connecting = true;
+        Long companyId = SessionManager.getCurrentCompanyId();
+        URI uri = URI.create(url + (companyId != null ? "?companyId=" + companyId : ""));
+
+        HttpTransport.client().newWebSocketBuilder()
+                .header("Authorization", "Bearer " + connectedToken)
+                .connectTimeout(CONNECT_TIMEOUT)
+                .buildAsync(uri, new FeedListener(attempt))
+                .whenComplete((ws, ex) -> onConnected(attempt, ws, ex));
+    }
+
+    private synchronized void onConnected(int attempt, WebSocket ws, Throwable ex) {
+        if (attempt != generation) {
+            if (ws != null) ws.abort(); // ligação de uma sessão anterior
+            return;
+        }
+        connecting = false;
+        if (ex != null) {
+            scheduleReconnect("falha ao ligar: " + ex.getMessage());
+            return;
+        }
+
+        webSocket = ws;
+        reconnectMillis = MIN_RECONNECT_MILLIS;
+        System.out.println("Notificações do servidor ligadas (" + url + ")");
+        if (connectedBefore) {
+            reconnects.increment();
+            resyncAll();
+        }
+        connectedBefore = true;
+    }
+
+    private synchronized void onDisconnected(int attempt, String reason) {
+        if (attempt != generation) return;
+        webSocket = null;
+        scheduleReconnect(reason);
+    }
+
+    /** 🔹 Sem telas subscritas não há a quem entregar eventos: fecha a ligação e cancela as religações */
+    private synchronized void closeIfIdle() {
+        for (Set<Subscription<?>> set : subscriptions.values()) {
+            if (!set.isEmpty()) return;
+        }
+        generation++; // ligações em curso e religações agendadas deixam de contar
+        connecting = false;
+        connectedBefore = false;
+        reconnectMillis = MIN_RECONNECT_MILLIS;
+        if (webSocket != null) {
+            WebSocket closing = webSocket;
+            closing.sendClose(WebSocket.NORMAL_CLOSURE, "sem subscrições")
+                    .whenComplete((ws, ex) -> closing.abort());
+            webSocket = null;
+        }
+    }
+
+    private void scheduleReconnect(String reason) {
+        long delay = reconnectMillis + ThreadLocalRandom.current().nextLong(reconnectMillis / 4 + 1);
+        System.out.println("Notificações do servidor indisponíveis (" + reason + "), nova tentativa em " + delay + " ms");
+        reconnectMillis = Math.min(MAX_RECONNECT_MILLIS, reconnectMillis * 2);
+        int attempt = generation;
+        reconnector.schedule(() -> {
+            synchronized (this) {
+                if (attempt == generation && webSocket == null && !connecting) connect();
+            }
+        }, delay, TimeUnit.MILLISECONDS);
+    }
+
+    /** Depois de religar, cada tela decide como recuperar o que perdeu */
+    private void resyncAll() {
+        for (Set<Subscription<?>> set : subscriptions.values()) {
+            for (Subscription<?> subscription : set) {
+                Runnable onResync = subscription.onResync;
+                if (onResync != null) fxThread.execute(onResync);
+            }
+        }
+    }
+
+    // ================= EVENTOS =================
+    private void dispatch(String text) {
+        List<ChangeEvent> batch;
+        try {
+            batch = text.stripLeading().startsWith("[")
+                    ? mapper.readValue(text, new TypeReference<List<ChangeEvent>>() {})
+                    : List.of(mapper.readValue(text, ChangeEvent.class));
+        } catch (Exception e) {
+            System.out.println("Evento de alteração ignorado: " + e.getMessage());
+            return;
+        }
+
+        for (ChangeEvent event : batch) {
+            if (event.entity() == null) continue;
+            events.increment();
+            Set<Subscription<?>> set = subscriptions.get(event.entity().toUpperCase());
+            if (set == null) continue;
+            for (Subscription<?> subscription : set) {
+                subscription.offer(event);
+            }
+        }
+    }
+
+    private final class FeedListener implements WebSocket.Listener {
+
+        private final int attempt;
+        private final StringBuilder partial = new StringBuilder();
+
+        FeedListener(int attempt) {
+            this.attempt = attempt;
+        }
+
+        @Override
+        public void onOpen(WebSocket webSocket) {
+            webSocket.request(1);
+        }
+
+        @Override
+        public CompletionStage<?> onText(WebSocket webSocket, CharSequence data, boolean last) {
+            partial.append(data);
+            if (last) {
+                String text = partial.toString();
+                partial.setLength(0);
+                dispatch(text);
+            }
+            webSocket.request(1);
+            return null;
+        }
+
+        @Override
+        public CompletionStage<?> onClose(WebSocket webSocket, int statusCode, String reason) {
+            onDisconnected(attempt, "fechada pelo servidor: " + statusCode);
+            return null;
+        }
+
+        @Override
+        public void onError(WebSocket webSocket, Throwable error) {
+            onDisconnected(attempt, error.getMessage());
+        }
+    }
+
+    // ================= SUBSCRIÇÃO =================
+    public final class Subscription<T> {
+
+        private final String entity;
+        private final Class<T> type;
+        private final Function<T, Long> idOf;
+        private final Consumer<DeltaSync.Changes<T>> onChanges;
+        private final ConcurrentLinkedQueue<Patch<T>> queue = new ConcurrentLinkedQueue<>();
+        private final AtomicBoolean drainScheduled = new AtomicBoolean();
+        private volatile Runnable onResync;
+        private volatile boolean cancelled;
+
+        private Node owner;
+        private final ChangeListener<Scene> sceneListener = (obs, oldScene, newScene) -> {
+            if (oldScene != null && newScene == null) cancel();
+        };
+
+        private Subscription(String entity, Class<T> type, Function<T, Long> idOf, Consumer<DeltaSync.Changes<T>> onChanges) {
+            this.entity = entity;
+            this.type = type;
+            this.idOf = idOf;
+            this.onChanges = onChanges;
+        }
+
+        /** Chamado no FX thread depois de uma religação (eventos podem ter-se perdido) */
+        public Subscription<T> onResync(Runnable onResync) {
+            this.onResync = onResync;
+            return this;
+        }
+
+        public void cancel() {
+            if (cancelled) return;
+            cancelled = true;
+            Set<Subscription<?>> set = subscriptions.get(entity);
+            if (set != null) set.remove(this);
+            if (owner != null) owner.sceneProperty().removeListener(sceneListener);
+            closeIfIdle();
+        }
+
+        private void bindTo(Node node) {
+            owner = node;
+            owner.sceneProperty().addListener(sceneListener);
+        }
+
+        private void offer(ChangeEvent event) {
+            if (cancelled) return;
+            try {
+                if (event.isDelete()) {
+                    if (event.id() != null) queue.add(new Patch<>(event.id(), null));
+                } else if (event.data() != null && !event.data().isNull()) {
+                    T value = mapper.treeToValue(event.data(), type);
+                    Long id = event.id() != null ? event.id() : idOf.apply(value);
+                    if (id != null) queue.add(new Patch<>(id, value));
+                }
+            } catch (Exception e) {
+                System.out.println("Evento de " + entity + " ignorado: " + e.getMessage());
+                return;
+            }
+            if (drainScheduled.compareAndSet(false, true)) fxThread.execute(this::drain);
+        }
+
+        /** Junta tudo o que chegou desde o último pulso num único patch (o último evento de cada id ganha) */
+        private void drain() {
+            drainScheduled.set(false);
+            Map<Long, T> upserts = new LinkedHashMap<>();
+            Set<Long> removed = new LinkedHashSet<>();
+            Patch<T> patch;
+            while ((patch = queue.poll()) != null) {
+                if (patch.value() == null) {
+                    upserts.remove(patch.id());
+                    removed.add(patch.id());
+                } else {
+                    removed.remove(patch.id());
+                    upserts.put(patch.id(), patch.value());
+                }
+            }
+            if (cancelled || (upserts.isEmpty() && removed.isEmpty())) return;
+            onChanges.accept(new DeltaSync.Changes<>(new ArrayList<>(upserts.values()), new ArrayList<>(removed)));
+        }
+    }
+
+    private record Patch<T>(Long id, T value) {}
+}
@@ -0,0 +1,312 @@
+package org.manager.sync;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.manager.http.HttpTransport;
+import org.manager.model.ChangeSet;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.function.Function;
+import java.util.function.Predicate;
+
+/**
+ * 🔹 Sincronização incremental de uma lista do servidor.
+ *
+ * Guarda as linhas já recebidas e a {@link Watermark} (maior id / updatedAt). Cada {@link #poll(String)}
+ * pede ao servidor só o que mudou desde a marca; o resultado é um {@link Changes} que a tela aplica
+ * numa lista que mantém o índice por id ({@link IdIndexedObservableList#apply}, ou o store de
+ * movimentos), por isso o custo de uma atualização ou de uma página depende do número de alterações
+ * e não do tamanho da tabela.
+ *
+ * Se o servidor não tiver o endpoint incremental (o fetcher devolve null), a lista completa é pedida
+ * e comparada localmente: o download continua completo, mas a tabela só recebe as diferenças.
+ *
+ * Quando a tela já guarda as linhas noutro sítio (ex.: o store de movimentos), {@link #versionsOnly}
+ * guarda só id → updatedAt, para não haver uma segunda cópia de cada DTO em memória.
+ */
+public class DeltaSync<T> {
+
+    @FunctionalInterface
+    public interface ChangeFetcher<T> {
+        /** Deve devolver null quando o servidor não suporta pedidos incrementais */
+        CompletableFuture<ChangeSet<T>> fetch(Watermark since, String token);
+    }
+
+    private final String name;
+    private final Function<T, Long> idOf;
+    private final Function<T, LocalDateTime> updatedAtOf;
+    private final ChangeFetcher<T> changeFetcher;
+    private final Function<String, CompletableFuture<List<T>>> fullFetcher;
+
+    // Linhas inteiras (keepRows) ou só a versão de cada id
+    private final boolean keepRows;
+    private final Map<Long, T> rows = new LinkedHashMap<>();
+    private final Map<Long, LocalDateTime> versions = new HashMap<>();
+    private Watermark watermark = Watermark.EMPTY;
+    private boolean deltaUnsupported;
+    private CompletableFuture<Changes<T>> inFlight;
+
+    // Progresso da paginação (para retomar numa nova visita à tela)
+    private int nextPage;
+    private boolean complete;
+
+    public DeltaSync(String name, Function<T, Long> idOf, Function<T, LocalDateTime> updatedAtOf,
+                     ChangeFetcher<T> changeFetcher, Function<String, CompletableFuture<List<T>>> fullFetcher) {
+        this(name, idOf, updatedAtOf, changeFetcher, fullFetcher, true);
+    }
+
+    /**
+     * 🔹 Sincronização que guarda só id → updatedAt: a tela é dona das linhas e aplica os
+     * {@link Changes} diretamente. Sem {@link #snapshot()}; linhas sem updatedAt contam sempre como alteradas.
+     */
+    public static <T> DeltaSync<T> versionsOnly(String name, Function<T, Long> idOf, Function<T, LocalDateTime> updatedAtOf,
+                                                ChangeFetcher<T> changeFetcher,
+                                                Function<String, CompletableFuture<List<T>>> fullFetcher) {
+        return new DeltaSync<>(name, idOf, updatedAtOf, changeFetcher, fullFetcher, false);
+    }
+
+    private DeltaSync(String name, Function<T, Long> idOf, Function<T, LocalDateTime> updatedAtOf,
+                      ChangeFetcher<T> changeFetcher, Function<String, CompletableFuture<List<T>>> fullFetcher,
+                      boolean keepRows) {
+        this.keepRows = keepRows;
+        this.name = name;
+        this.idOf = idOf;
+        this.updatedAtOf = updatedAtOf;
+        this.changeFetcher = changeFetcher;
+        this.fullFetcher = fullFetcher;
+    }
+
+    // ================= ESTADO =================
+    /** Linhas guardadas, pela ordem de chegada (vazio numa sincronização {@link #versionsOnly}) */
+    public synchronized List<T> snapshot() {
+        return new ArrayList<>(rows.values());
+    }
+
+    public synchronized boolean isEmpty() {
+        return keepRows ? rows.isEmpty() : versions.isEmpty();
+    }
+
+    public synchronized Watermark getWatermark() {
+        return watermark;
+    }
+
+    public synchronized boolean isDeltaUnsupported() {
+        return deltaUnsupported;
+    }
+
+    /** true quando todas as linhas já foram recebidas (lista completa ou última página) */
+    public synchronized boolean isComplete() {
+        return complete;
+    }
+
+    public synchronized int getNextPage() {
+        return nextPage;
+    }
+
+    public synchronized void recordPage(int nextPage, boolean last) {
+        this.nextPage = nextPage;
+        this.complete = last;
+    }
+
+    /** 🔹 Esquece tudo (a próxima sincronização volta a ser completa) */
+    public synchronized void clear() {
+        rows.clear();
+        versions.clear();
+        watermark = Watermark.EMPTY;
+        nextPage = 0;
+        complete = false;
+    }
+
+    // ================= ALTERAÇÕES LOCAIS =================
+    /** 🔹 Junta linhas recebidas por outra via (ex.: uma página) e devolve só as novas ou alteradas */
+    public synchronized Changes<T> absorb(List<T> items) {
+        List<T> upserts = new ArrayList<>();
+        for (T item : items) {
+            Long id = idOf.apply(item);
+            if (id != null && remember(id, item)) upserts.add(item);
+        }
+        watermark = watermark.advance(items, idOf, updatedAtOf);
+        return new Changes<>(upserts, List.of());
+    }
+
+    public synchronized Changes<T> remove(Long id) {
+        return forget(id) ? new Changes<>(List.of(), List.of(id)) : Changes.empty();
+    }
+
+    /**
+     * 🔹 Aplica alterações recebidas por push. A marca não avança: se algum evento se perdeu,
+     * a linha ainda vem no próximo {@link #poll(String)}.
+     */
+    public synchronized void patch(Changes<T> pushed) {
+        for (T item : pushed.upserts()) {
+            Long id = idOf.apply(item);
+            if (id != null) remember(id, item);
+        }
+        for (Long id : pushed.removedIds()) {
+            forget(id);
+        }
+    }
+
+    /** Guarda a linha (ou só a versão) e devolve true se é nova ou mudou */
+    private boolean remember(Long id, T item) {
+        if (keepRows) {
+            T current = rows.put(id, item);
+            return current == null || changed(current, item);
+        }
+        boolean known = versions.containsKey(id);
+        LocalDateTime fresh = updatedAtOf.apply(item);
+        LocalDateTime current = versions.put(id, fresh);
+        // Sem updatedAt não há com que comparar: a tela atualiza a linha no lugar
+        return !known || current == null || !current.equals(fresh);
+    }
+
+    private boolean forget(Long id) {
+        if (keepRows) return rows.remove(id) != null;
+        if (!versions.containsKey(id)) return false;
+        versions.remove(id);
+        return true;
+    }
+
+    // ================= SERVIDOR =================
+    /**
+     * 🔹 Pede ao servidor o que mudou desde a última marca.
+     * Chamadas simultâneas partilham o mesmo pedido.
+     */
+    public CompletableFuture<Changes<T>> poll(String token) {
+        CompletableFuture<Changes<T>> created;
+        Watermark since;
+        boolean full;
+        synchronized (this) {
+            if (inFlight != null) return inFlight.copy();
+            since = watermark;
+            full = since.isEmpty() || (deltaUnsupported && complete);
+            if (deltaUnsupported && !complete) {
+                // Sem endpoint incremental e lista parcial: só a paginação traz linhas novas
+                return CompletableFuture.completedFuture(Changes.empty());
+            }
+            created = new CompletableFuture<>();
+            inFlight = created;
+        }
+
+        CompletableFuture<Changes<T>> request = full
+                ? fullFetcher.apply(token).thenApply(this::replaceAll)
+                : changeFetcher.fetch(since, token).thenCompose(set -> {
+                    if (set != null) return CompletableFuture.completedFuture(apply(set));
+                    markDeltaUnsupported();
+                    return isComplete()
+                            ? fullFetcher.apply(token).thenApply(this::replaceAll)
+                            : CompletableFuture.completedFuture(Changes.<T>empty());
+                });
+
+        request.whenComplete((changes, ex) -> {
+            synchronized (this) {
+                inFlight = null;
+            }
+            if (ex != null) {
+                created.completeExceptionally(ex);
+            } else {
+                if (!changes.isEmpty()) System.out.println("Sincronização de " + name + ": " + changes + " (marca " + getWatermark() + ")");
+                created.complete(changes);
+            }
+        });
+        return created.copy();
+    }
+
+    private synchronized void markDeltaUnsupported() {
+        if (!deltaUnsupported) System.out.println("Servidor sem sincronização incremental para " + name + ", a comparar a lista completa");
+        deltaUnsupported = true;
+    }
+
+    private synchronized Changes<T> apply(ChangeSet<T> set) {
+        List<T> items = set.getItems() != null ? set.getItems() : List.of();
+        List<Long> deleted = set.getDeletedIds() != null ? set.getDeletedIds() : List.of();
+
+        for (T item : items) {
+            Long id = idOf.apply(item);
+            if (id != null) remember(id, item);
+        }
+        List<Long> removed = new ArrayList<>();
+        for (Long id : deleted) {
+            if (forget(id)) removed.add(id);
+        }
+        watermark = watermark.advance(items, idOf, updatedAtOf);
+        return new Changes<>(items, removed);
+    }
+
+    /** Lista completa: compara com o que já existe e devolve só as diferenças */
+    private synchronized Changes<T> replaceAll(List<T> fresh) {
+        List<T> upserts = new ArrayList<>();
+        Set<Long> remaining = new LinkedHashSet<>(keepRows ? rows.keySet() : versions.keySet());
+        Map<Long, T> ordered = new LinkedHashMap<>();
+
+        for (T item : fresh) {
+            Long id = idOf.apply(item);
+            if (id == null) continue;
+            remaining.remove(id);
+            if (remember(id, item)) upserts.add(item);
+            if (keepRows) ordered.put(id, item);
+        }
+        remaining.forEach(this::forget);
+        if (keepRows) {
+            // As linhas guardadas passam a ter a ordem do servidor
+            rows.clear();
+            rows.putAll(ordered);
+        }
+        watermark = Watermark.EMPTY.advance(fresh, idOf, updatedAtOf);
+        complete = true;
+        return new Changes<>(upserts, new ArrayList<>(remaining));
+    }
+
+    private boolean changed(T current, T fresh) {
+        return changed(current, fresh, updatedAtOf);
+    }
+
+    /** Compara pelo updatedAt quando as duas linhas o têm; senão pelo conteúdo (JSON) */
+    static <T> boolean changed(T current, T fresh, Function<T, LocalDateTime> updatedAtOf) {
+        LocalDateTime currentVersion = updatedAtOf.apply(current);
+        LocalDateTime freshVersion = updatedAtOf.apply(fresh);
+        if (currentVersion != null && freshVersion != null) {
+            return !currentVersion.equals(freshVersion);
+        }
+        ObjectMapper mapper = HttpTransport.mapper();
+        return !mapper.valueToTree(current).equals(mapper.valueToTree(fresh));
+    }
+
+    /** Alterações desde a última sincronização */
+    public record Changes<T>(List<T> upserts, List<Long> removedIds) {
+
+        public static <T> Changes<T> empty() {
+            return new Changes<>(List.of(), List.of());
+        }
+
+        public boolean isEmpty() {
+            return upserts.isEmpty() && removedIds.isEmpty();
+        }
+
+        /**
+         * Versão para uma lista filtrada: linhas alteradas que deixaram de passar no filtro
+         * passam a ser remoções.
+         */
+        public Changes<T> filter(Predicate<T> visible, Function<T, Long> idOf) {
+            List<T> kept = new ArrayList<>();
+            List<Long> removed = new ArrayList<>(removedIds);
+            for (T item : upserts) {
+                if (visible.test(item)) kept.add(item);
+                else removed.add(idOf.apply(item));
+            }
+            return new Changes<>(kept, removed);
+        }
+
+        @Override
+        public String toString() {
+            return "+" + upserts.size() + " / -" + removedIds.size();
+        }
+    }
+}
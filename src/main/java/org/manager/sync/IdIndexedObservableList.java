@@ -0,0 +1,222 @@
+package org.manager.sync;
+
+import javafx.collections.ModifiableObservableListBase;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.RandomAccess;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.function.Function;
+
+/**
+ * 🔹 Lista observável indexada por id, para as tabelas que são recarregadas periodicamente.
+ *
+ * Em vez de {@code setAll} (que substitui todas as linhas, limpa a seleção e obriga FilteredList e
+ * SortedList a reavaliar tudo), {@link #merge} compara o novo snapshot com o atual por id e só
+ * remove, substitui no lugar ou acrescenta as linhas que mudaram, numa única notificação.
+ * Uma linha mudou quando o updatedAt é diferente ou, sem updatedAt, quando o conteúdo (JSON) difere.
+ *
+ * Mantém também a posição de cada id, por isso {@link #indexOfId} e {@link #replace} são O(1)
+ * em vez de um {@code indexOf} linear. Usar a partir do FX thread.
+ */
+public class IdIndexedObservableList<T> extends ModifiableObservableListBase<T> implements RandomAccess {
+
+    private final List<T> rows = new ArrayList<>();
+    private final Function<T, Long> idOf;
+    private final Function<T, LocalDateTime> updatedAtOf;
+
+    // Posição de cada id; reconstruída só quando uma alteração no meio da lista a invalida
+    private final Map<Long, Integer> positions = new HashMap<>();
+    private boolean indexed = true;
+
+    public IdIndexedObservableList(Function<T, Long> idOf, Function<T, LocalDateTime> updatedAtOf) {
+        this.idOf = idOf;
+        this.updatedAtOf = updatedAtOf != null ? updatedAtOf : row -> null;
+    }
+
+    /** 🔹 Para linhas sem updatedAt: as alterações são detetadas pelo conteúdo */
+    public IdIndexedObservableList(Function<T, Long> idOf) {
+        this(idOf, null);
+    }
+
+    // ================= CONSULTA =================
+    @Override
+    public T get(int index) {
+        return rows.get(index);
+    }
+
+    @Override
+    public int size() {
+        return rows.size();
+    }
+
+    /** Posição da linha com este id, ou -1 */
+    public int indexOfId(Long id) {
+        if (id == null) return -1;
+        ensureIndexed();
+        Integer position = positions.get(id);
+        return position != null ? position : -1;
+    }
+
+    public T findById(Long id) {
+        int position = indexOfId(id);
+        return position >= 0 ? rows.get(position) : null;
+    }
+
+    public boolean containsId(Long id) {
+        return indexOfId(id) >= 0;
+    }
+
+    // ================= ALTERAÇÕES POR ID =================
+    /** 🔹 Substitui no lugar a linha com o mesmo id; false se não existir */
+    public boolean replace(T row) {
+        int position = indexOfId(idOf.apply(row));
+        if (position < 0) return false;
+        set(position, row);
+        return true;
+    }
+
+    /** 🔹 Substitui a linha com o mesmo id ou acrescenta-a no fim */
+    public void upsert(T row) {
+        if (!replace(row)) add(row);
+    }
+
+    /** 🔹 Substitui ou acrescenta várias linhas (ex.: uma página) numa única notificação */
+    public void upsertAll(Collection<? extends T> items) {
+        if (items.isEmpty()) return;
+        beginChange();
+        try {
+            items.forEach(this::upsert);
+        } finally {
+            endChange();
+        }
+    }
+
+    public boolean removeById(Long id) {
+        int position = indexOfId(id);
+        if (position < 0) return false;
+        remove(position);
+        return true;
+    }
+
+    /** 🔹 Aplica as alterações de uma {@link DeltaSync} numa única notificação */
+    public void apply(DeltaSync.Changes<T> changes) {
+        if (changes.isEmpty()) return;
+        beginChange();
+        try {
+            for (Long id : changes.removedIds()) {
+                removeById(id);
+            }
+            upsertAll(changes.upserts());
+        } finally {
+            endChange();
+        }
+    }
+
+    /**
+     * 🔹 Junta um snapshot completo: as linhas que deixaram de existir saem, as alteradas são
+     * substituídas no lugar e as novas entram na posição que têm no snapshot (logo a seguir à linha
+     * existente que as precede), por isso numa lista "mais recentes primeiro" aparecem no topo.
+     * As linhas que não mudaram ficam as mesmas instâncias, por isso a seleção e as caches
+     * por linha (ex.: DisplayColumns) mantêm-se.
+     */
+    public void merge(Collection<? extends T> snapshot) {
+        if (rows.isEmpty()) {
+            // Primeiro carregamento: uma só adição
+            setAll(snapshot);
+            return;
+        }
+
+        // Com ids repetidos vale a última versão, na posição da primeira
+        Map<Long, T> fresh = new HashMap<>();
+        for (T item : snapshot) {
+            Long id = idOf.apply(item);
+            if (id != null) fresh.put(id, item);
+        }
+
+        beginChange();
+        try {
+            // Do fim para o início: as remoções não deslocam as posições ainda por visitar
+            for (int i = rows.size() - 1; i >= 0; i--) {
+                Long id = idOf.apply(rows.get(i));
+                if (id == null || !fresh.containsKey(id)) remove(i);
+            }
+
+            // As alterações são no lugar (o índice por id continua válido); as novas linhas ficam
+            // agrupadas atrás da última linha existente que as precede (-1 = início da lista).
+            // Linhas sem id não podem ser comparadas: entram sempre como novas
+            Map<Integer, List<T>> insertions = new TreeMap<>(Comparator.reverseOrder());
+            Set<Long> seen = new HashSet<>();
+            int anchor = -1;
+            for (T item : snapshot) {
+                Long id = idOf.apply(item);
+                if (id != null && !seen.add(id)) continue;
+                T current = id != null ? fresh.get(id) : item;
+                int position = indexOfId(id);
+                if (position >= 0) {
+                    if (DeltaSync.changed(rows.get(position), current, updatedAtOf)) set(position, current);
+                    anchor = position;
+                } else {
+                    insertions.computeIfAbsent(anchor, key -> new ArrayList<>()).add(current);
+                }
+            }
+            // De baixo para cima: cada grupo não desloca as posições dos que faltam
+            insertions.forEach((after, items) -> addAll(after + 1, items));
+        } finally {
+            endChange();
+        }
+    }
+
+    // ================= ARMAZENAMENTO =================
+    @Override
+    protected void doAdd(int index, T element) {
+        rows.add(index, element);
+        Long id = idOf.apply(element);
+        if (indexed && index == rows.size() - 1) {
+            if (id != null) positions.put(id, index);
+        } else {
+            indexed = false;
+        }
+    }
+
+    @Override
+    protected T doSet(int index, T element) {
+        T previous = rows.set(index, element);
+        if (indexed) {
+            Long previousId = idOf.apply(previous);
+            Long id = idOf.apply(element);
+            if (previousId != null && Integer.valueOf(index).equals(positions.get(previousId))) positions.remove(previousId);
+            if (id != null) positions.put(id, index);
+        }
+        return previous;
+    }
+
+    @Override
+    protected T doRemove(int index) {
+        T removed = rows.remove(index);
+        if (indexed && index == rows.size()) {
+            Long id = idOf.apply(removed);
+            if (id != null && Integer.valueOf(index).equals(positions.get(id))) positions.remove(id);
+        } else {
+            indexed = false;
+        }
+        return removed;
+    }
+
+    private void ensureIndexed() {
+        if (indexed) return;
+        positions.clear();
+        for (int i = 0; i < rows.size(); i++) {
+            Long id = idOf.apply(rows.get(i));
+            if (id != null) positions.put(id, i);
+        }
+        indexed = true;
+    }
+}
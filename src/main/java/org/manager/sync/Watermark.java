@@ -0,0 +1,48 @@
+package org.manager.sync;
+
+import java.net.URLEncoder;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.function.Function;
+
+/**
+ * 🔹 Marca de sincronização ("high-water mark"): maior id e maior updatedAt já vistos.
+ * O servidor devolve apenas as linhas com id maior ou alteradas depois desta marca.
+ */
+public record Watermark(Long maxId, LocalDateTime maxUpdatedAt) {
+
+    public static final Watermark EMPTY = new Watermark(null, null);
+
+    public boolean isEmpty() {
+        return maxId == null && maxUpdatedAt == null;
+    }
+
+    /** Devolve a marca avançada pelos itens recebidos (nunca recua) */
+    public <T> Watermark advance(Collection<T> items, Function<T, Long> idOf, Function<T, LocalDateTime> updatedAtOf) {
+        Long id = maxId;
+        LocalDateTime updatedAt = maxUpdatedAt;
+        for (T item : items) {
+            Long itemId = idOf.apply(item);
+            if (itemId != null && (id == null || itemId > id)) id = itemId;
+
+            LocalDateTime itemUpdatedAt = updatedAtOf.apply(item);
+            if (itemUpdatedAt != null && (updatedAt == null || itemUpdatedAt.isAfter(updatedAt))) updatedAt = itemUpdatedAt;
+        }
+        return new Watermark(id, updatedAt);
+    }
+
+    /** Parâmetros do pedido incremental, ex.: sinceId=120&since=2025-01-01T10%3A00 (valores codificados) */
+    public String toQuery() {
+        StringBuilder query = new StringBuilder("sinceId=").append(maxId != null ? maxId : 0);
+        if (maxUpdatedAt != null) {
+            query.append("&since=").append(URLEncoder.encode(maxUpdatedAt.toString(), StandardCharsets.UTF_8));
+        }
+        return query.toString();
+    }
+
+    @Override
+    public String toString() {
+        return isEmpty() ? "vazia" : toQuery();
+    }
+}
@@ -2,6 +2,7 @@ package org.manager.util;
 
 import java.time.LocalDateTime;
 import java.time.format.DateTimeFormatter;
+import java.time.format.DateTimeParseException;
 
 public final class DateTimeUtil {
 
@@ -12,6 +13,10 @@ public final class DateTimeUtil {
     private static final DateTimeFormatter DATE_TIME_FORMATTER =
             DateTimeFormatter.ofPattern("dd/MM/yyyy HH:mm:ss");
 
+    // 🔹 Formato curto das tabelas (sem segundos)
+    private static final DateTimeFormatter SHORT_DATE_TIME_FORMATTER =
+            DateTimeFormatter.ofPattern("dd/MM/yyyy HH:mm");
+
     // 🔹 Converte LocalDateTime → String formatada
     public static String format(LocalDateTime dateTime) {
         if (dateTime == null) {
@@ -19,4 +24,24 @@ public final class DateTimeUtil {
         }
         return dateTime.format(DATE_TIME_FORMATTER);
     }
+
+    // 🔹 Converte LocalDateTime → "dd/MM/yyyy HH:mm"
+    public static String formatShort(LocalDateTime dateTime) {
+        if (dateTime == null) {
+            return "";
+        }
+        return dateTime.format(SHORT_DATE_TIME_FORMATTER);
+    }
+
+    // 🔹 Interpreta uma data ISO vinda do servidor (null se vazia ou inválida)
+    public static LocalDateTime parseIso(String raw) {
+        if (raw == null || raw.isBlank()) {
+            return null;
+        }
+        try {
+            return LocalDateTime.parse(raw, DateTimeFormatter.ISO_DATE_TIME);
+        } catch (DateTimeParseException e) {
+            return null;
+        }
+    }
 }
@@ -4,15 +4,27 @@ import java.math.BigDecimal;
 import java.text.NumberFormat;
 import java.util.Locale;
 
-public class FormatUtil {
+public final class FormatUtil {
+
+    // 🔹 Evita instanciar a classe
+    private FormatUtil() {}
+
+    private static final Locale LOCALE = new Locale("pt", "MZ"); // Português de Moçambique
+    private static final int CACHED_SCALES = 5;
+    private static final String MISSING = "—";
+
+    // 🔹 NumberFormat não é thread-safe: uma instância por thread, criada uma única vez
+    private static final ThreadLocal<NumberFormat> CURRENCY =
+            ThreadLocal.withInitial(() -> NumberFormat.getCurrencyInstance(LOCALE));
+    private static final ThreadLocal<NumberFormat[]> DECIMALS =
+            ThreadLocal.withInitial(() -> new NumberFormat[CACHED_SCALES]);
 
     // Formata com separadores e 2 casas decimais
     public static String formatCurrency(BigDecimal value) {
         if (value == null) {
             return "0,00";
         }
-        NumberFormat formatter = NumberFormat.getCurrencyInstance(new Locale("pt", "MZ")); // Português de Moçambique
-        return formatter.format(value);
+        return CURRENCY.get().format(value);
     }
 
     // Formata como número simples (sem símbolo monetário)
@@ -20,9 +32,26 @@ public class FormatUtil {
         if (value == null) {
             return "0";
         }
-        NumberFormat formatter = NumberFormat.getNumberInstance(new Locale("pt", "MZ"));
+        return decimalFormat(decimalPlaces).format(value);
+    }
+
+    // Métrica que pode faltar (ex.: um pedido do dashboard que falhou): mostra "—" em vez de "null"
+    public static String formatMetric(Object value) {
+        return value != null ? String.valueOf(value) : MISSING;
+    }
+
+    private static NumberFormat decimalFormat(int decimalPlaces) {
+        if (decimalPlaces < 0 || decimalPlaces >= CACHED_SCALES) return newDecimalFormat(decimalPlaces);
+
+        NumberFormat[] formats = DECIMALS.get();
+        if (formats[decimalPlaces] == null) formats[decimalPlaces] = newDecimalFormat(decimalPlaces);
+        return formats[decimalPlaces];
+    }
+
+    private static NumberFormat newDecimalFormat(int decimalPlaces) {
+        NumberFormat formatter = NumberFormat.getNumberInstance(LOCALE);
         formatter.setMinimumFractionDigits(decimalPlaces);
         formatter.setMaximumFractionDigits(decimalPlaces);
-        return formatter.format(value);
+        return formatter;
     }
 }
@@ -0,0 +1,72 @@
+package org.manager.util;
+
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * 🔹 Histograma de latências com baldes em potências de 2 (microssegundos).
+ * Registar custa um incremento atómico, sem alocação, por isso pode ficar sempre ligado
+ * em caminhos críticos como a leitura de códigos de barras.
+ */
+public class LatencyHistogram {
+
+    // Balde i conta amostras em [2^(i-1), 2^i) µs; o último agrega tudo acima de ~1 min
+    private static final int BUCKETS = 27;
+
+    private final String name;
+    private final AtomicLongArray counts = new AtomicLongArray(BUCKETS);
+    private final LongAdder totalMicros = new LongAdder();
+    private volatile long maxMicros;
+
+    public LatencyHistogram(String name) {
+        this.name = name;
+    }
+
+    public void record(long elapsedNanos) {
+        long micros = Math.max(0, elapsedNanos / 1_000);
+        int bucket = Math.min(BUCKETS - 1, 64 - Long.numberOfLeadingZeros(micros));
+        counts.incrementAndGet(bucket);
+        totalMicros.add(micros);
+        if (micros > maxMicros) maxMicros = micros;
+    }
+
+    public long count() {
+        long total = 0;
+        for (int i = 0; i < BUCKETS; i++) total += counts.get(i);
+        return total;
+    }
+
+    /** Limite superior (µs) do balde onde cai o percentil pedido (0–100) */
+    public long percentileMicros(double percentile) {
+        long total = count();
+        if (total == 0) return 0;
+
+        long threshold = (long) Math.ceil(total * percentile / 100.0);
+        long seen = 0;
+        for (int i = 0; i < BUCKETS; i++) {
+            seen += counts.get(i);
+            if (seen >= threshold) return i == 0 ? 1 : 1L << i;
+        }
+        return maxMicros;
+    }
+
+    public void reset() {
+        for (int i = 0; i < BUCKETS; i++) counts.set(i, 0);
+        totalMicros.reset();
+        maxMicros = 0;
+    }
+
+    /** 🔹 Resumo legível: contagem, média, p50/p95/p99 e máximo */
+    public String summary() {
+        long total = count();
+        if (total == 0) return name + ": sem amostras";
+
+        return String.format("%s: n=%d média=%.2fms p50≤%.2fms p95≤%.2fms p99≤%.2fms máx=%.2fms",
+                name, total,
+                totalMicros.sum() / 1000.0 / total,
+                percentileMicros(50) / 1000.0,
+                percentileMicros(95) / 1000.0,
+                percentileMicros(99) / 1000.0,
+                maxMicros / 1000.0);
+    }
+}
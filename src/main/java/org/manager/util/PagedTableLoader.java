@@ -0,0 +1,160 @@
+package org.manager.util;
+
+import javafx.application.Platform;
+import javafx.geometry.Orientation;
+import javafx.scene.Node;
+import javafx.scene.control.ScrollBar;
+import javafx.scene.control.TableView;
+import org.manager.model.PageResponse;
+
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.function.Consumer;
+
+/**
+ * 🔹 Carrega uma TableView página a página a partir do servidor.
+ * A primeira página é pedida em {@link #reload()} e as seguintes quando o utilizador
+ * se aproxima do fim da barra de rolagem, em vez de baixar a tabela inteira de uma vez.
+ */
+public final class PagedTableLoader<T> {
+
+    @FunctionalInterface
+    public interface PageFetcher<T> {
+        CompletableFuture<PageResponse<T>> fetch(int page, int size);
+    }
+
+    private static final double SCROLL_THRESHOLD = 0.9;
+
+    private final TableView<?> table;
+    private final int pageSize;
+    private final PageFetcher<T> fetcher;
+    private final Consumer<PageResponse<T>> onPage;
+    private Consumer<Throwable> onError = ex -> ex.printStackTrace();
+
+    private int nextPage;
+    private boolean last;
+    private boolean loading;
+    private long totalElements;
+    private int generation;
+    private ScrollBar attachedScrollBar;
+
+    /**
+     * @param onPage chamado no FX thread com cada página recebida (o conteúdo nunca é nulo)
+     */
+    public PagedTableLoader(TableView<?> table, int pageSize, PageFetcher<T> fetcher, Consumer<PageResponse<T>> onPage) {
+        this.table = table;
+        this.pageSize = pageSize;
+        this.fetcher = fetcher;
+        this.onPage = onPage;
+
+        table.skinProperty().addListener((obs, oldSkin, newSkin) -> {
+            if (newSkin != null) Platform.runLater(this::fillViewport);
+        });
+    }
+
+    public void setOnError(Consumer<Throwable> onError) {
+        this.onError = onError;
+    }
+
+    /** 🔹 Recomeça da primeira página (o chamador limpa os seus dados antes) */
+    public void reload() {
+        generation++;
+        nextPage = 0;
+        last = false;
+        loading = false;
+        totalElements = 0;
+        loadNextPage();
+    }
+
+    /**
+     * 🔹 Continua a paginação a partir de uma página já conhecida (ex.: dados guardados de uma
+     * visita anterior), sem voltar a pedir as anteriores.
+     */
+    public void resume(int nextPage, boolean last) {
+        generation++;
+        this.nextPage = nextPage;
+        this.last = last;
+        loading = false;
+        Platform.runLater(this::fillViewport);
+    }
+
+    public void loadNextPage() {
+        if (loading || last) return;
+        loading = true;
+
+        int requestGeneration = generation;
+        int page = nextPage;
+
+        fetcher.fetch(page, pageSize)
+                .thenAccept(result -> Platform.runLater(() -> {
+                    if (requestGeneration != generation) return; // resposta de um reload anterior
+                    loading = false;
+
+                    PageResponse<T> safe = result != null ? result : PageResponse.<T>builder().last(true).build();
+                    if (safe.getContent() == null) safe.setContent(List.of());
+
+                    nextPage = page + 1;
+                    totalElements = safe.getTotalElements();
+                    last = safe.isLast() || safe.getContent().size() < pageSize;
+
+                    onPage.accept(safe);
+                    Platform.runLater(this::fillViewport);
+                }))
+                .exceptionally(ex -> {
+                    Platform.runLater(() -> {
+                        if (requestGeneration != generation) return;
+                        loading = false;
+                        onError.accept(ex.getCause() != null ? ex.getCause() : ex);
+                    });
+                    return null;
+                });
+    }
+
+    public boolean hasMore() {
+        return !last;
+    }
+
+    public int getNextPage() {
+        return nextPage;
+    }
+
+    public boolean isLoading() {
+        return loading;
+    }
+
+    public long getTotalElements() {
+        return totalElements;
+    }
+
+    // ================= SCROLL =================
+    private void attachScrollListener() {
+        ScrollBar scrollBar = findVerticalScrollBar();
+        if (scrollBar == null || scrollBar == attachedScrollBar) return;
+
+        attachedScrollBar = scrollBar;
+        scrollBar.valueProperty().addListener((obs, oldValue, newValue) -> {
+            double range = scrollBar.getMax() - scrollBar.getMin();
+            if (range > 0 && (newValue.doubleValue() - scrollBar.getMin()) / range >= SCROLL_THRESHOLD) {
+                loadNextPage();
+            }
+        });
+    }
+
+    /** Enquanto a página não encher a área visível não há rolagem, por isso pede a seguinte */
+    private void fillViewport() {
+        if (table.getSkin() == null) return; // ainda não está na cena: espera pelo skin
+        attachScrollListener();
+        if (attachedScrollBar != null && !attachedScrollBar.isVisible()) {
+            loadNextPage();
+        }
+    }
+
+    private ScrollBar findVerticalScrollBar() {
+        for (Node node : table.lookupAll(".scroll-bar")) {
+            if (node instanceof ScrollBar scrollBar && scrollBar.getOrientation() == Orientation.VERTICAL) {
+                return scrollBar;
+            }
+        }
+        return null;
+    }
+}
@@ -0,0 +1,70 @@
+package org.manager.util;
+
+import org.apache.pdfbox.Loader;
+import org.apache.pdfbox.pdmodel.PDDocument;
+import org.apache.pdfbox.pdmodel.PDPage;
+import org.apache.pdfbox.pdmodel.common.PDRectangle;
+import org.apache.pdfbox.rendering.ImageType;
+import org.apache.pdfbox.rendering.PDFRenderer;
+
+import java.awt.image.BufferedImage;
+import java.io.Closeable;
+import java.io.IOException;
+
+/**
+ * 🔹 Único ponto de acesso ao PDFBox.
+ * As telas não importam classes do PDFBox, por isso a biblioteca só é carregada na primeira
+ * impressão e não no arranque nem ao abrir a tela.
+ *
+ * Um PDDocument não pode ser usado por várias threads: cada thread de renderização abre o seu
+ * próprio {@link Renderer} sobre os mesmos bytes.
+ */
+public final class PdfPages {
+
+    // 🔹 Evita instanciar a classe
+    private PdfPages() {}
+
+    private static final float POINTS_PER_INCH = 72f;
+
+    public static Renderer open(byte[] pdf) throws IOException {
+        return new Renderer(Loader.loadPDF(pdf));
+    }
+
+    // ================= RENDERER =================
+    public static final class Renderer implements Closeable {
+
+        private final PDDocument document;
+        private final PDFRenderer renderer;
+
+        private Renderer(PDDocument document) {
+            this.document = document;
+            this.renderer = new PDFRenderer(document);
+        }
+
+        public int pageCount() {
+            return document.getNumberOfPages();
+        }
+
+        /**
+         * 🔹 Renderiza a página para caber na área imprimível (em pontos, 1/72") com a resolução
+         * da impressora: páginas reduzidas para caber no papel não são renderizadas com mais
+         * pixels do que a impressora consegue usar. RGB sem alfa (3 bytes por pixel).
+         */
+        public BufferedImage render(int page, int printerDpi, double printableWidth, double printableHeight)
+                throws IOException {
+            PDPage pdPage = document.getPage(page);
+            PDRectangle box = pdPage.getCropBox();
+            boolean rotated = pdPage.getRotation() % 180 != 0;
+            double width = rotated ? box.getHeight() : box.getWidth();
+            double height = rotated ? box.getWidth() : box.getHeight();
+            double scale = Math.min(printableWidth / width, printableHeight / height);
+            float dpi = (float) Math.max(POINTS_PER_INCH, printerDpi * scale);
+            return renderer.renderImageWithDPI(page, dpi, ImageType.RGB);
+        }
+
+        @Override
+        public void close() throws IOException {
+            document.close();
+        }
+    }
+}
@@ -0,0 +1,206 @@
+package org.manager.util;
+
+import javafx.concurrent.Task;
+import javafx.embed.swing.SwingFXUtils;
+import javafx.print.PageLayout;
+import javafx.print.PrintResolution;
+import javafx.print.PrinterJob;
+import javafx.scene.image.ImageView;
+import javafx.scene.image.WritableImage;
+
+import java.awt.image.BufferedImage;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * 🔹 Impressão de um PDF fora do FX thread.
+ *
+ * As páginas são renderizadas por um pequeno grupo de threads (cada uma com o seu PDDocument) e
+ * entregues à impressora por ordem, uma de cada vez. Só ficam em memória as páginas da janela de
+ * pré-renderização, e a imagem JavaFX enviada à impressora é reutilizada entre páginas do mesmo
+ * tamanho, por isso o consumo não cresce com o número de páginas.
+ *
+ * A resolução acompanha a da impressora (limitada por manager.print.maxDpi); o progresso e o estado
+ * ficam em progressProperty()/messageProperty() para a tela mostrar sem bloquear.
+ *
+ * Configuração:
+ *  - manager.print.dpi            (resolução fixa; padrão 0 = a da impressora)
+ *  - manager.print.maxDpi         (padrão 300)
+ *  - manager.print.renderThreads  (padrão 2)
+ *  - manager.print.prefetch       (páginas renderizadas à frente da impressora; padrão 2)
+ */
+public class PdfPrintTask extends Task<Integer> {
+
+    private static final int FIXED_DPI = Integer.getInteger("manager.print.dpi", 0);
+    private static final int MAX_DPI = Integer.getInteger("manager.print.maxDpi", 300);
+    private static final int RENDER_THREADS = Math.max(1, Integer.getInteger("manager.print.renderThreads", 2));
+    private static final int PREFETCH = Math.max(1, Integer.getInteger("manager.print.prefetch", 2));
+
+    // Um trabalho de cada vez: a impressora também só imprime um
+    private static final ExecutorService PRINTER = Executors.newSingleThreadExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "pdf-print");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    private static final AtomicInteger RENDER_THREAD_COUNT = new AtomicInteger();
+    private static final ExecutorService RENDERERS = Executors.newFixedThreadPool(RENDER_THREADS, runnable -> {
+        Thread thread = new Thread(runnable, "pdf-render-" + RENDER_THREAD_COUNT.incrementAndGet());
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    private final byte[] pdf;
+    private final PrinterJob printerJob;
+    private final String title;
+
+    /** @param printerJob já configurado pelo utilizador (diálogo de impressão mostrado no FX thread) */
+    public PdfPrintTask(byte[] pdf, PrinterJob printerJob, String title) {
+        this.pdf = pdf;
+        this.printerJob = printerJob;
+        this.title = title;
+    }
+
+    /** 🔹 Põe o trabalho na fila de impressão */
+    public PdfPrintTask start() {
+        updateMessage("Impressão de " + title + " em espera...");
+        PRINTER.execute(this);
+        return this;
+    }
+
+    @Override
+    protected Integer call() throws Exception {
+        long start = System.nanoTime();
+        PageLayout layout = printerJob.getJobSettings().getPageLayout();
+        double printableWidth = layout.getPrintableWidth();
+        double printableHeight = layout.getPrintableHeight();
+        int dpi = resolveDpi();
+
+        int totalPages;
+        try (PdfPages.Renderer renderer = PdfPages.open(pdf)) {
+            totalPages = renderer.pageCount();
+        }
+        updateMessage("A preparar " + title + " (" + totalPages + " páginas, " + dpi + " dpi)...");
+        updateProgress(0, totalPages);
+
+        int workers = Math.max(1, Math.min(RENDER_THREADS, totalPages));
+        PageBuffer buffer = new PageBuffer(Math.max(PREFETCH, workers));
+        List<Future<?>> renderers = new ArrayList<>();
+        for (int worker = 0; worker < workers; worker++) {
+            int first = worker;
+            renderers.add(RENDERERS.submit(() ->
+                    renderPages(first, workers, totalPages, dpi, printableWidth, printableHeight, buffer)));
+        }
+
+        WritableImage reusable = null;
+        ImageView view = new ImageView();
+        view.setPreserveRatio(true);
+        try {
+            for (int page = 0; page < totalPages; page++) {
+                BufferedImage image = buffer.take(page);
+
+                // printPage é síncrono: a imagem pode ser reutilizada logo na página seguinte
+                reusable = SwingFXUtils.toFXImage(image, reusable);
+                double scale = Math.min(printableWidth / image.getWidth(), printableHeight / image.getHeight());
+                view.setImage(reusable);
+                view.setFitWidth(image.getWidth() * scale);
+                view.setFitHeight(image.getHeight() * scale);
+
+                if (!printerJob.printPage(view)) {
+                    throw new IllegalStateException("A impressora recusou a página " + (page + 1));
+                }
+                updateProgress(page + 1, totalPages);
+                updateMessage("A imprimir " + title + ": página " + (page + 1) + " de " + totalPages);
+            }
+            if (!printerJob.endJob()) throw new IllegalStateException("A impressora não concluiu o trabalho");
+        } catch (Exception e) {
+            printerJob.cancelJob();
+            throw e;
+        } finally {
+            buffer.close();
+            renderers.forEach(future -> future.cancel(true));
+        }
+
+        System.out.println("Impressão de " + title + ": " + totalPages + " páginas a " + dpi + " dpi em "
+                + (System.nanoTime() - start) / 1_000_000 + " ms");
+        return totalPages;
+    }
+
+    /** Resolução da impressora escolhida (ou a fixa), nunca acima do máximo configurado */
+    private int resolveDpi() {
+        if (FIXED_DPI > 0) return FIXED_DPI;
+        PrintResolution resolution = printerJob.getJobSettings().getPrintResolution();
+        int printerDpi = resolution != null
+                ? Math.min(resolution.getCrossFeedResolution(), resolution.getFeedResolution())
+                : 0;
+        return printerDpi > 0 ? Math.min(MAX_DPI, printerDpi) : MAX_DPI;
+    }
+
+    /** Cada thread renderiza as páginas first, first + step, ... sem passar à frente da janela */
+    private void renderPages(int first, int step, int totalPages, int dpi,
+                             double printableWidth, double printableHeight, PageBuffer buffer) {
+        try (PdfPages.Renderer renderer = PdfPages.open(pdf)) {
+            for (int page = first; page < totalPages; page += step) {
+                if (!buffer.awaitSlot(page)) return;
+                buffer.put(page, renderer.render(page, dpi, printableWidth, printableHeight));
+            }
+        } catch (Throwable e) {
+            buffer.fail(e);
+        }
+    }
+
+    // ================= PÁGINAS PRONTAS =================
+    /** Páginas renderizadas à espera da impressora; no máximo {@code window} à frente da que está a imprimir */
+    private static final class PageBuffer {
+
+        private final int window;
+        private final Map<Integer, BufferedImage> ready = new HashMap<>();
+        private int nextToPrint;
+        private Throwable failure;
+        private boolean closed;
+
+        PageBuffer(int window) {
+            this.window = window;
+        }
+
+        synchronized boolean awaitSlot(int page) throws InterruptedException {
+            while (!closed && page >= nextToPrint + window) wait();
+            return !closed;
+        }
+
+        synchronized void put(int page, BufferedImage image) {
+            if (closed) return;
+            ready.put(page, image);
+            notifyAll();
+        }
+
+        synchronized void fail(Throwable e) {
+            if (failure == null) failure = e;
+            notifyAll();
+        }
+
+        synchronized BufferedImage take(int page) throws Exception {
+            while (!ready.containsKey(page)) {
+                if (failure != null) {
+                    throw failure instanceof Exception e ? e : new RuntimeException(failure);
+                }
+                wait();
+            }
+            nextToPrint = page + 1;
+            notifyAll();
+            return ready.remove(page);
+        }
+
+        synchronized void close() {
+            closed = true;
+            ready.clear();
+            notifyAll();
+        }
+    }
+}
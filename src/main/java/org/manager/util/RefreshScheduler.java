@@ -0,0 +1,284 @@
+package org.manager.util;
+
+import javafx.application.Platform;
+import javafx.beans.InvalidationListener;
+import javafx.beans.value.ChangeListener;
+import javafx.scene.Node;
+import javafx.scene.Scene;
+import javafx.stage.Stage;
+import javafx.stage.Window;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+
+/**
+ * 🔹 Agendador único para as atualizações automáticas das telas.
+ *
+ * Cada tela regista um job associado a um nó da sua vista:
+ *  - o job só corre enquanto o nó está visível numa janela aberta (pausa com a janela minimizada
+ *    ou com a tela escondida na cache do ViewRegistry);
+ *  - é cancelado automaticamente quando a vista sai da cena (ex.: a tela sai da cache do ViewRegistry);
+ *  - o intervalo cresce (até ao máximo) enquanto o servidor não tiver novidades e volta ao base quando há;
+ *  - cada execução tem ±10% de jitter e nunca se sobrepõe à anterior.
+ *
+ * Todos os jobs partilham uma única thread ("refresh-scheduler"); o trabalho em si é assíncrono
+ * (o job devolve um CompletableFuture), por isso a thread nunca fica bloqueada à espera da rede.
+ */
+public final class RefreshScheduler {
+
+    // 🔹 Evita instanciar a classe
+    private RefreshScheduler() {}
+
+    private static final double JITTER = 0.10;
+    private static final double BACKOFF_FACTOR = 2.0;
+
+    private static final ScheduledExecutorService EXECUTOR = Executors.newSingleThreadScheduledExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "refresh-scheduler");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    private static final Set<Job> JOBS = ConcurrentHashMap.newKeySet();
+
+    /**
+     * 🔹 Regista uma atualização periódica ligada ao ciclo de vida de {@code owner}.
+     * Deve ser chamado no FX thread (normalmente no initialize() do controller).
+     *
+     * @param task devolve true quando trouxe alterações (mantém o intervalo base) ou false (abranda)
+     */
+    public static Job register(String name, Node owner, Duration interval, Duration maxInterval,
+                               Supplier<CompletableFuture<Boolean>> task) {
+        Job job = new Job(name, interval, maxInterval.compareTo(interval) < 0 ? interval : maxInterval, task);
+        JOBS.add(job);
+        job.bindTo(owner);
+        return job;
+    }
+
+    /** Diagnóstico: jobs ativos, estado, intervalo atual e custo das execuções */
+    public static String describe() {
+        List<Job> jobs = new ArrayList<>(JOBS);
+        if (jobs.isEmpty()) return "Atualizações automáticas: nenhuma ativa";
+
+        jobs.sort(Comparator.comparing(job -> job.name));
+        StringBuilder sb = new StringBuilder("Atualizações automáticas (" + jobs.size() + "):");
+        for (Job job : jobs) {
+            sb.append(System.lineSeparator()).append("  ").append(job);
+        }
+        return sb.toString();
+    }
+
+    public static int activeJobs() {
+        return JOBS.size();
+    }
+
+    // ================= JOB =================
+    public static final class Job {
+
+        private final String name;
+        private final long baseMillis;
+        private final long maxMillis;
+        private final Supplier<CompletableFuture<Boolean>> task;
+
+        // Estado protegido pelo monitor do job (FX thread + thread do agendador)
+        private long currentMillis;
+        private boolean visible;
+        private boolean running;
+        private boolean cancelled;
+        private ScheduledFuture<?> next;
+
+        // Métricas
+        private long runs;
+        private long changes;
+        private long failures;
+        private long totalNanos;
+        private long lastNanos;
+
+        // Ligação à vista (só no FX thread)
+        private Node owner;
+        private Scene scene;
+        private Window window;
+        private final List<Node> ancestors = new ArrayList<>();
+        private final ChangeListener<Scene> sceneListener = (obs, oldScene, newScene) -> onSceneChanged(newScene);
+        private final ChangeListener<Window> windowListener = (obs, oldWindow, newWindow) -> onWindowChanged(newWindow);
+        private final InvalidationListener visibilityListener = obs -> updateVisibility();
+
+        private Job(String name, Duration interval, Duration maxInterval, Supplier<CompletableFuture<Boolean>> task) {
+            this.name = name;
+            this.baseMillis = Math.max(1, interval.toMillis());
+            this.maxMillis = Math.max(baseMillis, maxInterval.toMillis());
+            this.currentMillis = baseMillis;
+            this.task = task;
+        }
+
+        // ================= CICLO DE VIDA =================
+        private void bindTo(Node node) {
+            owner = node;
+            owner.sceneProperty().addListener(sceneListener);
+            onSceneChanged(owner.getScene());
+        }
+
+        private void onSceneChanged(Scene newScene) {
+            if (scene != null) scene.windowProperty().removeListener(windowListener);
+            boolean wasAttached = scene != null;
+            scene = newScene;
+
+            if (scene == null) {
+                // A vista saiu da cena: a tela foi trocada (ou saiu da cache do ViewRegistry)
+                unwatchAncestors();
+                if (wasAttached) cancel();
+                else onWindowChanged(null);
+                return;
+            }
+            scene.windowProperty().addListener(windowListener);
+            watchAncestors();
+            onWindowChanged(scene.getWindow());
+        }
+
+        /** Uma tela escondida (visible=false num antepassado) também conta como não visível */
+        private void watchAncestors() {
+            unwatchAncestors();
+            for (Node node = owner; node != null; node = node.getParent()) {
+                node.visibleProperty().addListener(visibilityListener);
+                ancestors.add(node);
+            }
+        }
+
+        private void unwatchAncestors() {
+            ancestors.forEach(node -> node.visibleProperty().removeListener(visibilityListener));
+            ancestors.clear();
+        }
+
+        private void onWindowChanged(Window newWindow) {
+            if (window != null) {
+                window.showingProperty().removeListener(visibilityListener);
+                if (window instanceof Stage stage) stage.iconifiedProperty().removeListener(visibilityListener);
+            }
+            window = newWindow;
+            if (window != null) {
+                window.showingProperty().addListener(visibilityListener);
+                if (window instanceof Stage stage) stage.iconifiedProperty().addListener(visibilityListener);
+            }
+            updateVisibility();
+        }
+
+        private void updateVisibility() {
+            boolean nowVisible = window != null && window.isShowing()
+                    && !(window instanceof Stage stage && stage.isIconified())
+                    && ancestors.stream().allMatch(Node::isVisible);
+            setVisible(nowVisible);
+        }
+
+        private synchronized void setVisible(boolean nowVisible) {
+            if (cancelled || visible == nowVisible) return;
+            visible = nowVisible;
+            if (!visible) {
+                if (next != null) next.cancel(false);
+                next = null;
+            } else if (!running && next == null) {
+                // Primeira vez visível: espera o intervalo; ao voltar de uma pausa atualiza logo
+                schedule(runs == 0 ? baseMillis : 0);
+            }
+        }
+
+        /** 🔹 Para o job de vez (também acontece sozinho quando a vista sai da cena) */
+        public void cancel() {
+            synchronized (this) {
+                if (cancelled) return;
+                cancelled = true;
+                if (next != null) next.cancel(false);
+                next = null;
+            }
+            JOBS.remove(this);
+            Runnable unbind = () -> {
+                if (owner != null) owner.sceneProperty().removeListener(sceneListener);
+                unwatchAncestors();
+                if (scene != null) scene.windowProperty().removeListener(windowListener);
+                if (window != null) {
+                    window.showingProperty().removeListener(visibilityListener);
+                    if (window instanceof Stage stage) stage.iconifiedProperty().removeListener(visibilityListener);
+                }
+            };
+            if (Platform.isFxApplicationThread()) unbind.run();
+            else Platform.runLater(unbind);
+        }
+
+        /** Antecipa a próxima execução (ex.: depois de uma ação do utilizador) */
+        public synchronized void refreshNow() {
+            if (cancelled || running || !visible) return;
+            currentMillis = baseMillis;
+            if (next != null) next.cancel(false);
+            schedule(0);
+        }
+
+        public synchronized boolean isCancelled() {
+            return cancelled;
+        }
+
+        // ================= EXECUÇÃO =================
+        private void schedule(long delayMillis) {
+            long jitter = delayMillis == 0 ? 0
+                    : (long) (delayMillis * JITTER * (ThreadLocalRandom.current().nextDouble() * 2 - 1));
+            next = EXECUTOR.schedule(this::run, Math.max(0, delayMillis + jitter), TimeUnit.MILLISECONDS);
+        }
+
+        private void run() {
+            synchronized (this) {
+                next = null;
+                if (cancelled || !visible || running) return;
+                running = true;
+            }
+
+            long start = System.nanoTime();
+            CompletableFuture<Boolean> result;
+            try {
+                result = task.get();
+            } catch (RuntimeException e) {
+                result = CompletableFuture.failedFuture(e);
+            }
+
+            result.whenComplete((changed, ex) -> finish(System.nanoTime() - start, changed, ex));
+        }
+
+        private synchronized void finish(long nanos, Boolean changed, Throwable ex) {
+            running = false;
+            runs++;
+            lastNanos = nanos;
+            totalNanos += nanos;
+
+            if (ex != null) {
+                failures++;
+                System.out.println("Atualização '" + name + "' falhou: " + ex.getMessage());
+            }
+            if (ex == null && Boolean.TRUE.equals(changed)) {
+                changes++;
+                currentMillis = baseMillis;
+            } else {
+                // Sem novidades (ou erro): abranda até ao máximo
+                currentMillis = Math.min(maxMillis, (long) (currentMillis * BACKOFF_FACTOR));
+            }
+
+            if (!cancelled && visible) schedule(currentMillis);
+        }
+
+        @Override
+        public synchronized String toString() {
+            String state = cancelled ? "cancelado" : running ? "a correr" : visible ? "ativo" : "em pausa";
+            long avgMillis = runs == 0 ? 0 : TimeUnit.NANOSECONDS.toMillis(totalNanos / runs);
+            return name + " [" + state + "] intervalo=" + currentMillis / 1000.0 + "s"
+                    + " execuções=" + runs + " com alterações=" + changes + " falhas=" + failures
+                    + " último=" + TimeUnit.NANOSECONDS.toMillis(lastNanos) + "ms média=" + avgMillis + "ms"
+                    + " total=" + TimeUnit.NANOSECONDS.toMillis(totalNanos) + "ms";
+        }
+    }
+}
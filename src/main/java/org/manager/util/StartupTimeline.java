@@ -0,0 +1,109 @@
+package org.manager.util;
+
+import javafx.application.Platform;
+import javafx.scene.Scene;
+import org.manager.store.LocalStores;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.LocalDateTime;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * 🔹 Linha do tempo do arranque da aplicação.
+ *
+ * Cada etapa é marcada uma única vez com o tempo desde o início do processo (a JVM conta).
+ * Quando a tela principal fica interativa, o relatório é escrito na consola e acrescentado a
+ * startup.log na pasta das cópias locais (uma linha por arranque), para comparar terminais e versões.
+ *
+ * Desativável com manager.startup.report=false.
+ */
+public final class StartupTimeline {
+
+    // 🔹 Evita instanciar a classe
+    private StartupTimeline() {}
+
+    public static final String MAIN = "main";
+    public static final String FX_READY = "fx pronto";
+    public static final String HTTP_READY = "http e json prontos";
+    public static final String LOGIN_VISIBLE = "login visível";
+    public static final String LOGIN_OK = "login aceite";
+    public static final String MAIN_LOADED = "painel carregado";
+    public static final String MAIN_INTERACTIVE = "painel interativo";
+
+    private static final boolean REPORT =
+            Boolean.parseBoolean(System.getProperty("manager.startup.report", "true"));
+
+    // Início do processo; sem essa informação do sistema, conta a partir do carregamento desta classe
+    private static final long ORIGIN_MILLIS = ProcessHandle.current().info().startInstant()
+            .map(instant -> instant.toEpochMilli())
+            .orElse(System.currentTimeMillis());
+
+    private static final Map<String, Long> MARKS = new LinkedHashMap<>();
+    private static boolean reported;
+
+    /** Regista a etapa (só a primeira vez conta) */
+    public static synchronized void mark(String step) {
+        MARKS.putIfAbsent(step, System.currentTimeMillis() - ORIGIN_MILLIS);
+    }
+
+    /** Regista a última etapa e emite o relatório do arranque (uma vez por execução) */
+    public static void finish(String step) {
+        String report;
+        synchronized (StartupTimeline.class) {
+            mark(step);
+            if (reported || !REPORT) return;
+            reported = true;
+            report = describe();
+        }
+        System.out.println("Arranque: " + report);
+        Thread writer = new Thread(() -> append(report), "startup-report");
+        writer.setDaemon(true);
+        writer.start();
+    }
+
+    /**
+     * 🔹 Marca a etapa no primeiro pulso com layout depois de a cena aparecer (a janela já responde).
+     * Com {@code last} emite também o relatório.
+     */
+    public static void markWhenShown(Scene scene, String step, boolean last) {
+        boolean[] done = {false};
+        Runnable[] listener = new Runnable[1];
+        listener[0] = () -> {
+            if (done[0] || scene.getWindow() == null || !scene.getWindow().isShowing()) return;
+            done[0] = true;
+            if (last) finish(step);
+            else mark(step);
+            // Não se pode remover durante a própria iteração dos listeners
+            Platform.runLater(() -> scene.removePostLayoutPulseListener(listener[0]));
+        };
+        scene.addPostLayoutPulseListener(listener[0]);
+    }
+
+    /** Ex.: main=310ms → login visível=1450ms → login aceite=9800ms (+8350) → ... */
+    public static synchronized String describe() {
+        StringBuilder sb = new StringBuilder();
+        Long previous = null;
+        for (Map.Entry<String, Long> entry : MARKS.entrySet()) {
+            if (sb.length() > 0) sb.append(" → ");
+            sb.append(entry.getKey()).append('=').append(entry.getValue()).append("ms");
+            if (previous != null) sb.append(" (+").append(entry.getValue() - previous).append(')');
+            previous = entry.getValue();
+        }
+        return sb.toString();
+    }
+
+    private static void append(String report) {
+        Path file = LocalStores.baseDir().resolve("startup.log");
+        try {
+            Files.createDirectories(file.getParent());
+            Files.writeString(file, LocalDateTime.now() + " " + report + System.lineSeparator(),
+                    StandardOpenOption.CREATE, StandardOpenOption.APPEND);
+        } catch (IOException e) {
+            System.out.println("Falha ao gravar relatório de arranque: " + e.getMessage());
+        }
+    }
+}
@@ -0,0 +1,69 @@
+package org.manager.util;
+
+import javafx.animation.PauseTransition;
+import javafx.concurrent.Task;
+import javafx.concurrent.WorkerStateEvent;
+import javafx.geometry.Insets;
+import javafx.geometry.Pos;
+import javafx.scene.Scene;
+import javafx.scene.control.Button;
+import javafx.scene.control.Label;
+import javafx.scene.control.ProgressBar;
+import javafx.scene.layout.HBox;
+import javafx.scene.layout.VBox;
+import javafx.stage.Stage;
+import javafx.stage.StageStyle;
+import javafx.stage.Window;
+import javafx.util.Duration;
+
+/**
+ * 🔹 Janela pequena, não modal, com o progresso de uma Task e um botão para a cancelar.
+ * Fecha sozinha quando a tarefa termina; a tela de origem continua utilizável entretanto.
+ */
+public final class TaskProgressWindow {
+
+    // 🔹 Evita instanciar a classe
+    private TaskProgressWindow() {}
+
+    /** 🔹 Só abre a janela se a tarefa ainda estiver a correr ao fim de {@code delayMs} (FX thread) */
+    public static void showIfSlow(Window owner, String title, Task<?> task, long delayMs) {
+        PauseTransition delay = new PauseTransition(Duration.millis(delayMs));
+        delay.setOnFinished(event -> {
+            if (!task.isDone()) show(owner, title, task);
+        });
+        delay.play();
+    }
+
+    /** Chamar no FX thread, antes de pôr a tarefa a correr */
+    public static Stage show(Window owner, String title, Task<?> task) {
+        ProgressBar progress = new ProgressBar();
+        progress.setPrefWidth(320);
+        progress.progressProperty().bind(task.progressProperty());
+
+        Label status = new Label();
+        status.textProperty().bind(task.messageProperty());
+
+        Button cancel = new Button("Cancelar");
+        cancel.setOnAction(event -> task.cancel());
+
+        HBox actions = new HBox(cancel);
+        actions.setAlignment(Pos.CENTER_RIGHT);
+
+        VBox root = new VBox(10, status, progress, actions);
+        root.setPadding(new Insets(16));
+
+        Stage stage = new Stage(StageStyle.UTILITY);
+        stage.initOwner(owner);
+        stage.setTitle(title);
+        stage.setResizable(false);
+        stage.setScene(new Scene(root));
+        stage.setOnCloseRequest(event -> task.cancel());
+
+        task.addEventHandler(WorkerStateEvent.WORKER_STATE_SUCCEEDED, event -> stage.close());
+        task.addEventHandler(WorkerStateEvent.WORKER_STATE_FAILED, event -> stage.close());
+        task.addEventHandler(WorkerStateEvent.WORKER_STATE_CANCELLED, event -> stage.close());
+
+        stage.show();
+        return stage;
+    }
+}
@@ -0,0 +1,23 @@
+package org.manager.view;
+
+import javafx.scene.control.TableColumn;
+
+import java.util.function.Function;
+
+/**
+ * 🔹 Liga colunas de tabela a getters tipados, sem reflexão.
+ *
+ * Substitui o PropertyValueFactory("nome"): em vez de procurar o getter pelo nome em cada célula
+ * (e falhar em silêncio se o nome estiver errado), a coluna recebe uma referência ao método
+ * (ex.: ProductResponseDTO::getName), verificada pelo compilador contra os getters do Lombok.
+ * Cada célula devolve um valor fixo leve, sem criar uma property.
+ */
+public final class ColumnBinding {
+
+    // 🔹 Evita instanciar a classe
+    private ColumnBinding() {}
+
+    public static <T, V> void bind(TableColumn<T, V> column, Function<? super T, ? extends V> getter) {
+        column.setCellValueFactory(data -> new FixedValue<>(getter.apply(data.getValue())));
+    }
+}
@@ -0,0 +1,73 @@
+package org.manager.view;
+
+import javafx.beans.value.ObservableValue;
+import javafx.collections.ListChangeListener;
+import javafx.collections.ObservableList;
+import javafx.scene.control.TableColumn;
+
+import java.util.ArrayList;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+
+/**
+ * 🔹 Valores de exibição de uma tabela calculados uma vez por linha.
+ *
+ * Cada coluna registada tem uma função (formatar moeda, interpretar e formatar a data, ...) que é
+ * aplicada quando a linha entra na lista acompanhada. A TableView recebe sempre o mesmo valor já
+ * pronto, por isso rolar a tabela não formata nem aloca nada por célula.
+ * As linhas substituídas ou removidas da lista saem da cache. Usar a partir do FX thread.
+ */
+public class DisplayColumns<T> {
+
+    private final List<Function<? super T, ?>> values = new ArrayList<>();
+    private final Map<T, ObservableValue<?>[]> rows = new IdentityHashMap<>();
+
+    /** 🔹 Liga a coluna ao valor calculado por {@code value} (registar as colunas antes de {@link #track}) */
+    public <V> DisplayColumns<T> bind(TableColumn<T, V> column, Function<? super T, V> value) {
+        int index = values.size();
+        values.add(value);
+        column.setCellValueFactory(data -> cell(data.getValue(), index));
+        return this;
+    }
+
+    /** 🔹 Calcula as linhas da lista já existentes e as que forem chegando */
+    public DisplayColumns<T> track(ObservableList<T> source) {
+        rows.clear();
+        source.forEach(this::project);
+        source.addListener((ListChangeListener<T>) change -> {
+            while (change.next()) {
+                if (change.getAddedSize() == source.size()) {
+                    // Carregamento completo (setAll): descarta tudo o que estava calculado
+                    rows.clear();
+                } else {
+                    change.getRemoved().forEach(rows::remove);
+                }
+                change.getAddedSubList().forEach(this::project);
+            }
+        });
+        return this;
+    }
+
+    /** Volta a calcular uma linha cujo conteúdo mudou sem ser substituída na lista */
+    public void refresh(T row) {
+        if (rows.remove(row) != null) project(row);
+    }
+
+    @SuppressWarnings("unchecked")
+    private <V> ObservableValue<V> cell(T row, int index) {
+        ObservableValue<?>[] cells = rows.get(row);
+        if (cells == null || cells.length <= index) cells = project(row);
+        return (ObservableValue<V>) cells[index];
+    }
+
+    private ObservableValue<?>[] project(T row) {
+        ObservableValue<?>[] cells = new ObservableValue<?>[values.size()];
+        for (int i = 0; i < cells.length; i++) {
+            cells[i] = new FixedValue<>(values.get(i).apply(row));
+        }
+        rows.put(row, cells);
+        return cells;
+    }
+}
@@ -0,0 +1,32 @@
+package org.manager.view;
+
+import javafx.beans.InvalidationListener;
+import javafx.beans.value.ChangeListener;
+import javafx.beans.value.ObservableValue;
+
+/** Valor de célula que nunca muda: sem listeners nem estado além do próprio valor */
+final class FixedValue<V> implements ObservableValue<V> {
+
+    private final V value;
+
+    FixedValue(V value) {
+        this.value = value;
+    }
+
+    @Override
+    public V getValue() {
+        return value;
+    }
+
+    @Override
+    public void addListener(ChangeListener<? super V> listener) {}
+
+    @Override
+    public void removeListener(ChangeListener<? super V> listener) {}
+
+    @Override
+    public void addListener(InvalidationListener listener) {}
+
+    @Override
+    public void removeListener(InvalidationListener listener) {}
+}
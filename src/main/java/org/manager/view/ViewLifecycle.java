@@ -0,0 +1,15 @@
+package org.manager.view;
+
+/**
+ * 🔹 Ciclo de vida de uma tela guardada no {@link ViewRegistry}.
+ * Com a cache, o initialize() só corre na primeira vez; as visitas seguintes chamam {@link #onShow()}
+ * para a tela atualizar o que precisar em vez de recarregar tudo.
+ */
+public interface ViewLifecycle {
+
+    /** Chamado no FX thread quando a tela volta a ser mostrada a partir da cache */
+    default void onShow() {}
+
+    /** Chamado no FX thread quando outra tela passa a ser mostrada */
+    default void onHide() {}
+}
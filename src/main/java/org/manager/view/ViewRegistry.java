@@ -0,0 +1,296 @@
+package org.manager.view;
+
+import javafx.application.Platform;
+import javafx.fxml.FXMLLoader;
+import javafx.scene.Node;
+import javafx.scene.Parent;
+import javafx.scene.layout.Pane;
+import org.manager.store.LocalStores;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.net.URL;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Properties;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * 🔹 Cache das telas carregadas no contentor principal.
+ *
+ * Cada FXML é carregado uma vez; ao navegar, a tela anterior fica escondida no mesmo contentor
+ * (invisível e fora do layout) e a nova é mostrada, sem voltar a ler o FXML nem a correr o
+ * initialize(). As telas em cache continuam ligadas à cena, por isso as notificações do servidor
+ * continuam a atualizá-las, e as atualizações periódicas ficam em pausa enquanto escondidas.
+ *
+ * Guarda no máximo manager.views.cacheSize telas (LRU); as de manager.views.noCache (formulários de
+ * registo) são sempre recarregadas. A tela que sai da cache é removida do
+ * contentor, o que cancela sozinho os seus jobs e subscrições.
+ *
+ * Depois do login, as telas mais usadas (contagem guardada em views.properties) são pré-carregadas:
+ * o FXML é lido numa thread em segundo plano e a tela é construída no FX thread, uma de cada vez.
+ */
+public class ViewRegistry {
+
+    private static final int CAPACITY = Math.max(1, Integer.getInteger("manager.views.cacheSize", 6));
+    private static final boolean WARM_UP =
+            Boolean.parseBoolean(System.getProperty("manager.views.warmup", "true"));
+    private static final int WARM_COUNT = Integer.getInteger("manager.views.warmCount", 3);
+    // Formulários de registo: abrem sempre vazios
+    private static final Set<String> NO_CACHE = Set.of(System.getProperty("manager.views.noCache",
+            "/fxml/Order.fxml,/fxml/UserRegister.fxml").split("\\s*,\\s*"));
+    private static final String SHOWN = ViewRegistry.class.getName() + ".shown";
+    private static final List<String> DEFAULT_WARM = List.of("/fxml/Product.fxml", "/fxml/Stock.fxml", "/fxml/Sale.fxml");
+
+    // Uma thread para o pré-carregamento e para gravar as estatísticas de uso
+    private static final ExecutorService BACKGROUND = Executors.newSingleThreadExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "view-warmup");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    private final Pane container;
+    private final Path usageFile = LocalStores.baseDir().resolve("views.properties");
+
+    // Acedidos apenas no FX thread
+    private final LinkedHashMap<String, LoadedView> cache = new LinkedHashMap<>(16, 0.75f, true);
+    private final Map<String, CompletableFuture<LoadedView>> warming = new HashMap<>();
+    private final Map<String, Integer> usage = new HashMap<>();
+    private LoadedView current;
+    private String requested; // última tela pedida (uma tela pré-carregada só aparece se ainda for esta)
+    private Map<String, Integer> storedUsage; // só na thread de segundo plano
+    private int hits;
+    private int misses;
+
+    public ViewRegistry(Pane container) {
+        this.container = container;
+    }
+
+    /** Tela carregada: a raiz e o controller do FXML */
+    public record LoadedView(String path, Parent root, Object controller) {}
+
+    // ================= NAVEGAÇÃO =================
+    /** 🔹 Mostra a tela (da cache se possível). Chamar no FX thread. */
+    public void show(String fxmlPath) throws IOException {
+        requested = fxmlPath;
+        if (NO_CACHE.contains(fxmlPath)) discard(fxmlPath);
+        LoadedView view = cache.get(fxmlPath);
+        if (view == null) {
+            CompletableFuture<LoadedView> pending = warming.get(fxmlPath);
+            if (pending != null) {
+                // Está a ser pré-carregada: mostra assim que estiver pronta, se entretanto não se pediu outra
+                pending.whenComplete((loaded, ex) -> Platform.runLater(() -> showAfterWarmUp(fxmlPath)));
+                return;
+            }
+            misses++;
+            view = load(fxmlPath, null);
+            put(view);
+        } else {
+            hits++;
+        }
+        activate(view, view.root().getProperties().containsKey(SHOWN));
+        countUsage(fxmlPath);
+    }
+
+    private void showAfterWarmUp(String fxmlPath) {
+        if (!fxmlPath.equals(requested)) return;
+        try {
+            show(fxmlPath);
+        } catch (IOException e) {
+            e.printStackTrace();
+        }
+    }
+
+    private void activate(LoadedView view, boolean fromCache) {
+        if (view == current) return;
+
+        // Remove o conteúdo inicial do contentor (ex.: o ecrã de boas-vindas do Main.fxml)
+        container.getChildren().removeIf(node -> !isCachedRoot(node));
+
+        if (current != null) {
+            hide(current.root());
+            if (current.controller() instanceof ViewLifecycle lifecycle) lifecycle.onHide();
+        }
+
+        current = view;
+        Parent root = view.root();
+        root.setManaged(true);
+        root.setVisible(true);
+        root.toFront();
+        root.getProperties().put(SHOWN, Boolean.TRUE);
+
+        if (fromCache && view.controller() instanceof ViewLifecycle lifecycle) lifecycle.onShow();
+    }
+
+    private static void hide(Node root) {
+        root.setVisible(false);
+        root.setManaged(false);
+    }
+
+    private boolean isCachedRoot(Node node) {
+        for (LoadedView view : cache.values()) {
+            if (view.root() == node) return true;
+        }
+        return false;
+    }
+
+    private void put(LoadedView view) {
+        hide(view.root());
+        cache.put(view.path(), view);
+        container.getChildren().add(view.root());
+        evict();
+    }
+
+    private void discard(String fxmlPath) {
+        LoadedView view = cache.get(fxmlPath);
+        if (view == null || view == current) return;
+        cache.remove(fxmlPath);
+        container.getChildren().remove(view.root());
+    }
+
+    /** Tira da cache as telas menos usadas recentemente (nunca a que está a ser mostrada) */
+    private void evict() {
+        Iterator<Map.Entry<String, LoadedView>> it = cache.entrySet().iterator();
+        while (cache.size() > CAPACITY && it.hasNext()) {
+            LoadedView eldest = it.next().getValue();
+            if (eldest == current) continue;
+            it.remove();
+            container.getChildren().remove(eldest.root()); // cancela jobs e subscrições da tela
+        }
+    }
+
+    /** Constrói a tela (FXMLLoader + initialize() do controller); só no FX thread */
+    private LoadedView load(String fxmlPath, byte[] fxml) throws IOException {
+        FXMLLoader loader = new FXMLLoader(resource(fxmlPath));
+        Parent root = fxml != null ? loader.load(new ByteArrayInputStream(fxml)) : loader.load();
+        return new LoadedView(fxmlPath, root, loader.getController());
+    }
+
+    private static URL resource(String fxmlPath) throws IOException {
+        URL resource = ViewRegistry.class.getResource(fxmlPath);
+        if (resource == null) throw new IOException("FXML não encontrado: " + fxmlPath);
+        return resource;
+    }
+
+    // ================= PRÉ-CARREGAMENTO =================
+    /**
+     * 🔹 Pré-carrega as telas mais usadas (ou as predefinidas na primeira execução).
+     * Em segundo plano só se leem os bytes do FXML: o FXMLLoader e o initialize() dos controllers
+     * (que subscrevem notificações e registam atualizações periódicas) correm no FX thread, cada tela
+     * na sua própria chamada a Platform.runLater para não bloquear a interface de uma só vez.
+     */
+    public void warmUp() {
+        if (!WARM_UP) return;
+        CompletableFuture.supplyAsync(this::mostUsed, BACKGROUND)
+                .thenAccept(paths -> Platform.runLater(() -> paths.forEach(this::warm)));
+    }
+
+    private void warm(String fxmlPath) {
+        if (cache.containsKey(fxmlPath) || warming.containsKey(fxmlPath) || cache.size() >= CAPACITY) return;
+
+        long start = System.nanoTime();
+        CompletableFuture<LoadedView> future = new CompletableFuture<>();
+        warming.put(fxmlPath, future);
+
+        CompletableFuture.supplyAsync(() -> readFxml(fxmlPath), BACKGROUND)
+                .whenComplete((fxml, ex) -> Platform.runLater(() -> {
+                    warming.remove(fxmlPath);
+                    if (cache.containsKey(fxmlPath)) {
+                        future.complete(cache.get(fxmlPath));
+                        return;
+                    }
+                    try {
+                        if (ex != null) throw ex;
+                        LoadedView view = load(fxmlPath, fxml);
+                        put(view);
+                        future.complete(view);
+                        System.out.println("Tela pré-carregada: " + fxmlPath + " em " + (System.nanoTime() - start) / 1_000_000 + " ms");
+                    } catch (Throwable e) {
+                        System.out.println("Pré-carregamento de " + fxmlPath + " falhou: " + e.getMessage());
+                        future.completeExceptionally(e);
+                    }
+                }));
+    }
+
+    /** Só a leitura do FXML (jar / disco); corre na thread de segundo plano */
+    private static byte[] readFxml(String fxmlPath) {
+        try (InputStream in = resource(fxmlPath).openStream()) {
+            return in.readAllBytes();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    /** Telas ordenadas pelo número de visitas (corre na thread de segundo plano) */
+    private List<String> mostUsed() {
+        Map<String, Integer> counts = storedUsage();
+        if (counts.isEmpty()) return DEFAULT_WARM;
+
+        List<String> paths = new ArrayList<>(counts.keySet());
+        paths.sort(Comparator.comparing(counts::get, Comparator.reverseOrder()));
+        return paths.subList(0, Math.min(WARM_COUNT, paths.size()));
+    }
+
+    private void countUsage(String fxmlPath) {
+        usage.merge(fxmlPath, 1, Integer::sum);
+        Map<String, Integer> session = new HashMap<>(usage);
+        BACKGROUND.execute(() -> saveUsage(session));
+    }
+
+    /** Visitas de sessões anteriores (lidas uma vez, só na thread de segundo plano) */
+    private Map<String, Integer> storedUsage() {
+        if (storedUsage == null) {
+            storedUsage = new HashMap<>();
+            if (Files.exists(usageFile)) {
+                Properties stored = new Properties();
+                try (InputStream in = Files.newInputStream(usageFile)) {
+                    stored.load(in);
+                    stored.stringPropertyNames().forEach(path -> storedUsage.put(path, parseCount(stored.getProperty(path))));
+                } catch (IOException e) {
+                    System.out.println("Estatísticas de telas ignoradas: " + e.getMessage());
+                }
+            }
+        }
+        return storedUsage;
+    }
+
+    private void saveUsage(Map<String, Integer> session) {
+        Properties merged = new Properties();
+        storedUsage().forEach((path, count) -> merged.setProperty(path, String.valueOf(count)));
+        session.forEach((path, count) ->
+                merged.setProperty(path, String.valueOf(storedUsage().getOrDefault(path, 0) + count)));
+        try {
+            Files.createDirectories(usageFile.getParent());
+            try (OutputStream out = Files.newOutputStream(usageFile)) {
+                merged.store(out, "Visitas por tela");
+            }
+        } catch (IOException e) {
+            System.out.println("Falha ao gravar estatísticas de telas: " + e.getMessage());
+        }
+    }
+
+    private static int parseCount(String value) {
+        try {
+            return value != null ? Integer.parseInt(value.trim()) : 0;
+        } catch (NumberFormatException e) {
+            return 0;
+        }
+    }
+
+    public String summary() {
+        return "Telas em cache: " + cache.size() + "/" + CAPACITY + " acertos=" + hits + " carregamentos=" + misses;
+    }
+}
@@ -0,0 +1,159 @@
+package org.manager.search;
+
+import javafx.collections.ListChangeListener;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.manager.dto.MovementResponseDTO;
+import org.manager.sync.DeltaSync;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class MovementColumnStoreTest {
+
+    private static final LocalDateTime DAY = LocalDateTime.of(2026, 3, 1, 9, 0);
+
+    private MovementColumnStore store;
+
+    @BeforeEach
+    void setUp() {
+        store = new MovementColumnStore();
+        store.setAll(List.of(
+                movement(1, "Entrada", "Parafusos M6", "ana", 30, DAY),
+                movement(2, "Saída", "Porcas M6", "rui", 10, DAY.plusDays(1)),
+                movement(3, "Entrada", "Anilhas", "rui", 20, DAY.plusDays(2)),
+                movement(4, "Transferência", "Parafusos M8", "ana", 5, DAY.plusDays(3)),
+                movement(5, "Saída", "Buchas", "ana", 40, DAY.plusDays(4)),
+                movement(6, "Devolução", "Pregos", "rui", 15, DAY.plusDays(5)),
+                movement(7, "Entrada", "Cola", "ana", 25, DAY.plusDays(6)),
+                movement(8, "Saída", "Fita", "rui", 35, DAY.plusDays(7))));
+    }
+
+    // ================= PESQUISA =================
+    @Test
+    void filterMatchesDictionaryColumnsAndDescription() {
+        store.filter("entrada");
+        assertArrayEquals(new long[]{1, 3, 7}, store.visibleIds());
+
+        store.filter("PARAFUSOS");
+        assertArrayEquals(new long[]{1, 4}, store.visibleIds());
+
+        store.filter("rui");
+        assertArrayEquals(new long[]{2, 3, 6, 8}, store.visibleIds());
+
+        store.filter("");
+        assertEquals(8, store.rows().size());
+    }
+
+    @Test
+    void dateRangeCombinesWithTheFilterAndCanBeCleared() {
+        store.setDateRange(DAY.plusDays(1), DAY.plusDays(5));
+        assertTrue(store.hasDateRange());
+        assertArrayEquals(new long[]{2, 3, 4, 5, 6}, store.visibleIds());
+
+        store.filter("saída");
+        assertArrayEquals(new long[]{2, 5}, store.visibleIds());
+
+        store.setDateRange(null, null);
+        assertFalse(store.hasDateRange());
+        assertArrayEquals(new long[]{2, 5, 8}, store.visibleIds());
+    }
+
+    @Test
+    void updatesFollowTheFilter() {
+        store.filter("entrada");
+
+        // 3 deixa de ser entrada, 9 é uma entrada nova (vai para o fim), 7 é apagado
+        store.apply(new DeltaSync.Changes<>(
+                List.of(movement(3, "Saída", "Anilhas", "rui", 20, DAY.plusDays(2)),
+                        movement(9, "Entrada", "Silicone", "ana", 12, DAY.plusDays(8))),
+                List.of(7L)));
+
+        assertArrayEquals(new long[]{1, 9}, store.visibleIds());
+        assertEquals(8, store.size());
+    }
+
+    // ================= COMPACTAÇÃO =================
+    @Test
+    void filterCompactsAfterEnoughRemovals() {
+        MovementColumnStore.Row before = store.rows().get(0);
+        store.remove(2L);
+        store.remove(5L);
+
+        // 2 removidos em 8 slots: a próxima pesquisa compacta
+        store.filter("");
+
+        assertEquals(6, store.size());
+        assertArrayEquals(new long[]{1, 3, 4, 6, 7, 8}, store.visibleIds());
+        assertNotEquals(before, store.rows().get(0), "depois de compactar as linhas são de outra geração");
+        assertEquals("Parafusos M6", before.getDescription(), "uma linha antiga continua a ler pelo id");
+
+        // O mapa id → slot e o índice temporal foram reconstruídos
+        store.apply(new DeltaSync.Changes<>(List.of(movement(8, "Saída", "Fita larga", "rui", 36, DAY.plusDays(7))), List.of()));
+        assertEquals("Fita larga", store.rows().get(5).getDescription());
+        store.setDateRange(DAY.plusDays(5), DAY.plusDays(7));
+        assertArrayEquals(new long[]{6, 7, 8}, store.visibleIds());
+        assertEquals(3, store.materialize(new long[]{1, 2, 8, 6}, 0, 4).size());
+    }
+
+    // ================= ORDENAÇÃO =================
+    @Test
+    void sortEmitsAPermutationThatFollowsTheRows() {
+        long[] before = store.visibleIds();
+        List<int[]> permutations = new ArrayList<>();
+        store.rows().addListener((ListChangeListener<MovementColumnStore.Row>) change -> {
+            while (change.next()) {
+                assertTrue(change.wasPermutated());
+                int[] permutation = new int[change.getTo() - change.getFrom()];
+                for (int i = change.getFrom(); i < change.getTo(); i++) permutation[i] = change.getPermutation(i);
+                permutations.add(permutation);
+            }
+        });
+
+        store.sort(Comparator.comparing(MovementColumnStore.Row::getQuantity));
+
+        assertArrayEquals(new long[]{4, 2, 6, 3, 7, 1, 8, 5}, store.visibleIds());
+        assertEquals(1, permutations.size());
+        int[] permutation = permutations.getFirst();
+        for (int i = 0; i < before.length; i++) {
+            assertEquals(before[i], store.rows().get(permutation[i]).getId());
+        }
+
+        store.sort(null);
+        assertArrayEquals(before, store.visibleIds());
+    }
+
+    @Test
+    void sortOrderIsKeptAcrossSearches() {
+        store.sort(Comparator.comparing(MovementColumnStore.Row::getQuantity).reversed());
+
+        store.filter("ana");
+
+        assertArrayEquals(new long[]{5, 1, 7, 4}, store.visibleIds());
+        assertNotNull(store.rows().get(0).toDto());
+    }
+
+    private static MovementResponseDTO movement(long id, String type, String description, String username,
+                                                int quantity, LocalDateTime date) {
+        return MovementResponseDTO.builder()
+                .id(id)
+                .type(type)
+                .origin("Sistema")
+                .status("Concluído")
+                .description(description)
+                .username(username)
+                .quantity(quantity)
+                .date(date)
+                .updatedAt(date)
+                .build();
+    }
+}
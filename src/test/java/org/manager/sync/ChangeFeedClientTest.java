@@ -0,0 +1,111 @@
+package org.manager.sync;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.manager.session.SessionManager;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.function.BooleanSupplier;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class ChangeFeedClientTest {
+
+    // A primeira religação espera ~1 s (backoff mínimo com jitter)
+    private static final Duration TIMEOUT = Duration.ofSeconds(10);
+
+    record Row(Long id, String name) {}
+
+    private StubWebSocketServer server;
+    private ChangeFeedClient client;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        server = new StubWebSocketServer();
+        // Entrega síncrona no lugar do FX thread
+        client = new ChangeFeedClient(server.url(), Runnable::run);
+        SessionManager.setToken("token-teste");
+        SessionManager.setCurrentCompanyId(7L);
+    }
+
+    @AfterEach
+    void tearDown() throws Exception {
+        server.close();
+        SessionManager.setToken(null);
+        SessionManager.setCurrentCompanyId(null);
+    }
+
+    @Test
+    void reconnectsAndResyncsAfterTheServerDropsTheConnection() throws Exception {
+        BlockingQueue<DeltaSync.Changes<Row>> received = new LinkedBlockingQueue<>();
+        CountDownLatch resynced = new CountDownLatch(1);
+        ChangeFeedClient.Subscription<Row> subscription =
+                client.subscribe("stock", Row.class, Row::id, received::add).onResync(resynced::countDown);
+
+        StubWebSocketServer.Connection first = server.awaitConnection(TIMEOUT);
+        assertEquals("Bearer token-teste", first.header("Authorization"));
+        assertEquals("/ws/changes?companyId=7", first.target());
+        awaitTrue(client::isConnected);
+
+        first.sendText("{\"entity\":\"STOCK\",\"op\":\"UPSERT\",\"id\":1,\"data\":{\"id\":1,\"name\":\"Caneta\"}}");
+        assertEquals(List.of(new Row(1L, "Caneta")), next(received).upserts());
+
+        first.drop();
+
+        // Volta a ligar sozinho e avisa a tela de que pode ter perdido eventos
+        StubWebSocketServer.Connection second = server.awaitConnection(TIMEOUT);
+        assertTrue(resynced.await(TIMEOUT.toMillis(), TimeUnit.MILLISECONDS));
+        assertEquals("Bearer token-teste", second.header("Authorization"));
+
+        // A subscrição continua ativa na nova ligação
+        second.sendText("[{\"entity\":\"STOCK\",\"op\":\"DELETE\",\"id\":1}]");
+        assertEquals(List.of(1L), next(received).removedIds());
+
+        subscription.cancel();
+    }
+
+    @Test
+    void closesTheSocketWhenTheLastSubscriptionIsCancelled() throws Exception {
+        ChangeFeedClient.Subscription<Row> stock = client.subscribe("STOCK", Row.class, Row::id, changes -> {});
+        ChangeFeedClient.Subscription<Row> sales = client.subscribe("SALE", Row.class, Row::id, changes -> {});
+
+        StubWebSocketServer.Connection connection = server.awaitConnection(TIMEOUT);
+        awaitTrue(client::isConnected);
+
+        stock.cancel();
+        assertTrue(client.isConnected());
+
+        sales.cancel();
+        assertFalse(client.isConnected());
+        assertTrue(connection.awaitClientClose(TIMEOUT));
+
+        // Uma nova subscrição volta a abrir a ligação
+        ChangeFeedClient.Subscription<Row> again = client.subscribe("STOCK", Row.class, Row::id, changes -> {});
+        server.awaitConnection(TIMEOUT);
+        awaitTrue(client::isConnected);
+        again.cancel();
+    }
+
+    private static <T> T next(BlockingQueue<T> queue) throws InterruptedException {
+        T value = queue.poll(TIMEOUT.toMillis(), TimeUnit.MILLISECONDS);
+        assertNotNull(value, "Nenhuma alteração entregue em " + TIMEOUT);
+        return value;
+    }
+
+    private static void awaitTrue(BooleanSupplier condition) throws InterruptedException {
+        long deadline = System.nanoTime() + TIMEOUT.toNanos();
+        while (!condition.getAsBoolean()) {
+            if (System.nanoTime() > deadline) throw new AssertionError("Condição não verificada em " + TIMEOUT);
+            Thread.sleep(20);
+        }
+    }
+}
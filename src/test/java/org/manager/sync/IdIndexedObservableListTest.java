@@ -0,0 +1,113 @@
+package org.manager.sync;
+
+import javafx.collections.ListChangeListener;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+
+class IdIndexedObservableListTest {
+
+    private static final LocalDateTime V1 = LocalDateTime.of(2026, 1, 1, 10, 0);
+    private static final LocalDateTime V2 = V1.plusMinutes(5);
+
+    record Row(Long id, String name, LocalDateTime updatedAt) {}
+
+    private IdIndexedObservableList<Row> list;
+    private int notifications;
+
+    @BeforeEach
+    void setUp() {
+        list = new IdIndexedObservableList<>(Row::id, Row::updatedAt);
+        list.addListener((ListChangeListener<Row>) change -> notifications++);
+    }
+
+    @Test
+    void removesReplacesInPlaceAndInsertsNewRowsAtTheTop() {
+        Row three = row(3, V1);
+        Row two = row(2, V1);
+        list.setAll(three, two, row(1, V1));
+        notifications = 0;
+
+        // Lista "mais recentes primeiro": 5 e 4 são novas, 3 mudou, 2 igual, 1 foi apagada
+        Row threeChanged = row(3, V2);
+        list.merge(List.of(row(5, V1), row(4, V1), threeChanged, row(2, V1)));
+
+        assertEquals(List.of(5L, 4L, 3L, 2L), ids());
+        assertSame(threeChanged, list.get(2));
+        assertSame(two, list.get(3), "uma linha sem alterações mantém a mesma instância");
+        assertEquals(1, notifications, "um merge é uma única notificação");
+    }
+
+    @Test
+    void insertsNewRowsBetweenTheirNeighbours() {
+        list.setAll(row(1, V1), row(4, V1), row(6, V1));
+
+        list.merge(List.of(row(1, V1), row(2, V1), row(3, V1), row(4, V1), row(5, V1), row(6, V1), row(7, V1)));
+
+        assertEquals(List.of(1L, 2L, 3L, 4L, 5L, 6L, 7L), ids());
+    }
+
+    @Test
+    void anUnchangedSnapshotFiresNothing() {
+        Row one = row(1, V1);
+        list.setAll(one, row(2, V1));
+        notifications = 0;
+
+        list.merge(List.of(row(1, V1), row(2, V1)));
+
+        assertEquals(0, notifications);
+        assertSame(one, list.get(0));
+    }
+
+    @Test
+    void theFirstMergeLoadsTheSnapshotAsIs() {
+        list.merge(List.of(row(9, V1), row(8, V1)));
+
+        assertEquals(List.of(9L, 8L), ids());
+        assertEquals(1, notifications);
+    }
+
+    @Test
+    void indexOfIdFollowsTheRowsAfterAMerge() {
+        list.setAll(row(10, V1), row(20, V1), row(30, V1), row(40, V1));
+
+        list.merge(List.of(row(5, V1), row(10, V2), row(15, V1), row(30, V1), row(40, V1), row(45, V1)));
+
+        List<Long> expected = List.of(5L, 10L, 15L, 30L, 40L, 45L);
+        assertEquals(expected, ids());
+        for (int i = 0; i < expected.size(); i++) {
+            assertEquals(i, list.indexOfId(expected.get(i)));
+            assertSame(list.get(i), list.findById(expected.get(i)));
+        }
+        assertEquals(-1, list.indexOfId(20L));
+        assertNull(list.findById(20L));
+    }
+
+    @Test
+    void repeatedIdsKeepTheFirstPositionWithTheLastVersion() {
+        list.setAll(row(1, V1));
+
+        Row latest = row(2, V2);
+        list.merge(List.of(row(2, V1), row(1, V1), latest));
+
+        assertEquals(List.of(2L, 1L), ids());
+        assertSame(latest, list.get(0));
+    }
+
+    private static Row row(long id, LocalDateTime updatedAt) {
+        return new Row(id, "Linha " + id, updatedAt);
+    }
+
+    private List<Long> ids() {
+        List<Long> ids = new ArrayList<>();
+        list.forEach(row -> ids.add(row.id()));
+        return ids;
+    }
+}
@@ -0,0 +1,210 @@
+package org.manager.sync;
+
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetAddress;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.net.SocketException;
+import java.net.SocketTimeoutException;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
+import java.util.Base64;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 🔹 Servidor WebSocket mínimo (RFC 6455) para os testes do feed de alterações.
+ * Aceita ligações em 127.0.0.1, responde ao handshake e deixa o teste enviar frames de texto,
+ * cortar a ligação e esperar pelo fecho do lado do cliente.
+ */
+final class StubWebSocketServer implements AutoCloseable {
+
+    private static final String HANDSHAKE_GUID = "258EAFA5-E914-47DA-95CA-C5AB0DC85B11";
+    private static final int OPCODE_TEXT = 0x1;
+    private static final int OPCODE_CLOSE = 0x8;
+
+    private final ServerSocket server;
+    private final BlockingQueue<Connection> accepted = new LinkedBlockingQueue<>();
+    private final List<Connection> connections = new CopyOnWriteArrayList<>();
+
+    StubWebSocketServer() throws IOException {
+        server = new ServerSocket(0, 50, InetAddress.getLoopbackAddress());
+        Thread acceptor = new Thread(this::acceptLoop, "stub-websocket");
+        acceptor.setDaemon(true);
+        acceptor.start();
+    }
+
+    String url() {
+        return "ws://127.0.0.1:" + server.getLocalPort() + "/ws/changes";
+    }
+
+    /** Próxima ligação aceite (já com o handshake respondido) */
+    Connection awaitConnection(Duration timeout) throws InterruptedException {
+        Connection connection = accepted.poll(timeout.toMillis(), TimeUnit.MILLISECONDS);
+        if (connection == null) throw new AssertionError("Nenhuma ligação WebSocket em " + timeout);
+        return connection;
+    }
+
+    @Override
+    public void close() throws IOException {
+        server.close();
+        for (Connection connection : connections) connection.drop();
+    }
+
+    private void acceptLoop() {
+        while (!server.isClosed()) {
+            Socket socket;
+            try {
+                socket = server.accept();
+            } catch (IOException e) {
+                return; // servidor fechado
+            }
+            try {
+                Connection connection = Connection.handshake(socket);
+                connections.add(connection);
+                accepted.add(connection);
+            } catch (IOException e) {
+                closeQuietly(socket);
+            }
+        }
+    }
+
+    private static void closeQuietly(Socket socket) {
+        try {
+            socket.close();
+        } catch (IOException ignored) {
+        }
+    }
+
+    // ================= LIGAÇÃO =================
+    static final class Connection {
+
+        private final Socket socket;
+        private final DataInputStream in;
+        private final OutputStream out;
+        private final String target;
+        private final Map<String, String> headers;
+
+        private Connection(Socket socket, String target, Map<String, String> headers) throws IOException {
+            this.socket = socket;
+            this.in = new DataInputStream(socket.getInputStream());
+            this.out = socket.getOutputStream();
+            this.target = target;
+            this.headers = headers;
+        }
+
+        static Connection handshake(Socket socket) throws IOException {
+            String[] lines = readRequestHead(socket).split("\r\n");
+            String target = lines[0].split(" ")[1];
+            Map<String, String> headers = new HashMap<>();
+            for (int i = 1; i < lines.length; i++) {
+                int colon = lines[i].indexOf(':');
+                if (colon > 0) {
+                    headers.put(lines[i].substring(0, colon).trim().toLowerCase(Locale.ROOT), lines[i].substring(colon + 1).trim());
+                }
+            }
+
+            String response = "HTTP/1.1 101 Switching Protocols\r\n"
+                    + "Upgrade: websocket\r\n"
+                    + "Connection: Upgrade\r\n"
+                    + "Sec-WebSocket-Accept: " + acceptKey(headers.get("sec-websocket-key")) + "\r\n\r\n";
+            socket.getOutputStream().write(response.getBytes(StandardCharsets.ISO_8859_1));
+            socket.getOutputStream().flush();
+            return new Connection(socket, target, headers);
+        }
+
+        /** Caminho e query do pedido de abertura, ex.: /ws/changes?companyId=7 */
+        String target() {
+            return target;
+        }
+
+        String header(String name) {
+            return headers.get(name.toLowerCase(Locale.ROOT));
+        }
+
+        /** Envia um frame de texto (do servidor: sem máscara) */
+        synchronized void sendText(String text) throws IOException {
+            byte[] payload = text.getBytes(StandardCharsets.UTF_8);
+            out.write(0x80 | OPCODE_TEXT);
+            if (payload.length < 126) {
+                out.write(payload.length);
+            } else if (payload.length < 65_536) {
+                out.write(126);
+                out.write(payload.length >>> 8);
+                out.write(payload.length);
+            } else {
+                out.write(127);
+                for (int shift = 56; shift >= 0; shift -= 8) out.write((int) ((long) payload.length >>> shift));
+            }
+            out.write(payload);
+            out.flush();
+        }
+
+        /** Corta a ligação sem frame de fecho, como uma queda de rede ou um restart do servidor */
+        void drop() {
+            closeQuietly(socket);
+        }
+
+        /** true quando o cliente envia um frame de fecho ou fecha o socket dentro do prazo */
+        boolean awaitClientClose(Duration timeout) throws IOException {
+            socket.setSoTimeout((int) timeout.toMillis());
+            try {
+                while (true) {
+                    if (readFrameOpcode() == OPCODE_CLOSE) return true;
+                }
+            } catch (EOFException e) {
+                return true;
+            } catch (SocketTimeoutException e) {
+                return false;
+            } catch (SocketException e) {
+                return true; // ligação fechada com reset
+            }
+        }
+
+        /** Lê um frame do cliente (sempre com máscara) e devolve o opcode; o conteúdo é descartado */
+        private int readFrameOpcode() throws IOException {
+            int first = in.readUnsignedByte();
+            int second = in.readUnsignedByte();
+            long length = second & 0x7F;
+            if (length == 126) length = in.readUnsignedShort();
+            else if (length == 127) length = in.readLong();
+            if ((second & 0x80) != 0) in.readFully(new byte[4]);
+            in.readFully(new byte[(int) length]);
+            return first & 0x0F;
+        }
+
+        private static String readRequestHead(Socket socket) throws IOException {
+            ByteArrayOutputStream head = new ByteArrayOutputStream();
+            int matched = 0;
+            while (matched < 4) {
+                int b = socket.getInputStream().read();
+                if (b < 0) throw new EOFException("Pedido de abertura incompleto");
+                head.write(b);
+                matched = (b == (matched % 2 == 0 ? '\r' : '\n')) ? matched + 1 : (b == '\r' ? 1 : 0);
+            }
+            return head.toString(StandardCharsets.ISO_8859_1);
+        }
+
+        private static String acceptKey(String key) {
+            try {
+                byte[] digest = MessageDigest.getInstance("SHA-1")
+                        .digest((key + HANDSHAKE_GUID).getBytes(StandardCharsets.ISO_8859_1));
+                return Base64.getEncoder().encodeToString(digest);
+            } catch (NoSuchAlgorithmException e) {
+                throw new IllegalStateException(e);
+            }
+        }
+    }
+}